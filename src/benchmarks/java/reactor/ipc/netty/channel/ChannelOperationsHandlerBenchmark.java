@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.ipc.netty.channel;
+
+import java.util.concurrent.TimeUnit;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.ReferenceCountUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+import reactor.ipc.netty.FlushStrategy;
+
+/**
+ * Measure the {@link ChannelOperationsHandler} publisher drain loop in memory, writing
+ * a {@link Flux} of buffers to an {@link EmbeddedChannel} and discarding the outbound
+ * messages.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChannelOperationsHandlerBenchmark {
+
+	@Param({"1", "64", "1024"})
+	int messages;
+
+	@Param({"64", "8192"})
+	int messageSize;
+
+	/**
+	 * Coalesce flushes every given number of messages, 0 flushing on boundary only.
+	 */
+	@Param({"0", "16"})
+	int flushEvery;
+
+	EmbeddedChannel channel;
+	Flux<ByteBuf>   source;
+
+	@Setup
+	public void setup() {
+		ChannelOperationsHandler handler = new ChannelOperationsHandler(null);
+		if (flushEvery > 0) {
+			handler.flushOn(FlushStrategy.builder()
+			                             .maxMessages(flushEvery)
+			                             .build());
+		}
+		channel = new EmbeddedChannel(handler);
+		byte[] payload = new byte[messageSize];
+		source = Flux.range(0, messages)
+		             .map(i -> ByteBufAllocator.DEFAULT.buffer(messageSize)
+		                                               .writeBytes(payload));
+	}
+
+	@TearDown
+	public void tearDown() {
+		channel.finishAndReleaseAll();
+	}
+
+	@Benchmark
+	public boolean writePublisher() {
+		boolean done = channel.writeAndFlush(source)
+		                      .isDone();
+		Object msg;
+		while ((msg = channel.readOutbound()) != null) {
+			ReferenceCountUtil.release(msg);
+		}
+		return done;
+	}
+}
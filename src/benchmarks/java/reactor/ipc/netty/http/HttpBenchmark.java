@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.ipc.netty.http;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.http.client.HttpClient;
+import reactor.ipc.netty.http.server.HttpServer;
+import reactor.ipc.netty.resources.PoolResources;
+import reactor.ipc.netty.tcp.BlockingNettyContext;
+
+/**
+ * Measure GET and POST exchanges between an {@link HttpClient} and an
+ * {@link HttpServer} over loopback, reusing keep-alive connections from a fixed pool.
+ * Run with several threads to measure concurrent requests.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HttpBenchmark {
+
+	@Param({"16", "16384"})
+	int bodySize;
+
+	BlockingNettyContext server;
+	PoolResources        pool;
+	HttpClient           client;
+	String               body;
+
+	@Setup
+	public void setup() {
+		StringBuilder sb = new StringBuilder(bodySize);
+		for (int i = 0; i < bodySize; i++) {
+			sb.append('a');
+		}
+		body = sb.toString();
+
+		server = HttpServer.create(0)
+		                   .startRouter(r -> r.get("/get",
+				                   (req, res) -> res.sendString(Mono.just(body)))
+		                                      .post("/post",
+				                                      (req, res) -> res.send(req.receive()
+				                                                                .retain())));
+		pool = PoolResources.fixed("benchmark", 64);
+		client = HttpClient.create(o -> o.port(server.getPort())
+		                                 .poolResources(pool));
+	}
+
+	@TearDown
+	public void tearDown() {
+		pool.dispose();
+		server.shutdown();
+	}
+
+	@Benchmark
+	public String get() {
+		return client.get("/get")
+		             .flatMap(res -> res.receive()
+		                                .aggregate()
+		                                .asString())
+		             .block(Duration.ofSeconds(10));
+	}
+
+	@Benchmark
+	public String post() {
+		return client.post("/post", req -> req.sendString(Mono.just(body)))
+		             .flatMap(res -> res.receive()
+		                                .aggregate()
+		                                .asString())
+		             .block(Duration.ofSeconds(10));
+	}
+}
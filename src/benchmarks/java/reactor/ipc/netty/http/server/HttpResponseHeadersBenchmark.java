@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.ipc.netty.http.server;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.DateFormatter;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpResponseEncoder;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.ipc.netty.http.PreEncodedHeaders;
+
+/**
+ * Compare encoding a response whose common headers are formatted per response with
+ * the same response using {@link PreEncodedHeaders}. Run with the GC profiler to compare
+ * the allocation rate per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HttpResponseHeadersBenchmark {
+
+	static final String SERVER = PreEncodedHeaders.SERVER.toString();
+
+	EmbeddedChannel channel;
+
+	@Setup
+	public void setup() {
+		channel = new EmbeddedChannel(new HttpResponseEncoder());
+	}
+
+	@TearDown
+	public void tearDown() {
+		channel.finishAndReleaseAll();
+	}
+
+	@Benchmark
+	public int formattedHeaders() {
+		FullHttpResponse response =
+				new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK,
+						Unpooled.EMPTY_BUFFER);
+		response.headers()
+		        .set(HttpHeaderNames.DATE, DateFormatter.format(new Date()))
+		        .set(HttpHeaderNames.SERVER, SERVER)
+		        .set(HttpHeaderNames.CONTENT_TYPE, "text/plain; charset=utf-8")
+		        .setInt(HttpHeaderNames.CONTENT_LENGTH, 0);
+		return encode(response);
+	}
+
+	@Benchmark
+	public int preEncodedHeaders() {
+		FullHttpResponse response =
+				new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK,
+						Unpooled.EMPTY_BUFFER);
+		response.headers()
+		        .set(HttpHeaderNames.DATE, PreEncodedHeaders.date())
+		        .set(HttpHeaderNames.SERVER, PreEncodedHeaders.SERVER)
+		        .set(HttpHeaderNames.CONTENT_TYPE, PreEncodedHeaders.TEXT_PLAIN_UTF8)
+		        .set(HttpHeaderNames.CONTENT_LENGTH, HttpHeaderValues.ZERO);
+		return encode(response);
+	}
+
+	int encode(FullHttpResponse response) {
+		channel.writeOutbound(response);
+		int size = 0;
+		ByteBuf buf;
+		while ((buf = channel.readOutbound()) != null) {
+			size += buf.readableBytes();
+			buf.release();
+		}
+		return size;
+	}
+}
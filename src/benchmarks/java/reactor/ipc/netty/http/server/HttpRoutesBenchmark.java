@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.ipc.netty.http.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Mono;
+
+/**
+ * Compare the {@link DefaultHttpServerRoutes} route selection strategies on a set of
+ * {@code routes} declared routes, the lookup uri matching the last one: a linear scan
+ * of the route predicates against the compiled {@link HttpRouteTable}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HttpRoutesBenchmark {
+
+	@Param({"10", "100"})
+	int routes;
+
+	List<HttpPredicate> predicates;
+	HttpRouteTable      table;
+	String              uri;
+
+	@Setup
+	public void setup() {
+		predicates = new ArrayList<>(routes);
+		List<DefaultHttpServerRoutes.HttpRouteHandler> handlers = new ArrayList<>(routes);
+		for (int i = 0; i < routes; i++) {
+			HttpPredicate predicate =
+					(HttpPredicate) HttpPredicate.get("/api/v1/resource" + i + "/{id}/items/{item}");
+			predicates.add(predicate);
+			handlers.add(new DefaultHttpServerRoutes.HttpRouteHandler(predicate,
+					(req, res) -> Mono.empty(),
+					predicate));
+		}
+		table = HttpRouteTable.compile(handlers);
+		uri = "/api/v1/resource" + (routes - 1) + "/42/items/7";
+	}
+
+	@Benchmark
+	public HttpPredicate linearScan() {
+		for (HttpPredicate predicate : predicates) {
+			if ((predicate.method == null || predicate.method.equals(HttpMethod.GET)) &&
+					predicate.template.matches(uri)) {
+				return predicate;
+			}
+		}
+		return null;
+	}
+
+	@Benchmark
+	public HttpRouteTable.Match routeTable() {
+		return table.find(HttpMethod.GET, HttpVersion.HTTP_1_1, uri);
+	}
+}
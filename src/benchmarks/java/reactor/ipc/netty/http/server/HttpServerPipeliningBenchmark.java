@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.ipc.netty.http.server;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.HttpClientCodec;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.util.NetUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.tcp.BlockingNettyContext;
+
+/**
+ * Measure {@link HttpServerHandler} pipelining over loopback: each operation writes
+ * {@code depth} GET requests in a single flush on a keep-alive connection and waits for
+ * all the responses. Results are reported per batch of requests.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HttpServerPipeliningBenchmark {
+
+	@Param({"1", "16"})
+	int depth;
+
+	BlockingNettyContext server;
+	EventLoopGroup       group;
+	Channel              client;
+
+	volatile CompletableFuture<Void> received;
+	int                              remaining;
+
+	@Setup
+	public void setup() throws InterruptedException {
+		server = HttpServer.create(0)
+		                   .startRouter(r -> r.get("/hello",
+				                   (req, res) -> res.sendString(Mono.just("hello"))));
+		group = new NioEventLoopGroup(1);
+		client = new Bootstrap().group(group)
+		                        .channel(NioSocketChannel.class)
+		                        .handler(new ChannelInitializer<Channel>() {
+			                        @Override
+			                        protected void initChannel(Channel ch) {
+				                        ch.pipeline()
+				                          .addLast(new HttpClientCodec())
+				                          .addLast(new ResponseCounter());
+			                        }
+		                        })
+		                        .connect(NetUtil.LOCALHOST, server.getPort())
+		                        .sync()
+		                        .channel();
+	}
+
+	@TearDown
+	public void tearDown() throws InterruptedException {
+		client.close()
+		      .sync();
+		group.shutdownGracefully()
+		     .sync();
+		server.shutdown();
+	}
+
+	@Benchmark
+	public void pipelined() throws Exception {
+		CompletableFuture<Void> f = new CompletableFuture<>();
+		received = f;
+		client.eventLoop()
+		      .execute(() -> {
+			      remaining = depth;
+			      for (int i = 0; i < depth; i++) {
+				      DefaultFullHttpRequest request =
+						      new DefaultFullHttpRequest(HttpVersion.HTTP_1_1,
+								      HttpMethod.GET,
+								      "/hello");
+				      request.headers()
+				             .set("Host", "localhost");
+				      client.write(request);
+			      }
+			      client.flush();
+		      });
+		f.get(10, TimeUnit.SECONDS);
+	}
+
+	final class ResponseCounter extends SimpleChannelInboundHandler<Object> {
+
+		@Override
+		protected void channelRead0(ChannelHandlerContext ctx, Object msg) {
+			if (msg instanceof LastHttpContent && --remaining == 0) {
+				received.complete(null);
+			}
+		}
+	}
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.ipc.netty.resources;
+
+import java.util.concurrent.TimeUnit;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.local.LocalAddress;
+import io.netty.channel.local.LocalChannel;
+import io.netty.channel.local.LocalServerChannel;
+import io.netty.channel.pool.ChannelPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure {@link PoolResources} acquire and release of in-memory local channels under
+ * contention, the benchmark threads outnumbering the pooled connections of the fixed
+ * pools.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PoolResourcesBenchmark {
+
+	@Param({"elastic", "fixed", "affinity"})
+	String type;
+
+	EventLoopGroup group;
+	Channel        server;
+	PoolResources  resources;
+	ChannelPool    pool;
+
+	@Setup
+	public void setup() throws InterruptedException {
+		group = new DefaultEventLoopGroup(4);
+		server = new ServerBootstrap().group(group)
+		                              .channel(LocalServerChannel.class)
+		                              .childHandler(new ChannelInitializer<Channel>() {
+			                              @Override
+			                              protected void initChannel(Channel ch) {
+			                              }
+		                              })
+		                              .bind(new LocalAddress("poolResourcesBenchmark"))
+		                              .sync()
+		                              .channel();
+		Bootstrap bootstrap = new Bootstrap().group(group)
+		                                     .channel(LocalChannel.class)
+		                                     .remoteAddress(server.localAddress())
+		                                     .handler(new ChannelInboundHandlerAdapter());
+		switch (type) {
+			case "elastic":
+				resources = PoolResources.elastic("benchmark");
+				break;
+			case "fixed":
+				resources = PoolResources.fixed("benchmark", 2);
+				break;
+			default:
+				resources = PoolResources.builder("benchmark")
+				                         .maxConnections(2)
+				                         .eventLoopAffinity(true)
+				                         .build();
+		}
+		pool = resources.selectOrCreate(server.localAddress(), () -> bootstrap, null, group);
+	}
+
+	@TearDown
+	public void tearDown() throws InterruptedException {
+		resources.dispose();
+		server.close()
+		      .sync();
+		group.shutdownGracefully()
+		     .sync();
+	}
+
+	@Benchmark
+	@Threads(8)
+	public Channel acquireRelease() throws Exception {
+		Channel ch = pool.acquire()
+		                 .get(10, TimeUnit.SECONDS);
+		pool.release(ch)
+		    .get(10, TimeUnit.SECONDS);
+		return ch;
+	}
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.ipc.netty.tcp;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.NetUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.ipc.netty.NettyPipeline;
+
+/**
+ * Measure a {@link TcpServer} echoing its inbound buffers over loopback, exercising the
+ * server receive and send paths. The client is a plain Netty channel so only the
+ * server side is measured, one message in flight at a time.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TcpEchoBenchmark {
+
+	@Param({"64", "8192"})
+	int messageSize;
+
+	BlockingNettyContext server;
+	EventLoopGroup       group;
+	Channel              client;
+	ByteBuf              message;
+
+	volatile CompletableFuture<Void> echoed;
+	int                              remaining;
+
+	@Setup
+	public void setup() throws InterruptedException {
+		server = TcpServer.create(0)
+		                  .start((in, out) -> out.options(NettyPipeline.SendOptions::flushOnEach)
+		                                         .send(in.receive()
+		                                                 .retain()));
+		group = new NioEventLoopGroup(1);
+		client = new Bootstrap().group(group)
+		                        .channel(NioSocketChannel.class)
+		                        .handler(new ChannelInitializer<Channel>() {
+			                        @Override
+			                        protected void initChannel(Channel ch) {
+				                        ch.pipeline()
+				                          .addLast(new EchoHandler());
+			                        }
+		                        })
+		                        .connect(NetUtil.LOCALHOST, server.getPort())
+		                        .sync()
+		                        .channel();
+		message = Unpooled.unreleasableBuffer(Unpooled.directBuffer(messageSize)
+		                                              .writeZero(messageSize));
+	}
+
+	@TearDown
+	public void tearDown() throws InterruptedException {
+		client.close()
+		      .sync();
+		group.shutdownGracefully()
+		     .sync();
+		server.shutdown();
+	}
+
+	@Benchmark
+	public void echo() throws Exception {
+		CompletableFuture<Void> f = new CompletableFuture<>();
+		echoed = f;
+		client.eventLoop()
+		      .execute(() -> {
+			      remaining = messageSize;
+			      client.writeAndFlush(message.duplicate());
+		      });
+		f.get(10, TimeUnit.SECONDS);
+	}
+
+	final class EchoHandler extends SimpleChannelInboundHandler<ByteBuf> {
+
+		@Override
+		protected void channelRead0(ChannelHandlerContext ctx, ByteBuf msg) {
+			remaining -= msg.readableBytes();
+			if (remaining <= 0) {
+				echoed.complete(null);
+			}
+		}
+	}
+}
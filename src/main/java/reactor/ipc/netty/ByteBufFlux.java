@@ -146,6 +146,50 @@ public final class ByteBufFlux extends FluxOperator<ByteBuf, ByteBuf> {
 		}), allocator);
 	}
 
+	/**
+	 * Memory-map a file from a path and stream read-only {@link ByteBuf} chunks with a
+	 * default maximum size of 500K into the returned {@link ByteBufFlux}, mapping 4M
+	 * ahead of the emitted chunks.
+	 *
+	 * @param path the path to the resource to stream
+	 *
+	 * @return a {@link ByteBufFlux}
+	 * @see #fromPathMapped(Path, int, int)
+	 */
+	public static ByteBufFlux fromPathMapped(Path path) {
+		return fromPathMapped(path, MAX_CHUNK_SIZE, DEFAULT_READ_AHEAD_SIZE);
+	}
+
+	/**
+	 * Memory-map a file from a path and stream read-only {@link ByteBuf} chunks with a
+	 * given maximum size into the returned {@link ByteBufFlux}. The chunks wrap the
+	 * mapped file pages directly so that no copy happens in user-space when they are
+	 * written to a channel.
+	 * <p>
+	 * The file is mapped one {@code readAheadSize} window at a time. Each window is
+	 * unmapped as soon as all its chunks have been released, instead of waiting for the
+	 * garbage collector. {@link ByteBuffer} views obtained with {@code nioBuffer} are not
+	 * reference counted and must not be used after their chunk has been released.
+	 *
+	 * @param path the path to the resource to stream
+	 * @param maxChunkSize the maximum per-item ByteBuf size
+	 * @param readAheadSize the size of each mapped window
+	 *
+	 * @return a {@link ByteBufFlux}
+	 */
+	public static ByteBufFlux fromPathMapped(Path path, int maxChunkSize, int readAheadSize) {
+		Objects.requireNonNull(path, "path");
+		if (maxChunkSize < 1) {
+			throw new IllegalArgumentException("chunk size must be strictly positive, " + "was: " + maxChunkSize);
+		}
+		if (readAheadSize < maxChunkSize) {
+			throw new IllegalArgumentException("read ahead size must be greater than the chunk size, " + "was: " + readAheadSize);
+		}
+		return new ByteBufFlux(Flux.generate(() -> new MappedFileSource(path, maxChunkSize, readAheadSize),
+				MappedFileSource::next,
+				MappedFileSource::dispose), ByteBufAllocator.DEFAULT);
+	}
+
 	/**
 	 * Convert to a {@link ByteBuffer} inbound {@link Flux}
 	 *
@@ -198,12 +242,13 @@ public final class ByteBufFlux extends FluxOperator<ByteBuf, ByteBuf> {
 	}
 
 	/**
-	 * Aggregate subsequent byte buffers into a single buffer.
+	 * Aggregate subsequent byte buffers into a single buffer. The buffers are composed,
+	 * never consolidated into a copy however many they are.
 	 *
 	 * @return {@link ByteBufMono} of aggregated {@link ByteBuf}
 	 */
 	public ByteBufMono aggregate() {
-		return Mono.using(alloc::compositeBuffer,
+		return Mono.using(() -> alloc.compositeBuffer(Integer.MAX_VALUE),
 				b -> this.reduce(b, (prev, next) -> prev.addComponent(next.retain()))
 				         .doOnNext(cbb -> cbb.writerIndex(cbb.capacity()))
 				         .filter(ByteBuf::isReadable),
@@ -256,4 +301,5 @@ public final class ByteBufFlux extends FluxOperator<ByteBuf, ByteBuf> {
 	};
 
 	final static int MAX_CHUNK_SIZE = 1024 * 512; //500k
+	final static int DEFAULT_READ_AHEAD_SIZE = 1024 * 1024 * 4; //4M
 }
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.ipc.netty;
+
+/**
+ * Write and flush counters of a channel, used to tune the {@link FlushStrategy} of its
+ * outbound publishers. Values are updated on the channel event loop and can be sampled
+ * from any thread at any time.
+ *
+ * @see NettyContext#flushMetrics()
+ * @since 0.7.3
+ */
+public interface FlushMetrics {
+
+	/**
+	 * Return the total number of messages written to the channel.
+	 *
+	 * @return the number of written messages
+	 */
+	long writeCount();
+
+	/**
+	 * Return the total number of flushes issued on the channel.
+	 *
+	 * @return the number of flushes
+	 */
+	long flushCount();
+
+	/**
+	 * Return the average number of flushes per written message, 0 if nothing was
+	 * written.
+	 *
+	 * @return the average number of flushes per written message
+	 */
+	default double flushesPerWrite() {
+		long writes = writeCount();
+		return writes == 0L ? 0d : (double) flushCount() / writes;
+	}
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.ipc.netty;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * A flush coalescing strategy for {@link NettyPipeline.SendOptions#flushOn(FlushStrategy)}.
+ * Messages written from a {@link org.reactivestreams.Publisher} are flushed as soon as
+ * any of the configured thresholds is reached, rather than item by item or only when
+ * the publisher terminates. The pending messages are always flushed when the
+ * publisher terminates and when the channel is no longer writable.
+ * <p>
+ * For instance flushing every 16 messages or 8 KB, waiting at most 5 ms:
+ * <pre>
+ * {@code
+ * out.options(o -> o.flushOn(FlushStrategy.builder()
+ *                                         .maxMessages(16)
+ *                                         .maxBytes(8192)
+ *                                         .maxDelay(Duration.ofMillis(5))
+ *                                         .build()))
+ *    .send(flux)
+ * }
+ * </pre>
+ *
+ * @since 0.7.3
+ */
+public final class FlushStrategy {
+
+	/**
+	 * Create a new {@link FlushStrategy.Builder}, no threshold being set.
+	 *
+	 * @return a new {@link FlushStrategy.Builder}
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	final int     maxMessages;
+	final long    maxBytes;
+	final long    maxDelayNanos;
+	final boolean lowWaterMark;
+
+	FlushStrategy(Builder builder) {
+		this.maxMessages = builder.maxMessages;
+		this.maxBytes = builder.maxBytes;
+		this.maxDelayNanos = builder.maxDelay != null ? builder.maxDelay.toNanos() : -1L;
+		this.lowWaterMark = builder.lowWaterMark;
+	}
+
+	/**
+	 * Return the number of unflushed messages triggering a flush, -1 if unset.
+	 *
+	 * @return the number of unflushed messages triggering a flush
+	 */
+	public int maxMessages() {
+		return maxMessages;
+	}
+
+	/**
+	 * Return the number of unflushed bytes triggering a flush, -1 if unset.
+	 *
+	 * @return the number of unflushed bytes triggering a flush
+	 */
+	public long maxBytes() {
+		return maxBytes;
+	}
+
+	/**
+	 * Return the maximum delay in nanoseconds a written message can wait for a flush,
+	 * -1 if unset.
+	 *
+	 * @return the maximum delay in nanoseconds before a flush
+	 */
+	public long maxDelayNanos() {
+		return maxDelayNanos;
+	}
+
+	/**
+	 * Return true if a flush is triggered when the bytes pending in the channel
+	 * outbound buffer reach its write buffer low water mark.
+	 *
+	 * @return true if the channel low water mark triggers a flush
+	 */
+	public boolean lowWaterMark() {
+		return lowWaterMark;
+	}
+
+	@Override
+	public String toString() {
+		return "FlushStrategy{" +
+				"maxMessages=" + maxMessages +
+				", maxBytes=" + maxBytes +
+				", maxDelayNanos=" + maxDelayNanos +
+				", lowWaterMark=" + lowWaterMark +
+				'}';
+	}
+
+	public static final class Builder {
+
+		int      maxMessages  = -1;
+		long     maxBytes     = -1L;
+		Duration maxDelay;
+		boolean  lowWaterMark;
+
+		Builder() {
+		}
+
+		/**
+		 * Flush once the given number of messages have been written since the last
+		 * flush.
+		 *
+		 * @param maxMessages the number of unflushed messages triggering a flush
+		 * @return {@code this}
+		 */
+		public final Builder maxMessages(int maxMessages) {
+			if (maxMessages < 1) {
+				throw new IllegalArgumentException("maxMessages must be strictly positive");
+			}
+			this.maxMessages = maxMessages;
+			return this;
+		}
+
+		/**
+		 * Flush once the given number of bytes have been written since the last flush.
+		 *
+		 * @param maxBytes the number of unflushed bytes triggering a flush
+		 * @return {@code this}
+		 */
+		public final Builder maxBytes(long maxBytes) {
+			if (maxBytes < 1) {
+				throw new IllegalArgumentException("maxBytes must be strictly positive");
+			}
+			this.maxBytes = maxBytes;
+			return this;
+		}
+
+		/**
+		 * Flush at the latest after the given delay once a message has been written,
+		 * bounding the latency added by the other thresholds.
+		 *
+		 * @param maxDelay the maximum delay before flushing a written message
+		 * @return {@code this}
+		 */
+		public final Builder maxDelay(Duration maxDelay) {
+			Objects.requireNonNull(maxDelay, "maxDelay");
+			if (maxDelay.isNegative() || maxDelay.isZero()) {
+				throw new IllegalArgumentException("maxDelay must be strictly positive");
+			}
+			this.maxDelay = maxDelay;
+			return this;
+		}
+
+		/**
+		 * Flush once the bytes pending in the channel outbound buffer reach the channel
+		 * write buffer low water mark, including bytes written outside of the current
+		 * publisher.
+		 *
+		 * @param lowWaterMark true if the low water mark triggers a flush
+		 * @return {@code this}
+		 */
+		public final Builder lowWaterMark(boolean lowWaterMark) {
+			this.lowWaterMark = lowWaterMark;
+			return this;
+		}
+
+		/**
+		 * Build a new {@link FlushStrategy}.
+		 *
+		 * @return a new {@link FlushStrategy}
+		 */
+		public FlushStrategy build() {
+			if (maxMessages < 0 && maxBytes < 0 && maxDelay == null && !lowWaterMark) {
+				throw new IllegalStateException("At least one flush threshold must be set");
+			}
+			return new FlushStrategy(this);
+		}
+	}
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.ipc.netty;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.util.AbstractReferenceCounted;
+import io.netty.util.ReferenceCounted;
+import io.netty.util.internal.PlatformDependent;
+import reactor.core.publisher.SynchronousSink;
+
+/**
+ * Generator state of {@link ByteBufFlux#fromPathMapped(Path, int, int)}. The file is
+ * memory-mapped one read-ahead window at a time and each window is emitted as read-only
+ * {@link ByteBuf} chunks sharing its mapping. A window is unmapped as soon as the
+ * generator moved past it and every chunk has been released, rather than when the
+ * garbage collector reclaims the mapping.
+ * <p>
+ * Buffers derived from a chunk ({@code slice}, {@code duplicate} and their retained
+ * variants) share its reference count, so the window stays mapped until the last of
+ * them is released. {@link ByteBuffer} views returned by {@code nioBuffer} and
+ * {@code nioBuffers} are not reference counted: they must not be accessed once the
+ * chunk has been released, as the unmapped memory would be read.
+ */
+final class MappedFileSource {
+
+	final FileChannel fileChannel;
+	final long        size;
+	final int         maxChunkSize;
+	final int         readAheadSize;
+
+	long         position;
+	MappedWindow window;
+
+	MappedFileSource(Path path, int maxChunkSize, int readAheadSize) throws IOException {
+		this.fileChannel = FileChannel.open(path, StandardOpenOption.READ);
+		this.size = fileChannel.size();
+		this.maxChunkSize = maxChunkSize;
+		this.readAheadSize = readAheadSize;
+	}
+
+	MappedFileSource next(SynchronousSink<ByteBuf> sink) {
+		if (position >= size) {
+			sink.complete();
+			return this;
+		}
+		try {
+			MappedWindow w = window;
+			if (w == null || position >= w.end) {
+				releaseWindow();
+				long length = Math.min(readAheadSize, size - position);
+				w = new MappedWindow(fileChannel.map(FileChannel.MapMode.READ_ONLY,
+						position,
+						length), position);
+				window = w;
+			}
+
+			int offset = (int) (position - w.start);
+			int length = (int) Math.min(maxChunkSize, w.end - position);
+			ByteBuffer chunk = w.buffer.duplicate();
+			chunk.position(offset);
+			chunk.limit(offset + length);
+			position += length;
+
+			w.retain();
+			sink.next(new MappedChunk(chunk.slice(), w).asReadOnly());
+		}
+		catch (IOException e) {
+			sink.error(e);
+		}
+		return this;
+	}
+
+	void dispose() {
+		releaseWindow();
+		try {
+			fileChannel.close();
+		}
+		catch (IOException e) {
+			//ignore close failure, the file was opened read-only
+		}
+	}
+
+	void releaseWindow() {
+		MappedWindow w = window;
+		if (w != null) {
+			window = null;
+			w.release();
+		}
+	}
+
+	/**
+	 * A mapped read-ahead window, unmapped once released by the generator and all the
+	 * chunks slicing it.
+	 */
+	static final class MappedWindow extends AbstractReferenceCounted {
+
+		final MappedByteBuffer buffer;
+		final long             start;
+		final long             end;
+
+		MappedWindow(MappedByteBuffer buffer, long start) {
+			this.buffer = buffer;
+			this.start = start;
+			this.end = start + buffer.capacity();
+		}
+
+		@Override
+		protected void deallocate() {
+			PlatformDependent.freeDirectBuffer(buffer);
+		}
+
+		@Override
+		public ReferenceCounted touch(Object hint) {
+			return this;
+		}
+	}
+
+	/**
+	 * A chunk of a {@link MappedWindow}, releasing the window once the chunk and all its
+	 * derived buffers have been released. The single component composite keeps the
+	 * mapped memory as the only backing storage while providing a
+	 * {@link #deallocate()} hook. It is only emitted behind a
+	 * {@link ByteBuf#asReadOnly() read-only} wrapper sharing its reference count.
+	 */
+	static final class MappedChunk extends CompositeByteBuf {
+
+		final MappedWindow window;
+
+		MappedChunk(ByteBuffer chunk, MappedWindow window) {
+			super(ByteBufAllocator.DEFAULT, true, 2, wrap(chunk));
+			this.window = window;
+		}
+
+		/**
+		 * Wrap the mapped pages by address: the read-only buffer wrapping of a
+		 * {@link ByteBuffer} does not expose a memory address, which native transports
+		 * expect from direct buffers when gathering writes. The pages are never freed
+		 * through the wrapper, and mutations are rejected by the read-only view the chunk
+		 * is emitted behind. When direct buffers cannot be created from an address (e.g.
+		 * Java 9+ without {@code io.netty.tryReflectionSetAccessible}), the chunk is
+		 * copied out of the mapping instead.
+		 */
+		static ByteBuf wrap(ByteBuffer chunk) {
+			if (PlatformDependent.useDirectBufferNoCleaner()) {
+				return Unpooled.wrappedBuffer(PlatformDependent.directBufferAddress(chunk),
+						chunk.remaining(),
+						false);
+			}
+			return ByteBufAllocator.DEFAULT.directBuffer(chunk.remaining())
+			                               .writeBytes(chunk.duplicate());
+		}
+
+		@Override
+		protected void deallocate() {
+			super.deallocate();
+			window.release();
+		}
+	}
+}
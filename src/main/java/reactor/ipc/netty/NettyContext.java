@@ -203,6 +203,18 @@ public interface NettyContext extends Disposable {
 	 */
 	Channel channel();
 
+	/**
+	 * Return the write and flush counters of the underlying {@link Channel}, or null if
+	 * the channel is not bridged by reactor-netty.
+	 *
+	 * @return the {@link FlushMetrics} of the underlying {@link Channel} or null
+	 */
+	default FlushMetrics flushMetrics() {
+		ChannelHandler handler = channel().pipeline()
+		                                  .get(NettyPipeline.ReactiveBridge);
+		return handler instanceof FlushMetrics ? (FlushMetrics) handler : null;
+	}
+
 	@Override
 	default void dispose() {
 		channel().close();
@@ -100,6 +100,27 @@ public interface NettyInbound {
 	 */
 	Flux<?> receiveObject();
 
+	/**
+	 * Return the number of received messages buffered until the inbound subscriber
+	 * requests them.
+	 *
+	 * @return the number of buffered inbound messages
+	 */
+	default long receivePendingMessages() {
+		return 0L;
+	}
+
+	/**
+	 * Return the number of received bytes buffered until the inbound subscriber
+	 * requests them. The inbound stops reading once it reaches
+	 * {@link reactor.ipc.netty.options.NettyOptions#receiveHighWaterMarkBytes()}.
+	 *
+	 * @return the number of buffered inbound bytes
+	 */
+	default long receivePendingBytes() {
+		return 0L;
+	}
+
 	/**
 	 * Get the address of the remote peer.
 	 *
@@ -224,7 +224,8 @@ public interface NettyOutbound extends Publisher<Void> {
 	 */
 	default NettyOutbound sendFile(Path file, long position, long count) {
 		Objects.requireNonNull(file);
-		if (context().channel().pipeline().get(SslHandler.class) != null) {
+		if (context().channel().pipeline().get(SslHandler.class) != null ||
+				context().channel().pipeline().get(NettyPipeline.H2StreamCodec) != null) {
 			return sendFileChunked(file, position, count);
 		}
 
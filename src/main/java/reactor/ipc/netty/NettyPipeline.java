@@ -35,8 +35,12 @@ import org.reactivestreams.Publisher;
  * -> ssl & trace log ? [SslLoggingHandler]
  * -> ssl ? [SslReader]
  * -> log ? [LoggingHandler]
+ * -> http negotiation ? [HttpProtocolNegotiator]
+ * -> http2 ? [H2MultiplexHandler]
+ * -> http2 stream ? [H2StreamCodec]
  * -> http ? [HttpCodecHandler]
  * -> http ws ? [HttpAggregator]
+ * -> ws compression ? [WsCompressionDecoder, WsCompressionEncoder]
  * -> http server  ? [HttpServerHandler]
  * -> onWriteIdle ? [OnChannelWriteIdle]
  * -> onReadIdle ? [OnChannelReadIdle]
@@ -67,6 +71,14 @@ public interface NettyPipeline {
 	String ChunkedWriter      = LEFT + "chunkedWriter";
 	String LoggingHandler     = LEFT + "loggingHandler";
 	String CompressionHandler = LEFT + "compressionHandler";
+	String HttpProtocolNegotiator = LEFT + "httpProtocolNegotiator";
+	String H2MultiplexHandler = LEFT + "h2MultiplexHandler";
+	String H2StreamCodec      = LEFT + "h2StreamCodec";
+	String H2StreamContentEncoder = LEFT + "h2StreamContentEncoder";
+	String DatagramBatchHandler = LEFT + "datagramBatchHandler";
+	String WsCompressionDecoder = LEFT + "wsCompressionDecoder";
+	String WsCompressionEncoder = LEFT + "wsCompressionEncoder";
+	String ConnectTimings       = LEFT + "connectTimings";
 
 	/**
 	 * A builder for sending strategy, similar prefixed methods being mutually exclusive
@@ -102,7 +114,15 @@ public interface NettyPipeline {
 		 */
 		SendOptions flushOnEach(boolean withEventLoop);
 
-
+		/**
+		 * Make the underlying channel coalesce flushes of a {@link Publisher} items
+		 * according to the given {@link FlushStrategy}. The pending items are also
+		 * flushed when the {@link Publisher} terminates.
+		 *
+		 * @param strategy the {@link FlushStrategy} thresholds
+		 * @return this builder
+		 */
+		SendOptions flushOn(FlushStrategy strategy);
 	}
 
 	/**
@@ -248,6 +248,16 @@ public class ChannelOperations<INBOUND extends NettyInbound, OUTBOUND extends Ne
 		return inbound;
 	}
 
+	@Override
+	public long receivePendingMessages() {
+		return inbound.getPending();
+	}
+
+	@Override
+	public long receivePendingBytes() {
+		return inbound.getPendingBytes();
+	}
+
 	@Override
 	public final InetSocketAddress remoteAddress() {
 		return (InetSocketAddress) channel.remoteAddress();
@@ -472,7 +482,7 @@ public class ChannelOperations<INBOUND extends NettyInbound, OUTBOUND extends Ne
 
 	@Override
 	public Context currentContext() {
-		return context.sink.currentContext();
+		return context.sink != null ? context.sink.currentContext() : Context.empty();
 	}
 
 	/**
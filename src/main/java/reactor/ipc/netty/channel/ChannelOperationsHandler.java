@@ -20,6 +20,7 @@ import java.nio.charset.Charset;
 import java.util.Objects;
 import java.util.Queue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
@@ -47,6 +48,8 @@ import org.reactivestreams.Subscription;
 import reactor.core.CoreSubscriber;
 import reactor.core.Exceptions;
 import reactor.core.publisher.Operators;
+import reactor.ipc.netty.FlushMetrics;
+import reactor.ipc.netty.FlushStrategy;
 import reactor.ipc.netty.NettyOutbound;
 import reactor.ipc.netty.NettyPipeline;
 import reactor.util.Logger;
@@ -60,7 +63,7 @@ import reactor.util.concurrent.Queues;
  * @author Stephane Maldini
  */
 final class ChannelOperationsHandler extends ChannelDuplexHandler
-		implements NettyPipeline.SendOptions, ChannelFutureListener {
+		implements NettyPipeline.SendOptions, FlushMetrics, ChannelFutureListener {
 
 	final PublisherSender                inner;
 	final BiConsumer<?, ? super ByteBuf> encoder;
@@ -76,8 +79,10 @@ final class ChannelOperationsHandler extends ChannelDuplexHandler
 	ChannelHandlerContext               ctx;
 	boolean                             flushOnEach;
 	boolean                             flushOnEachWithEventLoop;
+	FlushStrategy                       flushStrategy;
 
 	long                                pendingBytes;
+	int                                 pendingMessages;
 	ContextHandler<?>                   lastContext;
 
 	private Unsafe                      unsafe;
@@ -86,6 +91,9 @@ final class ChannelOperationsHandler extends ChannelDuplexHandler
 	volatile boolean removed;
 	volatile int     wip;
 	volatile long    scheduledFlush;
+	volatile boolean delayedFlushScheduled;
+	volatile long    writeCount;
+	volatile long    flushCount;
 
 	@SuppressWarnings("unchecked")
 	ChannelOperationsHandler(ContextHandler<?> contextHandler) {
@@ -263,6 +271,7 @@ final class ChannelOperationsHandler extends ChannelDuplexHandler
 	@Override
 	public NettyPipeline.SendOptions flushOnBoundary() {
 		flushOnEach = false;
+		flushStrategy = null;
 		return this;
 	}
 
@@ -270,9 +279,27 @@ final class ChannelOperationsHandler extends ChannelDuplexHandler
 	public NettyPipeline.SendOptions flushOnEach(boolean withEventLoop) {
 		flushOnEach = true;
 		flushOnEachWithEventLoop = withEventLoop;
+		flushStrategy = null;
 		return this;
 	}
 
+	@Override
+	public NettyPipeline.SendOptions flushOn(FlushStrategy strategy) {
+		flushOnEach = false;
+		flushStrategy = Objects.requireNonNull(strategy, "strategy");
+		return this;
+	}
+
+	@Override
+	public long writeCount() {
+		return writeCount;
+	}
+
+	@Override
+	public long flushCount() {
+		return flushCount;
+	}
+
 	@Override
 	public void operationComplete(ChannelFuture future) throws Exception {
 		if (future.isSuccess()) {
@@ -281,12 +308,15 @@ final class ChannelOperationsHandler extends ChannelDuplexHandler
 	}
 
 	ChannelFuture doWrite(Object msg, ChannelPromise promise, PublisherSender inner) {
+		//single writer, the pending writes are drained one at a time
+		WRITE_COUNT.lazySet(this, writeCount + 1L);
 		if (flushOnEach || //fastpath
 				inner == null && pendingWrites.isEmpty() || //last drained element
 				!ctx.channel()
 				    .isWritable() //force flush if write buffer full
 				) {
 			pendingBytes = 0L;
+			pendingMessages = 0;
 
 			ChannelFuture future = ctx.write(msg, promise);
 			if (flushOnEachWithEventLoop && ctx.channel().isWritable()) {
@@ -299,7 +329,7 @@ final class ChannelOperationsHandler extends ChannelDuplexHandler
 				}
 			}
 			else {
-				ctx.flush();
+				doFlush();
 			}
 			return future;
 		}
@@ -321,13 +351,50 @@ final class ChannelOperationsHandler extends ChannelDuplexHandler
 			}
 			ChannelFuture future = ctx.write(msg, promise);
 			if (!ctx.channel().isWritable()) {
-				pendingBytes = 0L;
-				ctx.flush();
+				doFlush();
+			}
+			else if (flushStrategy != null) {
+				flushOnStrategy(flushStrategy);
 			}
 			return future;
 		}
 	}
 
+	/**
+	 * Flush the pending writes of the current {@link Publisher} if any threshold of the
+	 * given {@link FlushStrategy} is reached, otherwise make sure a delayed flush is
+	 * scheduled if the strategy bounds the flush latency.
+	 *
+	 * @param strategy the current {@link FlushStrategy}
+	 */
+	void flushOnStrategy(FlushStrategy strategy) {
+		pendingMessages++;
+		if ((strategy.maxMessages() > 0 && pendingMessages >= strategy.maxMessages()) ||
+				(strategy.maxBytes() > 0L && pendingBytes >= strategy.maxBytes()) ||
+				(strategy.lowWaterMark() && outboundPendingBytes() >= ctx.channel()
+				                                                         .config()
+				                                                         .getWriteBufferLowWaterMark())) {
+			doFlush();
+		}
+		else if (strategy.maxDelayNanos() > 0L && !delayedFlushScheduled) {
+			delayedFlushScheduled = true;
+			ctx.executor()
+			   .schedule(() -> {
+			       delayedFlushScheduled = false;
+			       if (pendingMessages > 0 && hasPendingWriteBytes()) {
+			           doFlush();
+			       }
+			   }, strategy.maxDelayNanos(), TimeUnit.NANOSECONDS);
+		}
+	}
+
+	void doFlush() {
+		pendingBytes = 0L;
+		pendingMessages = 0;
+		FLUSH_COUNT.lazySet(this, flushCount + 1L);
+		ctx.flush();
+	}
+
 	void scheduleFlush() {
 		if (SCHEDULED_FLUSH.getAndIncrement(this) == 0) {
 			ctx.channel()
@@ -336,7 +403,7 @@ final class ChannelOperationsHandler extends ChannelDuplexHandler
 			       long missed = scheduledFlush;
 			       for(;;) {
 			           if (hasPendingWriteBytes()) {
-			               ctx.flush();
+			               doFlush();
 			           }
 			           missed = SCHEDULED_FLUSH.addAndGet(this, -missed);
 			           if (missed == 0) {
@@ -386,7 +453,7 @@ final class ChannelOperationsHandler extends ChannelDuplexHandler
 				if (pendingWrites == null || innerActive || !ctx.channel()
 				                                                .isWritable()) {
 					if (!ctx.channel().isWritable() && hasPendingWriteBytes()) {
-						ctx.flush();
+						doFlush();
 					}
 					if (WIP.decrementAndGet(this) == 0) {
 						break;
@@ -419,7 +486,7 @@ final class ChannelOperationsHandler extends ChannelDuplexHandler
 				if (!innerActive && v == PublisherSender.PENDING_WRITES) {
 					boolean last = pendingWrites.isEmpty();
 					if (!future.isDone() && hasPendingWriteBytes()) {
-						ctx.flush();
+						doFlush();
 						if (!future.isDone() && hasPendingWriteBytes()) {
 							pendingWriteOffer.test(future, v);
 						}
@@ -476,10 +543,14 @@ final class ChannelOperationsHandler extends ChannelDuplexHandler
 	}
 
 	private boolean hasPendingWriteBytes() {
+		return outboundPendingBytes() > 0;
+	}
+
+	private long outboundPendingBytes() {
 		// On close the outboundBuffer is made null. After that point
 		// adding messages and flushes to outboundBuffer is not allowed.
 		ChannelOutboundBuffer outBuffer = this.unsafe.outboundBuffer();
-		return outBuffer != null && outBuffer.totalPendingWriteBytes() > 0;
+		return outBuffer != null ? outBuffer.totalPendingWriteBytes() : 0L;
 	}
 
 	static final class PublisherSender
@@ -535,8 +606,7 @@ final class ChannelOperationsHandler extends ChannelDuplexHandler
 				if (parent.pendingBytes > 0L || parent.hasPendingWriteBytes()) {
 					if (parent.ctx.channel()
 					              .isActive()) {
-						parent.pendingBytes = 0L;
-						parent.ctx.flush();
+						parent.doFlush();
 					}
 					else {
 						promise.setFailure(new AbortedException("Connection has been closed"));
@@ -574,7 +644,7 @@ final class ChannelOperationsHandler extends ChannelDuplexHandler
 				produced(p);
 				if (parent.ctx.channel()
 				              .isActive()) {
-					parent.ctx.flush();
+					parent.doFlush();
 				}
 				else {
 					promise.setFailure(new AbortedException("Connection has been closed"));
@@ -837,6 +907,10 @@ final class ChannelOperationsHandler extends ChannelDuplexHandler
 			AtomicIntegerFieldUpdater.newUpdater(ChannelOperationsHandler.class, "wip");
 	static final AtomicLongFieldUpdater<ChannelOperationsHandler> SCHEDULED_FLUSH =
 			AtomicLongFieldUpdater.newUpdater(ChannelOperationsHandler.class, "scheduledFlush");
+	static final AtomicLongFieldUpdater<ChannelOperationsHandler> WRITE_COUNT =
+			AtomicLongFieldUpdater.newUpdater(ChannelOperationsHandler.class, "writeCount");
+	static final AtomicLongFieldUpdater<ChannelOperationsHandler> FLUSH_COUNT =
+			AtomicLongFieldUpdater.newUpdater(ChannelOperationsHandler.class, "flushCount");
 	static final Logger                                              log =
 			Loggers.getLogger(ChannelOperationsHandler.class);
 
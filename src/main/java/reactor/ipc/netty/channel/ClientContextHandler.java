@@ -55,7 +55,7 @@ final class ClientContextHandler<CHANNEL extends Channel>
 
 	@Override
 	public final void fireContextActive(NettyContext context) {
-		if(!fired) {
+		if(!fired && sink != null) {
 			fired = true;
 			if(context != null) {
 				sink.success(context);
@@ -69,7 +69,7 @@ final class ClientContextHandler<CHANNEL extends Channel>
 	@Override
 	protected void doDropped(Channel channel) {
 		channel.close();
-		if(!fired) {
+		if(!fired && sink != null) {
 			fired = true;
 			sink.error(new AbortedException("Channel has been dropped"));
 		}
@@ -120,6 +120,35 @@ public abstract class ContextHandler<CHANNEL extends Channel>
 				providedAddress);
 	}
 
+	/**
+	 * Create a new client context initializing connections shared by several requests,
+	 * such as multiplexed HTTP/2 connections. The context is not bound to any
+	 * user-facing {@link MonoSink}: the errors it cannot forward are logged, the owner of
+	 * the connections being responsible for their failures.
+	 *
+	 * @param options
+	 * @param loggingHandler
+	 * @param secure
+	 * @param providedAddress
+	 * @param channelOpFactory
+	 * @param <CHANNEL>
+	 *
+	 * @return a new {@link ContextHandler} for shared client connections
+	 */
+	public static <CHANNEL extends Channel> ContextHandler<CHANNEL> newClientConnectionContext(
+			ClientOptions options,
+			LoggingHandler loggingHandler,
+			boolean secure,
+			SocketAddress providedAddress,
+			ChannelOperations.OnNew<CHANNEL> channelOpFactory) {
+		return new ClientContextHandler<>(channelOpFactory,
+				options,
+				null,
+				loggingHandler,
+				secure,
+				providedAddress);
+	}
+
 	/**
 	 * Create a new server context
 	 *
@@ -267,7 +296,7 @@ public abstract class ContextHandler<CHANNEL extends Channel>
 	 * @param t error to fail the associated {@link MonoSink}
 	 */
 	public void fireContextError(Throwable t) {
-		if (!fired) {
+		if (!fired && sink != null) {
 			fired = true;
 			sink.error(t);
 		}
@@ -351,6 +380,19 @@ public abstract class ContextHandler<CHANNEL extends Channel>
 		}
 	}
 
+	/**
+	 * Bind a channel multiplexed over a parent channel initialized by this context, such
+	 * as an HTTP/2 stream channel. Transport handlers (SSL, logging) and the
+	 * {@link #onPipeline(BiConsumer)} configurator only apply to the parent channel, the
+	 * protocol handlers of the multiplexed channel must be added by the caller.
+	 *
+	 * @param channel the multiplexed channel to bind to this context
+	 */
+	public final void acceptMultiplexed(Channel channel) {
+		channel.pipeline()
+		       .addLast(NettyPipeline.ReactiveBridge, new ChannelOperationsHandler(this));
+	}
+
 	/**
 	 * @param channel
 	 */
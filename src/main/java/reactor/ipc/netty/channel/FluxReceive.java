@@ -24,18 +24,32 @@ import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufHolder;
 import io.netty.channel.Channel;
 import io.netty.channel.EventLoop;
+import io.netty.channel.FileRegion;
 import io.netty.util.ReferenceCountUtil;
 import org.reactivestreams.Subscription;
 import reactor.core.CoreSubscriber;
 import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Operators;
+import reactor.ipc.netty.options.NettyOptions;
 import reactor.util.Logger;
 import reactor.util.Loggers;
 import reactor.util.concurrent.Queues;
 import reactor.util.context.Context;
 
 /**
+ * Inbound {@link Flux} of a {@link ChannelOperations}. Messages received while the
+ * subscriber has no demand are buffered up to the
+ * {@link NettyOptions#receiveHighWaterMarkMessages() messages} or
+ * {@link NettyOptions#receiveHighWaterMarkBytes() bytes} high water marks, at which
+ * point auto-read is turned off and this receiver stops requesting reads until the
+ * buffer drains down to the low water marks.
+ * <p>
+ * Only the reads issued by this receiver are withheld: a {@code read()} triggered
+ * elsewhere in the pipeline, or turning auto-read back on from a handler, still
+ * delivers messages which keep being buffered. The water marks bound the buffer for
+ * connections whose reads are driven by the inbound demand.
+ *
  * @author Stephane Maldini
  */
 final class FluxReceive extends Flux<Object> implements Subscription, Disposable {
@@ -43,11 +57,19 @@ final class FluxReceive extends Flux<Object> implements Subscription, Disposable
 	final Channel           channel;
 	final ChannelOperations<?, ?> parent;
 	final EventLoop         eventLoop;
+	final int               highWaterMarkMessages;
+	final int               lowWaterMarkMessages;
+	final long              highWaterMarkBytes;
+	final long              lowWaterMarkBytes;
 
 	CoreSubscriber<? super Object> receiver;
 	boolean                        receiverFastpath;
 	long                           receiverDemand;
 	Queue<Object>                  receiverQueue;
+	boolean                        readSuspended;
+	boolean                        autoReadBeforeSuspend;
+
+	volatile long receiverQueueBytes;
 
 	volatile boolean   inboundDone;
 	Throwable inboundError;
@@ -62,6 +84,19 @@ final class FluxReceive extends Flux<Object> implements Subscription, Disposable
 		this.parent = parent;
 		this.channel = parent.channel;
 		this.eventLoop = channel.eventLoop();
+		NettyOptions<?, ?> options = parent.context.options;
+		if (options != null) {
+			this.highWaterMarkMessages = options.receiveHighWaterMarkMessages();
+			this.lowWaterMarkMessages = options.receiveLowWaterMarkMessages();
+			this.highWaterMarkBytes = options.receiveHighWaterMarkBytes();
+			this.lowWaterMarkBytes = options.receiveLowWaterMarkBytes();
+		}
+		else {
+			this.highWaterMarkMessages = NettyOptions.DEFAULT_RECEIVE_HIGH_WATER_MARK_MESSAGES;
+			this.lowWaterMarkMessages = highWaterMarkMessages / 2;
+			this.highWaterMarkBytes = NettyOptions.DEFAULT_RECEIVE_HIGH_WATER_MARK_BYTES;
+			this.lowWaterMarkBytes = highWaterMarkBytes / 2;
+		}
 		CANCEL.lazySet(this, () -> {
 			if (eventLoop.inEventLoop()) {
 				unsubscribeReceiver();
@@ -82,6 +117,10 @@ final class FluxReceive extends Flux<Object> implements Subscription, Disposable
 		return receiverQueue != null ? receiverQueue.size() : 0;
 	}
 
+	final long getPendingBytes() {
+		return receiverQueueBytes;
+	}
+
 	final boolean isCancelled() {
 		return receiverCancel == CANCELLED;
 	}
@@ -150,6 +189,10 @@ final class FluxReceive extends Flux<Object> implements Subscription, Disposable
 				ReferenceCountUtil.release(o);
 			}
 		}
+		receiverQueueBytes = 0L;
+		if (readSuspended) {
+			resumeRead();
+		}
 	}
 
 	final void drainReceiver() {
@@ -207,6 +250,8 @@ final class FluxReceive extends Flux<Object> implements Subscription, Disposable
 					break;
 				}
 
+				receiverQueueBytes -= sizeOf(v);
+
 				try {
 					a.onNext(v);
 				}
@@ -228,6 +273,24 @@ final class FluxReceive extends Flux<Object> implements Subscription, Disposable
 				return;
 			}
 
+			if (r != Long.MAX_VALUE) {
+				receiverDemand -= e;
+			}
+
+			if (readSuspended) {
+				if (q.size() <= lowWaterMarkMessages &&
+						receiverQueueBytes <= lowWaterMarkBytes) {
+					resumeRead();
+				}
+				else {
+					missed = WIP.addAndGet(this, -missed);
+					if (missed == 0) {
+						break;
+					}
+					continue;
+				}
+			}
+
 			if (r == Long.MAX_VALUE) {
 				channel.config()
 				       .setAutoRead(true);
@@ -236,10 +299,12 @@ final class FluxReceive extends Flux<Object> implements Subscription, Disposable
 				if(missed == 0){
 					break;
 				}
+				// the read may have synchronously queued more messages, drain them
 				receiverFastpath = true;
+				continue;
 			}
 
-			if ((receiverDemand -= e) > 0L || e > 0L) {
+			if (receiverDemand > 0L || e > 0L) {
 				channel.read();
 			}
 
@@ -323,10 +388,40 @@ final class FluxReceive extends Flux<Object> implements Subscription, Disposable
 				}
 			}
 			q.offer(msg);
+			long bytes = receiverQueueBytes + sizeOf(msg);
+			receiverQueueBytes = bytes;
+			if (!readSuspended &&
+					(q.size() >= highWaterMarkMessages || bytes >= highWaterMarkBytes)) {
+				suspendRead(q.size(), bytes);
+			}
 			drainReceiver();
 		}
 	}
 
+	final void suspendRead(int messages, long bytes) {
+		if (log.isDebugEnabled()) {
+			log.debug("{} Suspending reads, {} messages and {} bytes in buffer",
+					channel, messages, bytes);
+		}
+		readSuspended = true;
+		autoReadBeforeSuspend = channel.config()
+		                               .isAutoRead();
+		channel.config()
+		       .setAutoRead(false);
+	}
+
+	final void resumeRead() {
+		if (log.isDebugEnabled()) {
+			log.debug("{} Resuming reads, {} messages and {} bytes in buffer",
+					channel, getPending(), receiverQueueBytes);
+		}
+		readSuspended = false;
+		if (autoReadBeforeSuspend) {
+			channel.config()
+			       .setAutoRead(true);
+		}
+	}
+
 	final void onInboundComplete() {
 		if (inboundDone) {
 			return;
@@ -368,6 +463,7 @@ final class FluxReceive extends Flux<Object> implements Subscription, Disposable
 		if (q != null) {
 			q.clear();
 		}
+		receiverQueueBytes = 0L;
 		Throwable ex = inboundError;
 		if (ex != null) {
 			parent.context.fireContextError(ex);
@@ -386,6 +482,27 @@ final class FluxReceive extends Flux<Object> implements Subscription, Disposable
 		}
 	}
 
+	static long sizeOf(Object msg) {
+		if (msg instanceof ByteBuf) {
+			return ((ByteBuf) msg).readableBytes();
+		}
+		if (msg instanceof ByteBufHolder) {
+			return ((ByteBufHolder) msg).content()
+			                            .readableBytes();
+		}
+		if (msg instanceof FileRegion) {
+			return ((FileRegion) msg).count();
+		}
+		if (msg instanceof Iterable) {
+			long size = 0L;
+			for (Object o : (Iterable<?>) msg) {
+				size += sizeOf(o);
+			}
+			return size;
+		}
+		return 0L;
+	}
+
 	@SuppressWarnings("rawtypes")
 	static final AtomicReferenceFieldUpdater<FluxReceive, Disposable> CANCEL =
 			AtomicReferenceFieldUpdater.newUpdater(FluxReceive.class,
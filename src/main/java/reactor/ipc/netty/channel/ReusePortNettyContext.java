@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.ipc.netty.channel;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import io.netty.channel.Channel;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.NettyContext;
+
+/**
+ * A {@link NettyContext} grouping the sockets bound with {@code SO_REUSEPORT} on the
+ * same address by a server. The first bound socket stands for the group, disposing the
+ * group disposes all of them.
+ *
+ * @since 0.7.3
+ */
+public final class ReusePortNettyContext implements NettyContext {
+
+	/**
+	 * Bind a socket with each of the given bootstraps, in order. The first socket is
+	 * bound to the given address and the others to its bound address, so that a port
+	 * assigned by the system on the first bind is reused. The bound sockets are grouped
+	 * in a {@link ReusePortNettyContext} unless there is a single one; if a bind fails,
+	 * the sockets bound until then are disposed.
+	 *
+	 * @param bootstraps the bootstraps of each socket
+	 * @param address the address to bind the first socket to
+	 * @param binder binds a socket with the given bootstrap to the given address
+	 * @param <B> the bootstrap type
+	 *
+	 * @return a {@link Mono} of the bound sockets context
+	 */
+	public static <B> Mono<NettyContext> bind(List<B> bootstraps,
+			SocketAddress address,
+			BiFunction<? super B, ? super SocketAddress, ? extends Mono<NettyContext>> binder) {
+		Mono<NettyContext> first = binder.apply(bootstraps.get(0), address);
+		if (bootstraps.size() == 1) {
+			return first;
+		}
+		return first.flatMap(primary -> {
+			//a port assigned by the system on the first bind is reused by the others
+			SocketAddress local = primary.address();
+			List<NettyContext> contexts = new ArrayList<>(bootstraps.size());
+			contexts.add(primary);
+			return Flux.fromIterable(bootstraps.subList(1, bootstraps.size()))
+			           .concatMap(b -> binder.apply(b, local))
+			           .doOnNext(contexts::add)
+			           .then(Mono.<NettyContext>fromCallable(() -> new ReusePortNettyContext(contexts)))
+			           .doOnError(e -> contexts.forEach(NettyContext::dispose));
+		});
+	}
+
+	final List<NettyContext> contexts;
+
+	/**
+	 * Group the given contexts, the first one standing for the group.
+	 *
+	 * @param contexts the contexts of each bound socket
+	 */
+	public ReusePortNettyContext(List<NettyContext> contexts) {
+		if (contexts.isEmpty()) {
+			throw new IllegalArgumentException("contexts must not be empty");
+		}
+		this.contexts = Collections.unmodifiableList(new ArrayList<>(contexts));
+	}
+
+	/**
+	 * Return the contexts of each bound socket.
+	 *
+	 * @return the contexts of each bound socket
+	 */
+	public List<NettyContext> contexts() {
+		return contexts;
+	}
+
+	@Override
+	public InetSocketAddress address() {
+		return contexts.get(0)
+		               .address();
+	}
+
+	@Override
+	public Channel channel() {
+		return contexts.get(0)
+		               .channel();
+	}
+
+	@Override
+	public void dispose() {
+		for (NettyContext context : contexts) {
+			context.dispose();
+		}
+	}
+
+	@Override
+	public boolean isDisposed() {
+		for (NettyContext context : contexts) {
+			if (!context.isDisposed()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public Mono<Void> onClose() {
+		return Mono.when(contexts.stream()
+		                         .map(NettyContext::onClose)
+		                         .toArray(Mono[]::new));
+	}
+
+	@Override
+	public NettyContext onClose(Runnable onClose) {
+		onClose().subscribe(null, e -> onClose.run(), onClose);
+		return this;
+	}
+}
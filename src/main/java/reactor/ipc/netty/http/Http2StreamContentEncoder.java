@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.ipc.netty.http;
+
+import java.util.List;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToMessageEncoder;
+import io.netty.handler.codec.http.DefaultHttpContent;
+
+/**
+ * Wrap raw buffers written by {@link HttpOperations} as HTTP content on HTTP/2 stream
+ * channels. The HTTP/1.x codecs accept both while the HTTP/2 stream codec only accepts
+ * HTTP objects.
+ *
+ * @since 0.7.3
+ */
+@ChannelHandler.Sharable
+public final class Http2StreamContentEncoder extends MessageToMessageEncoder<ByteBuf> {
+
+	/**
+	 * The shared encoder instance
+	 */
+	public static final Http2StreamContentEncoder INSTANCE = new Http2StreamContentEncoder();
+
+	Http2StreamContentEncoder() {
+	}
+
+	@Override
+	protected void encode(ChannelHandlerContext ctx, ByteBuf msg, List<Object> out) {
+		out.add(new DefaultHttpContent(msg.retain()));
+	}
+}
@@ -64,6 +64,7 @@ public abstract class HttpOperations<INBOUND extends NettyInbound, OUTBOUND exte
 		extends ChannelOperations<INBOUND, OUTBOUND> implements HttpInfos {
 
 	volatile int statusAndHeadersSent = 0;
+	long         headersSentTime;
 
 	static final int READY        = 0;
 	static final int HEADERS_SENT = 1;
@@ -73,6 +74,7 @@ public abstract class HttpOperations<INBOUND extends NettyInbound, OUTBOUND exte
 			HttpOperations<INBOUND, OUTBOUND> replaced) {
 		super(ioChannel, replaced);
 		this.statusAndHeadersSent = replaced.statusAndHeadersSent;
+		this.headersSentTime = replaced.headersSentTime;
 	}
 
 	protected HttpOperations(Channel ioChannel,
@@ -250,7 +252,11 @@ public abstract class HttpOperations<INBOUND extends NettyInbound, OUTBOUND exte
 	 * @return true if marked for the first time
 	 */
 	protected final boolean markSentHeaders() {
-		return HTTP_STATE.compareAndSet(this, READY, HEADERS_SENT);
+		if (HTTP_STATE.compareAndSet(this, READY, HEADERS_SENT)) {
+			headersSentTime = System.nanoTime();
+			return true;
+		}
+		return false;
 	}
 
 	/**
@@ -268,7 +274,21 @@ public abstract class HttpOperations<INBOUND extends NettyInbound, OUTBOUND exte
 	 * @return true if marked for the first time
 	 */
 	protected final boolean markSentHeaderAndBody() {
-		return HTTP_STATE.compareAndSet(this, READY, BODY_SENT);
+		if (HTTP_STATE.compareAndSet(this, READY, BODY_SENT)) {
+			headersSentTime = System.nanoTime();
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Return the {@link System#nanoTime()} at which the headers were marked sent, 0 if
+	 * they have not been yet.
+	 *
+	 * @return the {@link System#nanoTime()} at which the headers were marked sent
+	 */
+	protected final long headersSentTime() {
+		return headersSentTime;
 	}
 
 	/**
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.ipc.netty.http;
+
+/**
+ * The HTTP protocol versions that can be enabled on an HTTP server or client.
+ *
+ * @since 0.7.3
+ */
+public enum HttpProtocol {
+
+	/**
+	 * HTTP/1.1, the default protocol.
+	 */
+	HTTP11,
+
+	/**
+	 * HTTP/2 over TLS, negotiated with ALPN. The configured
+	 * {@link io.netty.handler.ssl.SslContext} must advertise the {@code h2} application
+	 * protocol, otherwise connections fall back to HTTP/1.1 if enabled.
+	 */
+	H2,
+
+	/**
+	 * HTTP/2 over cleartext TCP with prior knowledge, the peer starting the connection
+	 * with the HTTP/2 connection preface.
+	 */
+	H2C
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.ipc.netty.http;
+
+import java.util.Date;
+import java.util.Optional;
+
+import io.netty.handler.codec.DateFormatter;
+import io.netty.util.AsciiString;
+import io.netty.util.concurrent.FastThreadLocal;
+
+/**
+ * Common HTTP header values encoded once as {@link AsciiString}. Netty encoders copy an
+ * {@link AsciiString} header as raw bytes, while a {@link String} value is encoded char
+ * by char, and formatted values such as dates or numbers allocate on every message.
+ * <p>
+ * The {@link #date() Date} value is formatted at most once per second on each thread,
+ * hence once per second per event loop when used from the I/O threads.
+ *
+ * @since 0.7.3
+ */
+public final class PreEncodedHeaders {
+
+	/**
+	 * {@code ReactorNetty/<version>}, suitable for the {@code Server} header.
+	 */
+	public static final AsciiString SERVER =
+			AsciiString.cached("ReactorNetty/" + Optional.ofNullable(PreEncodedHeaders.class.getPackage()
+			                                                                              .getImplementationVersion())
+			                                             .orElse("dev"));
+
+	/**
+	 * {@code ReactorNetty/<version>}, suitable for the {@code User-Agent} header.
+	 */
+	public static final AsciiString USER_AGENT = SERVER;
+
+	/**
+	 * {@code text/plain; charset=utf-8}
+	 */
+	public static final AsciiString TEXT_PLAIN_UTF8 =
+			AsciiString.cached("text/plain; charset=utf-8");
+
+	/**
+	 * {@code text/html; charset=utf-8}
+	 */
+	public static final AsciiString TEXT_HTML_UTF8 =
+			AsciiString.cached("text/html; charset=utf-8");
+
+	/**
+	 * {@code text/event-stream}
+	 */
+	public static final AsciiString TEXT_EVENT_STREAM =
+			AsciiString.cached("text/event-stream");
+
+	/**
+	 * {@code application/json}
+	 */
+	public static final AsciiString APPLICATION_JSON =
+			AsciiString.cached("application/json");
+
+	/**
+	 * Return the current date formatted for the {@code Date} header. The value is
+	 * cached per thread and refreshed when the current second changes.
+	 *
+	 * @return the current date formatted for the {@code Date} header
+	 */
+	public static AsciiString date() {
+		return date(System.currentTimeMillis());
+	}
+
+	static AsciiString date(long currentTimeMillis) {
+		CachedDate cached = DATE.get();
+		long second = currentTimeMillis / 1000L;
+		if (second != cached.second) {
+			cached.value = new AsciiString(DateFormatter.format(new Date(second * 1000L)));
+			cached.second = second;
+		}
+		return cached.value;
+	}
+
+	static final FastThreadLocal<CachedDate> DATE = new FastThreadLocal<CachedDate>() {
+		@Override
+		protected CachedDate initialValue() {
+			return new CachedDate();
+		}
+	};
+
+	static final class CachedDate {
+
+		long        second = Long.MIN_VALUE;
+		AsciiString value;
+	}
+
+	PreEncodedHeaders() {
+	}
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.ipc.netty.http.client;
+
+import java.net.SocketAddress;
+
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.ssl.SslHandler;
+
+/**
+ * Stamp the address resolution, connect and TLS handshake phases of a new connection,
+ * until the first {@link HttpClientOperations} bound to it takes the stamps and
+ * removes this handler.
+ * <p>
+ * The handler is added when the channel is registered, right before its remote address
+ * is resolved, and the outbound connect is only issued once it is.
+ */
+final class ConnectTimingsHandler extends ChannelOutboundHandlerAdapter
+		implements ChannelFutureListener {
+
+	long resolveStartTime;
+	long connectStartTime;
+	long connectEndTime;
+	long tlsHandshakeEndTime;
+
+	@Override
+	public void handlerAdded(ChannelHandlerContext ctx) {
+		resolveStartTime = System.nanoTime();
+	}
+
+	@Override
+	public void connect(ChannelHandlerContext ctx,
+			SocketAddress remoteAddress,
+			SocketAddress localAddress,
+			ChannelPromise promise) {
+		connectStartTime = System.nanoTime();
+		if (!promise.isVoid()) {
+			promise.addListener(this);
+		}
+		ctx.connect(remoteAddress, localAddress, promise);
+	}
+
+	@Override
+	public void operationComplete(ChannelFuture future) {
+		if (!future.isSuccess()) {
+			return;
+		}
+		connectEndTime = System.nanoTime();
+		SslHandler sslHandler = future.channel()
+		                              .pipeline()
+		                              .get(SslHandler.class);
+		if (sslHandler != null) {
+			sslHandler.handshakeFuture()
+			          .addListener(f -> {
+				          if (f.isSuccess()) {
+					          tlsHandshakeEndTime = System.nanoTime();
+				          }
+			          });
+		}
+	}
+}
@@ -0,0 +1,493 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.ipc.netty.http.client;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.EventLoop;
+import io.netty.channel.pool.ChannelPool;
+import io.netty.handler.codec.http2.Http2ConnectionDecoder;
+import io.netty.handler.codec.http2.Http2Exception;
+import io.netty.handler.codec.http2.Http2FrameListener;
+import io.netty.handler.codec.http2.Http2FrameListenerDecorator;
+import io.netty.handler.codec.http2.Http2FrameLogger;
+import io.netty.handler.codec.http2.Http2MultiplexCodec;
+import io.netty.handler.codec.http2.Http2MultiplexCodecBuilder;
+import io.netty.handler.codec.http2.Http2Settings;
+import io.netty.handler.codec.http2.Http2StreamChannel;
+import io.netty.handler.codec.http2.Http2StreamChannelBootstrap;
+import io.netty.handler.logging.LogLevel;
+import io.netty.handler.ssl.ApplicationProtocolNames;
+import io.netty.handler.ssl.ApplicationProtocolNegotiationHandler;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.Promise;
+import reactor.ipc.netty.NettyPipeline;
+import reactor.ipc.netty.channel.ContextHandler;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+/**
+ * A {@link ChannelPool} of HTTP/2 stream channels multiplexed over a few connections to
+ * the same remote address. A new connection is only opened when every open connection
+ * runs as many streams as its peer allows with {@code SETTINGS_MAX_CONCURRENT_STREAMS},
+ * acquisitions waiting meanwhile. Streams are never reused, releasing one closes it and
+ * frees a slot on its connection.
+ * <p>
+ * Connections of a pool share one event loop so the pool state is confined to it
+ * without locking.
+ */
+final class Http2ConnectionPool implements ChannelPool {
+
+	static final Logger log = Loggers.getLogger(Http2ConnectionPool.class);
+
+	final Bootstrap             bootstrap;
+	final EventLoop             executor;
+	final ContextHandler<?>     parentContext;
+	final boolean               negotiate;
+	final ChannelHandler        streamInitializer;
+	final Queue<Promise<Channel>> pending     = new ArrayDeque<>();
+	final List<Connection>      connections = new ArrayList<>();
+
+	Connection connecting;
+	Throwable  unsupported;
+	boolean    closed;
+
+	/**
+	 * @param bootstrap the connection bootstrap, with a remote address set
+	 * @param executor the event loop of all the pool connections
+	 * @param parentContext the context initializing the connection transport (SSL,
+	 * logging, proxy) and binding the stream channels
+	 * @param negotiate true if HTTP/2 must be negotiated with ALPN
+	 * @param streamInitializer the stream channel protocol handlers
+	 */
+	Http2ConnectionPool(Bootstrap bootstrap,
+			EventLoop executor,
+			ContextHandler<?> parentContext,
+			boolean negotiate,
+			ChannelHandler streamInitializer) {
+		this.bootstrap = bootstrap.clone(executor);
+		this.executor = executor;
+		this.parentContext = parentContext;
+		this.negotiate = negotiate;
+		this.streamInitializer = streamInitializer;
+	}
+
+	@Override
+	public Future<Channel> acquire() {
+		return acquire(executor.newPromise());
+	}
+
+	@Override
+	public Future<Channel> acquire(Promise<Channel> promise) {
+		if (executor.inEventLoop()) {
+			doAcquire(promise);
+		}
+		else {
+			executor.execute(() -> doAcquire(promise));
+		}
+		return promise;
+	}
+
+	@Override
+	public Future<Void> release(Channel channel) {
+		return release(channel, channel.eventLoop()
+		                               .newPromise());
+	}
+
+	@Override
+	public Future<Void> release(Channel channel, Promise<Void> promise) {
+		if (channel.isActive()) {
+			channel.close();
+		}
+		return promise.setSuccess(null);
+	}
+
+	@Override
+	public void close() {
+		if (executor.inEventLoop()) {
+			doClose();
+		}
+		else {
+			executor.execute(this::doClose);
+		}
+	}
+
+	/**
+	 * Return the number of open streams over all the pool connections.
+	 *
+	 * @return the number of open streams
+	 */
+	int activeStreams() {
+		int streams = 0;
+		for (Connection c : connections) {
+			streams += c.streams;
+		}
+		return streams;
+	}
+
+	/**
+	 * Return the number of open connections, including one being established.
+	 *
+	 * @return the number of open connections
+	 */
+	int connections() {
+		return connections.size() + (connecting != null ? 1 : 0);
+	}
+
+	void doAcquire(Promise<Channel> promise) {
+		if (closed) {
+			promise.tryFailure(new IllegalStateException("Pool closed"));
+			return;
+		}
+		if (unsupported != null) {
+			promise.tryFailure(unsupported);
+			return;
+		}
+		pending.offer(promise);
+		drain();
+	}
+
+	void drain() {
+		Promise<Channel> promise;
+		while ((promise = pending.peek()) != null) {
+			if (promise.isDone()) {
+				pending.poll();
+				continue;
+			}
+			Connection c = select();
+			if (c == null) {
+				break;
+			}
+			pending.poll();
+			c.openStream(promise);
+		}
+		if (!pending.isEmpty() && connecting == null && !closed) {
+			connect();
+		}
+	}
+
+	Connection select() {
+		Connection selected = null;
+		int available = 0;
+		for (Connection c : connections) {
+			int a = c.availableStreams();
+			if (a > available) {
+				selected = c;
+				available = a;
+			}
+		}
+		return selected;
+	}
+
+	void connect() {
+		Connection c = new Connection();
+		connecting = c;
+		Bootstrap b = bootstrap.clone();
+		b.handler(new ChannelInitializer<Channel>() {
+			@Override
+			protected void initChannel(Channel ch) {
+				c.init(ch);
+			}
+		});
+		b.connect()
+		 .addListener(f -> {
+			 if (!f.isSuccess()) {
+				 c.fail(f.cause());
+			 }
+		 });
+	}
+
+	void doClose() {
+		closed = true;
+		failPending(new IllegalStateException("Pool closed"));
+		for (Connection c : new ArrayList<>(connections)) {
+			c.channel.close();
+		}
+		if (connecting != null && connecting.channel != null) {
+			connecting.channel.close();
+		}
+	}
+
+	void failPending(Throwable cause) {
+		Promise<Channel> promise;
+		while ((promise = pending.poll()) != null) {
+			promise.tryFailure(cause);
+		}
+	}
+
+	void onReady(Connection c) {
+		if (connecting == c) {
+			connecting = null;
+		}
+		if (!closed && c.channel.isActive() && !connections.contains(c)) {
+			connections.add(c);
+		}
+		drain();
+	}
+
+	void onClosed(Connection c) {
+		connections.remove(c);
+		if (connecting == c) {
+			connecting = null;
+			//the connection failed before being usable, do not retry for the waiters
+			failPending(c.cause != null ? c.cause :
+					new IOException("Connection closed before receiving HTTP/2 settings"));
+		}
+		else {
+			drain();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "Http2ConnectionPool{" + bootstrap.config()
+		                                         .remoteAddress() + ", connections=" + connections() + ", pending=" + pending.size() + "}";
+	}
+
+	/**
+	 * Signal that the peer did not negotiate HTTP/2 with ALPN.
+	 */
+	static final class ProtocolNotNegotiatedException extends IOException {
+
+		ProtocolNotNegotiatedException(String protocol) {
+			super("HTTP/2 was not negotiated, the remote selected " + protocol);
+		}
+	}
+
+	static final ChannelHandler PUSH_REJECTOR = new ChannelInitializer<Channel>() {
+		@Override
+		protected void initChannel(Channel ch) {
+			ch.close();
+		}
+	};
+
+	static final String PREFACE_FLUSHER_NAME = NettyPipeline.LEFT + "h2PrefaceFlusher";
+
+	/**
+	 * Flush the connection preface written by the multiplex codec once the connection
+	 * is active, the codec otherwise only flushing after a read or a stream write while
+	 * the pool waits for the peer settings before opening any stream.
+	 */
+	static final ChannelHandler PREFACE_FLUSHER = new PrefaceFlusher();
+
+	@ChannelHandler.Sharable
+	static final class PrefaceFlusher extends ChannelInboundHandlerAdapter {
+
+		@Override
+		public void channelActive(ChannelHandlerContext ctx) {
+			ctx.flush();
+			ctx.fireChannelActive();
+			ctx.pipeline()
+			   .remove(this);
+		}
+	}
+
+	final class Connection {
+
+		Channel              channel;
+		Http2MultiplexCodec  codec;
+		Throwable            cause;
+		int                  streams;
+		boolean              ready;
+		boolean              goAway;
+
+		void init(Channel ch) {
+			this.channel = ch;
+			parentContext.accept(ch);
+			ChannelPipeline p = ch.pipeline();
+			if (negotiate) {
+				addHandler(p, NettyPipeline.HttpProtocolNegotiator, new AlpnNegotiator());
+			}
+			else {
+				configureH2(p);
+			}
+			//connection reads are always on, backpressure applies per stream window
+			ch.config()
+			  .setAutoRead(true);
+			ch.closeFuture()
+			  .addListener(f -> onClosed(this));
+		}
+
+		void configureH2(ChannelPipeline p) {
+			Http2MultiplexCodecBuilder builder =
+					Http2MultiplexCodecBuilder.forClient(PUSH_REJECTOR)
+					                          .initialSettings(Http2Settings.defaultSettings()
+					                                                        .pushEnabled(false));
+			if (log.isDebugEnabled()) {
+				builder.frameLogger(new Http2FrameLogger(LogLevel.DEBUG, HttpClient.class));
+			}
+			codec = builder.build();
+			Http2ConnectionDecoder decoder = codec.decoder();
+			decoder.frameListener(new SettingsListener(decoder.frameListener()));
+			addHandler(p, NettyPipeline.H2MultiplexHandler, codec);
+			if (!p.channel()
+			      .isActive()) {
+				addHandler(p, PREFACE_FLUSHER_NAME, PREFACE_FLUSHER);
+			}
+		}
+
+		void addHandler(ChannelPipeline p, String name, ChannelHandler handler) {
+			if (p.get(NettyPipeline.ReactiveBridge) != null) {
+				p.addBefore(NettyPipeline.ReactiveBridge, name, handler);
+			}
+			else {
+				p.addLast(name, handler);
+			}
+		}
+
+		int availableStreams() {
+			if (!ready || goAway || !channel.isActive()) {
+				return 0;
+			}
+			return codec.connection()
+			            .local()
+			            .maxActiveStreams() - streams;
+		}
+
+		void openStream(Promise<Channel> promise) {
+			streams++;
+			new Http2StreamChannelBootstrap(channel).handler(streamInitializer)
+			                                        .open()
+			                                        .addListener(f -> {
+				                                        if (f.isSuccess()) {
+					                                        Http2StreamChannel stream =
+							                                        (Http2StreamChannel) f.getNow();
+					                                        stream.closeFuture()
+					                                              .addListener(ff -> onStreamClosed());
+					                                        if (!promise.trySuccess(stream)) {
+						                                        stream.close();
+					                                        }
+				                                        }
+				                                        else {
+					                                        streams--;
+					                                        promise.tryFailure(f.cause());
+				                                        }
+			                                        });
+		}
+
+		void onStreamClosed() {
+			streams--;
+			if (goAway && streams == 0) {
+				channel.close();
+				return;
+			}
+			drain();
+		}
+
+		void fail(Throwable cause) {
+			this.cause = cause;
+			if (channel == null) {
+				onClosed(this);
+			}
+			else if (channel.isOpen()) {
+				channel.close();
+			}
+		}
+
+		void onSettings() {
+			if (log.isDebugEnabled()) {
+				log.debug("{} HTTP/2 settings received, max concurrent streams: {}",
+						channel,
+						codec.connection()
+						     .local()
+						     .maxActiveStreams());
+			}
+			if (!ready) {
+				ready = true;
+				onReady(this);
+			}
+			else {
+				drain();
+			}
+		}
+
+		void onGoAway() {
+			goAway = true;
+			if (log.isDebugEnabled()) {
+				log.debug("{} GOAWAY received, draining {} streams", channel, streams);
+			}
+			if (streams == 0) {
+				channel.close();
+			}
+			else {
+				drain();
+			}
+		}
+
+		/**
+		 * Track the peer settings and GOAWAY, the multiplex codec consuming both.
+		 */
+		final class SettingsListener extends Http2FrameListenerDecorator {
+
+			SettingsListener(Http2FrameListener listener) {
+				super(listener);
+			}
+
+			@Override
+			public void onSettingsRead(ChannelHandlerContext ctx, Http2Settings settings)
+					throws Http2Exception {
+				super.onSettingsRead(ctx, settings);
+				onSettings();
+			}
+
+			@Override
+			public void onGoAwayRead(ChannelHandlerContext ctx,
+					int lastStreamId,
+					long errorCode,
+					ByteBuf debugData) throws Http2Exception {
+				super.onGoAwayRead(ctx, lastStreamId, errorCode, debugData);
+				onGoAway();
+			}
+		}
+
+		final class AlpnNegotiator extends ApplicationProtocolNegotiationHandler {
+
+			AlpnNegotiator() {
+				super(ApplicationProtocolNames.HTTP_1_1);
+			}
+
+			@Override
+			protected void configurePipeline(ChannelHandlerContext ctx, String protocol) {
+				if (ApplicationProtocolNames.HTTP_2.equals(protocol)) {
+					configureH2(ctx.pipeline());
+				}
+				else {
+					ProtocolNotNegotiatedException e = new ProtocolNotNegotiatedException(protocol);
+					unsupported = e;
+					fail(e);
+				}
+			}
+
+			@Override
+			protected void handshakeFailure(ChannelHandlerContext ctx, Throwable cause) {
+				fail(cause);
+			}
+		}
+	}
+}
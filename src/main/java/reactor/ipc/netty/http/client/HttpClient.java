@@ -19,12 +19,12 @@ package reactor.ipc.netty.http.client;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
+import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.pool.ChannelPool;
@@ -46,12 +46,17 @@ import reactor.ipc.netty.NettyInbound;
 import reactor.ipc.netty.NettyOutbound;
 import reactor.ipc.netty.NettyPipeline;
 import reactor.ipc.netty.channel.ContextHandler;
+import reactor.ipc.netty.http.HttpProtocol;
 import reactor.ipc.netty.http.HttpResources;
+import reactor.ipc.netty.http.PreEncodedHeaders;
 import reactor.ipc.netty.http.server.HttpServerResponse;
 import reactor.ipc.netty.http.websocket.WebsocketInbound;
 import reactor.ipc.netty.http.websocket.WebsocketOutbound;
 import reactor.ipc.netty.options.ClientOptions;
+import reactor.ipc.netty.resources.PoolResources;
 import reactor.ipc.netty.tcp.TcpClient;
+import reactor.util.Logger;
+import reactor.util.Loggers;
 
 /**
  * The base class for a Netty-based Http client.
@@ -62,7 +67,7 @@ import reactor.ipc.netty.tcp.TcpClient;
  */
 public class HttpClient implements NettyConnector<HttpClientResponse, HttpClientRequest> {
 
-	public static final String USER_AGENT = String.format("ReactorNetty/%s", reactorNettyVersion());
+	public static final String USER_AGENT = PreEncodedHeaders.USER_AGENT.toString();
 
 
 	/**
@@ -368,6 +373,7 @@ public class HttpClient implements NettyConnector<HttpClientResponse, HttpClient
 	final static String         HTTP_SCHEME    = "http";
 	final static String         HTTPS_SCHEME   = "https";
 	final static LoggingHandler loggingHandler = new LoggingHandler(HttpClient.class);
+	final static Logger         log            = Loggers.getLogger(HttpClient.class);
 
 	@SuppressWarnings("unchecked")
 	final class TcpBridgeClient extends TcpClient implements
@@ -382,7 +388,77 @@ public class HttpClient implements NettyConnector<HttpClientResponse, HttpClient
 				InetSocketAddress address,
 				boolean secure,
 				Consumer<? super Channel> onSetup) {
-			return super.newHandler(handler, address, secure, onSetup);
+			return newHandler(handler, address, secure, onSetup, true);
+		}
+
+		/**
+		 * Connect with HTTP/1.1 or, if enabled for the transport and the request can be
+		 * multiplexed, as a stream over a pooled HTTP/2 connection.
+		 */
+		Mono<NettyContext> newHandler(BiFunction<? super NettyInbound, ? super NettyOutbound, ? extends Publisher<Void>> handler,
+				InetSocketAddress address,
+				boolean secure,
+				Consumer<? super Channel> onSetup,
+				boolean multiplexed) {
+			HttpProtocol h2 = secure ? HttpProtocol.H2 : HttpProtocol.H2C;
+			if (!multiplexed || handler == null || !options.isProtocolEnabled(h2)) {
+				return super.newHandler(handler, address, secure, onSetup);
+			}
+
+			Mono<NettyContext> stream = Mono.defer(() -> {
+				SocketAddress remote = address != null ? address : options.getAddress();
+				ChannelPool pool = http2Pool(remote, secure);
+				if (pool == null) {
+					return super.newHandler(handler, address, secure, onSetup);
+				}
+				return Mono.create(sink -> {
+					ContextHandler<Channel> contextHandler =
+							doStreamHandler(handler, sink, secure, remote, pool, onSetup);
+					sink.onCancel(contextHandler);
+					contextHandler.setFuture(pool.acquire());
+				});
+			});
+
+			if (secure && options.isProtocolEnabled(HttpProtocol.HTTP11)) {
+				return stream.onErrorResume(Http2ConnectionPool.ProtocolNotNegotiatedException.class,
+						e -> super.newHandler(handler, address, true, onSetup));
+			}
+			return stream;
+		}
+
+		/**
+		 * Return the HTTP/2 pool of the {@link PoolResources} for the remote address, or
+		 * null if there are no pool resources or they do not keep multiplexed pools. The
+		 * pool is closed with the pool resources.
+		 */
+		ChannelPool http2Pool(SocketAddress remote, boolean secure) {
+			PoolResources poolResources = options.getPoolResources();
+			if (poolResources == null) {
+				return null;
+			}
+			return poolResources.selectOrCreateMultiplexed(secure ? "h2" : "h2c",
+					remote,
+					() -> newHttp2Pool(remote, secure));
+		}
+
+		Http2ConnectionPool newHttp2Pool(SocketAddress remote, boolean secure) {
+			//connections outlive the request creating the pool, their context is not
+			//bound to any request sink
+			ContextHandler<Channel> parentContext =
+					ContextHandler.newClientConnectionContext(options,
+							loggingHandler,
+							secure,
+							remote,
+							EMPTY);
+			Bootstrap b = options.get()
+			                     .remoteAddress(remote);
+			return new Http2ConnectionPool(b,
+					b.config()
+					 .group()
+					 .next(),
+					parentContext,
+					secure,
+					new Http2StreamInitializer(parentContext, options.acceptGzip()));
 		}
 
 		@Override
@@ -392,6 +468,7 @@ public class HttpClient implements NettyConnector<HttpClientResponse, HttpClient
 				SocketAddress providedAddress,
 				ChannelPool pool,
 				Consumer<? super Channel> onSetup) {
+			long acquireStartTime = HttpClient.this.options.observer() != null ? System.nanoTime() : 0L;
 			return ContextHandler.<SocketChannel>newClientContext(sink,
 					options,
 					loggingHandler,
@@ -402,12 +479,40 @@ public class HttpClient implements NettyConnector<HttpClientResponse, HttpClient
 						if(onSetup != null){
 							onSetup.accept(ch);
 						}
-						return HttpClientOperations.bindHttp(ch, handler, c);
+						return HttpClientOperations.bindHttp(ch, handler, c, HttpClient.this.options, acquireStartTime);
 					} : EMPTY).onPipeline(this);
 		}
 
+		/**
+		 * Bind a request to a stream channel acquired from an HTTP/2 connection pool, the
+		 * stream pipeline being set by the pool rather than by this context.
+		 */
+		ContextHandler<Channel> doStreamHandler(BiFunction<? super NettyInbound, ? super NettyOutbound, ? extends Publisher<Void>> handler,
+				MonoSink<NettyContext> sink,
+				boolean secure,
+				SocketAddress providedAddress,
+				ChannelPool pool,
+				Consumer<? super Channel> onSetup) {
+			long acquireStartTime = HttpClient.this.options.observer() != null ? System.nanoTime() : 0L;
+			return ContextHandler.<Channel>newClientContext(sink,
+					options,
+					loggingHandler,
+					secure,
+					providedAddress,
+					pool,
+					(ch, c, msg) -> {
+						if (onSetup != null) {
+							onSetup.accept(ch);
+						}
+						return HttpClientOperations.bindHttp(ch, handler, c, HttpClient.this.options, acquireStartTime);
+					});
+		}
+
 		@Override
 		public void accept(ChannelPipeline pipeline, ContextHandler<Channel> c) {
+			if (HttpClient.this.options.observer() != null) {
+				pipeline.addFirst(NettyPipeline.ConnectTimings, new ConnectTimingsHandler());
+			}
 			pipeline.addLast(NettyPipeline.HttpCodec, new HttpClientCodec());
 			if (options.acceptGzip()) {
 				pipeline.addAfter(NettyPipeline.HttpCodec,
@@ -417,11 +522,6 @@ public class HttpClient implements NettyConnector<HttpClientResponse, HttpClient
 		}
 	}
 
-	static String reactorNettyVersion() {
-		return Optional.ofNullable(HttpClient.class.getPackage().getImplementationVersion())
-		               .orElse("dev");
-	}
-
 	static Function<? super HttpClientRequest, ? extends Publisher<Void>> handler(Function<? super HttpClientRequest, ? extends Publisher<Void>> h,
 			HttpClientOptions opts) {
 		if (opts.acceptGzip()) {
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.ipc.netty.http.client;
+
+/**
+ * Observe the lifecycle timings of each exchange of an {@link HttpClient}, e.g. to
+ * record latency histograms per remote host. Set with
+ * {@link HttpClientOptions.Builder#observer(HttpClientObserver)}.
+ * <p>
+ * The observer is invoked on the connection event loop and must not block.
+ *
+ * @since 0.7.3
+ */
+@FunctionalInterface
+public interface HttpClientObserver {
+
+	/**
+	 * Called once a response has been entirely received. Exchanges failing before
+	 * that are not reported. The arguments are only valid during this call.
+	 *
+	 * @param response the received response, giving its request method, uri and status
+	 * @param timings the timings of the exchange
+	 */
+	void onResponseComplete(HttpClientResponse response, HttpClientTimings timings);
+}
@@ -39,6 +39,7 @@ import io.netty.handler.codec.http.DefaultHttpRequest;
 import io.netty.handler.codec.http.FullHttpResponse;
 import io.netty.handler.codec.http.HttpConstants;
 import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
 import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.HttpMessage;
 import io.netty.handler.codec.http.HttpMethod;
@@ -70,6 +71,8 @@ import reactor.ipc.netty.NettyPipeline;
 import reactor.ipc.netty.channel.ContextHandler;
 import reactor.ipc.netty.http.Cookies;
 import reactor.ipc.netty.http.HttpOperations;
+import reactor.ipc.netty.http.PreEncodedHeaders;
+import reactor.ipc.netty.http.websocket.WebsocketCompression;
 import reactor.ipc.netty.http.websocket.WebsocketInbound;
 import reactor.ipc.netty.http.websocket.WebsocketOutbound;
 import reactor.util.Logger;
@@ -80,12 +83,34 @@ import reactor.util.Loggers;
  * @author Simon Baslé
  */
 class HttpClientOperations extends HttpOperations<HttpClientResponse, HttpClientRequest>
-		implements HttpClientResponse, HttpClientRequest {
+		implements HttpClientResponse, HttpClientRequest, HttpClientTimings {
 
 	static HttpOperations bindHttp(Channel channel,
 			BiFunction<? super HttpClientResponse, ? super HttpClientRequest, ? extends Publisher<Void>> handler,
-			ContextHandler<?> context) {
-		return new HttpClientOperations(channel, handler, context);
+			ContextHandler<?> context,
+			HttpClientOptions options,
+			long acquireStartTime) {
+		HttpClientOperations ops = new HttpClientOperations(channel, handler, context);
+		ops.websocketCompression = options.websocketCompression();
+		ops.websocketMaxFramePayloadLength = options.websocketMaxFramePayloadLength();
+		if (options.observer() != null) {
+			ops.observer = options.observer();
+			ops.acquireStartTime = acquireStartTime;
+			ops.connectionAcquiredTime = System.nanoTime();
+			ChannelHandler connect = channel.pipeline()
+			                                .get(NettyPipeline.ConnectTimings);
+			if (connect instanceof ConnectTimingsHandler) {
+				ConnectTimingsHandler timings = (ConnectTimingsHandler) connect;
+				ops.resolveStartTime = timings.resolveStartTime;
+				ops.connectStartTime = timings.connectStartTime;
+				ops.connectEndTime = timings.connectEndTime;
+				ops.tlsHandshakeEndTime = timings.tlsHandshakeEndTime;
+				//only the first request on a connection reports its establishment
+				channel.pipeline()
+				       .remove(connect);
+			}
+		}
+		return ops;
 	}
 
 	final String[]    redirectedFrom;
@@ -101,6 +126,19 @@ class HttpClientOperations extends HttpOperations<HttpClientResponse, HttpClient
 	boolean clientError = true;
 	boolean serverError = true;
 	boolean redirectable;
+	WebsocketCompression websocketCompression;
+	int                  websocketMaxFramePayloadLength = 65536;
+
+	HttpClientObserver observer;
+	long               acquireStartTime;
+	long               resolveStartTime;
+	long               connectStartTime;
+	long               connectEndTime;
+	long               tlsHandshakeEndTime;
+	long               connectionAcquiredTime;
+	long               requestEndTime;
+	long               responseStartTime;
+	long               responseCompleteTime;
 
 	HttpClientOperations(Channel channel, HttpClientOperations replaced) {
 		super(channel, replaced);
@@ -114,6 +152,8 @@ class HttpClientOperations extends HttpOperations<HttpClientResponse, HttpClient
 		this.requestHeaders = replaced.requestHeaders;
 		this.clientError = replaced.clientError;
 		this.serverError = replaced.serverError;
+		this.websocketCompression = replaced.websocketCompression;
+		this.websocketMaxFramePayloadLength = replaced.websocketMaxFramePayloadLength;
 	}
 
 	HttpClientOperations(Channel channel,
@@ -128,7 +168,7 @@ class HttpClientOperations extends HttpOperations<HttpClientResponse, HttpClient
 		this.nettyRequest =
 				new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/");
 		this.requestHeaders = nettyRequest.headers();
-		this.requestHeaders.set(HttpHeaderNames.USER_AGENT, HttpClient.USER_AGENT);
+		this.requestHeaders.set(HttpHeaderNames.USER_AGENT, PreEncodedHeaders.USER_AGENT);
 		this.inboundPrefetch = 16;
 		chunkedTransfer(true);
 	}
@@ -474,6 +514,56 @@ class HttpClientOperations extends HttpOperations<HttpClientResponse, HttpClient
 		throw new IllegalStateException(version.protocolName() + " not supported");
 	}
 
+	@Override
+	public long acquireStartTime() {
+		return acquireStartTime;
+	}
+
+	@Override
+	public long resolveStartTime() {
+		return resolveStartTime;
+	}
+
+	@Override
+	public long connectStartTime() {
+		return connectStartTime;
+	}
+
+	@Override
+	public long connectEndTime() {
+		return connectEndTime;
+	}
+
+	@Override
+	public long tlsHandshakeEndTime() {
+		return tlsHandshakeEndTime;
+	}
+
+	@Override
+	public long connectionAcquiredTime() {
+		return connectionAcquiredTime;
+	}
+
+	@Override
+	public long requestStartTime() {
+		return headersSentTime();
+	}
+
+	@Override
+	public long requestEndTime() {
+		return requestEndTime;
+	}
+
+	@Override
+	public long responseStartTime() {
+		return responseStartTime;
+	}
+
+	@Override
+	public long responseCompleteTime() {
+		return responseCompleteTime;
+	}
+
 	@Override
 	protected void onHandlerStart() {
 		applyHandler();
@@ -484,6 +574,9 @@ class HttpClientOperations extends HttpOperations<HttpClientResponse, HttpClient
 		if (isWebsocket() || isInboundCancelled()) {
 			return;
 		}
+		if (observer != null) {
+			requestEndTime = System.nanoTime();
+		}
 		if (markSentHeaderAndBody()) {
 			if (log.isDebugEnabled()) {
 				log.debug("No sendHeaders() called before complete, sending " + "zero-length header");
@@ -526,6 +619,9 @@ class HttpClientOperations extends HttpOperations<HttpClientResponse, HttpClient
 				return;
 			}
 			started = true;
+			if (observer != null) {
+				responseStartTime = System.nanoTime();
+			}
 			setNettyResponse(response);
 
 			if (!isKeepAlive()) {
@@ -552,6 +648,7 @@ class HttpClientOperations extends HttpOperations<HttpClientResponse, HttpClient
 			}
 			if (msg instanceof FullHttpResponse) {
 				super.onInboundNext(ctx, msg);
+				onResponseComplete();
 				onHandlerTerminate();
 			}
 			return;
@@ -572,6 +669,7 @@ class HttpClientOperations extends HttpOperations<HttpClientResponse, HttpClient
 			}
 			//force auto read to enable more accurate close selection now inbound is done
 			channel().config().setAutoRead(true);
+			onResponseComplete();
 			onHandlerTerminate();
 			return;
 		}
@@ -596,6 +694,21 @@ class HttpClientOperations extends HttpOperations<HttpClientResponse, HttpClient
 		return nettyRequest;
 	}
 
+	/**
+	 * Report the exchange timings to the observer, if any
+	 */
+	final void onResponseComplete() {
+		if (observer != null) {
+			responseCompleteTime = System.nanoTime();
+			try {
+				observer.onResponseComplete(this, this);
+			}
+			catch (Throwable t) {
+				log.error("Observer failed on response complete", t);
+			}
+		}
+	}
+
 	final boolean checkResponseCode(HttpResponse response) {
 		int code = response.status()
 		                   .code();
@@ -650,7 +763,7 @@ class HttpClientOperations extends HttpOperations<HttpClientResponse, HttpClient
 
 		request.headers()
 		       .set(requestHeaders.remove(HttpHeaderNames.TRANSFER_ENCODING)
-		                          .setInt(HttpHeaderNames.CONTENT_LENGTH, 0));
+		                          .set(HttpHeaderNames.CONTENT_LENGTH, HttpHeaderValues.ZERO));
 		return request;
 	}
 
@@ -19,13 +19,21 @@ package reactor.ipc.netty.http.client;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.net.URI;
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 import io.netty.bootstrap.Bootstrap;
+import io.netty.handler.ssl.ApplicationProtocolConfig;
+import io.netty.handler.ssl.ApplicationProtocolNames;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslContextBuilder;
 import io.netty.util.NetUtil;
+import reactor.ipc.netty.http.HttpProtocol;
+import reactor.ipc.netty.http.websocket.WebsocketCompression;
 import reactor.ipc.netty.options.ClientOptions;
 import reactor.ipc.netty.options.ClientProxyOptions;
 import reactor.ipc.netty.options.ClientProxyOptions.Proxy;
@@ -50,11 +58,19 @@ public final class HttpClientOptions extends ClientOptions {
 		return new HttpClientOptions.Builder();
 	}
 
-	private final boolean acceptGzip;
+	private final boolean           acceptGzip;
+	private final Set<HttpProtocol> protocols;
+	private final WebsocketCompression websocketCompression;
+	private final int                  websocketMaxFramePayloadLength;
+	private final HttpClientObserver   observer;
 
 	private HttpClientOptions(HttpClientOptions.Builder builder) {
 		super(builder);
 		this.acceptGzip = builder.acceptGzip;
+		this.protocols = builder.protocols;
+		this.websocketCompression = builder.websocketCompression;
+		this.websocketMaxFramePayloadLength = builder.websocketMaxFramePayloadLength;
+		this.observer = builder.observer;
 	}
 
 	@Override
@@ -90,9 +106,58 @@ public final class HttpClientOptions extends ClientOptions {
 		return this.acceptGzip;
 	}
 
+	/**
+	 * Returns the HTTP protocols the client may use, {@link HttpProtocol#HTTP11} only by
+	 * default.
+	 *
+	 * @return the enabled HTTP protocols
+	 */
+	public Set<HttpProtocol> protocols() {
+		return EnumSet.copyOf(protocols);
+	}
+
+	/**
+	 * Return true if the given protocol may be used.
+	 *
+	 * @param protocol the protocol to check
+	 *
+	 * @return true if the given protocol may be used
+	 */
+	public boolean isProtocolEnabled(HttpProtocol protocol) {
+		return protocols.contains(protocol);
+	}
+
+	/**
+	 * Returns the {@code permessage-deflate} settings offered to websocket servers, or
+	 * null if websocket compression is disabled.
+	 *
+	 * @return the websocket compression settings or null
+	 */
+	public WebsocketCompression websocketCompression() {
+		return websocketCompression;
+	}
+
+	/**
+	 * Returns the maximum payload length of a received websocket frame.
+	 *
+	 * @return the maximum payload length of a received websocket frame in bytes
+	 */
+	public int websocketMaxFramePayloadLength() {
+		return websocketMaxFramePayloadLength;
+	}
+
+	/**
+	 * Returns the observer of the exchange timings, or null if none.
+	 *
+	 * @return the observer of the exchange timings or null
+	 */
+	public HttpClientObserver observer() {
+		return observer;
+	}
+
 	@Override
 	protected SslContext defaultSslContext() {
-		return DEFAULT_SSL_CONTEXT;
+		return protocols.contains(HttpProtocol.H2) ? DEFAULT_H2_SSL_CONTEXT : DEFAULT_SSL_CONTEXT;
 	}
 
 	final String formatSchemeAndHost(String url, boolean ws) {
@@ -130,12 +195,17 @@ public final class HttpClientOptions extends ClientOptions {
 
 	@Override
 	public String asSimpleString() {
-		return super.asSimpleString() + (acceptGzip ? " with gzip" : "");
+		return super.asSimpleString() + (acceptGzip ? " with gzip" : "") +
+				(protocols.size() != 1 || !protocols.contains(HttpProtocol.HTTP11) ?
+						", protocols=" + protocols : "");
 	}
 
 	@Override
 	public String asDetailedString() {
-		return super.asDetailedString() + ", acceptGzip=" + acceptGzip;
+		return super.asDetailedString() + ", protocols=" + protocols +
+				", websocketCompression=" + websocketCompression +
+				", websocketMaxFramePayloadLength=" + websocketMaxFramePayloadLength +
+				", acceptGzip=" + acceptGzip;
 	}
 
 	@Override
@@ -151,7 +221,25 @@ public final class HttpClientOptions extends ClientOptions {
 		                                                                             .equals(HttpClient.WSS_SCHEME));
 	}
 
+	static ApplicationProtocolConfig alpn(Set<HttpProtocol> protocols) {
+		return protocols.contains(HttpProtocol.HTTP11) ? ALPN_H2_HTTP11 : ALPN_H2;
+	}
+
+	static final ApplicationProtocolConfig ALPN_H2_HTTP11 =
+			new ApplicationProtocolConfig(ApplicationProtocolConfig.Protocol.ALPN,
+					ApplicationProtocolConfig.SelectorFailureBehavior.NO_ADVERTISE,
+					ApplicationProtocolConfig.SelectedListenerFailureBehavior.ACCEPT,
+					ApplicationProtocolNames.HTTP_2,
+					ApplicationProtocolNames.HTTP_1_1);
+
+	static final ApplicationProtocolConfig ALPN_H2 =
+			new ApplicationProtocolConfig(ApplicationProtocolConfig.Protocol.ALPN,
+					ApplicationProtocolConfig.SelectorFailureBehavior.NO_ADVERTISE,
+					ApplicationProtocolConfig.SelectedListenerFailureBehavior.ACCEPT,
+					ApplicationProtocolNames.HTTP_2);
+
 	static final SslContext DEFAULT_SSL_CONTEXT;
+	static final SslContext DEFAULT_H2_SSL_CONTEXT;
 
 	static {
 		SslContext sslContext;
@@ -163,10 +251,24 @@ public final class HttpClientOptions extends ClientOptions {
 			sslContext = null;
 		}
 		DEFAULT_SSL_CONTEXT = sslContext;
+
+		try {
+			sslContext = SslContextBuilder.forClient()
+			                              .applicationProtocolConfig(ALPN_H2_HTTP11)
+			                              .build();
+		}
+		catch (Exception e) {
+			sslContext = null;
+		}
+		DEFAULT_H2_SSL_CONTEXT = sslContext;
 	}
 
 	public static final class Builder extends ClientOptions.Builder<Builder> {
-		private boolean acceptGzip;
+		private boolean           acceptGzip;
+		private Set<HttpProtocol> protocols = EnumSet.of(HttpProtocol.HTTP11);
+		private WebsocketCompression websocketCompression;
+		private int                  websocketMaxFramePayloadLength = 65536;
+		private HttpClientObserver   observer;
 
 		private Builder() {
 			super(new Bootstrap());
@@ -183,6 +285,69 @@ public final class HttpClientOptions extends ClientOptions {
 			return get();
 		}
 
+		/**
+		 * The HTTP protocols the client may use. {@link HttpProtocol#H2} is negotiated
+		 * with ALPN on secure connections, the {@link SslContext} configured with
+		 * {@code sslSupport} advertising it automatically. {@link HttpProtocol#H2C} is
+		 * used with prior knowledge on all cleartext connections. HTTP/2 requests are
+		 * multiplexed as streams over a few connections per remote address, while
+		 * websockets and connections not negotiating HTTP/2 use
+		 * {@link HttpProtocol#HTTP11} if enabled.
+		 *
+		 * @param protocols the protocols to use
+		 * @return {@code this}
+		 */
+		public final Builder protocols(HttpProtocol... protocols) {
+			Objects.requireNonNull(protocols, "protocols");
+			if (protocols.length == 0) {
+				throw new IllegalArgumentException("At least one protocol must be enabled");
+			}
+			this.protocols = EnumSet.copyOf(Arrays.asList(protocols));
+			return get();
+		}
+
+		/**
+		 * Offer the {@code permessage-deflate} extension when upgrading to websocket,
+		 * disabled by default.
+		 *
+		 * @param websocketCompression the websocket compression settings or null to
+		 * disable websocket compression
+		 * @return {@code this}
+		 */
+		public final Builder websocketCompression(WebsocketCompression websocketCompression) {
+			this.websocketCompression = websocketCompression;
+			return get();
+		}
+
+		/**
+		 * The maximum payload length of a websocket frame received from the server, 65536
+		 * bytes by default. Larger messages can still be received when fragmented, see
+		 * {@link reactor.ipc.netty.http.websocket.WebsocketInbound#receiveMessages()}.
+		 *
+		 * @param maxFramePayloadLength the maximum frame payload length in bytes
+		 * @return {@code this}
+		 */
+		public final Builder websocketMaxFramePayloadLength(int maxFramePayloadLength) {
+			if (maxFramePayloadLength < 1) {
+				throw new IllegalArgumentException("maxFramePayloadLength must be strictly positive");
+			}
+			this.websocketMaxFramePayloadLength = maxFramePayloadLength;
+			return get();
+		}
+
+		/**
+		 * Report the timings of each exchange, from connection acquisition to the
+		 * response completion, to the given observer. New connections then also stamp
+		 * their address resolution, connect and TLS handshake phases.
+		 *
+		 * @param observer the observer of the exchange timings or null to disable them
+		 * @return {@code this}
+		 */
+		public final Builder observer(HttpClientObserver observer) {
+			this.observer = observer;
+			return get();
+		}
+
 		/**
 		 * The HTTP proxy configuration
 		 *
@@ -203,12 +368,24 @@ public final class HttpClientOptions extends ClientOptions {
 		public final Builder from(HttpClientOptions options) {
 			super.from(options);
 			this.acceptGzip = options.acceptGzip;
+			this.protocols = options.protocols;
+			this.websocketCompression = options.websocketCompression;
+			this.websocketMaxFramePayloadLength = options.websocketMaxFramePayloadLength;
+			this.observer = options.observer;
 			return get();
 		}
 
 		@Override
 		public HttpClientOptions build() {
 			super.build();
+			Consumer<? super SslContextBuilder> sslConfigurator = sslSupportConfigurator();
+			if (sslConfigurator != null && protocols.contains(HttpProtocol.H2)) {
+				ApplicationProtocolConfig alpn = alpn(protocols);
+				sslSupport(b -> {
+					b.applicationProtocolConfig(alpn);
+					sslConfigurator.accept(b);
+				});
+			}
 			return new HttpClientOptions(this);
 		}
 	}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.ipc.netty.http.client;
+
+/**
+ * The {@link System#nanoTime()} at which each phase of a client exchange ended, as
+ * reported to an {@link HttpClientObserver}. A phase that did not happen, such as
+ * connecting when a pooled connection is reused or when the request is a stream of an
+ * HTTP/2 connection, is reported as 0.
+ * <p>
+ * Times are stamped on the exchange itself, no object being allocated per phase, and
+ * only the differences between two of them are meaningful.
+ *
+ * @since 0.7.3
+ */
+public interface HttpClientTimings {
+
+	/**
+	 * Return the time at which the request was subscribed and a connection requested.
+	 *
+	 * @return the acquisition start time
+	 */
+	long acquireStartTime();
+
+	/**
+	 * Return the time at which a new connection was registered and started resolving
+	 * the remote address, 0 if a pooled connection was reused.
+	 *
+	 * @return the address resolution start time
+	 */
+	long resolveStartTime();
+
+	/**
+	 * Return the time at which the remote address was resolved and the new connection
+	 * started connecting, 0 if a pooled connection was reused.
+	 *
+	 * @return the connect start time
+	 */
+	long connectStartTime();
+
+	/**
+	 * Return the time at which the new connection was established, 0 if a pooled
+	 * connection was reused.
+	 *
+	 * @return the connect end time
+	 */
+	long connectEndTime();
+
+	/**
+	 * Return the time at which the TLS handshake of the new connection completed, 0 if
+	 * a pooled connection was reused or the connection is not secure.
+	 *
+	 * @return the TLS handshake end time
+	 */
+	long tlsHandshakeEndTime();
+
+	/**
+	 * Return the time at which the connection was acquired and bound to the request.
+	 *
+	 * @return the connection acquired time
+	 */
+	long connectionAcquiredTime();
+
+	/**
+	 * Return the time at which the request headers were sent.
+	 *
+	 * @return the request start time
+	 */
+	long requestStartTime();
+
+	/**
+	 * Return the time at which the request was entirely written.
+	 *
+	 * @return the request end time
+	 */
+	long requestEndTime();
+
+	/**
+	 * Return the time at which the response headers were received, the difference
+	 * with {@link #requestStartTime()} being the time to first byte.
+	 *
+	 * @return the response start time
+	 */
+	long responseStartTime();
+
+	/**
+	 * Return the time at which the response was entirely received.
+	 *
+	 * @return the response complete time
+	 */
+	long responseCompleteTime();
+}
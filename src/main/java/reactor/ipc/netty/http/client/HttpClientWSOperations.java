@@ -35,6 +35,8 @@ import io.netty.handler.codec.http.websocketx.WebSocketClientHandshaker;
 import io.netty.handler.codec.http.websocketx.WebSocketClientHandshakerFactory;
 import io.netty.handler.codec.http.websocketx.WebSocketHandshakeException;
 import io.netty.handler.codec.http.websocketx.WebSocketVersion;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketClientExtension;
+import reactor.ipc.netty.http.websocket.WebsocketCompression;
 import reactor.ipc.netty.http.websocket.WebsocketInbound;
 import reactor.ipc.netty.http.websocket.WebsocketOutbound;
 
@@ -101,12 +103,16 @@ final class HttpClientWSOperations extends HttpClientOperations
 			};
 		}
 		else {*/
+			if (websocketCompression != null) {
+				websocketCompression.offer(replaced.requestHeaders());
+			}
 			handshaker = WebSocketClientHandshakerFactory.newHandshaker(currentURI,
 					WebSocketVersion.V13,
 					protocols,
 					true,
 					replaced.requestHeaders()
-					        .remove(HttpHeaderNames.HOST));
+					        .remove(HttpHeaderNames.HOST),
+					websocketMaxFramePayloadLength);
 //		}
 		handshakerResult = channel.newPromise();
 
@@ -142,7 +148,15 @@ final class HttpClientWSOperations extends HttpClientOperations
 
 				try {
 					if (!handshaker.isHandshakeComplete()) {
+						WebSocketClientExtension extension = websocketCompression != null ?
+								websocketCompression.accept(response.headers()) : null;
 						handshaker.finishHandshake(channel(), response);
+						if (extension != null) {
+							WebsocketCompression.addHandlers(channel().pipeline(),
+									"ws-encoder",
+									extension,
+									websocketMaxFramePayloadLength);
+						}
 					}
 				}
 				catch (WebSocketHandshakeException wshe) {
@@ -44,6 +44,7 @@ final class MonoHttpClientResponse extends Mono<HttpClientResponse> {
 	final HttpClient                                                     parent;
 	final URI                                                            startURI;
 	final HttpMethod                                                     method;
+	final boolean                                                        websocket;
 	final Function<? super HttpClientRequest, ? extends Publisher<Void>> handler;
 
 	static final AsciiString ALL = new AsciiString("*/*");
@@ -59,7 +60,8 @@ final class MonoHttpClientResponse extends Mono<HttpClientResponse> {
 		catch (URISyntaxException e) {
 			throw Exceptions.bubble(e);
 		}
-		this.method = method == HttpClient.WS ? HttpMethod.GET : method;
+		this.websocket = method == HttpClient.WS;
+		this.method = websocket ? HttpMethod.GET : method;
 		this.handler = handler;
 
 	}
@@ -73,7 +75,8 @@ final class MonoHttpClientResponse extends Mono<HttpClientResponse> {
 		Mono.defer(() -> parent.client.newHandler(new HttpClientHandler(this, bridge),
 				parent.options.getRemoteAddress(bridge.activeURI),
 				HttpClientOptions.isSecure(bridge.activeURI),
-				bridge))
+				bridge,
+				!websocket))
 		    .retry(bridge)
 		    .cast(HttpClientResponse.class)
 		    .subscribe(subscriber);
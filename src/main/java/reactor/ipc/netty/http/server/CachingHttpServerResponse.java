@@ -0,0 +1,337 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.ipc.netty.http.server;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.cookie.Cookie;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.NettyContext;
+import reactor.ipc.netty.NettyOutbound;
+import reactor.ipc.netty.http.websocket.WebsocketInbound;
+import reactor.ipc.netty.http.websocket.WebsocketOutbound;
+
+/**
+ * A {@link HttpServerResponse} copying the body buffers written through it to direct
+ * memory, for {@link HttpResponseCache}. Writes that are not {@link ByteBuf}, such as
+ * files or websocket upgrades, make the response uncacheable.
+ */
+final class CachingHttpServerResponse implements HttpServerResponse {
+
+	final HttpServerResponse delegate;
+	final int                maxBytes;
+
+	CompositeByteBuf body;
+	boolean          cacheable = true;
+
+	CachingHttpServerResponse(HttpServerResponse delegate, int maxBytes) {
+		this.delegate = delegate;
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * Return the captured body, owned by the caller, or null if the response is not
+	 * cacheable.
+	 */
+	synchronized ByteBuf detach() {
+		if (!cacheable) {
+			return null;
+		}
+		cacheable = false;
+		CompositeByteBuf body = this.body;
+		this.body = null;
+		return body != null ? body : alloc().directBuffer(0, 0);
+	}
+
+	/**
+	 * Release the captured body if not detached.
+	 */
+	synchronized void discard() {
+		cacheable = false;
+		if (body != null) {
+			body.release();
+			body = null;
+		}
+	}
+
+	synchronized void capture(Object msg) {
+		if (!cacheable) {
+			return;
+		}
+		if (!(msg instanceof ByteBuf)) {
+			discard();
+			return;
+		}
+		ByteBuf buf = (ByteBuf) msg;
+		int length = buf.readableBytes();
+		if (body == null) {
+			body = alloc().compositeDirectBuffer(Integer.MAX_VALUE);
+		}
+		if (body.readableBytes() + length > maxBytes) {
+			discard();
+			return;
+		}
+		if (length > 0) {
+			ByteBuf copy = alloc().directBuffer(length, length);
+			copy.writeBytes(buf, buf.readerIndex(), length);
+			body.addComponent(true, copy);
+		}
+	}
+
+	synchronized void uncacheable() {
+		discard();
+	}
+
+	Publisher<?> tee(Publisher<?> dataStream) {
+		return Flux.from(dataStream)
+		           .doOnNext(this::capture);
+	}
+
+	@Override
+	public NettyContext context() {
+		return delegate.context();
+	}
+
+	@Override
+	public Mono<Void> then() {
+		return delegate.then();
+	}
+
+	@Override
+	public NettyOutbound send(Publisher<? extends ByteBuf> dataStream) {
+		return sendObject(dataStream);
+	}
+
+	@Override
+	public NettyOutbound sendObject(Publisher<?> dataStream) {
+		return new Outbound(this, delegate.sendObject(tee(dataStream))
+		                                  .then());
+	}
+
+	@Override
+	public NettyOutbound sendObject(Object msg) {
+		return sendObject(Mono.just(msg));
+	}
+
+	@Override
+	public NettyOutbound sendFile(Path file, long position, long count) {
+		uncacheable();
+		return delegate.sendFile(file, position, count);
+	}
+
+	@Override
+	public NettyOutbound sendFileChunked(Path file, long position, long count) {
+		uncacheable();
+		return delegate.sendFileChunked(file, position, count);
+	}
+
+	@Override
+	public NettyOutbound sendHeaders() {
+		return new Outbound(this, delegate.sendHeaders()
+		                                  .then());
+	}
+
+	@Override
+	public Mono<Void> send() {
+		return delegate.send();
+	}
+
+	@Override
+	public HttpServerResponse addCookie(Cookie cookie) {
+		delegate.addCookie(cookie);
+		return this;
+	}
+
+	@Override
+	public HttpServerResponse addHeader(CharSequence name, CharSequence value) {
+		delegate.addHeader(name, value);
+		return this;
+	}
+
+	@Override
+	public HttpServerResponse chunkedTransfer(boolean chunked) {
+		delegate.chunkedTransfer(chunked);
+		return this;
+	}
+
+	@Override
+	public boolean hasSentHeaders() {
+		return delegate.hasSentHeaders();
+	}
+
+	@Override
+	public HttpServerResponse header(CharSequence name, CharSequence value) {
+		delegate.header(name, value);
+		return this;
+	}
+
+	@Override
+	public HttpServerResponse headers(HttpHeaders headers) {
+		delegate.headers(headers);
+		return this;
+	}
+
+	@Override
+	public HttpServerResponse keepAlive(boolean keepAlive) {
+		delegate.keepAlive(keepAlive);
+		return this;
+	}
+
+	@Override
+	public HttpHeaders responseHeaders() {
+		return delegate.responseHeaders();
+	}
+
+	@Override
+	public Mono<Void> sendNotFound() {
+		uncacheable();
+		return delegate.sendNotFound();
+	}
+
+	@Override
+	public Mono<Void> sendRedirect(String location) {
+		uncacheable();
+		return delegate.sendRedirect(location);
+	}
+
+	@Override
+	public Mono<Void> sendWebsocket(String protocols,
+			BiFunction<? super WebsocketInbound, ? super WebsocketOutbound, ? extends Publisher<Void>> websocketHandler) {
+		uncacheable();
+		return delegate.sendWebsocket(protocols, websocketHandler);
+	}
+
+	@Override
+	public HttpServerResponse sse() {
+		uncacheable();
+		delegate.sse();
+		return this;
+	}
+
+	@Override
+	public HttpResponseStatus status() {
+		return delegate.status();
+	}
+
+	@Override
+	public HttpServerResponse status(HttpResponseStatus status) {
+		delegate.status(status);
+		return this;
+	}
+
+	@Override
+	public Map<CharSequence, Set<Cookie>> cookies() {
+		return delegate.cookies();
+	}
+
+	@Override
+	public boolean isKeepAlive() {
+		return delegate.isKeepAlive();
+	}
+
+	@Override
+	public boolean isWebsocket() {
+		return delegate.isWebsocket();
+	}
+
+	@Override
+	public HttpMethod method() {
+		return delegate.method();
+	}
+
+	@Override
+	public String uri() {
+		return delegate.uri();
+	}
+
+	@Override
+	public HttpVersion version() {
+		return delegate.version();
+	}
+
+	/**
+	 * The outbound returned by the sending methods, so that writes chained after a first
+	 * one are captured as well.
+	 */
+	static final class Outbound implements NettyOutbound {
+
+		final CachingHttpServerResponse response;
+		final Mono<Void>                then;
+
+		Outbound(CachingHttpServerResponse response, Mono<Void> then) {
+			this.response = response;
+			this.then = then;
+		}
+
+		@Override
+		public NettyContext context() {
+			return response.context();
+		}
+
+		@Override
+		public Mono<Void> then() {
+			return then;
+		}
+
+		@Override
+		public NettyOutbound then(Publisher<Void> other) {
+			return new Outbound(response, then.thenEmpty(other));
+		}
+
+		@Override
+		public NettyOutbound send(Publisher<? extends ByteBuf> dataStream) {
+			return sendObject(dataStream);
+		}
+
+		@Override
+		public NettyOutbound sendObject(Publisher<?> dataStream) {
+			return then(response.delegate.sendObject(response.tee(dataStream))
+			                             .then());
+		}
+
+		@Override
+		public NettyOutbound sendObject(Object msg) {
+			return sendObject(Mono.just(msg));
+		}
+
+		@Override
+		public NettyOutbound sendFile(Path file, long position, long count) {
+			response.uncacheable();
+			return then(response.delegate.sendFile(file, position, count)
+			                             .then());
+		}
+
+		@Override
+		public NettyOutbound sendFileChunked(Path file, long position, long count) {
+			response.uncacheable();
+			return then(response.delegate.sendFileChunked(file, position, count)
+			                             .then());
+		}
+	}
+}
@@ -31,13 +31,15 @@ import reactor.ipc.netty.NettyPipeline;
  */
 final class CompressionHandler extends ChannelDuplexHandler {
 
+	final HttpServerOptions options;
 	final int minResponseSize;
 	final Queue<Object> messages = new ArrayDeque<>();
 
 	int bodyCompressThreshold;
 
-	CompressionHandler(int minResponseSize) {
-		this.minResponseSize = minResponseSize;
+	CompressionHandler(HttpServerOptions options) {
+		this.options = options;
+		this.minResponseSize = options.minCompressionResponseSize();
 		this.bodyCompressThreshold = minResponseSize;
 	}
 
@@ -135,7 +137,7 @@ final class CompressionHandler extends ChannelDuplexHandler {
 			ctx.pipeline()
 			   .addBefore(NettyPipeline.CompressionHandler,
 					   NettyPipeline.HttpCompressor,
-					   new FilteringHttpContentCompressor());
+					   new FilteringHttpContentCompressor(options));
 		}
 	}
 }
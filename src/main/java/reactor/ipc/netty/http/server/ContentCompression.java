@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.ipc.netty.http.server;
+
+import java.util.Arrays;
+import java.util.List;
+
+import io.netty.channel.ChannelHandler;
+
+/**
+ * A response content coding, selected by {@link FilteringHttpContentCompressor} from the
+ * request {@code Accept-Encoding} header.
+ */
+interface ContentCompression {
+
+	/**
+	 * Brotli, available when {@code com.aayushatharva.brotli4j} is on the classpath.
+	 */
+	ContentCompression BROTLI = ReflectiveCompression.brotli();
+
+	/**
+	 * Zstandard, available when {@code com.github.luben:zstd-jni} is on the classpath.
+	 */
+	ContentCompression ZSTD = ReflectiveCompression.zstd();
+
+	/**
+	 * Gzip, backed by {@link java.util.zip.Deflater} instances pooled per event loop.
+	 */
+	ContentCompression GZIP = new DeflateCompression("gzip", true);
+
+	/**
+	 * Deflate, backed by {@link java.util.zip.Deflater} instances pooled per event loop.
+	 */
+	ContentCompression DEFLATE = new DeflateCompression("deflate", false);
+
+	/**
+	 * The supported content codings, in default server preference order.
+	 */
+	List<ContentCompression> ALL = Arrays.asList(BROTLI, ZSTD, GZIP, DEFLATE);
+
+	/**
+	 * Return the supported content coding with the given name, or null.
+	 *
+	 * @param encoding the content coding name
+	 *
+	 * @return the supported content coding with the given name, or null
+	 */
+	static ContentCompression forEncoding(String encoding) {
+		for (ContentCompression c : ALL) {
+			if (c.encoding()
+			     .equalsIgnoreCase(encoding)) {
+				return c;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Return the content coding name, as found in {@code Accept-Encoding} and
+	 * {@code Content-Encoding} headers.
+	 *
+	 * @return the content coding name
+	 */
+	String encoding();
+
+	/**
+	 * Return true if the codec can be used in this runtime.
+	 *
+	 * @return true if the codec can be used in this runtime
+	 */
+	boolean isAvailable();
+
+	/**
+	 * Return the compression level used when none is configured.
+	 *
+	 * @return the compression level used when none is configured
+	 */
+	int defaultLevel();
+
+	/**
+	 * Return the minimum supported compression level.
+	 *
+	 * @return the minimum supported compression level
+	 */
+	int minLevel();
+
+	/**
+	 * Return the maximum supported compression level.
+	 *
+	 * @return the maximum supported compression level
+	 */
+	int maxLevel();
+
+	/**
+	 * Create a handler compressing the {@link io.netty.buffer.ByteBuf} written to it and
+	 * writing the end of the compressed stream when closed.
+	 *
+	 * @param level the compression level
+	 *
+	 * @return a new compressing handler
+	 */
+	ChannelHandler newEncoder(int level);
+}
@@ -24,6 +24,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -40,6 +41,24 @@ final class DefaultHttpServerRoutes implements HttpServerRoutes {
 	private final CopyOnWriteArrayList<HttpRouteHandler> handlers =
 			new CopyOnWriteArrayList<>();
 
+	final CopyOnWriteArrayList<StaticResourceHandler> resourceHandlers =
+			new CopyOnWriteArrayList<>();
+
+	private final boolean routeTable;
+
+	private volatile HttpRouteTable table;
+
+	DefaultHttpServerRoutes() {
+		this(false);
+	}
+
+	DefaultHttpServerRoutes(boolean routeTable) {
+		this.routeTable = routeTable;
+		if (routeTable) {
+			this.table = HttpRouteTable.compile(handlers);
+		}
+	}
+
 	@Override
 	public HttpServerRoutes directory(String uri, Path directory,
 			Function<HttpServerResponse, HttpServerResponse> interceptor) {
@@ -68,6 +87,14 @@ final class DefaultHttpServerRoutes implements HttpServerRoutes {
 		});
 	}
 
+	@Override
+	public HttpServerRoutes resources(String uri, Path directory,
+			Consumer<? super StaticResourceHandler.Builder> options) {
+		StaticResourceHandler handler = StaticResourceHandler.create(uri, directory, options);
+		resourceHandlers.add(handler);
+		return resources(uri, handler);
+	}
+
 	@Override
 	public HttpServerRoutes route(Predicate<? super HttpServerRequest> condition,
 			BiFunction<? super HttpServerRequest, ? super HttpServerResponse, ? extends Publisher<Void>> handler) {
@@ -82,11 +109,19 @@ final class DefaultHttpServerRoutes implements HttpServerRoutes {
 		else {
 			handlers.add(new HttpRouteHandler(condition, handler, null));
 		}
+		if (routeTable) {
+			synchronized (this) {
+				table = HttpRouteTable.compile(handlers);
+			}
+		}
 		return this;
 	}
 
 	@Override
 	public Publisher<Void> apply(HttpServerRequest request, HttpServerResponse response) {
+		if (routeTable) {
+			return applyTable(request, response);
+		}
 		final Iterator<HttpRouteHandler> iterator = handlers.iterator();
 		HttpRouteHandler cursor;
 
@@ -106,6 +141,32 @@ final class DefaultHttpServerRoutes implements HttpServerRoutes {
 		return response.sendNotFound();
 	}
 
+	/**
+	 * Dispose the {@link StaticResourceHandler} created by these routes, closing the
+	 * files they keep open.
+	 */
+	void disposeResources() {
+		for (StaticResourceHandler handler : resourceHandlers) {
+			handler.dispose();
+		}
+	}
+
+	Publisher<Void> applyTable(HttpServerRequest request, HttpServerResponse response) {
+		try {
+			HttpRouteTable.Match match = table.select(request);
+			if (match != null) {
+				return match.handler().handler.apply(request.paramsResolver(match.resolver()),
+						response);
+			}
+		}
+		catch (Throwable t) {
+			Exceptions.throwIfFatal(t);
+			return Mono.error(t); //500
+		}
+
+		return response.sendNotFound();
+	}
+
 	/**
 	 */
 	static final class HttpRouteHandler
@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.ipc.netty.http.server;
+
+import java.util.ArrayDeque;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.util.concurrent.FastThreadLocal;
+
+/**
+ * Gzip and deflate content codings. Unlike Netty's {@code JdkZlibEncoder}, which
+ * allocates a {@link Deflater} (and its native zlib stream) per response, encoders
+ * borrow a {@link Deflater} from a per-thread pool, hence per event loop, and return it
+ * reset once the response is compressed.
+ */
+final class DeflateCompression implements ContentCompression {
+
+	/**
+	 * Maximum number of idle {@link Deflater} kept per thread and compression level.
+	 */
+	static final int MAX_POOLED_DEFLATERS =
+			Integer.parseInt(System.getProperty("reactor.ipc.netty.http.server.maxPooledDeflaters",
+					"" + 16));
+
+	static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+
+	final String  encoding;
+	final boolean gzip;
+
+	DeflateCompression(String encoding, boolean gzip) {
+		this.encoding = encoding;
+		this.gzip = gzip;
+	}
+
+	@Override
+	public String encoding() {
+		return encoding;
+	}
+
+	@Override
+	public boolean isAvailable() {
+		return true;
+	}
+
+	@Override
+	public int defaultLevel() {
+		return 6;
+	}
+
+	@Override
+	public int minLevel() {
+		return 0;
+	}
+
+	@Override
+	public int maxLevel() {
+		return 9;
+	}
+
+	@Override
+	public ChannelHandler newEncoder(int level) {
+		return new Encoder(gzip, level);
+	}
+
+	/**
+	 * Idle {@link Deflater} of the current thread, indexed by level then by wrapping
+	 * mode: raw deflate for gzip, which writes its own header and trailer, or zlib.
+	 */
+	static final FastThreadLocal<ArrayDeque<Deflater>[]> POOL =
+			new FastThreadLocal<ArrayDeque<Deflater>[]>() {
+				@Override
+				@SuppressWarnings("unchecked")
+				protected ArrayDeque<Deflater>[] initialValue() {
+					return new ArrayDeque[20];
+				}
+			};
+
+	static Deflater borrow(int level, boolean nowrap) {
+		ArrayDeque<Deflater> pool = POOL.get()[index(level, nowrap)];
+		Deflater deflater = pool != null ? pool.poll() : null;
+		return deflater != null ? deflater : new Deflater(level, nowrap);
+	}
+
+	static void release(Deflater deflater, int level, boolean nowrap) {
+		ArrayDeque<Deflater>[] pools = POOL.get();
+		int i = index(level, nowrap);
+		ArrayDeque<Deflater> pool = pools[i];
+		if (pool == null) {
+			pool = new ArrayDeque<>();
+			pools[i] = pool;
+		}
+		if (pool.size() < MAX_POOLED_DEFLATERS) {
+			deflater.reset();
+			pool.offer(deflater);
+		}
+		else {
+			deflater.end();
+		}
+	}
+
+	static int pooled(int level, boolean nowrap) {
+		ArrayDeque<Deflater> pool = POOL.get()[index(level, nowrap)];
+		return pool != null ? pool.size() : 0;
+	}
+
+	static int index(int level, boolean nowrap) {
+		return level * 2 + (nowrap ? 1 : 0);
+	}
+
+	/**
+	 * Compress each written buffer with a sync flush, so streamed responses are not
+	 * delayed, and write the end of the stream when closed.
+	 */
+	static final class Encoder extends MessageToByteEncoder<ByteBuf> {
+
+		final boolean gzip;
+		final int     level;
+		final CRC32   crc;
+
+		Deflater deflater;
+		boolean  headerWritten;
+		boolean  finished;
+
+		Encoder(boolean gzip, int level) {
+			this.gzip = gzip;
+			this.level = level;
+			this.crc = gzip ? new CRC32() : null;
+		}
+
+		@Override
+		public void handlerAdded(ChannelHandlerContext ctx) {
+			deflater = borrow(level, gzip);
+		}
+
+		@Override
+		public void handlerRemoved(ChannelHandlerContext ctx) {
+			Deflater deflater = this.deflater;
+			if (deflater != null) {
+				this.deflater = null;
+				release(deflater, level, gzip);
+			}
+		}
+
+		@Override
+		protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, ByteBuf msg,
+				boolean preferDirect) {
+			int size = (int) Math.ceil(msg.readableBytes() * 1.001) + 12;
+			if (gzip && !headerWritten) {
+				size += GZIP_HEADER.length;
+			}
+			return ctx.alloc()
+			          .heapBuffer(size);
+		}
+
+		@Override
+		protected void encode(ChannelHandlerContext ctx, ByteBuf in, ByteBuf out) {
+			if (finished) {
+				out.writeBytes(in);
+				return;
+			}
+			int len = in.readableBytes();
+			if (len == 0) {
+				return;
+			}
+			if (gzip && !headerWritten) {
+				out.writeBytes(GZIP_HEADER);
+				headerWritten = true;
+			}
+
+			if (in.hasArray()) {
+				int offset = in.arrayOffset() + in.readerIndex();
+				deflater.setInput(in.array(), offset, len);
+				if (gzip) {
+					crc.update(in.array(), offset, len);
+				}
+			}
+			else {
+				byte[] bytes = new byte[len];
+				in.getBytes(in.readerIndex(), bytes);
+				deflater.setInput(bytes);
+				if (gzip) {
+					crc.update(bytes);
+				}
+			}
+			in.skipBytes(len);
+
+			for (; ; ) {
+				deflate(out, Deflater.SYNC_FLUSH);
+				if (out.isWritable()) {
+					break;
+				}
+				out.ensureWritable(out.writerIndex());
+			}
+		}
+
+		@Override
+		public void close(ChannelHandlerContext ctx, ChannelPromise promise) {
+			if (finished || deflater == null) {
+				ctx.close(promise);
+				return;
+			}
+			finished = true;
+
+			ByteBuf footer = ctx.alloc()
+			                    .heapBuffer();
+			if (gzip && !headerWritten) {
+				footer.writeBytes(GZIP_HEADER);
+				headerWritten = true;
+			}
+			deflater.finish();
+			while (!deflater.finished()) {
+				deflate(footer, Deflater.NO_FLUSH);
+				if (!footer.isWritable()) {
+					footer.ensureWritable(footer.writerIndex());
+				}
+			}
+			if (gzip) {
+				int crcValue = (int) crc.getValue();
+				int uncompressed = deflater.getTotalIn();
+				footer.writeIntLE(crcValue);
+				footer.writeIntLE(uncompressed);
+			}
+			ctx.writeAndFlush(footer)
+			   .addListener((ChannelFutureListener) f -> ctx.close(promise));
+		}
+
+		void deflate(ByteBuf out, int flush) {
+			int written;
+			do {
+				int writerIndex = out.writerIndex();
+				written = deflater.deflate(out.array(),
+						out.arrayOffset() + writerIndex,
+						out.writableBytes(),
+						flush);
+				out.writerIndex(writerIndex + written);
+			}
+			while (written > 0);
+		}
+	}
+}
@@ -15,18 +15,40 @@
  */
 package reactor.ipc.netty.http.server;
 
+import java.util.List;
+
 import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
 import io.netty.handler.codec.http.DefaultHttpContent;
-import io.netty.handler.codec.http.HttpContentCompressor;
+import io.netty.handler.codec.http.HttpContentEncoder;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpResponse;
 
 /**
+ * Compress responses with the content coding negotiated from the request
+ * {@code Accept-Encoding} header among the codings enabled on the server, at the level
+ * configured for the response content type.
+ *
  * @author mostroverkhov
  */
-final class FilteringHttpContentCompressor extends HttpContentCompressor {
+final class FilteringHttpContentCompressor extends HttpContentEncoder {
+
+	final HttpServerOptions options;
+
+	ChannelHandlerContext ctx;
 
-	FilteringHttpContentCompressor() {
+	FilteringHttpContentCompressor(HttpServerOptions options) {
+		this.options = options;
+	}
+
+	@Override
+	public void handlerAdded(ChannelHandlerContext ctx) throws Exception {
+		this.ctx = ctx;
+		super.handlerAdded(ctx);
 	}
 
 	@Override
@@ -44,6 +66,98 @@ final class FilteringHttpContentCompressor extends HttpContentCompressor {
 		}
 	}
 
+	@Override
+	protected Result beginEncode(HttpResponse response, String acceptEncoding) {
+		String contentEncoding = response.headers()
+		                                 .get(HttpHeaderNames.CONTENT_ENCODING);
+		if (contentEncoding != null &&
+				!HttpHeaderValues.IDENTITY.contentEqualsIgnoreCase(contentEncoding)) {
+			return null;
+		}
+
+		ContentCompression compression =
+				negotiate(acceptEncoding, options.availableCompressions());
+		if (compression == null) {
+			return null;
+		}
+
+		int level = options.compressionLevel(compression.encoding(),
+				response.headers()
+				        .get(HttpHeaderNames.CONTENT_TYPE));
+		Channel channel = ctx.channel();
+		return new Result(compression.encoding(),
+				new EmbeddedChannel(channel.id(),
+						channel.metadata()
+						       .hasDisconnect(),
+						channel.config(),
+						compression.newEncoder(level)));
+	}
+
+	/**
+	 * Select the content coding with the highest quality value in the given
+	 * {@code Accept-Encoding} header, ties being resolved by the server preference
+	 * order.
+	 *
+	 * @param acceptEncoding the {@code Accept-Encoding} header value
+	 * @param compressions the available content codings, in server preference order
+	 *
+	 * @return the selected content coding or null if none is acceptable
+	 */
+	static ContentCompression negotiate(String acceptEncoding,
+			List<ContentCompression> compressions) {
+		if (acceptEncoding == null || compressions.isEmpty()) {
+			return null;
+		}
+
+		float[] q = new float[compressions.size()];
+		float starQ = -1f;
+		boolean[] explicit = new boolean[q.length];
+
+		for (String coding : acceptEncoding.split(",")) {
+			int semicolon = coding.indexOf(';');
+			String name = (semicolon < 0 ? coding : coding.substring(0, semicolon)).trim();
+			float quality = 1f;
+			if (semicolon >= 0) {
+				int equals = coding.indexOf('=', semicolon);
+				if (equals >= 0) {
+					try {
+						quality = Float.parseFloat(coding.substring(equals + 1)
+						                                 .trim());
+					}
+					catch (NumberFormatException e) {
+						quality = 0f;
+					}
+				}
+			}
+			if ("*".equals(name)) {
+				starQ = quality;
+				continue;
+			}
+			if ("x-gzip".equalsIgnoreCase(name)) {
+				name = ContentCompression.GZIP.encoding();
+			}
+			for (int i = 0; i < q.length; i++) {
+				if (compressions.get(i)
+				                .encoding()
+				                .equalsIgnoreCase(name)) {
+					q[i] = quality;
+					explicit[i] = true;
+				}
+			}
+		}
+
+		ContentCompression selected = null;
+		float selectedQ = 0f;
+		for (int i = 0; i < q.length; i++) {
+			float quality = explicit[i] ? q[i] : starQ;
+			if (quality > selectedQ) {
+				selected = compressions.get(i);
+				selectedQ = quality;
+			}
+		}
+		return selected;
+	}
+
 	static final class FilterMessage {
 
 		private final Object message;
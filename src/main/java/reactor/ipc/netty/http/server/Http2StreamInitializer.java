@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.ipc.netty.http.server;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.http2.Http2StreamFrameToHttpObjectCodec;
+import reactor.ipc.netty.NettyPipeline;
+import reactor.ipc.netty.channel.ContextHandler;
+import reactor.ipc.netty.http.Http2StreamContentEncoder;
+
+/**
+ * Initialize each HTTP/2 stream channel so that its frames are converted to and from
+ * HTTP/1.x objects, letting the regular {@link HttpServerHandler} and
+ * {@link HttpServerOperations} serve one request per stream.
+ * <p>
+ * Stream channels honor their own auto-read flag, so a handler not consuming the
+ * request body stops the stream flow-control window from being replenished without
+ * stalling the other streams of the connection.
+ */
+final class Http2StreamInitializer extends ChannelInitializer<Channel> {
+
+	final ContextHandler<Channel> parentContext;
+	final HttpServerOptions       options;
+
+	Http2StreamInitializer(ContextHandler<Channel> parentContext,
+			HttpServerOptions options) {
+		this.parentContext = parentContext;
+		this.options = options;
+	}
+
+	@Override
+	protected void initChannel(Channel ch) {
+		ChannelPipeline p = ch.pipeline();
+		p.addLast(NettyPipeline.H2StreamCodec, new Http2StreamFrameToHttpObjectCodec(true));
+		p.addLast(NettyPipeline.H2StreamContentEncoder, Http2StreamContentEncoder.INSTANCE);
+
+		if (options.minCompressionResponseSize() >= 0) {
+			p.addLast(NettyPipeline.CompressionHandler, new CompressionHandler(options));
+		}
+
+		//a stream carries a single request, nothing is ever pipelined
+		p.addLast(NettyPipeline.HttpServerHandler, new HttpServerHandler(parentContext, 1));
+		parentContext.acceptMultiplexed(ch);
+	}
+}
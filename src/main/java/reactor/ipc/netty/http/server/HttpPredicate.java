@@ -17,10 +17,13 @@
 package reactor.ipc.netty.http.server;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.regex.Matcher;
@@ -28,6 +31,7 @@ import java.util.regex.Pattern;
 
 import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpVersion;
+import io.netty.util.concurrent.FastThreadLocal;
 
 /**
  * A Predicate to match against ServerRequest
@@ -223,12 +227,17 @@ final class HttpPredicate
 		private static final String  NAME_REPLACEMENT = "(?<%NAME%>[^\\/]*)";
 		//private static final String  NAME_REPLACEMENT = "([^\\/]*)";
 
-		private final List<String>                         pathVariables =
-				new ArrayList<>();
-		private final HashMap<String, Matcher>             matchers      =
-				new HashMap<>();
-		private final HashMap<String, Map<String, String>> vars          =
-				new HashMap<>();
+		/**
+		 * Default number of distinct uris a template keeps extracted path parameters
+		 * for.
+		 */
+		static final int DEFAULT_PARAMS_CACHE_SIZE = Integer.parseInt(System.getProperty(
+				"reactor.ipc.netty.http.server.paramsCacheSize",
+				"" + 256));
+
+		private final List<String>              pathVariables = new ArrayList<>();
+		private final FastThreadLocal<Matcher> matchers;
+		private final ParamsCache              vars;
 
 		private final Pattern uriPattern;
 
@@ -238,8 +247,18 @@ final class HttpPredicate
 		 * @param uriPattern The pattern to be used by the template
 		 */
 		public UriPathTemplate(String uriPattern) {
-			String s = "^" + uriPattern;
+			this(uriPattern, DEFAULT_PARAMS_CACHE_SIZE);
+		}
 
+		/**
+		 * Creates a new {@code UriPathTemplate} from the given {@code uriPattern},
+		 * caching the path parameters of at most {@code cacheSize} distinct uris.
+		 *
+		 * @param uriPattern The pattern to be used by the template
+		 * @param cacheSize the maximum number of uris to keep extracted parameters for
+		 */
+		UriPathTemplate(String uriPattern, int cacheSize) {
+			String s = "^" + uriPattern;
 			Matcher m = NAME_SPLAT_PATTERN.matcher(s);
 			while (m.find()) {
 				for (int i = 1; i <= m.groupCount(); i++) {
@@ -267,6 +286,13 @@ final class HttpPredicate
 			}
 
 			this.uriPattern = Pattern.compile(s + "$");
+			this.matchers = new FastThreadLocal<Matcher>() {
+				@Override
+				protected Matcher initialValue() {
+					return UriPathTemplate.this.uriPattern.matcher("");
+				}
+			};
+			this.vars = pathVariables.isEmpty() ? null : new ParamsCache(cacheSize);
 		}
 
 		/**
@@ -285,44 +311,164 @@ final class HttpPredicate
 		 * Matches the template against the given {@code uri} returning a map of path
 		 * parameters extracted from the uri, keyed by the names in the template. If the
 		 * uri does not match, or there are no path parameters, an empty map is returned.
+		 * <p>
+		 * Parameters of matching uris are kept in a bounded cache, older and less
+		 * recently used entries being evicted first.
 		 *
 		 * @param uri The uri to match
 		 *
 		 * @return the path parameters from the uri. Never {@code null}.
 		 */
 		final Map<String, String> match(String uri) {
+			if (vars == null) {
+				return Collections.emptyMap();
+			}
+
 			Map<String, String> pathParameters = vars.get(uri);
 			if (null != pathParameters) {
 				return pathParameters;
 			}
 
-			pathParameters = new HashMap<>();
 			Matcher m = matcher(uri);
-			if (m.matches()) {
-				int i = 1;
-				for (String name : pathVariables) {
-					String val = m.group(i++);
-					pathParameters.put(name, val);
-				}
+			if (!m.matches()) {
+				return Collections.emptyMap();
 			}
-			synchronized (vars) {
-				vars.put(uri, pathParameters);
+
+			pathParameters = new HashMap<>(pathVariables.size() * 2);
+			int i = 1;
+			for (String name : pathVariables) {
+				String val = m.group(i++);
+				pathParameters.put(name, val);
 			}
+			pathParameters = Collections.unmodifiableMap(pathParameters);
+			vars.put(uri, pathParameters);
 
 			return pathParameters;
 		}
 
+		/**
+		 * Return the number of {@link #match(String)} calls served from the
+		 * parameters cache.
+		 *
+		 * @return the number of cache hits
+		 */
+		final long cacheHits() {
+			return vars != null ? vars.hits.sum() : 0L;
+		}
+
+		/**
+		 * Return the number of {@link #match(String)} calls that had to evaluate the
+		 * template against the uri.
+		 *
+		 * @return the number of cache misses
+		 */
+		final long cacheMisses() {
+			return vars != null ? vars.misses.sum() : 0L;
+		}
+
+		/**
+		 * Return the number of cached parameters evicted to make room for new uris.
+		 *
+		 * @return the number of cache evictions
+		 */
+		final long cacheEvictions() {
+			return vars != null ? vars.evictions.sum() : 0L;
+		}
+
+		/**
+		 * Return a {@link Matcher} owned by the current thread, reset to the given uri.
+		 * Matchers are not thread-safe, and reusing a single instance per event loop
+		 * avoids allocating a new one for each request.
+		 */
 		private Matcher matcher(String uri) {
-			Matcher m = matchers.get(uri);
-			if (null == m) {
-				m = uriPattern.matcher(uri);
-				synchronized (matchers) {
-					matchers.put(uri, m);
+			return matchers.get()
+			               .reset(uri);
+		}
+
+	}
+
+	/**
+	 * A bounded, lock-free, 2-way set associative cache of extracted path parameters.
+	 * Each set uses a CLOCK-like second chance policy: a hit marks an entry as
+	 * referenced, and insertion evicts an unreferenced entry first, clearing the
+	 * reference bits it skips.
+	 */
+	static final class ParamsCache {
+
+		final AtomicReferenceArray<Entry> slots;
+		final int                         mask;
+		final LongAdder                   hits      = new LongAdder();
+		final LongAdder                   misses    = new LongAdder();
+		final LongAdder                   evictions = new LongAdder();
+
+		ParamsCache(int capacity) {
+			int sets = Math.max(1, Integer.highestOneBit(Math.max(capacity, 2) - 1));
+			this.slots = new AtomicReferenceArray<>(sets << 1);
+			this.mask = sets - 1;
+		}
+
+		Map<String, String> get(String uri) {
+			int index = index(uri);
+			for (int way = 0; way < 2; way++) {
+				Entry e = slots.get(index + way);
+				if (e != null && e.uri.equals(uri)) {
+					if (!e.referenced) {
+						e.referenced = true;
+					}
+					hits.increment();
+					return e.params;
 				}
 			}
-			return m;
+			misses.increment();
+			return null;
 		}
 
+		void put(String uri, Map<String, String> params) {
+			int index = index(uri);
+			Entry entry = new Entry(uri, params);
+			for (int way = 0; way < 2; way++) {
+				if (slots.get(index + way) == null && slots.compareAndSet(index + way,
+						null,
+						entry)) {
+					return;
+				}
+			}
+			for (int way = 0; way < 2; way++) {
+				Entry e = slots.get(index + way);
+				if (e == null || !e.referenced) {
+					if (slots.compareAndSet(index + way, e, entry)) {
+						if (e != null) {
+							evictions.increment();
+						}
+						return;
+					}
+				}
+				else {
+					e.referenced = false;
+				}
+			}
+			//both entries were referenced and got their second chance, pick one by hash
+			slots.set(index + (uri.hashCode() >>> 31), entry);
+			evictions.increment();
+		}
+
+		int index(String uri) {
+			int h = uri.hashCode();
+			return ((h ^ (h >>> 16)) & mask) << 1;
+		}
+
+		static final class Entry {
+
+			final String              uri;
+			final Map<String, String> params;
+
+			volatile boolean referenced;
+
+			Entry(String uri, Map<String, String> params) {
+				this.uri = uri;
+				this.params = params;
+			}
+		}
 	}
 
 	static final class HttpPrefixPredicate implements Predicate<HttpServerRequest> {
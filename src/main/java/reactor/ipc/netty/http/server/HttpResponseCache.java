@@ -0,0 +1,474 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.ipc.netty.http.server;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.zip.CRC32;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.util.AsciiString;
+import org.reactivestreams.Publisher;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+/**
+ * An in-memory cache of rendered {@code GET} responses, applied to route handlers with
+ * {@link #cache(BiFunction)} or {@link HttpServerRoutes#get(String, HttpResponseCache, BiFunction)}.
+ * <ul>
+ *     <li>Entries are keyed by the {@code GET} request uri and the values of the
+ *     configured {@link Builder#vary(CharSequence...) vary} request headers.</li>
+ *     <li>A {@code 200 OK} response whose body is written as {@link ByteBuf} is stored
+ *     with its headers, unless it sets cookies, is marked {@code no-store},
+ *     {@code no-cache} or {@code private}, or exceeds the
+ *     {@link Builder#maxEntryBytes(int) entry size}. The body is copied to direct
+ *     buffers as it is written.</li>
+ *     <li>Hits write the stored body as a retained duplicate, without copying it, and
+ *     answer a matching {@code If-None-Match} with {@code 304 Not Modified}. An
+ *     {@code ETag} is computed from the body if the handler did not set one.</li>
+ *     <li>Entries expire after the {@link Builder#ttl(Duration) time to live} and the
+ *     least recently used entries are evicted once the
+ *     {@link Builder#maxBytes(long) total size} is exceeded.</li>
+ * </ul>
+ * {@link #dispose()} releases all the stored bodies.
+ *
+ * @since 0.7.3
+ */
+public final class HttpResponseCache implements Disposable {
+
+	/**
+	 * Create a new {@link HttpResponseCache.Builder}.
+	 *
+	 * @return a new {@link HttpResponseCache.Builder}
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	final long           maxBytes;
+	final int            maxEntryBytes;
+	final long           ttlNanos;
+	final CharSequence[] vary;
+
+	final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	final LongAdder hits      = new LongAdder();
+	final LongAdder misses    = new LongAdder();
+	final LongAdder evictions = new LongAdder();
+
+	long    bytes;
+	boolean disposed;
+
+	HttpResponseCache(Builder builder) {
+		this.maxBytes = builder.maxBytes;
+		this.maxEntryBytes = builder.maxEntryBytes;
+		this.ttlNanos = builder.ttl.toNanos();
+		this.vary = builder.vary;
+	}
+
+	/**
+	 * Decorate the given handler so that its {@code GET} responses are served from and
+	 * stored into this cache. Other requests are passed to the handler.
+	 *
+	 * @param handler the handler rendering the responses
+	 *
+	 * @return the caching handler
+	 */
+	public BiFunction<HttpServerRequest, HttpServerResponse, Publisher<Void>> cache(
+			BiFunction<? super HttpServerRequest, ? super HttpServerResponse, ? extends Publisher<Void>> handler) {
+		Objects.requireNonNull(handler, "handler");
+		return (req, res) -> {
+			if (!HttpMethod.GET.equals(req.method())) {
+				return handler.apply(req, res);
+			}
+
+			String key = key(req);
+			Hit hit = lookup(key);
+			if (hit != null) {
+				hits.increment();
+				return serve(req, res, hit);
+			}
+
+			misses.increment();
+			CachingHttpServerResponse capture = new CachingHttpServerResponse(res, maxEntryBytes);
+			return Mono.from(handler.apply(req, capture))
+			           .doOnSuccess(v -> store(key, capture))
+			           .doFinally(s -> capture.discard());
+		};
+	}
+
+	/**
+	 * Return the number of requests served from the cache.
+	 *
+	 * @return the number of requests served from the cache
+	 */
+	public long hits() {
+		return hits.sum();
+	}
+
+	/**
+	 * Return the number of cacheable requests not found in the cache.
+	 *
+	 * @return the number of cacheable requests not found in the cache
+	 */
+	public long misses() {
+		return misses.sum();
+	}
+
+	/**
+	 * Return the ratio of {@link #hits()} to all cacheable requests, or 0 if none was
+	 * received.
+	 *
+	 * @return the cache hit ratio
+	 */
+	public double hitRatio() {
+		long hits = hits();
+		long total = hits + misses();
+		return total == 0L ? 0d : (double) hits / total;
+	}
+
+	/**
+	 * Return the number of entries removed because they expired or to honor the
+	 * maximum size.
+	 *
+	 * @return the number of evicted entries
+	 */
+	public long evictions() {
+		return evictions.sum();
+	}
+
+	/**
+	 * Return the number of stored responses.
+	 *
+	 * @return the number of stored responses
+	 */
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	/**
+	 * Return the total size of the stored response bodies.
+	 *
+	 * @return the total size of the stored response bodies in bytes
+	 */
+	public long bytes() {
+		synchronized (entries) {
+			return bytes;
+		}
+	}
+
+	/**
+	 * Remove all the stored responses.
+	 */
+	public void invalidateAll() {
+		List<Entry> removed;
+		synchronized (entries) {
+			removed = new ArrayList<>(entries.values());
+			entries.clear();
+			bytes = 0L;
+		}
+		for (Entry e : removed) {
+			e.body.release();
+		}
+	}
+
+	@Override
+	public void dispose() {
+		synchronized (entries) {
+			disposed = true;
+		}
+		invalidateAll();
+	}
+
+	@Override
+	public boolean isDisposed() {
+		synchronized (entries) {
+			return disposed;
+		}
+	}
+
+	String key(HttpServerRequest req) {
+		if (vary.length == 0) {
+			return req.uri();
+		}
+		StringBuilder key = new StringBuilder(req.uri());
+		HttpHeaders headers = req.requestHeaders();
+		for (CharSequence name : vary) {
+			key.append('\n');
+			String value = headers.get(name);
+			if (value != null) {
+				key.append(value);
+			}
+		}
+		return key.toString();
+	}
+
+	Hit lookup(String key) {
+		Entry expired;
+		synchronized (entries) {
+			Entry e = entries.get(key);
+			if (e == null) {
+				return null;
+			}
+			if (System.nanoTime() - e.storedAt < ttlNanos) {
+				return new Hit(e, e.body.retainedDuplicate());
+			}
+			expired = entries.remove(key);
+			bytes -= expired.size;
+		}
+		evictions.increment();
+		expired.body.release();
+		return null;
+	}
+
+	Publisher<Void> serve(HttpServerRequest req, HttpServerResponse res, Hit hit) {
+		Entry e = hit.entry;
+		HttpHeaders headers = res.responseHeaders();
+		for (String name : e.headers.names()) {
+			headers.set(name, e.headers.getAll(name));
+		}
+
+		String ifNoneMatch = req.requestHeaders()
+		                        .get(HttpHeaderNames.IF_NONE_MATCH);
+		if (ifNoneMatch != null && StaticResourceHandler.etagMatches(ifNoneMatch, e.etag)) {
+			hit.body.release();
+			return res.status(HttpResponseStatus.NOT_MODIFIED)
+			          .send();
+		}
+
+		headers.remove(HttpHeaderNames.TRANSFER_ENCODING)
+		       .set(HttpHeaderNames.CONTENT_LENGTH, e.contentLength);
+		return res.status(e.status)
+		          .send(Mono.just(hit.body))
+		          .then();
+	}
+
+	void store(String key, CachingHttpServerResponse capture) {
+		ByteBuf body = capture.detach();
+		if (body == null) {
+			return;
+		}
+		HttpHeaders source = capture.responseHeaders();
+		if (capture.status().code() != HttpResponseStatus.OK.code() ||
+				source.contains(HttpHeaderNames.SET_COOKIE) ||
+				source.contains(HttpHeaderNames.CACHE_CONTROL, HttpHeaderValues.NO_STORE, true) ||
+				source.contains(HttpHeaderNames.CACHE_CONTROL, HttpHeaderValues.NO_CACHE, true) ||
+				source.contains(HttpHeaderNames.CACHE_CONTROL, HttpHeaderValues.PRIVATE, true)) {
+			body.release();
+			return;
+		}
+
+		HttpHeaders headers = new DefaultHttpHeaders().set(source);
+		for (CharSequence name : EXCLUDED_HEADERS) {
+			headers.remove(name);
+		}
+		String etag = headers.get(HttpHeaderNames.ETAG);
+		if (etag == null) {
+			etag = etag(body);
+			headers.set(HttpHeaderNames.ETAG, etag);
+		}
+		Entry entry = new Entry(capture.status(), headers, etag, body, System.nanoTime());
+
+		List<Entry> removed = new ArrayList<>(1);
+		synchronized (entries) {
+			if (disposed) {
+				removed.add(entry);
+			}
+			else {
+				Entry previous = entries.put(key, entry);
+				bytes += entry.size;
+				if (previous != null) {
+					bytes -= previous.size;
+					removed.add(previous);
+				}
+				Iterator<Entry> it = entries.values()
+				                            .iterator();
+				while (bytes > maxBytes && it.hasNext()) {
+					Entry eldest = it.next();
+					it.remove();
+					bytes -= eldest.size;
+					removed.add(eldest);
+					evictions.increment();
+				}
+			}
+		}
+		for (Entry e : removed) {
+			e.body.release();
+		}
+	}
+
+	static String etag(ByteBuf body) {
+		CRC32 crc = new CRC32();
+		for (ByteBuffer b : body.nioBuffers()) {
+			crc.update(b);
+		}
+		return "\"" + Long.toHexString(crc.getValue()) + "-" +
+				Integer.toHexString(body.readableBytes()) + "\"";
+	}
+
+	/**
+	 * The hop-by-hop {@code Keep-Alive} header, {@link HttpHeaderNames#KEEP_ALIVE} being
+	 * deprecated.
+	 */
+	static final AsciiString KEEP_ALIVE = AsciiString.cached("keep-alive");
+
+	static final List<CharSequence> EXCLUDED_HEADERS =
+			Arrays.asList(HttpHeaderNames.CONTENT_LENGTH,
+					HttpHeaderNames.TRANSFER_ENCODING,
+					HttpHeaderNames.CONNECTION,
+					KEEP_ALIVE,
+					HttpHeaderNames.DATE);
+
+	/**
+	 * A stored response. The headers are never modified once stored.
+	 */
+	static final class Entry {
+
+		final HttpResponseStatus status;
+		final HttpHeaders        headers;
+		final String             etag;
+		final ByteBuf            body;
+		final int                size;
+		final AsciiString        contentLength;
+		final long               storedAt;
+
+		Entry(HttpResponseStatus status,
+				HttpHeaders headers,
+				String etag,
+				ByteBuf body,
+				long storedAt) {
+			this.status = status;
+			this.headers = headers;
+			this.etag = etag;
+			this.body = body;
+			this.size = body.readableBytes();
+			this.contentLength = new AsciiString(Integer.toString(size));
+			this.storedAt = storedAt;
+		}
+	}
+
+	/**
+	 * A stored response and a retained duplicate of its body, owned by the request.
+	 */
+	static final class Hit {
+
+		final Entry   entry;
+		final ByteBuf body;
+
+		Hit(Entry entry, ByteBuf body) {
+			this.entry = entry;
+			this.body = body;
+		}
+	}
+
+	public static final class Builder {
+
+		long           maxBytes      = 64L * 1024 * 1024;
+		int            maxEntryBytes = 1024 * 1024;
+		Duration       ttl           = Duration.ofMinutes(1);
+		CharSequence[] vary          = new CharSequence[0];
+
+		Builder() {
+		}
+
+		/**
+		 * The maximum total size of the stored bodies, 64MB by default. Least recently
+		 * used entries are evicted once exceeded.
+		 *
+		 * @param maxBytes the maximum total size in bytes
+		 * @return {@code this}
+		 */
+		public Builder maxBytes(long maxBytes) {
+			if (maxBytes < 1L) {
+				throw new IllegalArgumentException("maxBytes must be strictly positive");
+			}
+			this.maxBytes = maxBytes;
+			return this;
+		}
+
+		/**
+		 * The maximum size of a stored body, 1MB by default. Larger responses are
+		 * served but not stored.
+		 *
+		 * @param maxEntryBytes the maximum size of a stored body in bytes
+		 * @return {@code this}
+		 */
+		public Builder maxEntryBytes(int maxEntryBytes) {
+			if (maxEntryBytes < 0) {
+				throw new IllegalArgumentException("maxEntryBytes must be positive");
+			}
+			this.maxEntryBytes = maxEntryBytes;
+			return this;
+		}
+
+		/**
+		 * How long a response is served from the cache once stored, 1 minute by
+		 * default.
+		 *
+		 * @param ttl the time to live of the stored responses
+		 * @return {@code this}
+		 */
+		public Builder ttl(Duration ttl) {
+			Objects.requireNonNull(ttl, "ttl");
+			if (ttl.isNegative() || ttl.isZero()) {
+				throw new IllegalArgumentException("ttl must be strictly positive");
+			}
+			this.ttl = ttl;
+			return this;
+		}
+
+		/**
+		 * The request headers the responses vary on, part of the cache key in addition
+		 * to the uri, e.g. {@code Accept} or {@code Accept-Language}.
+		 *
+		 * @param requestHeaders the names of the request headers
+		 * @return {@code this}
+		 */
+		public Builder vary(CharSequence... requestHeaders) {
+			Objects.requireNonNull(requestHeaders, "requestHeaders");
+			this.vary = requestHeaders.clone();
+			return this;
+		}
+
+		/**
+		 * Build a new {@link HttpResponseCache}.
+		 *
+		 * @return a new {@link HttpResponseCache}
+		 */
+		public HttpResponseCache build() {
+			return new HttpResponseCache(this);
+		}
+	}
+}
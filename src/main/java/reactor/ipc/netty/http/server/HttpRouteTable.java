@@ -0,0 +1,415 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.ipc.netty.http.server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import reactor.ipc.netty.http.server.DefaultHttpServerRoutes.HttpRouteHandler;
+
+/**
+ * An immutable, method-indexed segment trie compiled from the {@link HttpPredicate}
+ * routes of a {@link DefaultHttpServerRoutes}. Lookup is linear in the request uri
+ * length and does not involve any regular expression.
+ * <p>
+ * A template is compiled when it starts with {@code /} and each segment is either a
+ * literal, a <code>{var}</code> capture, or a trailing {@code **} /
+ * <code>{var}**</code> splat. Literal segments are matched verbatim. Any other
+ * route (custom {@link java.util.function.Predicate}, prefix, regex-like template) is
+ * kept in declaration order and scanned linearly, so that the first declared matching
+ * route always wins, as for the default registry.
+ */
+final class HttpRouteTable {
+
+	/**
+	 * Compile the given handlers, in declaration order, into a new table.
+	 *
+	 * @param handlers the registered handlers
+	 *
+	 * @return a new {@link HttpRouteTable}
+	 */
+	static HttpRouteTable compile(List<HttpRouteHandler> handlers) {
+		HttpRouteTable table = new HttpRouteTable();
+		List<Fallback> fallbacks = new ArrayList<>();
+		int index = 0;
+		for (HttpRouteHandler handler : handlers) {
+			if (!table.add(handler, index)) {
+				fallbacks.add(new Fallback(handler, index));
+			}
+			index++;
+		}
+		table.fallbacks = fallbacks.toArray(new Fallback[0]);
+		return table;
+	}
+
+	final Map<HttpMethod, Node> methods = new HashMap<>();
+	final Node                  anyMethod = new Node();
+
+	Fallback[] fallbacks;
+
+	HttpRouteTable() {
+	}
+
+	/**
+	 * Select the first declared route matching the given request, or {@code null}.
+	 *
+	 * @param request the current request
+	 *
+	 * @return the first matching route or {@code null}
+	 */
+	Match select(HttpServerRequest request) {
+		Match match = find(request.method(), request.version(), request.uri());
+		int limit = match != null ? match.route.index : Integer.MAX_VALUE;
+
+		for (Fallback fallback : fallbacks) {
+			if (fallback.route.index > limit) {
+				break;
+			}
+			if (fallback.route.handler.test(request)) {
+				return fallback;
+			}
+		}
+		return match;
+	}
+
+	/**
+	 * Find the first declared compiled route matching the given method, protocol and
+	 * uri, ignoring non compiled routes.
+	 *
+	 * @param method the request method
+	 * @param protocol the request protocol version
+	 * @param uri the raw request uri
+	 *
+	 * @return the first matching compiled route or {@code null}
+	 */
+	Match find(HttpMethod method, HttpVersion protocol, String uri) {
+		Search search = new Search(uri, protocol);
+		Node root = methods.get(method);
+		if (root != null) {
+			search.walk(root, 0, 0);
+		}
+		search.walk(anyMethod, 0, 0);
+		return search.result();
+	}
+
+	boolean add(HttpRouteHandler handler, int index) {
+		if (!(handler.condition instanceof HttpPredicate)) {
+			return false;
+		}
+		HttpPredicate predicate = (HttpPredicate) handler.condition;
+		String uri = predicate.uri;
+		if (uri == null || uri.isEmpty() || uri.charAt(0) != '/') {
+			return false;
+		}
+
+		String[] segments = uri.substring(1)
+		                       .split("/", -1);
+		List<String> variables = new ArrayList<>();
+		String splat = null;
+		boolean splatted = false;
+
+		//validate before mutating any node
+		for (int i = 0; i < segments.length; i++) {
+			String segment = segments[i];
+			boolean last = i == segments.length - 1;
+			if (last && segment.endsWith("**")) {
+				String prefix = segment.substring(0, segment.length() - 2);
+				if (prefix.isEmpty()) {
+					splatted = true;
+				}
+				else if (isVariable(prefix)) {
+					splatted = true;
+					splat = prefix.substring(1, prefix.length() - 1);
+				}
+				else {
+					return false;
+				}
+			}
+			else if (isVariable(segment)) {
+				variables.add(segment.substring(1, segment.length() - 1));
+			}
+			else if (!isLiteral(segment)) {
+				return false;
+			}
+		}
+
+		Node node = predicate.method == null ? anyMethod :
+				methods.computeIfAbsent(predicate.method, m -> new Node());
+		node.mark(index);
+
+		int length = splatted ? segments.length - 1 : segments.length;
+		for (int i = 0; i < length; i++) {
+			String segment = segments[i];
+			if (isVariable(segment)) {
+				if (node.variable == null) {
+					node.variable = new Node();
+				}
+				node = node.variable;
+			}
+			else {
+				node = node.literals.computeIfAbsent(segment, s -> new Node());
+			}
+			node.mark(index);
+		}
+
+		if (splat != null) {
+			variables.add(splat);
+		}
+		Route route = new Route(handler,
+				index,
+				predicate.protocol,
+				variables.toArray(new String[0]),
+				splat != null);
+		if (splatted) {
+			node.splats = append(node.splats, route);
+		}
+		else {
+			node.routes = append(node.routes, route);
+		}
+		return true;
+	}
+
+	static Route[] append(Route[] routes, Route route) {
+		Route[] copy = Arrays.copyOf(routes, routes.length + 1);
+		copy[routes.length] = route;
+		return copy;
+	}
+
+	static boolean isVariable(String segment) {
+		int length = segment.length();
+		if (length < 3 || segment.charAt(0) != '{' || segment.charAt(length - 1) != '}') {
+			return false;
+		}
+		for (int i = 1; i < length - 1; i++) {
+			char c = segment.charAt(i);
+			if (c == '{' || c == '}' || c == '*') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	static boolean isLiteral(String segment) {
+		for (int i = 0; i < segment.length(); i++) {
+			if (REGEX_CHARS.indexOf(segment.charAt(i)) != -1) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	static final String  REGEX_CHARS = "\\[](){}*+?^$|";
+	static final Route[] EMPTY       = new Route[0];
+
+	static final class Node {
+
+		final Map<String, Node> literals = new HashMap<>();
+
+		Node    variable;
+		Route[] routes   = EMPTY;
+		Route[] splats   = EMPTY;
+		int     minIndex = Integer.MAX_VALUE;
+
+		void mark(int index) {
+			if (index < minIndex) {
+				minIndex = index;
+			}
+		}
+	}
+
+	/**
+	 * A route selection with its params resolver.
+	 */
+	static class Match {
+
+		final Route route;
+
+		Match(Route route) {
+			this.route = route;
+		}
+
+		HttpRouteHandler handler() {
+			return route.handler;
+		}
+
+		Function<? super String, Map<String, String>> resolver() {
+			return null;
+		}
+	}
+
+	static final class CapturingMatch extends Match
+			implements Function<Object, Map<String, String>> {
+
+		final Map<String, String> params;
+
+		CapturingMatch(Route route, Map<String, String> params) {
+			super(route);
+			this.params = params;
+		}
+
+		@Override
+		Function<? super String, Map<String, String>> resolver() {
+			return this;
+		}
+
+		@Override
+		public Map<String, String> apply(Object uri) {
+			return params;
+		}
+	}
+
+	static final class Fallback extends Match {
+
+		Fallback(HttpRouteHandler handler, int index) {
+			super(new Route(handler, index, null, null, false));
+		}
+
+		@Override
+		Function<? super String, Map<String, String>> resolver() {
+			return route.handler.resolver;
+		}
+	}
+
+	static final class Route {
+
+		final HttpRouteHandler handler;
+		final int              index;
+		final HttpVersion      protocol;
+		final String[]         variables;
+		final boolean          splatCapture;
+		final Match            noCapture;
+
+		Route(HttpRouteHandler handler,
+				int index,
+				HttpVersion protocol,
+				String[] variables,
+				boolean splatCapture) {
+			this.handler = handler;
+			this.index = index;
+			this.protocol = protocol;
+			this.variables = variables;
+			this.splatCapture = splatCapture;
+			this.noCapture = new Match(this);
+		}
+
+		boolean accept(HttpVersion version) {
+			return protocol == null || protocol.equals(version);
+		}
+	}
+
+	/**
+	 * Depth-first walk keeping the lowest declaration index matched so far, pruning
+	 * every branch that cannot improve on it.
+	 */
+	static final class Search {
+
+		final String      uri;
+		final HttpVersion protocol;
+
+		String[] captures;
+		Route    best;
+		String[] bestCaptures;
+
+		Search(String uri, HttpVersion protocol) {
+			this.uri = uri;
+			this.protocol = protocol;
+		}
+
+		void walk(Node node, int position, int depth) {
+			if (best != null && node.minIndex >= best.index) {
+				return;
+			}
+			int length = uri.length();
+			if (position == length) {
+				for (Route route : node.routes) {
+					offer(route, depth, null);
+				}
+				return;
+			}
+			if (uri.charAt(position) != '/') {
+				return;
+			}
+			for (Route route : node.splats) {
+				offer(route, depth, uri.substring(position + 1));
+			}
+
+			int start = position + 1;
+			int end = uri.indexOf('/', start);
+			if (end == -1) {
+				end = length;
+			}
+			if (!node.literals.isEmpty()) {
+				Node literal = node.literals.get(uri.substring(start, end));
+				if (literal != null) {
+					walk(literal, end, depth);
+				}
+			}
+			if (node.variable != null) {
+				capture(depth, uri.substring(start, end));
+				walk(node.variable, end, depth + 1);
+			}
+		}
+
+		void capture(int depth, String value) {
+			if (captures == null) {
+				captures = new String[Math.max(4, depth + 1)];
+			}
+			else if (depth >= captures.length) {
+				captures = Arrays.copyOf(captures, captures.length * 2);
+			}
+			captures[depth] = value;
+		}
+
+		void offer(Route route, int depth, String splat) {
+			if ((best != null && route.index >= best.index) || !route.accept(protocol)) {
+				return;
+			}
+			best = route;
+			if (route.variables.length == 0) {
+				bestCaptures = null;
+				return;
+			}
+			bestCaptures = new String[route.variables.length];
+			if (depth > 0) {
+				System.arraycopy(captures, 0, bestCaptures, 0, depth);
+			}
+			if (route.splatCapture) {
+				bestCaptures[depth] = splat;
+			}
+		}
+
+		Match result() {
+			if (best == null) {
+				return null;
+			}
+			if (bestCaptures == null) {
+				return best.noCapture;
+			}
+			Map<String, String> params = new HashMap<>(bestCaptures.length * 2);
+			for (int i = 0; i < bestCaptures.length; i++) {
+				params.put(best.variables[i], bestCaptures[i]);
+			}
+			return new CapturingMatch(best, params);
+		}
+	}
+}
@@ -17,16 +17,29 @@
 package reactor.ipc.netty.http.server;
 
 import java.net.InetSocketAddress;
+import java.util.List;
 import java.util.Objects;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.ByteToMessageDecoder;
 import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.codec.http2.Http2CodecUtil;
+import io.netty.handler.codec.http2.Http2FrameLogger;
+import io.netty.handler.codec.http2.Http2MultiplexCodecBuilder;
+import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
+import io.netty.handler.ssl.ApplicationProtocolNames;
+import io.netty.handler.ssl.ApplicationProtocolNegotiationHandler;
 import io.netty.util.NetUtil;
 
 import org.reactivestreams.Publisher;
@@ -38,10 +51,13 @@ import reactor.ipc.netty.NettyInbound;
 import reactor.ipc.netty.NettyOutbound;
 import reactor.ipc.netty.NettyPipeline;
 import reactor.ipc.netty.channel.ContextHandler;
+import reactor.ipc.netty.http.HttpProtocol;
 import reactor.ipc.netty.http.HttpResources;
 import reactor.ipc.netty.options.ServerOptions;
 import reactor.ipc.netty.tcp.BlockingNettyContext;
 import reactor.ipc.netty.tcp.TcpServer;
+import reactor.util.Logger;
+import reactor.util.Loggers;
 
 /**
  * Base functionality needed by all servers that communicate with clients over HTTP.
@@ -137,9 +153,33 @@ public final class HttpServer
 			serverOptionsBuilder.loopResources(HttpResources.get());
 		}
 		this.options = serverOptionsBuilder.build();
+		checkProtocols(this.options);
 		this.server = new TcpBridgeServer(this.options);
 	}
 
+	static void checkProtocols(HttpServerOptions options) {
+		boolean http11 = options.isProtocolEnabled(HttpProtocol.HTTP11);
+		if (options.sslContext() == null) {
+			if (!http11 && !options.isProtocolEnabled(HttpProtocol.H2C)) {
+				throw new IllegalArgumentException("Configured protocols " + options.protocols() +
+						" require an SslContext, enable HTTP11 or H2C to serve cleartext connections");
+			}
+		}
+		else if (options.isProtocolEnabled(HttpProtocol.H2)) {
+			if (!options.sslContext()
+			            .applicationProtocolNegotiator()
+			            .protocols()
+			            .contains(ApplicationProtocolNames.HTTP_2)) {
+				log.warn("HTTP/2 is enabled but the SslContext does not advertise the h2 " +
+						"application protocol, connections will not negotiate HTTP/2");
+			}
+		}
+		else if (!http11) {
+			throw new IllegalArgumentException("Configured protocols " + options.protocols() +
+					" cannot be served over TLS, enable HTTP11 or H2");
+		}
+	}
+
 	/**
 	 * Get a copy of the {@link HttpServerOptions} currently in effect.
 	 *
@@ -159,7 +199,13 @@ public final class HttpServer
 	public Mono<? extends NettyContext> newHandler(BiFunction<? super HttpServerRequest, ? super
 			HttpServerResponse, ? extends Publisher<Void>> handler) {
 		Objects.requireNonNull(handler, "handler");
-		return server.newHandler((BiFunction<NettyInbound, NettyOutbound, Publisher<Void>>) handler);
+		Mono<? extends NettyContext> context =
+				server.newHandler((BiFunction<NettyInbound, NettyOutbound, Publisher<Void>>) handler);
+		if (handler instanceof DefaultHttpServerRoutes) {
+			DefaultHttpServerRoutes routes = (DefaultHttpServerRoutes) handler;
+			return context.doOnNext(c -> c.onClose(routes::disposeResources));
+		}
+		return context;
 	}
 
 	/**
@@ -233,6 +279,11 @@ public final class HttpServer
 
 	static final LoggingHandler loggingHandler = new LoggingHandler(HttpServer.class);
 
+	static final Logger log = Loggers.getLogger(HttpServer.class);
+
+	static final ByteBuf H2_PREFACE =
+			Unpooled.unreleasableBuffer(Http2CodecUtil.connectionPrefaceBuf());
+
 	final class TcpBridgeServer extends TcpServer
 			implements BiConsumer<ChannelPipeline, ContextHandler<Channel>> {
 
@@ -247,26 +298,149 @@ public final class HttpServer
 			return ContextHandler.newServerContext(sink,
 					options,
 					loggingHandler,
-					(ch, c, msg) -> HttpServerOperations.bindHttp(ch, handler, c, msg))
+					(ch, c, msg) -> HttpServerOperations.bindHttp(ch,
+							handler,
+							c,
+							msg,
+							HttpServer.this.options))
 			                     .onPipeline(this)
 			                     .autoCreateOperations(false);
 		}
 
-        @Override
-        public void accept(ChannelPipeline p, ContextHandler<Channel> c) {
-            p.addLast(NettyPipeline.HttpCodec, new HttpServerCodec());
+		@Override
+		public void accept(ChannelPipeline p, ContextHandler<Channel> c) {
+			HttpServerOptions options = HttpServer.this.options;
+			if (options.sslContext() != null) {
+				if (options.isProtocolEnabled(HttpProtocol.H2)) {
+					p.addLast(NettyPipeline.HttpProtocolNegotiator, new AlpnNegotiator(c));
+				}
+				else {
+					configureHttp11(p, c);
+				}
+			}
+			else if (!options.isProtocolEnabled(HttpProtocol.H2C)) {
+				configureHttp11(p, c);
+			}
+			else if (options.isProtocolEnabled(HttpProtocol.HTTP11)) {
+				p.addLast(NettyPipeline.HttpProtocolNegotiator, new PriorKnowledgeNegotiator(c));
+			}
+			else {
+				configureH2(p, c);
+			}
+		}
+
+		void configureHttp11(ChannelPipeline p, ContextHandler<Channel> c) {
+			addHandler(p, NettyPipeline.HttpCodec, new HttpServerCodec());
 
-            if(options.minCompressionResponseSize() >= 0) {
-                    p.addLast(NettyPipeline.CompressionHandler, new CompressionHandler(options.minCompressionResponseSize()));
-            }
+			if (options.minCompressionResponseSize() >= 0) {
+				addHandler(p, NettyPipeline.CompressionHandler,
+						new CompressionHandler(options));
+			}
 
-            p.addLast(NettyPipeline.HttpServerHandler, new HttpServerHandler(c));
-        }
+			addHandler(p, NettyPipeline.HttpServerHandler, new HttpServerHandler(c, options.maxPipelinedRequests()));
+		}
+
+		void configureH2(ChannelPipeline p, ContextHandler<Channel> c) {
+			Http2MultiplexCodecBuilder codec =
+					Http2MultiplexCodecBuilder.forServer(new Http2StreamInitializer(c, options));
+			if (log.isDebugEnabled()) {
+				codec.frameLogger(new Http2FrameLogger(LogLevel.DEBUG, HttpServer.class));
+			}
+			addHandler(p, NettyPipeline.H2MultiplexHandler, codec.build());
+
+			//connection reads are always on, backpressure applies per stream window
+			p.channel()
+			 .config()
+			 .setAutoRead(true);
+		}
+
+		/**
+		 * Add a protocol handler during channel initialization or, once the protocol is
+		 * negotiated, before the reactive bridge.
+		 */
+		void addHandler(ChannelPipeline p, String name, ChannelHandler handler) {
+			if (p.get(NettyPipeline.ReactiveBridge) != null) {
+				p.addBefore(NettyPipeline.ReactiveBridge, name, handler);
+			}
+			else {
+				p.addLast(name, handler);
+			}
+		}
 
 		@Override
 		protected LoggingHandler loggingHandler() {
 			return loggingHandler;
 		}
+
+		/**
+		 * Select HTTP/2 or HTTP/1.1 from the protocol negotiated with ALPN during the TLS
+		 * handshake, falling back to HTTP/1.1 if no protocol was negotiated.
+		 */
+		final class AlpnNegotiator extends ApplicationProtocolNegotiationHandler {
+
+			final ContextHandler<Channel> c;
+
+			AlpnNegotiator(ContextHandler<Channel> c) {
+				super(ApplicationProtocolNames.HTTP_1_1);
+				this.c = c;
+			}
+
+			@Override
+			protected void configurePipeline(ChannelHandlerContext ctx, String protocol) {
+				if (ApplicationProtocolNames.HTTP_2.equals(protocol)) {
+					configureH2(ctx.pipeline(), c);
+				}
+				else if (ApplicationProtocolNames.HTTP_1_1.equals(protocol) &&
+						options.isProtocolEnabled(HttpProtocol.HTTP11)) {
+					configureHttp11(ctx.pipeline(), c);
+				}
+				else {
+					if (log.isDebugEnabled()) {
+						log.debug("{} Unsupported application protocol {}, closing",
+								ctx.channel(),
+								protocol);
+					}
+					ctx.close();
+				}
+			}
+		}
+
+		/**
+		 * Select HTTP/2 if the connection starts with the HTTP/2 client preface, or
+		 * HTTP/1.1 as soon as the first received bytes do not match it.
+		 */
+		final class PriorKnowledgeNegotiator extends ByteToMessageDecoder {
+
+			final ContextHandler<Channel> c;
+
+			PriorKnowledgeNegotiator(ContextHandler<Channel> c) {
+				this.c = c;
+			}
+
+			@Override
+			public void channelActive(ChannelHandlerContext ctx) throws Exception {
+				ctx.read();
+				super.channelActive(ctx);
+			}
+
+			@Override
+			protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
+				int prefaceLength = H2_PREFACE.readableBytes();
+				int length = Math.min(in.readableBytes(), prefaceLength);
+				if (ByteBufUtil.equals(H2_PREFACE, H2_PREFACE.readerIndex(), in, in.readerIndex(), length)) {
+					if (length < prefaceLength) {
+						ctx.read();
+						return;
+					}
+					configureH2(ctx.pipeline(), c);
+				}
+				else {
+					configureHttp11(ctx.pipeline(), c);
+				}
+				ctx.pipeline()
+				   .remove(this);
+			}
+		}
 	}
 
 	public static final class Builder {
@@ -16,8 +16,6 @@
 
 package reactor.ipc.netty.http.server;
 
-import java.util.Queue;
-
 import io.netty.channel.ChannelDuplexHandler;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
@@ -29,9 +27,7 @@ import io.netty.handler.codec.http.HttpResponse;
 import io.netty.handler.codec.http.HttpStatusClass;
 import io.netty.handler.codec.http.LastHttpContent;
 import io.netty.util.ReferenceCountUtil;
-import reactor.core.Exceptions;
 import reactor.ipc.netty.channel.ContextHandler;
-import reactor.util.concurrent.Queues;
 
 import static io.netty.handler.codec.http.HttpUtil.*;
 
@@ -45,20 +41,30 @@ final class HttpServerHandler extends ChannelDuplexHandler
 	static final String MULTIPART_PREFIX = "multipart";
 
 	final ContextHandler<?> parentContext;
+	final int               maxPipelinedRequests;
 
 	boolean persistentConnection = true;
 	// Track pending responses to support client pipelining: https://tools.ietf.org/html/rfc7230#section-6.3.2
 	int pendingResponses;
 
-	Queue<Object> pipelined;
+	PipelineQueue pipelined;
 
 	ChannelHandlerContext ctx;
 
 	boolean overflow;
 	boolean mustRecycleEncoder;
 
-	HttpServerHandler(ContextHandler<?> parentContext) {
+	// Stop reading while maxPipelinedRequests requests are queued
+	boolean readSuspended;
+	boolean readPending;
+
+	// Pipelining counters of this connection
+	long pipelinedRequests;
+	int  maxPipelineDepth;
+
+	HttpServerHandler(ContextHandler<?> parentContext, int maxPipelinedRequests) {
 		this.parentContext = parentContext;
+		this.maxPipelinedRequests = maxPipelinedRequests;
 	}
 
 	@Override
@@ -141,12 +147,49 @@ final class HttpServerHandler extends ChannelDuplexHandler
 
 	void doPipeline(ChannelHandlerContext ctx, Object msg) {
 		if (pipelined == null) {
-			pipelined = Queues.unbounded()
-			                  .get();
+			pipelined = new PipelineQueue();
+		}
+		pipelined.offer(msg);
+		if (msg instanceof HttpRequest) {
+			pipelinedRequests++;
+			int depth = pipelined.requests();
+			if (depth > maxPipelineDepth) {
+				maxPipelineDepth = depth;
+			}
+			if (depth >= maxPipelinedRequests && !readSuspended) {
+				if (HttpServerOperations.log.isDebugEnabled()) {
+					HttpServerOperations.log.debug("{} pipelined requests queued, " +
+							"suspending reads", depth);
+				}
+				readSuspended = true;
+				ctx.channel()
+				   .config()
+				   .setAutoRead(false);
+			}
+		}
+	}
+
+	void resumeRead() {
+		if (readSuspended && (pipelined == null || pipelined.requests() < maxPipelinedRequests)) {
+			if (HttpServerOperations.log.isDebugEnabled()) {
+				HttpServerOperations.log.debug("Pipelined requests drained, resuming " +
+						"reads");
+			}
+			readSuspended = false;
+			if (readPending) {
+				readPending = false;
+				ctx.read();
+			}
 		}
-		if (!pipelined.offer(msg)) {
-			ctx.fireExceptionCaught(Exceptions.failWithOverflow());
+	}
+
+	@Override
+	public void read(ChannelHandlerContext ctx) throws Exception {
+		if (readSuspended) {
+			readPending = true;
+			return;
 		}
+		ctx.read();
 	}
 
 	@Override
@@ -221,6 +264,7 @@ final class HttpServerHandler extends ChannelDuplexHandler
 		while ((next = pipelined.peek()) != null) {
 			if (next instanceof HttpRequest) {
 				if (nextRequest || !persistentConnection) {
+					resumeRead();
 					return;
 				}
 				nextRequest = true;
@@ -234,6 +278,7 @@ final class HttpServerHandler extends ChannelDuplexHandler
 			ctx.fireChannelRead(pipelined.poll());
 		}
 		overflow = false;
+		resumeRead();
 	}
 
 	@Override
@@ -242,12 +287,13 @@ final class HttpServerHandler extends ChannelDuplexHandler
 	}
 
 	final void discard() {
+		if (HttpServerOperations.log.isDebugEnabled() && pipelinedRequests > 0) {
+			HttpServerOperations.log.debug("Pipelined requests: {}, max depth: {}",
+					pipelinedRequests,
+					maxPipelineDepth);
+		}
 		if(pipelined != null && !pipelined.isEmpty()){
-			Object o;
-			while((o = pipelined.poll()) != null){
-				ReferenceCountUtil.release(o);
-			}
-
+			pipelined.clear();
 		}
 	}
 
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.ipc.netty.http.server;
+
+/**
+ * Observe the lifecycle timings of each request served by an {@link HttpServer}, e.g.
+ * to record latency histograms per route. Set with
+ * {@link HttpServerOptions.Builder#observer(HttpServerObserver)}.
+ * <p>
+ * The observer is invoked on the connection event loop and must not block.
+ *
+ * @since 0.7.3
+ */
+@FunctionalInterface
+public interface HttpServerObserver {
+
+	/**
+	 * Called once a response has been entirely flushed. Requests failing before that,
+	 * or upgraded to websocket, are not reported. The arguments are only valid during
+	 * this call.
+	 *
+	 * @param request the served request, giving its method and uri
+	 * @param response the sent response, giving its status
+	 * @param timings the timings of the request
+	 */
+	void onResponseComplete(HttpServerRequest request,
+			HttpServerResponse response,
+			HttpServerTimings timings);
+}
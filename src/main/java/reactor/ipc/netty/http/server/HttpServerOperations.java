@@ -22,14 +22,17 @@ import java.nio.file.Path;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.TooLongFrameException;
 import io.netty.handler.codec.http.DefaultFullHttpResponse;
 import io.netty.handler.codec.http.DefaultHttpResponse;
 import io.netty.handler.codec.http.FullHttpResponse;
@@ -47,16 +50,19 @@ import io.netty.handler.codec.http.HttpVersion;
 import io.netty.handler.codec.http.LastHttpContent;
 import io.netty.handler.codec.http.cookie.Cookie;
 import io.netty.handler.codec.http.cookie.ServerCookieEncoder;
-import io.netty.util.AsciiString;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.ipc.netty.ByteBufFlux;
+import reactor.ipc.netty.ByteBufMono;
 import reactor.ipc.netty.FutureMono;
 import reactor.ipc.netty.NettyContext;
 import reactor.ipc.netty.NettyOutbound;
 import reactor.ipc.netty.channel.ContextHandler;
 import reactor.ipc.netty.http.Cookies;
 import reactor.ipc.netty.http.HttpOperations;
+import reactor.ipc.netty.http.PreEncodedHeaders;
+import reactor.ipc.netty.http.websocket.WebsocketCompression;
 import reactor.ipc.netty.http.websocket.WebsocketInbound;
 import reactor.ipc.netty.http.websocket.WebsocketOutbound;
 import reactor.util.Logger;
@@ -70,14 +76,26 @@ import static io.netty.buffer.Unpooled.EMPTY_BUFFER;
  * @author Stephane Maldini
  */
 class HttpServerOperations extends HttpOperations<HttpServerRequest, HttpServerResponse>
-		implements HttpServerRequest, HttpServerResponse {
+		implements HttpServerRequest, HttpServerResponse, HttpServerTimings {
 
 	@SuppressWarnings("unchecked")
 	static HttpServerOperations bindHttp(Channel channel,
 			BiFunction<? super HttpServerRequest, ? super HttpServerResponse, ? extends Publisher<Void>> handler,
 			ContextHandler<?> context,
-			Object msg) {
-		return new HttpServerOperations(channel, handler, context, (HttpRequest) msg);
+			Object msg,
+			HttpServerOptions options) {
+		HttpServerOperations ops =
+				new HttpServerOperations(channel, handler, context, (HttpRequest) msg);
+		if (options.dateHeader()) {
+			ops.responseHeaders.set(HttpHeaderNames.DATE, PreEncodedHeaders.date());
+		}
+		ops.websocketCompression = options.websocketCompression();
+		ops.websocketMaxFramePayloadLength = options.websocketMaxFramePayloadLength();
+		if (options.observer() != null) {
+			ops.observer = options.observer();
+			ops.requestStartTime = System.nanoTime();
+		}
+		return ops;
 	}
 
 	final HttpResponse nettyResponse;
@@ -86,9 +104,19 @@ class HttpServerOperations extends HttpOperations<HttpServerRequest, HttpServerR
 	final HttpRequest nettyRequest;
 
 	Function<? super String, Map<String, String>> paramsResolver;
+	WebsocketCompression                          websocketCompression;
+	int                                           websocketMaxFramePayloadLength = 65536;
+
+	HttpServerObserver observer;
+	long               requestStartTime;
+	long               requestEndTime;
+	long               handlerStartTime;
+	long               responseCompleteTime;
 
 	HttpServerOperations(Channel ch, HttpServerOperations replaced) {
 		super(ch, replaced);
+		this.websocketCompression = replaced.websocketCompression;
+		this.websocketMaxFramePayloadLength = replaced.websocketMaxFramePayloadLength;
 		this.cookieHolder = replaced.cookieHolder;
 		this.responseHeaders = replaced.responseHeaders;
 		this.nettyResponse = replaced.nettyResponse;
@@ -124,7 +152,7 @@ class HttpServerOperations extends HttpOperations<HttpServerRequest, HttpServerR
 		if (!HttpMethod.HEAD.equals(method())) {
 			res.headers()
 			   .set(responseHeaders.remove(HttpHeaderNames.TRANSFER_ENCODING)
-			                       .setInt(HttpHeaderNames.CONTENT_LENGTH, 0));
+			                       .set(HttpHeaderNames.CONTENT_LENGTH, HttpHeaderValues.ZERO));
 		}
 		else {
 			res.headers().set(responseHeaders);
@@ -239,6 +267,27 @@ class HttpServerOperations extends HttpOperations<HttpServerRequest, HttpServerR
 		return this;
 	}
 
+	@Override
+	public ByteBufMono receiveAggregated(int maxContentLength) {
+		if (maxContentLength < 0) {
+			throw new IllegalArgumentException("maxContentLength must be positive");
+		}
+		Flux<ByteBuf> body = Flux.defer(() -> {
+			//reject before subscribing, so no 100-continue is sent for a body never read
+			if (HttpUtil.getContentLength(nettyRequest, -1L) > maxContentLength) {
+				return Flux.error(requestEntityTooLarge(maxContentLength));
+			}
+			AtomicLong received = new AtomicLong();
+			return receive().doOnNext(b -> {
+				if (received.addAndGet(b.readableBytes()) > maxContentLength) {
+					throw requestEntityTooLarge(maxContentLength);
+				}
+			});
+		});
+		return ByteBufFlux.fromInbound(body, channel().alloc())
+		                  .aggregate();
+	}
+
 	@Override
 	public Flux<?> receiveObject() {
 		// Handle the 'Expect: 100-continue' header if necessary.
@@ -311,7 +360,7 @@ class HttpServerOperations extends HttpOperations<HttpServerRequest, HttpServerR
 	 */
 	@Override
 	public HttpServerResponse sse() {
-		header(HttpHeaderNames.CONTENT_TYPE, EVENT_STREAM);
+		header(HttpHeaderNames.CONTENT_TYPE, PreEncodedHeaders.TEXT_EVENT_STREAM);
 		return this;
 	}
 
@@ -354,8 +403,36 @@ class HttpServerOperations extends HttpOperations<HttpServerRequest, HttpServerR
 		throw new IllegalStateException("request not parsed");
 	}
 
+	@Override
+	public long requestStartTime() {
+		return requestStartTime;
+	}
+
+	@Override
+	public long requestEndTime() {
+		return requestEndTime;
+	}
+
+	@Override
+	public long handlerStartTime() {
+		return handlerStartTime;
+	}
+
+	@Override
+	public long responseStartTime() {
+		return headersSentTime();
+	}
+
+	@Override
+	public long responseCompleteTime() {
+		return responseCompleteTime;
+	}
+
 	@Override
 	protected void onHandlerStart() {
+		if (observer != null) {
+			handlerStartTime = System.nanoTime();
+		}
 		applyHandler();
 	}
 
@@ -366,6 +443,9 @@ class HttpServerOperations extends HttpOperations<HttpServerRequest, HttpServerR
 				super.onInboundNext(ctx, msg);
 			}
 			if (msg instanceof LastHttpContent) {
+				if (observer != null) {
+					requestEndTime = System.nanoTime();
+				}
 				onInboundComplete();
 				if (isOutboundDone()) {
 					onHandlerTerminate();
@@ -404,11 +484,15 @@ class HttpServerOperations extends HttpOperations<HttpServerRequest, HttpServerR
 		}
 		else{
 			discard();
+			onResponseComplete();
 			onHandlerTerminate();
 			return;
 		}
 		f.addListener(s -> {
 			discard();
+			if (s.isSuccess()) {
+				onResponseComplete();
+			}
 			onHandlerTerminate();
 			if (!s.isSuccess() && log.isDebugEnabled()) {
 				log.error("Failed flushing last frame", s.cause());
@@ -431,7 +515,7 @@ class HttpServerOperations extends HttpOperations<HttpServerRequest, HttpServerR
 			HttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1,
 					HttpResponseStatus.INTERNAL_SERVER_ERROR);
 			response.headers()
-			        .setInt(HttpHeaderNames.CONTENT_LENGTH, 0)
+			        .set(HttpHeaderNames.CONTENT_LENGTH, HttpHeaderValues.ZERO)
 			        .set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
 			channel().writeAndFlush(response)
 			         .addListener(ChannelFutureListener.CLOSE);
@@ -452,6 +536,46 @@ class HttpServerOperations extends HttpOperations<HttpServerRequest, HttpServerR
 		return nettyResponse;
 	}
 
+	/**
+	 * Report the request timings to the observer, if any
+	 */
+	final void onResponseComplete() {
+		if (observer != null) {
+			responseCompleteTime = System.nanoTime();
+			try {
+				observer.onResponseComplete(this, this, this);
+			}
+			catch (Throwable t) {
+				log.error("Observer failed on response complete", t);
+			}
+		}
+	}
+
+	/**
+	 * Reply 413 and close the connection unless a response has already been started,
+	 * the remaining request body being left unread.
+	 *
+	 * @param maxContentLength the exceeded maximum length
+	 *
+	 * @return the error to signal to the body subscriber
+	 */
+	final TooLongFrameException requestEntityTooLarge(int maxContentLength) {
+		if (markSentHeaderAndBody()) {
+			if (log.isDebugEnabled()) {
+				log.debug("Request body over {} bytes, replying 413", maxContentLength);
+			}
+			nettyResponse.setStatus(HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE);
+			HttpResponse response = new DefaultFullHttpResponse(version(),
+					HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE);
+			response.headers()
+			        .set(HttpHeaderNames.CONTENT_LENGTH, HttpHeaderValues.ZERO)
+			        .set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
+			channel().writeAndFlush(response)
+			         .addListener(ChannelFutureListener.CLOSE);
+		}
+		return new TooLongFrameException("Request body is larger than " + maxContentLength + " bytes");
+	}
+
 	final Mono<Void> withWebsocketSupport(String url,
 			String protocols,
 			BiFunction<? super WebsocketInbound, ? super WebsocketOutbound, ? extends Publisher<Void>> websocketHandler) {
@@ -473,7 +597,6 @@ class HttpServerOperations extends HttpOperations<HttpServerRequest, HttpServerR
 
 	static final Logger log = Loggers.getLogger(HttpServerOperations.class);
 
-	final static AsciiString      EVENT_STREAM = new AsciiString("text/event-stream");
 	final static FullHttpResponse CONTINUE     =
 			new DefaultFullHttpResponse(HttpVersion.HTTP_1_1,
 					HttpResponseStatus.CONTINUE,
@@ -16,7 +16,20 @@
 
 package reactor.ipc.netty.http.server;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
 import io.netty.bootstrap.ServerBootstrap;
+import reactor.ipc.netty.http.HttpProtocol;
+import reactor.ipc.netty.http.websocket.WebsocketCompression;
 import reactor.ipc.netty.options.ServerOptions;
 
 /**
@@ -37,11 +50,49 @@ public final class HttpServerOptions extends ServerOptions {
 		return new HttpServerOptions.Builder();
 	}
 
-	private final int minCompressionResponseSize;
+	/**
+	 * Default maximum number of pipelined HTTP/1.1 requests queued behind the one being
+	 * served before the server stops reading from the connection.
+	 */
+	public static final int DEFAULT_MAX_PIPELINED_REQUESTS =
+			Integer.parseInt(System.getProperty("reactor.ipc.netty.http.server.maxPipelinedRequests",
+					"" + 128));
+
+	private final int               minCompressionResponseSize;
+	private final Set<HttpProtocol> protocols;
+	private final int               maxPipelinedRequests;
+	private final boolean           dateHeader;
+	private final List<String>      compressionEncodings;
+	private final Map<String, Map<String, Integer>> compressionLevels;
+	private final List<ContentCompression>          availableCompressions;
+	private final WebsocketCompression              websocketCompression;
+	private final int                               websocketMaxFramePayloadLength;
+	private final HttpServerObserver                observer;
 
 	private HttpServerOptions(HttpServerOptions.Builder builder) {
 		super(builder);
 		this.minCompressionResponseSize = builder.minCompressionResponseSize;
+		this.protocols = builder.protocols;
+		this.maxPipelinedRequests = builder.maxPipelinedRequests;
+		this.dateHeader = builder.dateHeader;
+		this.compressionEncodings = builder.compressionEncodings;
+		this.compressionLevels = builder.compressionLevels;
+		this.websocketCompression = builder.websocketCompression;
+		this.websocketMaxFramePayloadLength = builder.websocketMaxFramePayloadLength;
+		this.observer = builder.observer;
+		if (minCompressionResponseSize >= 0) {
+			List<ContentCompression> available = new ArrayList<>(compressionEncodings.size());
+			for (String encoding : compressionEncodings) {
+				ContentCompression compression = ContentCompression.forEncoding(encoding);
+				if (compression.isAvailable()) {
+					available.add(compression);
+				}
+			}
+			this.availableCompressions = Collections.unmodifiableList(available);
+		}
+		else {
+			this.availableCompressions = Collections.emptyList();
+		}
 	}
 
 	/**
@@ -54,6 +105,130 @@ public final class HttpServerOptions extends ServerOptions {
 		return minCompressionResponseSize;
 	}
 
+	/**
+	 * Returns the configured content codings the server may compress responses with, in
+	 * preference order. Codings whose library is not on the classpath are still listed
+	 * here, they are only skipped when negotiating the response coding.
+	 *
+	 * @return the configured content codings
+	 */
+	public List<String> compressionEncodings() {
+		return compressionEncodings;
+	}
+
+	/**
+	 * Returns the compression level applied with the given content coding to a response
+	 * of the given content type: the level configured for the exact media type, else for
+	 * its {@code type/*} range, else for {@code *}, else the coding default level.
+	 *
+	 * @param encoding the content coding
+	 * @param contentType the response {@code Content-Type}, may be null
+	 *
+	 * @return the compression level
+	 */
+	public int compressionLevel(String encoding, CharSequence contentType) {
+		ContentCompression compression = ContentCompression.forEncoding(encoding);
+		if (compression == null) {
+			throw new IllegalArgumentException("Unsupported content coding: " + encoding);
+		}
+		Map<String, Integer> levels = compressionLevels.get(compression.encoding());
+		if (levels == null) {
+			return compression.defaultLevel();
+		}
+		Integer level = null;
+		if (contentType != null) {
+			String mediaType = mediaType(contentType);
+			level = levels.get(mediaType);
+			if (level == null) {
+				int slash = mediaType.indexOf('/');
+				if (slash > 0) {
+					level = levels.get(mediaType.substring(0, slash) + "/*");
+				}
+			}
+		}
+		if (level == null) {
+			level = levels.get("*");
+		}
+		return level != null ? level : compression.defaultLevel();
+	}
+
+	/**
+	 * Returns the enabled content codings that can be used in this runtime, in preference
+	 * order.
+	 *
+	 * @return the available content codings
+	 */
+	List<ContentCompression> availableCompressions() {
+		return availableCompressions;
+	}
+
+	/**
+	 * Returns the HTTP protocols served, {@link HttpProtocol#HTTP11} only by default.
+	 *
+	 * @return the enabled HTTP protocols
+	 */
+	public Set<HttpProtocol> protocols() {
+		return EnumSet.copyOf(protocols);
+	}
+
+	/**
+	 * Return true if the given protocol is served.
+	 *
+	 * @param protocol the protocol to check
+	 *
+	 * @return true if the given protocol is served
+	 */
+	public boolean isProtocolEnabled(HttpProtocol protocol) {
+		return protocols.contains(protocol);
+	}
+
+	/**
+	 * Returns the maximum number of pipelined HTTP/1.1 requests queued behind the one
+	 * being served before the server stops reading from the connection.
+	 *
+	 * @return the maximum number of queued pipelined requests
+	 */
+	public int maxPipelinedRequests() {
+		return maxPipelinedRequests;
+	}
+
+	/**
+	 * Returns true if a {@code Date} header is added to each response.
+	 *
+	 * @return true if a {@code Date} header is added to each response
+	 */
+	public boolean dateHeader() {
+		return dateHeader;
+	}
+
+	/**
+	 * Returns the {@code permessage-deflate} settings negotiated with websocket clients,
+	 * or null if websocket compression is disabled.
+	 *
+	 * @return the websocket compression settings or null
+	 */
+	public WebsocketCompression websocketCompression() {
+		return websocketCompression;
+	}
+
+	/**
+	 * Returns the maximum payload length of a received websocket frame.
+	 *
+	 * @return the maximum payload length of a received websocket frame in bytes
+	 */
+	public int websocketMaxFramePayloadLength() {
+		return websocketMaxFramePayloadLength;
+	}
+
+	/**
+	 * Returns the observer of the request timings, or null if none.
+	 *
+	 * @return the observer of the request timings or null
+	 */
+	public HttpServerObserver observer() {
+		return observer;
+	}
+
 	@Override
 	public HttpServerOptions duplicate() {
 		return builder().from(this).build();
@@ -69,6 +244,9 @@ public final class HttpServerOptions extends ServerOptions {
 				s.append( " over ").append(minCompressionResponseSize).append(" bytes");
 			}
 		}
+		if (protocols.size() != 1 || !protocols.contains(HttpProtocol.HTTP11)) {
+			s.append(", protocols=").append(protocols);
+		}
 
 		return s.toString();
 	}
@@ -76,6 +254,13 @@ public final class HttpServerOptions extends ServerOptions {
 	@Override
 	public String asDetailedString() {
 		return super.asDetailedString() +
+				", protocols=" + protocols +
+				", maxPipelinedRequests=" + maxPipelinedRequests +
+				", dateHeader=" + dateHeader +
+				", compressionEncodings=" + compressionEncodings +
+				", compressionLevels=" + compressionLevels +
+				", websocketCompression=" + websocketCompression +
+				", websocketMaxFramePayloadLength=" + websocketMaxFramePayloadLength +
 				", minCompressionResponseSize=" + minCompressionResponseSize;
 	}
 
@@ -84,16 +269,43 @@ public final class HttpServerOptions extends ServerOptions {
 		return "HttpServerOptions{" + asDetailedString() + "}";
 	}
 
+	static List<String> defaultCompressionEncodings() {
+		List<String> encodings = new ArrayList<>(ContentCompression.ALL.size());
+		for (ContentCompression compression : ContentCompression.ALL) {
+			encodings.add(compression.encoding());
+		}
+		return Collections.unmodifiableList(encodings);
+	}
+
+	static String mediaType(CharSequence contentType) {
+		String value = contentType.toString();
+		int semicolon = value.indexOf(';');
+		if (semicolon >= 0) {
+			value = value.substring(0, semicolon);
+		}
+		return value.trim()
+		            .toLowerCase(Locale.ROOT);
+	}
+
 	public static final class Builder extends ServerOptions.Builder<Builder> {
-		private int minCompressionResponseSize = -1;
+		private int               minCompressionResponseSize = -1;
+		private Set<HttpProtocol> protocols                  = EnumSet.of(HttpProtocol.HTTP11);
+		private int               maxPipelinedRequests       = DEFAULT_MAX_PIPELINED_REQUESTS;
+		private boolean           dateHeader;
+		private List<String>      compressionEncodings       = defaultCompressionEncodings();
+		private Map<String, Map<String, Integer>> compressionLevels = Collections.emptyMap();
+		private WebsocketCompression websocketCompression;
+		private int                  websocketMaxFramePayloadLength = 65536;
+		private HttpServerObserver   observer;
 
 		private Builder(){
 			super(new ServerBootstrap());
 		}
 
 		/**
-		 * Enable GZip response compression if the client request presents accept encoding
-		 * headers
+		 * Enable response compression if the client request presents accept encoding
+		 * headers, using one of the {@link #compressionEncodings(String...) content
+		 * codings}
 		 *
 		 * @param enabled true whether compression is enabled
 		 * @return {@code this}
@@ -104,7 +316,7 @@ public final class HttpServerOptions extends ServerOptions {
 		}
 
 		/**
-		 * Enable GZip response compression if the client request presents accept encoding
+		 * Enable response compression if the client request presents accept encoding
 		 * headers
 		 * AND the response reaches a minimum threshold
 		 *
@@ -120,6 +332,160 @@ public final class HttpServerOptions extends ServerOptions {
 			return get();
 		}
 
+		/**
+		 * The HTTP protocols to serve. {@link HttpProtocol#H2} is negotiated with ALPN
+		 * when an {@link io.netty.handler.ssl.SslContext} is configured, and
+		 * {@link HttpProtocol#H2C} is served on cleartext connections starting with the
+		 * HTTP/2 connection preface. Other connections are served with
+		 * {@link HttpProtocol#HTTP11} if enabled, or closed.
+		 *
+		 * @param protocols the protocols to serve
+		 * @return {@code this}
+		 */
+		public final Builder protocols(HttpProtocol... protocols) {
+			Objects.requireNonNull(protocols, "protocols");
+			if (protocols.length == 0) {
+				throw new IllegalArgumentException("At least one protocol must be enabled");
+			}
+			this.protocols = EnumSet.copyOf(Arrays.asList(protocols));
+			return get();
+		}
+
+		/**
+		 * The maximum number of pipelined HTTP/1.1 requests queued behind the one being
+		 * served. Once reached the server stops reading from the connection until the
+		 * queued requests are served, so a client pipelining too many requests is
+		 * slowed down instead of being buffered. Requests already read when the limit is
+		 * reached are still queued. Defaults to {@link #DEFAULT_MAX_PIPELINED_REQUESTS}.
+		 *
+		 * @param maxPipelinedRequests the maximum number of queued pipelined requests,
+		 * at least 1
+		 * @return {@code this}
+		 */
+		public final Builder maxPipelinedRequests(int maxPipelinedRequests) {
+			if (maxPipelinedRequests < 1) {
+				throw new IllegalArgumentException("maxPipelinedRequests must be strictly positive");
+			}
+			this.maxPipelinedRequests = maxPipelinedRequests;
+			return get();
+		}
+
+		/**
+		 * The content codings compressed responses may use, in server preference order.
+		 * The coding is negotiated from the request {@code Accept-Encoding} header: the
+		 * one with the highest quality value wins, ties being resolved by this order.
+		 * Supported codings are {@code br}, available with
+		 * {@code com.aayushatharva.brotli4j} on the classpath, {@code zstd}, available with
+		 * {@code com.github.luben:zstd-jni} on the classpath, {@code gzip} and
+		 * {@code deflate}. Defaults to all of them in that order.
+		 *
+		 * @param encodings the content codings, in preference order
+		 * @return {@code this}
+		 */
+		public final Builder compressionEncodings(String... encodings) {
+			Objects.requireNonNull(encodings, "encodings");
+			List<String> list = new ArrayList<>(encodings.length);
+			for (String encoding : encodings) {
+				ContentCompression compression = ContentCompression.forEncoding(encoding);
+				if (compression == null) {
+					throw new IllegalArgumentException("Unsupported content coding: " + encoding);
+				}
+				if (!list.contains(compression.encoding())) {
+					list.add(compression.encoding());
+				}
+			}
+			this.compressionEncodings = Collections.unmodifiableList(list);
+			return get();
+		}
+
+		/**
+		 * The compression level to apply with a content coding to responses of a given
+		 * content type. The content type is a media type such as
+		 * {@code application/json}, a range such as {@code text/*}, or {@code *} for any
+		 * response. Levels range from 0 to 9 for {@code gzip} and {@code deflate}
+		 * (default 6), 0 to 11 for {@code br} (default 4) and 1 to 22 for {@code zstd}
+		 * (default 3).
+		 *
+		 * @param encoding the content coding
+		 * @param contentType the media type, media range or {@code *}
+		 * @param level the compression level
+		 * @return {@code this}
+		 */
+		public final Builder compressionLevel(String encoding, String contentType, int level) {
+			Objects.requireNonNull(contentType, "contentType");
+			ContentCompression compression = ContentCompression.forEncoding(encoding);
+			if (compression == null) {
+				throw new IllegalArgumentException("Unsupported content coding: " + encoding);
+			}
+			if (level < compression.minLevel() || level > compression.maxLevel()) {
+				throw new IllegalArgumentException(compression.encoding() + " level must " +
+						"be between " + compression.minLevel() + " and " +
+						compression.maxLevel() + ", was: " + level);
+			}
+			Map<String, Map<String, Integer>> levels = new LinkedHashMap<>(compressionLevels);
+			Map<String, Integer> byType =
+					new LinkedHashMap<>(levels.getOrDefault(compression.encoding(),
+							Collections.emptyMap()));
+			byType.put(mediaType(contentType), level);
+			levels.put(compression.encoding(), Collections.unmodifiableMap(byType));
+			this.compressionLevels = Collections.unmodifiableMap(levels);
+			return get();
+		}
+
+		/**
+		 * Add a {@code Date} header to each response, disabled by default. The value is
+		 * formatted at most once per second per event loop and written as pre-encoded
+		 * bytes, see {@link reactor.ipc.netty.http.PreEncodedHeaders#date()}.
+		 *
+		 * @param enabled true whether the {@code Date} header is added
+		 * @return {@code this}
+		 */
+		public final Builder dateHeader(boolean enabled) {
+			this.dateHeader = enabled;
+			return get();
+		}
+
+		/**
+		 * Negotiate the {@code permessage-deflate} extension with the websocket clients
+		 * offering it, disabled by default.
+		 *
+		 * @param websocketCompression the websocket compression settings or null to
+		 * disable websocket compression
+		 * @return {@code this}
+		 */
+		public final Builder websocketCompression(WebsocketCompression websocketCompression) {
+			this.websocketCompression = websocketCompression;
+			return get();
+		}
+
+		/**
+		 * The maximum payload length of a websocket frame received from the clients, 65536
+		 * bytes by default. Larger messages can still be received when fragmented, see
+		 * {@link reactor.ipc.netty.http.websocket.WebsocketInbound#receiveMessages()}.
+		 *
+		 * @param maxFramePayloadLength the maximum frame payload length in bytes
+		 * @return {@code this}
+		 */
+		public final Builder websocketMaxFramePayloadLength(int maxFramePayloadLength) {
+			if (maxFramePayloadLength < 1) {
+				throw new IllegalArgumentException("maxFramePayloadLength must be strictly positive");
+			}
+			this.websocketMaxFramePayloadLength = maxFramePayloadLength;
+			return get();
+		}
+
+		/**
+		 * Report the timings of each served request, from its headers being decoded to
+		 * its response being flushed, to the given observer.
+		 *
+		 * @param observer the observer of the request timings or null to disable them
+		 * @return {@code this}
+		 */
+		public final Builder observer(HttpServerObserver observer) {
+			this.observer = observer;
+			return get();
+		}
+
 		/**
 		 * Fill the builder with attribute values from the provided options.
 		 *
@@ -129,6 +495,14 @@ public final class HttpServerOptions extends ServerOptions {
 		public final Builder from(HttpServerOptions options) {
 			super.from(options);
 			this.minCompressionResponseSize = options.minCompressionResponseSize;
+			this.protocols = options.protocols;
+			this.maxPipelinedRequests = options.maxPipelinedRequests;
+			this.dateHeader = options.dateHeader;
+			this.compressionEncodings = options.compressionEncodings;
+			this.compressionLevels = options.compressionLevels;
+			this.websocketCompression = options.websocketCompression;
+			this.websocketMaxFramePayloadLength = options.websocketMaxFramePayloadLength;
+			this.observer = options.observer;
 			return get();
 		}
 
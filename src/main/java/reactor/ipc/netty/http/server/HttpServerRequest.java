@@ -20,9 +20,12 @@ import java.util.Map;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.handler.codec.http.HttpContent;
 import io.netty.handler.codec.http.HttpHeaders;
 import reactor.core.publisher.Flux;
+import reactor.ipc.netty.ByteBufFlux;
+import reactor.ipc.netty.ByteBufMono;
 import reactor.ipc.netty.NettyContext;
 import reactor.ipc.netty.NettyInbound;
 import reactor.ipc.netty.NettyOutbound;
@@ -72,6 +75,25 @@ public interface HttpServerRequest extends NettyInbound, HttpInfos {
 	 */
 	HttpServerRequest paramsResolver(Function<? super String, Map<String, String>> headerResolver);
 
+	/**
+	 * Aggregate the request body into a single {@link ByteBuf}, composed of the received
+	 * buffers without copying them. A body larger than the given maximum length, as
+	 * announced by its {@code Content-Length} header before any is read or as counted
+	 * while it is received, is answered with {@code 413 Request Entity Too Large}, the
+	 * connection closed and the returned {@link ByteBufMono} terminated with a
+	 * {@link io.netty.handler.codec.TooLongFrameException}. Received buffers are released
+	 * as soon as the aggregation fails or is cancelled.
+	 * <p>
+	 * As with {@link ByteBufFlux#aggregate()}, the aggregated buffer is released once
+	 * emitted unless {@link ByteBufMono#retain() retained}.
+	 *
+	 * @param maxContentLength the maximum length of the request body in bytes
+	 *
+	 * @return a {@link ByteBufMono} of the aggregated request body, empty if there is
+	 * no body
+	 */
+	ByteBufMono receiveAggregated(int maxContentLength);
+
 	/**
 	 * Return a {@link Flux} of {@link HttpContent} containing received chunks
 	 *
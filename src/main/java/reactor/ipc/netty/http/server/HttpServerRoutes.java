@@ -22,6 +22,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Objects;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -49,6 +50,21 @@ public interface HttpServerRoutes extends
 		return new DefaultHttpServerRoutes();
 	}
 
+	/**
+	 * Return a new routing registry compiling routes declared with path templates, e.g.
+	 * "/test/{param}" or "/static/**", into a method-indexed route table. Matching
+	 * such routes costs a single walk over the request uri and no regex evaluation,
+	 * while custom {@link Predicate} routes are still evaluated in declaration order.
+	 * <p>
+	 * Only the first matching route in order of declaration is invoked, as with
+	 * {@link #newRoutes()}. Literal path segments are matched verbatim.
+	 *
+	 * @return a new route table backed {@link HttpServerRoutes}
+	 */
+	static HttpServerRoutes newRouteTable() {
+		return new DefaultHttpServerRoutes(true);
+	}
+
 	/**
 	 * Listen for HTTP DELETE on the passed path to be used as a routing condition.
 	 * Incoming connections will query the internal registry to invoke the matching
@@ -99,6 +115,63 @@ public interface HttpServerRoutes extends
 	HttpServerRoutes directory(String uri, Path directory,
 			Function<HttpServerResponse, HttpServerResponse> interceptor);
 
+	/**
+	 * Listen for HTTP GET and HEAD on the passed uri prefix to be used as a routing
+	 * condition. The content of the provided {@link Path directory} will be served by a
+	 * {@link StaticResourceHandler}, keeping recently served files open and answering
+	 * conditional and range requests. The handler is disposed when the server started
+	 * with these routes is closed.
+	 *
+	 * @param uri The uri prefix used by clients
+	 * @param directory the root directory to serve from in file system, e.g.
+	 * "/Users/me/resources"
+	 *
+	 * @return this {@link HttpServerRoutes}
+	 * @since 0.7.3
+	 */
+	default HttpServerRoutes resources(String uri, Path directory) {
+		return resources(uri, directory, null);
+	}
+
+	/**
+	 * Listen for HTTP GET and HEAD on the passed uri prefix to be used as a routing
+	 * condition. The content of the provided {@link Path directory} will be served by a
+	 * {@link StaticResourceHandler}, keeping recently served files open and answering
+	 * conditional and range requests. The handler is disposed when the server started
+	 * with these routes is closed.
+	 *
+	 * @param uri The uri prefix used by clients
+	 * @param directory the root directory to serve from in file system, e.g.
+	 * "/Users/me/resources"
+	 * @param options the {@link StaticResourceHandler.Builder} configurator, may be null
+	 *
+	 * @return this {@link HttpServerRoutes}
+	 * @since 0.7.3
+	 */
+	default HttpServerRoutes resources(String uri, Path directory,
+			Consumer<? super StaticResourceHandler.Builder> options) {
+		return resources(uri, StaticResourceHandler.create(uri, directory, options));
+	}
+
+	/**
+	 * Listen for HTTP GET and HEAD on the passed uri prefix to be used as a routing
+	 * condition. Requests are served by the provided {@link StaticResourceHandler},
+	 * built with the same uri prefix. The handler remains owned by the caller, which
+	 * {@link StaticResourceHandler#dispose() disposes} it once no server uses it.
+	 *
+	 * @param uri The uri prefix used by clients
+	 * @param handler the {@link StaticResourceHandler} serving the files
+	 *
+	 * @return this {@link HttpServerRoutes}
+	 * @since 0.7.3
+	 */
+	default HttpServerRoutes resources(String uri, StaticResourceHandler handler) {
+		Objects.requireNonNull(handler, "handler");
+		return route(HttpPredicate.prefix(uri, HttpMethod.GET)
+		                          .or(HttpPredicate.prefix(uri, HttpMethod.HEAD)),
+				handler);
+	}
+
 	/**
 	 * Listen for HTTP GET on the passed path to be used as a routing condition. The
 	 * provided {@link java.io.File} will be served.
@@ -176,6 +249,25 @@ public interface HttpServerRoutes extends
 		return route(HttpPredicate.get(path), handler);
 	}
 
+	/**
+	 * Listen for HTTP GET on the passed path to be used as a routing condition, serving
+	 * the responses rendered by the handler from the given {@link HttpResponseCache}.
+	 * <p>
+	 * Additional regex matching is available e.g.
+	 * "/test/{param}". Params are resolved using {@link HttpServerRequest#param(CharSequence)}
+	 *
+	 * @param path The GET path used by clients
+	 * @param cache the cache storing the rendered responses
+	 * @param handler an handler to invoke on cache misses
+	 *
+	 * @return this {@link HttpServerRoutes}
+	 * @since 0.7.3
+	 */
+	default HttpServerRoutes get(String path, HttpResponseCache cache,
+			BiFunction<? super HttpServerRequest, ? super HttpServerResponse, ? extends Publisher<Void>> handler) {
+		return route(HttpPredicate.get(path), cache.cache(handler));
+	}
+
 	/**
 	 * This route will be invoked when GET "/path" or "/path/" like uri are requested.
 	 *
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.ipc.netty.http.server;
+
+/**
+ * The {@link System#nanoTime()} at which each phase of a served request ended, as
+ * reported to an {@link HttpServerObserver}. A phase that did not happen, such as the
+ * request body being received when the handler never read it, is reported as 0.
+ * <p>
+ * Times are stamped on the exchange itself, no object being allocated per phase, and
+ * only the differences between two of them are meaningful.
+ *
+ * @since 0.7.3
+ */
+public interface HttpServerTimings {
+
+	/**
+	 * Return the time at which the request headers were decoded.
+	 *
+	 * @return the request start time
+	 */
+	long requestStartTime();
+
+	/**
+	 * Return the time at which the request body was entirely received, 0 if it was not
+	 * by the time the response completed.
+	 *
+	 * @return the request end time
+	 */
+	long requestEndTime();
+
+	/**
+	 * Return the time at which the handler was invoked.
+	 *
+	 * @return the handler start time
+	 */
+	long handlerStartTime();
+
+	/**
+	 * Return the time at which the response headers were sent.
+	 *
+	 * @return the response start time
+	 */
+	long responseStartTime();
+
+	/**
+	 * Return the time at which the last byte of the response was flushed.
+	 *
+	 * @return the response complete time
+	 */
+	long responseCompleteTime();
+}
@@ -26,15 +26,18 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPromise;
 import io.netty.handler.codec.http.DefaultFullHttpRequest;
 import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.websocketx.CloseWebSocketFrame;
 import io.netty.handler.codec.http.websocketx.PingWebSocketFrame;
 import io.netty.handler.codec.http.websocketx.PongWebSocketFrame;
 import io.netty.handler.codec.http.websocketx.WebSocketServerHandshaker;
 import io.netty.handler.codec.http.websocketx.WebSocketServerHandshakerFactory;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketServerExtension;
 import io.netty.util.ReferenceCountUtil;
 import reactor.ipc.netty.NettyPipeline;
 import reactor.ipc.netty.http.HttpOperations;
+import reactor.ipc.netty.http.websocket.WebsocketCompression;
 import reactor.ipc.netty.http.websocket.WebsocketInbound;
 import reactor.ipc.netty.http.websocket.WebsocketOutbound;
 
@@ -61,7 +64,10 @@ final class HttpServerWSOperations extends HttpServerOperations
 
 		// Handshake
 		WebSocketServerHandshakerFactory wsFactory =
-				new WebSocketServerHandshakerFactory(wsUrl, protocols, true);
+				new WebSocketServerHandshakerFactory(wsUrl,
+						protocols,
+						true,
+						websocketMaxFramePayloadLength);
 		handshaker = wsFactory.newHandshaker(replaced.nettyRequest);
 		if (handshaker == null) {
 			WebSocketServerHandshakerFactory.sendUnsupportedVersionResponse(channel);
@@ -78,12 +84,21 @@ final class HttpServerWSOperations extends HttpServerOperations
 			request.headers()
 			       .set(replaced.nettyRequest.headers());
 
-			handshaker.handshake(channel,
-					request,
-					replaced.nettyResponse.headers()
-					                      .remove(HttpHeaderNames.TRANSFER_ENCODING),
-					handshakerResult)
-			          .addListener(f -> markPersistent(false));
+			HttpHeaders responseHeaders = replaced.nettyResponse.headers()
+			                                                    .remove(HttpHeaderNames.TRANSFER_ENCODING);
+			WebSocketServerExtension extension = websocketCompression != null ?
+					websocketCompression.negotiate(request.headers(), responseHeaders) : null;
+
+			handshaker.handshake(channel, request, responseHeaders, handshakerResult)
+			          .addListener(f -> {
+				          if (extension != null && f.isSuccess()) {
+					          WebsocketCompression.addHandlers(channel.pipeline(),
+							          "wsencoder",
+							          extension,
+							          websocketMaxFramePayloadLength);
+				          }
+				          markPersistent(false);
+			          });
 		}
 	}
 
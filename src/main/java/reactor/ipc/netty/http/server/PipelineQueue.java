@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.ipc.netty.http.server;
+
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.util.ReferenceCountUtil;
+
+/**
+ * A growable array ring buffer of the HTTP messages read while a previous pipelined
+ * request is being served, counting the queued requests to bound the pipelining depth.
+ * <p>
+ * Only accessed from the connection event loop.
+ */
+final class PipelineQueue {
+
+	static final int INITIAL_CAPACITY = 16;
+
+	Object[] messages = new Object[INITIAL_CAPACITY];
+	int      head;
+	int      tail;
+	int      size;
+	int      requests;
+
+	/**
+	 * Queue a message at the tail.
+	 *
+	 * @param msg the message to queue
+	 */
+	void offer(Object msg) {
+		if (size == messages.length) {
+			grow();
+		}
+		messages[tail] = msg;
+		tail = (tail + 1) & (messages.length - 1);
+		size++;
+		if (msg instanceof HttpRequest) {
+			requests++;
+		}
+	}
+
+	/**
+	 * Return the message at the head without removing it.
+	 *
+	 * @return the message at the head or {@code null} if empty
+	 */
+	Object peek() {
+		return messages[head];
+	}
+
+	/**
+	 * Remove and return the message at the head.
+	 *
+	 * @return the message at the head or {@code null} if empty
+	 */
+	Object poll() {
+		Object msg = messages[head];
+		if (msg == null) {
+			return null;
+		}
+		messages[head] = null;
+		head = (head + 1) & (messages.length - 1);
+		size--;
+		if (msg instanceof HttpRequest) {
+			requests--;
+		}
+		return msg;
+	}
+
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Return the number of queued messages.
+	 *
+	 * @return the number of queued messages
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Return the number of queued requests.
+	 *
+	 * @return the number of queued requests
+	 */
+	int requests() {
+		return requests;
+	}
+
+	/**
+	 * Release all the queued messages.
+	 */
+	void clear() {
+		Object msg;
+		while ((msg = poll()) != null) {
+			ReferenceCountUtil.release(msg);
+		}
+	}
+
+	void grow() {
+		Object[] previous = messages;
+		Object[] next = new Object[previous.length << 1];
+		int first = previous.length - head;
+		System.arraycopy(previous, head, next, 0, first);
+		System.arraycopy(previous, 0, next, first, head);
+		messages = next;
+		head = 0;
+		tail = previous.length;
+	}
+}
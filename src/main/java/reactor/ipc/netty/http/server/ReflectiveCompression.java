@@ -0,0 +1,347 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.ipc.netty.http.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.MessageToByteEncoder;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+/**
+ * A content coding backed by a compressing {@link OutputStream} from an optional
+ * library, resolved by class name so that the library stays an optional dependency. The
+ * reflective handles are looked up once, when the coding is created.
+ */
+final class ReflectiveCompression implements ContentCompression {
+
+	static ReflectiveCompression brotli() {
+		return new ReflectiveCompression("br", 0, 11, 4, loader -> {
+			Method ensureAvailability =
+					Class.forName("com.aayushatharva.brotli4j.Brotli4jLoader", false, loader)
+					     .getMethod("ensureAvailability");
+			Class<?> parametersType =
+					Class.forName("com.aayushatharva.brotli4j.encoder.Encoder$Parameters",
+							false, loader);
+			Constructor<?> newParameters = parametersType.getConstructor();
+			Method setQuality = parametersType.getMethod("setQuality", int.class);
+			Constructor<?> newStream =
+					Class.forName("com.aayushatharva.brotli4j.encoder.BrotliOutputStream",
+							false, loader)
+					     .getConstructor(OutputStream.class, parametersType);
+			return new StreamFactory() {
+				@Override
+				public void load() throws Exception {
+					ensureAvailability.invoke(null);
+				}
+
+				@Override
+				public OutputStream create(OutputStream out, int level) throws Exception {
+					Object parameters = newParameters.newInstance();
+					setQuality.invoke(parameters, level);
+					return (OutputStream) newStream.newInstance(out, parameters);
+				}
+			};
+		});
+	}
+
+	static ReflectiveCompression zstd() {
+		return new ReflectiveCompression("zstd", 1, 22, 3,
+				streamConstructor("com.github.luben.zstd.ZstdOutputStream"));
+	}
+
+	/**
+	 * Return a resolver of a factory invoking a {@code (OutputStream, int level)}
+	 * constructor of the given class.
+	 */
+	static FactoryResolver streamConstructor(String className) {
+		return loader -> {
+			Constructor<?> c = Class.forName(className, false, loader)
+			                        .getConstructor(OutputStream.class, int.class);
+			return (out, level) -> (OutputStream) c.newInstance(out, level);
+		};
+	}
+
+	final String        encoding;
+	final int           minLevel;
+	final int           maxLevel;
+	final int           defaultLevel;
+	final StreamFactory factory;
+
+	volatile Boolean available;
+
+	ReflectiveCompression(String encoding,
+			int minLevel,
+			int maxLevel,
+			int defaultLevel,
+			FactoryResolver resolver) {
+		this.encoding = encoding;
+		this.minLevel = minLevel;
+		this.maxLevel = maxLevel;
+		this.defaultLevel = defaultLevel;
+		StreamFactory factory;
+		try {
+			factory = resolver.resolve(ReflectiveCompression.class.getClassLoader());
+		}
+		catch (Throwable t) {
+			if (log.isDebugEnabled()) {
+				log.debug("Content coding {} not available: {}", encoding, t.toString());
+			}
+			factory = null;
+		}
+		this.factory = factory;
+	}
+
+	@Override
+	public String encoding() {
+		return encoding;
+	}
+
+	@Override
+	public boolean isAvailable() {
+		Boolean available = this.available;
+		if (available == null) {
+			available = factory != null && tryStream();
+			this.available = available;
+		}
+		return available;
+	}
+
+	boolean tryStream() {
+		//a trial stream checks the native library
+		try {
+			factory.load();
+			try (OutputStream out = newStream(new ByteArrayOutputStream(), defaultLevel)) {
+				out.write(0);
+			}
+			return true;
+		}
+		catch (Throwable t) {
+			if (log.isDebugEnabled()) {
+				log.debug("Content coding {} not available: {}", encoding, t.toString());
+			}
+			return false;
+		}
+	}
+
+	@Override
+	public int defaultLevel() {
+		return defaultLevel;
+	}
+
+	@Override
+	public int minLevel() {
+		return minLevel;
+	}
+
+	@Override
+	public int maxLevel() {
+		return maxLevel;
+	}
+
+	@Override
+	public ChannelHandler newEncoder(int level) {
+		return new Encoder(this, level);
+	}
+
+	OutputStream newStream(OutputStream out, int level) throws Exception {
+		try {
+			return factory.create(out, level);
+		}
+		catch (InvocationTargetException e) {
+			Throwable cause = e.getCause();
+			throw cause instanceof Exception ? (Exception) cause : e;
+		}
+	}
+
+	/**
+	 * Create a compressing {@link OutputStream} writing to the given stream.
+	 */
+	@FunctionalInterface
+	interface StreamFactory {
+
+		/**
+		 * Load the native library backing the streams, once before the first stream is
+		 * created.
+		 */
+		default void load() throws Exception {
+		}
+
+		OutputStream create(OutputStream out, int level) throws Exception;
+	}
+
+	/**
+	 * Look up the reflective handles of a {@link StreamFactory}, failing if the library
+	 * is not on the classpath.
+	 */
+	@FunctionalInterface
+	interface FactoryResolver {
+
+		StreamFactory resolve(ClassLoader loader) throws Exception;
+	}
+
+	/**
+	 * Compress each written buffer through the stream, flushing it so streamed responses
+	 * are not delayed, and close the stream when closed.
+	 */
+	static final class Encoder extends MessageToByteEncoder<ByteBuf> {
+
+		final ReflectiveCompression compression;
+		final int                   level;
+		final Sink                  sink = new Sink();
+
+		OutputStream stream;
+		ByteBuf      pending;
+
+		Encoder(ReflectiveCompression compression, int level) {
+			this.compression = compression;
+			this.level = level;
+		}
+
+		@Override
+		public void handlerAdded(ChannelHandlerContext ctx) throws Exception {
+			//keep any header written by the stream constructor for the first buffer
+			ByteBuf header = ctx.alloc()
+			                    .heapBuffer();
+			sink.out = header;
+			try {
+				stream = compression.newStream(sink, level);
+			}
+			finally {
+				sink.out = null;
+			}
+			if (header.isReadable()) {
+				pending = header;
+			}
+			else {
+				header.release();
+			}
+		}
+
+		@Override
+		protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, ByteBuf msg,
+				boolean preferDirect) {
+			return ctx.alloc()
+			          .heapBuffer(msg.readableBytes() + 64);
+		}
+
+		@Override
+		protected void encode(ChannelHandlerContext ctx, ByteBuf in, ByteBuf out)
+				throws IOException {
+			OutputStream stream = this.stream;
+			if (stream == null) {
+				out.writeBytes(in);
+				return;
+			}
+			writePending(out);
+			sink.out = out;
+			try {
+				in.readBytes(stream, in.readableBytes());
+				stream.flush();
+			}
+			finally {
+				sink.out = null;
+			}
+		}
+
+		@Override
+		public void close(ChannelHandlerContext ctx, ChannelPromise promise)
+				throws IOException {
+			OutputStream stream = this.stream;
+			if (stream == null) {
+				ctx.close(promise);
+				return;
+			}
+			this.stream = null;
+
+			ByteBuf footer = ctx.alloc()
+			                    .heapBuffer();
+			writePending(footer);
+			sink.out = footer;
+			try {
+				stream.close();
+			}
+			catch (IOException e) {
+				footer.release();
+				throw e;
+			}
+			finally {
+				sink.out = null;
+			}
+			ctx.writeAndFlush(footer)
+			   .addListener((ChannelFutureListener) f -> ctx.close(promise));
+		}
+
+		void writePending(ByteBuf out) {
+			ByteBuf pending = this.pending;
+			if (pending != null) {
+				this.pending = null;
+				out.writeBytes(pending);
+				pending.release();
+			}
+		}
+
+		@Override
+		public void handlerRemoved(ChannelHandlerContext ctx) throws IOException {
+			ByteBuf pending = this.pending;
+			if (pending != null) {
+				this.pending = null;
+				pending.release();
+			}
+			OutputStream stream = this.stream;
+			if (stream != null) {
+				this.stream = null;
+				stream.close();
+			}
+		}
+	}
+
+	/**
+	 * Write to the buffer currently produced by the {@link Encoder}.
+	 */
+	static final class Sink extends OutputStream {
+
+		ByteBuf out;
+
+		@Override
+		public void write(int b) {
+			if (out != null) {
+				out.writeByte(b);
+			}
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			if (out != null) {
+				out.writeBytes(b, off, len);
+			}
+		}
+	}
+
+	static final Logger log = Loggers.getLogger(ReflectiveCompression.class);
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.ipc.netty.http.server;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import io.netty.channel.DefaultFileRegion;
+import io.netty.handler.codec.DateFormatter;
+import io.netty.util.AbstractReferenceCounted;
+import io.netty.util.ReferenceCounted;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+/**
+ * A bounded LRU cache of open {@link FileChannel} and metadata used by
+ * {@link StaticResourceHandler}. Entries are revalidated against the file key (inode),
+ * modification time and size at most once per revalidation interval; a changed file is
+ * reopened while in-flight responses keep reading the previous channel until they
+ * release it. Missing files are cached as well so that probing for precompressed
+ * siblings does not hit the file system on every request.
+ */
+final class StaticFileCache {
+
+	final int                                 maxEntries;
+	final long                                revalidateNanos;
+	final LinkedHashMap<String, CachedFile>   entries;
+
+	StaticFileCache(int maxEntries, long revalidateNanos) {
+		this.maxEntries = maxEntries;
+		this.revalidateNanos = revalidateNanos;
+		this.entries = new LinkedHashMap<String, CachedFile>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, CachedFile> eldest) {
+				if (size() > StaticFileCache.this.maxEntries) {
+					eldest.getValue()
+					      .release();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Return a retained, possibly missing, {@link CachedFile} for the given path. The
+	 * caller must release it once done.
+	 *
+	 * @param key the cache key
+	 * @param path the file path
+	 *
+	 * @return a retained {@link CachedFile}
+	 * @throws IOException if the file exists but cannot be opened
+	 */
+	CachedFile acquire(String key, Path path) throws IOException {
+		CachedFile file;
+		synchronized (entries) {
+			file = entries.get(key);
+			if (file != null) {
+				file.retain();
+			}
+		}
+
+		if (file != null) {
+			if (System.nanoTime() - file.validatedAt < revalidateNanos || file.revalidate()) {
+				return file;
+			}
+			if (log.isDebugEnabled()) {
+				log.debug("Reopening modified file {}", path);
+			}
+			file.release();
+		}
+
+		CachedFile fresh = CachedFile.open(path);
+		fresh.retain();
+		CachedFile previous;
+		synchronized (entries) {
+			previous = entries.put(key, fresh);
+		}
+		if (previous != null) {
+			previous.release();
+		}
+		return fresh;
+	}
+
+	int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	void clear() {
+		List<CachedFile> files;
+		synchronized (entries) {
+			files = new ArrayList<>(entries.values());
+			entries.clear();
+		}
+		for (CachedFile file : files) {
+			file.release();
+		}
+	}
+
+	static final Logger log = Loggers.getLogger(StaticFileCache.class);
+
+	/**
+	 * A reference counted open file and its validators, the channel is closed once the
+	 * cache and every response using it have released it.
+	 */
+	static final class CachedFile extends AbstractReferenceCounted {
+
+		static CachedFile open(Path path) throws IOException {
+			BasicFileAttributes attributes;
+			try {
+				attributes = Files.readAttributes(path, BasicFileAttributes.class);
+			}
+			catch (IOException e) {
+				return new CachedFile(path, null, null);
+			}
+			if (!attributes.isRegularFile()) {
+				return new CachedFile(path, null, null);
+			}
+			return new CachedFile(path,
+					FileChannel.open(path, StandardOpenOption.READ),
+					attributes);
+		}
+
+		final Path        path;
+		final FileChannel channel;
+		final Object      fileKey;
+		final long        lastModified;
+		final long        size;
+		final String      etag;
+		final String      lastModifiedHeader;
+
+		volatile long validatedAt;
+
+		CachedFile(Path path, FileChannel channel, BasicFileAttributes attributes) {
+			this.path = path;
+			this.channel = channel;
+			if (attributes != null) {
+				this.fileKey = attributes.fileKey();
+				this.lastModified = attributes.lastModifiedTime()
+				                              .toMillis();
+				this.size = attributes.size();
+				this.etag = "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(size) + "\"";
+				this.lastModifiedHeader = DateFormatter.format(new Date(lastModified));
+			}
+			else {
+				this.fileKey = null;
+				this.lastModified = -1L;
+				this.size = -1L;
+				this.etag = null;
+				this.lastModifiedHeader = null;
+			}
+			this.validatedAt = System.nanoTime();
+		}
+
+		boolean exists() {
+			return channel != null;
+		}
+
+		boolean revalidate() {
+			boolean valid;
+			try {
+				BasicFileAttributes attributes =
+						Files.readAttributes(path, BasicFileAttributes.class);
+				valid = channel != null &&
+						attributes.isRegularFile() &&
+						Objects.equals(fileKey, attributes.fileKey()) &&
+						lastModified == attributes.lastModifiedTime()
+						                          .toMillis() &&
+						size == attributes.size();
+			}
+			catch (IOException e) {
+				valid = channel == null;
+			}
+			if (valid) {
+				validatedAt = System.nanoTime();
+			}
+			return valid;
+		}
+
+		@Override
+		public CachedFile retain() {
+			super.retain();
+			return this;
+		}
+
+		@Override
+		protected void deallocate() {
+			if (channel != null) {
+				try {
+					channel.close();
+				}
+				catch (IOException e) {
+					log.debug("Failed to close {}", path, e);
+				}
+			}
+		}
+
+		@Override
+		public ReferenceCounted touch(Object hint) {
+			return this;
+		}
+	}
+
+	/**
+	 * A {@link DefaultFileRegion} over a shared {@link CachedFile} channel, releasing the
+	 * cached file rather than closing the channel once written.
+	 */
+	static final class CachedFileRegion extends DefaultFileRegion {
+
+		final CachedFile file;
+
+		CachedFileRegion(CachedFile file, long position, long count) {
+			super(file.channel, position, count);
+			this.file = file;
+		}
+
+		@Override
+		protected void deallocate() {
+			file.release();
+		}
+	}
+}
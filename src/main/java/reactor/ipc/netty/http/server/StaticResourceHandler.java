@@ -0,0 +1,581 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.ipc.netty.http.server;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.DateFormatter;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import io.netty.handler.ssl.SslHandler;
+import org.reactivestreams.Publisher;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.NettyPipeline;
+import reactor.ipc.netty.http.server.StaticFileCache.CachedFile;
+import reactor.ipc.netty.http.server.StaticFileCache.CachedFileRegion;
+
+/**
+ * Serve the files of a directory, keeping recently served files open in a bounded
+ * cache.
+ * <ul>
+ *     <li>{@code ETag} and {@code Last-Modified} validators are sent with each file and
+ *     matching {@code If-None-Match} / {@code If-Modified-Since} requests are answered
+ *     with {@code 304 Not Modified}.</li>
+ *     <li>Single and multiple {@code Range} requests are answered with
+ *     {@code 206 Partial Content}, honoring {@code If-Range}.</li>
+ *     <li>Precompressed {@code .br} and {@code .gz} siblings of a file are served
+ *     instead when accepted by the client.</li>
+ * </ul>
+ * File content is written as {@link io.netty.channel.FileRegion} when the channel
+ * allows zero-copy transfers, and read into buffers from the cached channel otherwise
+ * (TLS, HTTP/2, response compression).
+ * <p>
+ * The handler keeps files open until evicted, {@link #dispose()} releases them all.
+ *
+ * @see HttpServerRoutes#resources(String, Path)
+ * @see HttpServerRoutes#resources(String, StaticResourceHandler)
+ * @since 0.7.3
+ */
+public final class StaticResourceHandler
+		implements BiFunction<HttpServerRequest, HttpServerResponse, Publisher<Void>>,
+		           Disposable {
+
+	/**
+	 * Create a new {@link StaticResourceHandler.Builder} serving the given directory
+	 * under the given uri prefix.
+	 *
+	 * @param prefix the uri prefix removed from the request path
+	 * @param directory the root directory to serve from
+	 *
+	 * @return a new {@link StaticResourceHandler.Builder}
+	 */
+	public static Builder builder(String prefix, Path directory) {
+		return new Builder(prefix, directory);
+	}
+
+	/**
+	 * Create a new {@link StaticResourceHandler} configured by the given, possibly
+	 * null, {@link Builder} configurator.
+	 */
+	static StaticResourceHandler create(String prefix, Path directory,
+			Consumer<? super Builder> options) {
+		Builder builder = builder(prefix, directory);
+		if (options != null) {
+			options.accept(builder);
+		}
+		return builder.build();
+	}
+
+	final String          prefix;
+	final Path            root;
+	final boolean         precompressed;
+	final int             maxRanges;
+	final StaticFileCache cache;
+
+	volatile boolean disposed;
+
+	StaticResourceHandler(Builder builder) {
+		this.prefix = builder.prefix;
+		this.root = builder.directory.toAbsolutePath()
+		                             .normalize();
+		this.precompressed = builder.precompressed;
+		this.maxRanges = builder.maxRanges;
+		this.cache = new StaticFileCache(builder.maxCachedFiles,
+				builder.revalidateInterval.toNanos());
+	}
+
+	@Override
+	public Publisher<Void> apply(HttpServerRequest request, HttpServerResponse response) {
+		String relative = relativePath(request.uri());
+		Path path = relative != null ? root.resolve(relative)
+		                                   .normalize() : null;
+		if (path == null || !path.startsWith(root)) {
+			return response.sendNotFound();
+		}
+
+		CachedFile file;
+		try {
+			file = cache.acquire(relative, path);
+		}
+		catch (IOException e) {
+			return Mono.error(e);
+		}
+		if (!file.exists()) {
+			file.release();
+			return response.sendNotFound();
+		}
+
+		String contentType = contentType(path);
+		String encoding = null;
+		if (precompressed) {
+			response.header(HttpHeaderNames.VARY, HttpHeaderNames.ACCEPT_ENCODING);
+			String acceptEncoding = request.requestHeaders()
+			                               .get(HttpHeaderNames.ACCEPT_ENCODING);
+			if (acceptEncoding != null) {
+				try {
+					for (int i = 0; i < ENCODINGS.length && encoding == null; i++) {
+						if (accepts(acceptEncoding, ENCODINGS[i])) {
+							String siblingKey = relative + EXTENSIONS[i];
+							CachedFile sibling = cache.acquire(siblingKey,
+									path.resolveSibling(path.getFileName() + EXTENSIONS[i]));
+							if (sibling.exists()) {
+								file.release();
+								file = sibling;
+								encoding = ENCODINGS[i];
+							}
+							else {
+								sibling.release();
+							}
+						}
+					}
+				}
+				catch (IOException e) {
+					file.release();
+					return Mono.error(e);
+				}
+			}
+		}
+
+		try {
+			return send(request, response, file, contentType, encoding);
+		}
+		catch (Throwable e) {
+			file.release();
+			return Mono.error(e);
+		}
+	}
+
+	@Override
+	public void dispose() {
+		disposed = true;
+		cache.clear();
+	}
+
+	@Override
+	public boolean isDisposed() {
+		return disposed;
+	}
+
+	Publisher<Void> send(HttpServerRequest request,
+			HttpServerResponse response,
+			CachedFile file,
+			String contentType,
+			String encoding) {
+		HttpHeaders requestHeaders = request.requestHeaders();
+		response.header(HttpHeaderNames.ETAG, file.etag)
+		        .header(HttpHeaderNames.LAST_MODIFIED, file.lastModifiedHeader)
+		        .header(HttpHeaderNames.ACCEPT_RANGES, "bytes");
+		if (encoding != null) {
+			response.header(HttpHeaderNames.CONTENT_ENCODING, encoding);
+		}
+
+		if (notModified(requestHeaders, file)) {
+			file.release();
+			return response.status(HttpResponseStatus.NOT_MODIFIED)
+			               .sendHeaders()
+			               .then();
+		}
+
+		boolean head = HttpMethod.HEAD.equals(request.method());
+		long size = file.size;
+		String range = requestHeaders.get(HttpHeaderNames.RANGE);
+		List<long[]> ranges = null;
+		if (range != null && ifRange(requestHeaders, file)) {
+			ranges = parseRanges(range, size, maxRanges);
+		}
+
+		if (ranges != null && ranges.isEmpty()) {
+			file.release();
+			return response.status(HttpResponseStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+			               .header(HttpHeaderNames.CONTENT_RANGE, "bytes */" + size)
+			               .header(HttpHeaderNames.CONTENT_LENGTH, HttpHeaderValues.ZERO)
+			               .sendHeaders()
+			               .then();
+		}
+
+		boolean zeroCopy = zeroCopy(response.context()
+		                                    .channel()
+		                                    .pipeline());
+		ByteBufAllocator alloc = response.context()
+		                                 .channel()
+		                                 .alloc();
+		Flux<Object> body;
+		long length;
+
+		if (ranges == null || ranges.size() == 1) {
+			long position = ranges == null ? 0L : ranges.get(0)[0];
+			long count = ranges == null ? size : ranges.get(0)[1] - position + 1;
+			if (ranges != null) {
+				response.status(HttpResponseStatus.PARTIAL_CONTENT)
+				        .header(HttpHeaderNames.CONTENT_RANGE,
+						        contentRange(position, count, size));
+			}
+			if (contentType != null) {
+				response.header(HttpHeaderNames.CONTENT_TYPE, contentType);
+			}
+			length = count;
+			body = content(file, position, count, zeroCopy, alloc);
+		}
+		else {
+			String boundary = Long.toHexString(ThreadLocalRandom.current()
+			                                                    .nextLong());
+			List<Publisher<?>> parts = new ArrayList<>(ranges.size() * 2 + 1);
+			length = 0L;
+			for (long[] r : ranges) {
+				long count = r[1] - r[0] + 1;
+				byte[] partHeader = ("\r\n--" + boundary + "\r\n" +
+						(contentType != null ? "Content-Type: " + contentType + "\r\n" : "") +
+						"Content-Range: " + contentRange(r[0], count, size) + "\r\n\r\n")
+						.getBytes(StandardCharsets.US_ASCII);
+				parts.add(Mono.fromSupplier(() -> Unpooled.wrappedBuffer(partHeader)));
+				parts.add(content(file, r[0], count, zeroCopy, alloc));
+				length += partHeader.length + count;
+			}
+			byte[] end = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+			parts.add(Mono.fromSupplier(() -> Unpooled.wrappedBuffer(end)));
+			length += end.length;
+
+			response.status(HttpResponseStatus.PARTIAL_CONTENT)
+			        .header(HttpHeaderNames.CONTENT_TYPE,
+					        "multipart/byteranges; boundary=" + boundary);
+			body = Flux.concat(parts);
+		}
+
+		response.header(HttpHeaderNames.CONTENT_LENGTH, String.valueOf(length));
+		if (head) {
+			file.release();
+			return response.sendHeaders()
+			               .then();
+		}
+		return response.sendObject(body.doFinally(s -> file.release()))
+		               .then();
+	}
+
+	/**
+	 * Return the content of the given file segment, as a single region if the channel
+	 * supports zero-copy transfers or as buffers read from the cached channel.
+	 */
+	static Flux<Object> content(CachedFile file,
+			long position,
+			long count,
+			boolean zeroCopy,
+			ByteBufAllocator alloc) {
+		if (count == 0L) {
+			return Flux.empty();
+		}
+		if (zeroCopy) {
+			return Flux.defer(() -> Flux.just(new CachedFileRegion(file.retain(), position, count)));
+		}
+		long end = position + count;
+		return Flux.generate(() -> position, (p, sink) -> {
+			if (p >= end) {
+				sink.complete();
+				return p;
+			}
+			int length = (int) Math.min(CHUNK_SIZE, end - p);
+			ByteBuf buf = alloc.ioBuffer(length);
+			try {
+				int read = buf.writeBytes(file.channel, p, length);
+				if (read < 0) {
+					buf.release();
+					sink.error(new EOFException(file.path + " was truncated"));
+					return p;
+				}
+				sink.next(buf);
+				return p + read;
+			}
+			catch (IOException e) {
+				buf.release();
+				sink.error(e);
+				return p;
+			}
+		});
+	}
+
+	String relativePath(String uri) {
+		int query = uri.indexOf('?');
+		String path = query >= 0 ? uri.substring(0, query) : uri;
+		if (!path.startsWith(prefix)) {
+			return null;
+		}
+		path = path.substring(prefix.length());
+		//the prefix must end on a segment boundary, "/static" does not serve "/staticfoo"
+		if (!path.isEmpty() && path.charAt(0) != '/' && !prefix.endsWith("/")) {
+			return null;
+		}
+		if (path.indexOf('%') >= 0) {
+			path = QueryStringDecoder.decodeComponent(path.replace("+", "%2B"));
+		}
+		int start = 0;
+		while (start < path.length() && path.charAt(start) == '/') {
+			start++;
+		}
+		path = path.substring(start);
+		if (path.isEmpty() || path.indexOf('\0') >= 0) {
+			return null;
+		}
+		return path;
+	}
+
+	static boolean zeroCopy(ChannelPipeline pipeline) {
+		return pipeline.get(SslHandler.class) == null &&
+				pipeline.get(NettyPipeline.H2StreamCodec) == null &&
+				pipeline.get(NettyPipeline.CompressionHandler) == null;
+	}
+
+	static String contentType(Path path) {
+		try {
+			return Files.probeContentType(path);
+		}
+		catch (IOException e) {
+			return null;
+		}
+	}
+
+	static String contentRange(long position, long count, long size) {
+		return "bytes " + position + "-" + (position + count - 1) + "/" + size;
+	}
+
+	static boolean notModified(HttpHeaders headers, CachedFile file) {
+		String ifNoneMatch = headers.get(HttpHeaderNames.IF_NONE_MATCH);
+		if (ifNoneMatch != null) {
+			return etagMatches(ifNoneMatch, file.etag);
+		}
+		String ifModifiedSince = headers.get(HttpHeaderNames.IF_MODIFIED_SINCE);
+		if (ifModifiedSince != null) {
+			Date date = DateFormatter.parseHttpDate(ifModifiedSince);
+			return date != null && file.lastModified / 1000 <= date.getTime() / 1000;
+		}
+		return false;
+	}
+
+	static boolean ifRange(HttpHeaders headers, CachedFile file) {
+		String ifRange = headers.get(HttpHeaderNames.IF_RANGE);
+		if (ifRange == null) {
+			return true;
+		}
+		if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+			return ifRange.equals(file.etag);
+		}
+		Date date = DateFormatter.parseHttpDate(ifRange);
+		return date != null && file.lastModified / 1000 == date.getTime() / 1000;
+	}
+
+	static boolean etagMatches(String header, String etag) {
+		for (String candidate : header.split(",")) {
+			candidate = candidate.trim();
+			if (candidate.equals("*") || candidate.equals(etag) ||
+					(candidate.startsWith("W/") && candidate.substring(2)
+					                                        .equals(etag))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Return true if the given {@code Accept-Encoding} header accepts the given coding
+	 * with a non-zero quality.
+	 */
+	static boolean accepts(String acceptEncoding, String coding) {
+		for (String candidate : acceptEncoding.split(",")) {
+			int params = candidate.indexOf(';');
+			String name = (params >= 0 ? candidate.substring(0, params) : candidate).trim();
+			if (name.equalsIgnoreCase(coding)) {
+				if (params < 0) {
+					return true;
+				}
+				String q = candidate.substring(params + 1)
+				                    .trim();
+				if (!q.startsWith("q=")) {
+					return true;
+				}
+				try {
+					return Double.parseDouble(q.substring(2)) > 0d;
+				}
+				catch (NumberFormatException e) {
+					return false;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Parse a {@code Range} header into inclusive {@code [first, last]} byte ranges.
+	 *
+	 * @return null if the header is malformed or should be ignored, an empty list if no
+	 * range is satisfiable
+	 */
+	static List<long[]> parseRanges(String header, long size, int maxRanges) {
+		if (!header.startsWith("bytes=")) {
+			return null;
+		}
+		String[] specs = header.substring(6)
+		                       .split(",");
+		if (specs.length > maxRanges) {
+			return null;
+		}
+		List<long[]> ranges = new ArrayList<>(specs.length);
+		for (String spec : specs) {
+			spec = spec.trim();
+			int dash = spec.indexOf('-');
+			if (dash < 0) {
+				return null;
+			}
+			long first;
+			long last;
+			try {
+				if (dash == 0) {
+					long suffix = Long.parseLong(spec.substring(1));
+					if (suffix <= 0L) {
+						continue;
+					}
+					first = Math.max(0L, size - suffix);
+					last = size - 1;
+				}
+				else {
+					first = Long.parseLong(spec.substring(0, dash));
+					last = dash == spec.length() - 1 ? size - 1 :
+							Math.min(size - 1, Long.parseLong(spec.substring(dash + 1)));
+				}
+			}
+			catch (NumberFormatException e) {
+				return null;
+			}
+			if (first < 0L || last < first) {
+				if (first >= 0L && last >= 0L && last < first && first < size) {
+					return null;
+				}
+				continue;
+			}
+			ranges.add(new long[]{first, last});
+		}
+		return ranges;
+	}
+
+	static final String[] ENCODINGS  = {"br", "gzip"};
+	static final String[] EXTENSIONS = {".br", ".gz"};
+	static final int      CHUNK_SIZE = 64 * 1024;
+
+	public static final class Builder {
+
+		final String prefix;
+		final Path   directory;
+
+		int      maxCachedFiles     = 1024;
+		Duration revalidateInterval = Duration.ofSeconds(1);
+		boolean  precompressed      = true;
+		int      maxRanges          = 16;
+
+		Builder(String prefix, Path directory) {
+			Objects.requireNonNull(prefix, "prefix");
+			this.prefix = prefix.startsWith("/") ? prefix : "/" + prefix;
+			this.directory = Objects.requireNonNull(directory, "directory");
+		}
+
+		/**
+		 * The maximum number of files, including missing ones, kept in the cache.
+		 * Default to 1024.
+		 *
+		 * @param maxCachedFiles the maximum number of cached files
+		 * @return {@code this}
+		 */
+		public final Builder maxCachedFiles(int maxCachedFiles) {
+			if (maxCachedFiles < 1) {
+				throw new IllegalArgumentException("maxCachedFiles must be strictly positive");
+			}
+			this.maxCachedFiles = maxCachedFiles;
+			return this;
+		}
+
+		/**
+		 * The interval during which a cached file is served without checking whether it
+		 * changed on disk. Default to 1 second, {@link Duration#ZERO} checks on every
+		 * request.
+		 *
+		 * @param revalidateInterval the interval between file system checks
+		 * @return {@code this}
+		 */
+		public final Builder revalidateInterval(Duration revalidateInterval) {
+			Objects.requireNonNull(revalidateInterval, "revalidateInterval");
+			if (revalidateInterval.isNegative()) {
+				throw new IllegalArgumentException("revalidateInterval must be positive");
+			}
+			this.revalidateInterval = revalidateInterval;
+			return this;
+		}
+
+		/**
+		 * Whether {@code .br} and {@code .gz} siblings are served to clients accepting
+		 * these encodings. Default to true.
+		 *
+		 * @param precompressed true to serve precompressed siblings
+		 * @return {@code this}
+		 */
+		public final Builder precompressed(boolean precompressed) {
+			this.precompressed = precompressed;
+			return this;
+		}
+
+		/**
+		 * The maximum number of ranges accepted in a single request, requests with more
+		 * ranges are answered with the full content. Default to 16.
+		 *
+		 * @param maxRanges the maximum number of ranges per request
+		 * @return {@code this}
+		 */
+		public final Builder maxRanges(int maxRanges) {
+			if (maxRanges < 1) {
+				throw new IllegalArgumentException("maxRanges must be strictly positive");
+			}
+			this.maxRanges = maxRanges;
+			return this;
+		}
+
+		/**
+		 * Build a new {@link StaticResourceHandler}.
+		 *
+		 * @return a new {@link StaticResourceHandler}
+		 */
+		public StaticResourceHandler build() {
+			return new StaticResourceHandler(this);
+		}
+	}
+}
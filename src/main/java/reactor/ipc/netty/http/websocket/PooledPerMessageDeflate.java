@@ -0,0 +1,496 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.ipc.netty.http.websocket;
+
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.CodecException;
+import io.netty.handler.codec.TooLongFrameException;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.CloseWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.ContinuationWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketClientExtension;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketClientExtensionHandshaker;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtension;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtensionData;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtensionDecoder;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtensionEncoder;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketServerExtension;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketServerExtensionHandshaker;
+import io.netty.util.concurrent.FastThreadLocal;
+
+/**
+ * A {@code permessage-deflate} extension negotiated without context takeover in both
+ * directions, so that a {@link Deflater} or {@link Inflater} is only needed while a
+ * message is processed. They are borrowed from a per-thread pool, hence per event loop,
+ * and returned reset at the end of each message.
+ */
+final class PooledPerMessageDeflate implements WebSocketServerExtension, WebSocketClientExtension {
+
+	/**
+	 * Maximum number of idle {@link Deflater} kept per thread and compression level, and
+	 * of idle {@link Inflater} kept per thread.
+	 */
+	static final int MAX_POOLED =
+			Integer.parseInt(System.getProperty("reactor.ipc.netty.http.websocket.maxPooledDeflaters",
+					"" + 16));
+
+	static final String CLIENT_MAX_WINDOW = "client_max_window_bits";
+	static final String SERVER_MAX_WINDOW = "server_max_window_bits";
+	static final String CLIENT_NO_CONTEXT = "client_no_context_takeover";
+	static final String SERVER_NO_CONTEXT = "server_no_context_takeover";
+
+	static final byte[] FRAME_TAIL = {0x00, 0x00, (byte) 0xff, (byte) 0xff};
+
+	/**
+	 * Close status of a message too big to process.
+	 */
+	static final int MESSAGE_TOO_BIG = 1009;
+
+	final int     level;
+	final boolean serverNoContextOffered;
+
+	PooledPerMessageDeflate(int level, boolean serverNoContextOffered) {
+		this.level = level;
+		this.serverNoContextOffered = serverNoContextOffered;
+	}
+
+	@Override
+	public int rsv() {
+		return RSV1;
+	}
+
+	@Override
+	public WebSocketExtensionEncoder newExtensionEncoder() {
+		return new Encoder(level);
+	}
+
+	@Override
+	public WebSocketExtensionDecoder newExtensionDecoder() {
+		return new Decoder(Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Create a decoder failing messages decompressed to more than the given length.
+	 *
+	 * @param maxMessageLength the maximum decompressed length of a message
+	 *
+	 * @return a new decoder
+	 */
+	WebSocketExtensionDecoder newExtensionDecoder(int maxMessageLength) {
+		return new Decoder(maxMessageLength);
+	}
+
+	@Override
+	public WebSocketExtensionData newReponseData() {
+		return noContextTakeover(serverNoContextOffered);
+	}
+
+	static WebSocketExtensionData noContextTakeover(boolean server) {
+		Map<String, String> parameters = new LinkedHashMap<>(4);
+		if (server) {
+			parameters.put(SERVER_NO_CONTEXT, null);
+		}
+		parameters.put(CLIENT_NO_CONTEXT, null);
+		return new WebSocketExtensionData(WebsocketCompression.PERMESSAGE_DEFLATE, parameters);
+	}
+
+	/**
+	 * Accept offers that do not restrict the server window, which the JDK
+	 * {@link Deflater} cannot honor. The server compressor being reset after each
+	 * message whatever the offer, {@code server_no_context_takeover} is only confirmed
+	 * when offered since some clients reject it otherwise.
+	 */
+	static final class ServerHandshaker implements WebSocketServerExtensionHandshaker {
+
+		final int level;
+
+		ServerHandshaker(int level) {
+			this.level = level;
+		}
+
+		@Override
+		public WebSocketServerExtension handshakeExtension(WebSocketExtensionData data) {
+			if (!WebsocketCompression.PERMESSAGE_DEFLATE.equals(data.name())) {
+				return null;
+			}
+			boolean serverNoContext = false;
+			for (Map.Entry<String, String> parameter : data.parameters()
+			                                               .entrySet()) {
+				switch (parameter.getKey()) {
+					case SERVER_NO_CONTEXT:
+						serverNoContext = true;
+						break;
+					case CLIENT_MAX_WINDOW:
+					case CLIENT_NO_CONTEXT:
+						break;
+					case SERVER_MAX_WINDOW:
+						if (!"15".equals(parameter.getValue())) {
+							return null;
+						}
+						break;
+					default:
+						return null;
+				}
+			}
+			return new PooledPerMessageDeflate(level, serverNoContext);
+		}
+	}
+
+	/**
+	 * Offer no context takeover in both directions and accept a response confirming it.
+	 */
+	static final class ClientHandshaker implements WebSocketClientExtensionHandshaker {
+
+		final int level;
+
+		ClientHandshaker(int level) {
+			this.level = level;
+		}
+
+		@Override
+		public WebSocketExtensionData newRequestData() {
+			return noContextTakeover(true);
+		}
+
+		@Override
+		public WebSocketClientExtension handshakeExtension(WebSocketExtensionData data) {
+			if (!WebsocketCompression.PERMESSAGE_DEFLATE.equals(data.name())) {
+				return null;
+			}
+			boolean serverNoContext = false;
+			for (String parameter : data.parameters()
+			                            .keySet()) {
+				switch (parameter) {
+					case SERVER_NO_CONTEXT:
+						serverNoContext = true;
+						break;
+					case CLIENT_NO_CONTEXT:
+					case SERVER_MAX_WINDOW:
+						break;
+					default:
+						return null;
+				}
+			}
+			return serverNoContext ? new PooledPerMessageDeflate(level, true) : null;
+		}
+	}
+
+	/**
+	 * Idle {@link Deflater} of the current thread, indexed by level.
+	 */
+	static final FastThreadLocal<ArrayDeque<Deflater>[]> DEFLATERS =
+			new FastThreadLocal<ArrayDeque<Deflater>[]>() {
+				@Override
+				@SuppressWarnings("unchecked")
+				protected ArrayDeque<Deflater>[] initialValue() {
+					ArrayDeque<Deflater>[] pools = new ArrayDeque[10];
+					for (int i = 0; i < pools.length; i++) {
+						pools[i] = new ArrayDeque<>();
+					}
+					return pools;
+				}
+			};
+
+	/**
+	 * Idle {@link Inflater} of the current thread.
+	 */
+	static final FastThreadLocal<ArrayDeque<Inflater>> INFLATERS =
+			new FastThreadLocal<ArrayDeque<Inflater>>() {
+				@Override
+				protected ArrayDeque<Inflater> initialValue() {
+					return new ArrayDeque<>();
+				}
+			};
+
+	static Deflater borrowDeflater(int level) {
+		Deflater deflater = DEFLATERS.get()[level].poll();
+		return deflater != null ? deflater : new Deflater(level, true);
+	}
+
+	static void releaseDeflater(Deflater deflater, int level) {
+		ArrayDeque<Deflater> pool = DEFLATERS.get()[level];
+		if (pool.size() < MAX_POOLED) {
+			deflater.reset();
+			pool.offer(deflater);
+		}
+		else {
+			deflater.end();
+		}
+	}
+
+	static Inflater borrowInflater() {
+		Inflater inflater = INFLATERS.get()
+		                             .poll();
+		return inflater != null ? inflater : new Inflater(true);
+	}
+
+	static void releaseInflater(Inflater inflater) {
+		ArrayDeque<Inflater> pool = INFLATERS.get();
+		if (pool.size() < MAX_POOLED) {
+			inflater.reset();
+			pool.offer(inflater);
+		}
+		else {
+			inflater.end();
+		}
+	}
+
+	static int pooledDeflaters(int level) {
+		return DEFLATERS.get()[level].size();
+	}
+
+	static int pooledInflaters() {
+		return INFLATERS.get()
+		                .size();
+	}
+
+	static byte[] bytes(ByteBuf in) {
+		byte[] bytes = new byte[in.readableBytes()];
+		in.getBytes(in.readerIndex(), bytes);
+		return bytes;
+	}
+
+	static WebSocketFrame newFrame(WebSocketFrame frame, int rsv, ByteBuf content) {
+		if (frame instanceof TextWebSocketFrame) {
+			return new TextWebSocketFrame(frame.isFinalFragment(), rsv, content);
+		}
+		if (frame instanceof BinaryWebSocketFrame) {
+			return new BinaryWebSocketFrame(frame.isFinalFragment(), rsv, content);
+		}
+		return new ContinuationWebSocketFrame(frame.isFinalFragment(), rsv, content);
+	}
+
+	/**
+	 * Compress the data frames of each message with a {@link Deflater} held from its
+	 * first to its final fragment.
+	 */
+	static final class Encoder extends WebSocketExtensionEncoder {
+
+		final int level;
+
+		Deflater deflater;
+
+		Encoder(int level) {
+			this.level = level;
+		}
+
+		@Override
+		public boolean acceptOutboundMessage(Object msg) throws Exception {
+			if (msg instanceof TextWebSocketFrame || msg instanceof BinaryWebSocketFrame) {
+				return (((WebSocketFrame) msg).rsv() & RSV1) == 0;
+			}
+			return msg instanceof ContinuationWebSocketFrame && deflater != null;
+		}
+
+		@Override
+		protected void encode(ChannelHandlerContext ctx, WebSocketFrame frame,
+				List<Object> out) {
+			boolean first = deflater == null;
+			if (first) {
+				deflater = borrowDeflater(level);
+			}
+
+			ByteBuf in = frame.content();
+			int len = in.readableBytes();
+			if (in.hasArray()) {
+				deflater.setInput(in.array(), in.arrayOffset() + in.readerIndex(), len);
+			}
+			else {
+				deflater.setInput(bytes(in));
+			}
+
+			ByteBuf compressed = ctx.alloc()
+			                        .heapBuffer((int) Math.ceil(len * 1.001) + 12);
+			try {
+				for (; ; ) {
+					int writerIndex = compressed.writerIndex();
+					int written = deflater.deflate(compressed.array(),
+							compressed.arrayOffset() + writerIndex,
+							compressed.writableBytes(),
+							Deflater.SYNC_FLUSH);
+					compressed.writerIndex(writerIndex + written);
+					if (compressed.isWritable()) {
+						break;
+					}
+					compressed.ensureWritable(compressed.writerIndex());
+				}
+			}
+			catch (Throwable t) {
+				compressed.release();
+				throw t;
+			}
+
+			if (frame.isFinalFragment()) {
+				int tail = compressed.writerIndex() - FRAME_TAIL.length;
+				if (tail >= compressed.readerIndex() && endsWithTail(compressed, tail)) {
+					compressed.writerIndex(tail);
+				}
+				Deflater deflater = this.deflater;
+				this.deflater = null;
+				releaseDeflater(deflater, level);
+			}
+
+			out.add(newFrame(frame, first ? frame.rsv() | RSV1 : frame.rsv(), compressed));
+		}
+
+		@Override
+		public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+			Deflater deflater = this.deflater;
+			if (deflater != null) {
+				this.deflater = null;
+				releaseDeflater(deflater, level);
+			}
+			super.handlerRemoved(ctx);
+		}
+
+		static boolean endsWithTail(ByteBuf buf, int index) {
+			for (int i = 0; i < FRAME_TAIL.length; i++) {
+				if (buf.getByte(index + i) != FRAME_TAIL[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Decompress the data frames of each compressed message with an {@link Inflater}
+	 * held from its first to its final fragment. A message decompressed to more than
+	 * {@code maxMessageLength} bytes closes the websocket with status 1009 (message too
+	 * big), and the frames received until then are dropped.
+	 */
+	static final class Decoder extends WebSocketExtensionDecoder {
+
+		final int maxMessageLength;
+
+		Inflater inflater;
+		int      messageLength;
+		boolean  tooLong;
+
+		Decoder(int maxMessageLength) {
+			this.maxMessageLength = maxMessageLength;
+		}
+
+		@Override
+		public boolean acceptInboundMessage(Object msg) throws Exception {
+			if (tooLong) {
+				return msg instanceof TextWebSocketFrame ||
+						msg instanceof BinaryWebSocketFrame ||
+						msg instanceof ContinuationWebSocketFrame;
+			}
+			if (msg instanceof TextWebSocketFrame || msg instanceof BinaryWebSocketFrame) {
+				return (((WebSocketFrame) msg).rsv() & RSV1) != 0;
+			}
+			return msg instanceof ContinuationWebSocketFrame && inflater != null;
+		}
+
+		@Override
+		protected void decode(ChannelHandlerContext ctx, WebSocketFrame frame,
+				List<Object> out) {
+			if (tooLong) {
+				return;
+			}
+			boolean first = inflater == null;
+			if (first) {
+				inflater = borrowInflater();
+			}
+
+			ByteBuf in = frame.content();
+			int len = in.readableBytes();
+			boolean last = frame.isFinalFragment();
+			byte[] input = new byte[last ? len + FRAME_TAIL.length : len];
+			in.getBytes(in.readerIndex(), input, 0, len);
+			if (last) {
+				System.arraycopy(FRAME_TAIL, 0, input, len, FRAME_TAIL.length);
+			}
+			inflater.setInput(input);
+
+			int remaining = maxMessageLength - messageLength;
+			ByteBuf decompressed = ctx.alloc()
+			                          .heapBuffer(Math.max(Math.min(len << 1, remaining), 64));
+			try {
+				while (!inflater.needsInput() && !inflater.finished()) {
+					if (!decompressed.isWritable()) {
+						decompressed.ensureWritable(decompressed.writerIndex());
+					}
+					int writerIndex = decompressed.writerIndex();
+					int read = inflater.inflate(decompressed.array(),
+							decompressed.arrayOffset() + writerIndex,
+							decompressed.writableBytes());
+					decompressed.writerIndex(writerIndex + read);
+					if (writerIndex + read > remaining) {
+						decompressed.release();
+						tooLong(ctx);
+						throw new TooLongFrameException("Decompressed websocket message exceeds " +
+								maxMessageLength + " bytes");
+					}
+				}
+			}
+			catch (DataFormatException e) {
+				decompressed.release();
+				throw new CodecException("Invalid compressed websocket frame", e);
+			}
+
+			if (last) {
+				Inflater inflater = this.inflater;
+				this.inflater = null;
+				messageLength = 0;
+				releaseInflater(inflater);
+			}
+			else {
+				messageLength += decompressed.readableBytes();
+			}
+
+			out.add(newFrame(frame, first ? frame.rsv() & ~RSV1 : frame.rsv(), decompressed));
+		}
+
+		void tooLong(ChannelHandlerContext ctx) {
+			tooLong = true;
+			Inflater inflater = this.inflater;
+			this.inflater = null;
+			releaseInflater(inflater);
+			if (ctx.channel()
+			       .isActive()) {
+				ctx.writeAndFlush(new CloseWebSocketFrame(MESSAGE_TOO_BIG, "Message too big"))
+				   .addListener(ChannelFutureListener.CLOSE);
+			}
+		}
+
+		@Override
+		public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+			Inflater inflater = this.inflater;
+			if (inflater != null) {
+				this.inflater = null;
+				releaseInflater(inflater);
+			}
+			super.handlerRemoved(ctx);
+		}
+	}
+}
@@ -0,0 +1,458 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.ipc.netty.http.websocket;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelOutboundBuffer;
+import io.netty.channel.EventLoop;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.CloseWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.ContinuationWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.PingWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.PongWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import org.reactivestreams.Publisher;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+/**
+ * A group of server websockets receiving the same frames. Each broadcast frame is
+ * encoded once to its wire format in a shared buffer, then written as a
+ * {@link ByteBuf#retainedDuplicate() retained duplicate} to every member, with a single
+ * task per event loop writing to all the members of that loop.
+ * <p>
+ * Members joining with {@link #join(WebsocketOutbound)} leave the group when their
+ * connection closes. Broadcast frames bypass the websocket extensions, so they are sent
+ * uncompressed even if {@code permessage-deflate} was negotiated. Members that are not
+ * {@link Channel#isWritable() writable} are handled according to the
+ * {@link Builder#slowConsumer(SlowConsumer) slow consumer policy}.
+ *
+ * @since 0.7.3
+ */
+public final class WebsocketBroadcastGroup implements Disposable {
+
+	/**
+	 * Create a new {@link WebsocketBroadcastGroup.Builder}.
+	 *
+	 * @return a new {@link WebsocketBroadcastGroup.Builder}
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * What to do with a frame broadcast to a member whose channel is not writable.
+	 */
+	public enum SlowConsumer {
+		/**
+		 * Skip the frame for this member.
+		 */
+		DROP,
+		/**
+		 * Close the member connection.
+		 */
+		DISCONNECT,
+		/**
+		 * Queue the frame while less than {@link Builder#maxBufferedBytes(long)} are
+		 * pending for this member, then close the member connection.
+		 */
+		BUFFER
+	}
+
+	final SlowConsumer     slowConsumer;
+	final long             maxBufferedBytes;
+	final ByteBufAllocator alloc;
+
+	final Map<EventLoop, Members> loops = new ConcurrentHashMap<>();
+
+	final AtomicInteger size         = new AtomicInteger();
+	final LongAdder     dropped      = new LongAdder();
+	final LongAdder     disconnected = new LongAdder();
+
+	volatile boolean disposed;
+
+	WebsocketBroadcastGroup(Builder builder) {
+		this.slowConsumer = builder.slowConsumer;
+		this.maxBufferedBytes = builder.maxBufferedBytes;
+		this.alloc = builder.alloc;
+	}
+
+	/**
+	 * Add a server websocket to this group. The returned {@link Mono} completes when the
+	 * connection closes or when this group is disposed, and can be returned by the
+	 * websocket handler to keep the connection open as long as it is a member.
+	 *
+	 * @param outbound the outbound of a server websocket
+	 *
+	 * @return a {@link Mono} completing when the member leaves the group
+	 */
+	public Mono<Void> join(WebsocketOutbound outbound) {
+		Objects.requireNonNull(outbound, "outbound");
+		Channel channel = outbound.context()
+		                          .channel();
+		if (channel.pipeline()
+		           .get(SERVER_FRAME_ENCODER) == null) {
+			return Mono.error(new IllegalArgumentException("Only server websockets can join a broadcast group"));
+		}
+		return Mono.create(sink -> {
+			if (disposed) {
+				sink.success();
+				return;
+			}
+			Member member = new Member(channel, sink);
+			Members members = loops.computeIfAbsent(channel.eventLoop(), Members::new);
+			members.execute(() -> members.add(member));
+			channel.closeFuture()
+			       .addListener(f -> sink.success());
+			sink.onDispose(() -> members.execute(() -> members.remove(member)));
+		});
+	}
+
+	/**
+	 * Write the given frame to all the members. The frame is released once written.
+	 *
+	 * @param frame the frame to broadcast
+	 */
+	public void broadcast(WebSocketFrame frame) {
+		Objects.requireNonNull(frame, "frame");
+		ByteBuf encoded;
+		try {
+			encoded = encode(alloc, frame);
+		}
+		finally {
+			frame.release();
+		}
+		try {
+			for (Members members : loops.values()) {
+				if (members.count > 0) {
+					encoded.retain();
+					members.execute(() -> {
+						try {
+							members.write(encoded);
+						}
+						finally {
+							encoded.release();
+						}
+					});
+				}
+			}
+		}
+		finally {
+			encoded.release();
+		}
+	}
+
+	/**
+	 * Write the given text as a {@link TextWebSocketFrame} to all the members.
+	 *
+	 * @param text the text to broadcast
+	 */
+	public void broadcastText(CharSequence text) {
+		Objects.requireNonNull(text, "text");
+		broadcast(new TextWebSocketFrame(ByteBufUtil.writeUtf8(alloc, text)));
+	}
+
+	/**
+	 * Write the given data as a {@link BinaryWebSocketFrame} to all the members. The
+	 * data is released once written.
+	 *
+	 * @param data the data to broadcast
+	 */
+	public void broadcastBinary(ByteBuf data) {
+		Objects.requireNonNull(data, "data");
+		broadcast(new BinaryWebSocketFrame(data));
+	}
+
+	/**
+	 * Broadcast each frame emitted by the given {@link Publisher}.
+	 *
+	 * @param frames the frames to broadcast
+	 *
+	 * @return a {@link Mono} completing when the frames have been broadcast
+	 */
+	public Mono<Void> broadcast(Publisher<? extends WebSocketFrame> frames) {
+		return Flux.from(frames)
+		           .doOnNext(this::broadcast)
+		           .then();
+	}
+
+	/**
+	 * Return the number of members.
+	 *
+	 * @return the number of members
+	 */
+	public int size() {
+		return size.get();
+	}
+
+	/**
+	 * Return the number of frames skipped for slow members.
+	 *
+	 * @return the number of dropped frames
+	 */
+	public long dropped() {
+		return dropped.sum();
+	}
+
+	/**
+	 * Return the number of slow members disconnected.
+	 *
+	 * @return the number of disconnected members
+	 */
+	public long disconnected() {
+		return disconnected.sum();
+	}
+
+	/**
+	 * Remove all the members, completing the {@link Mono} returned by
+	 * {@link #join(WebsocketOutbound)}.
+	 */
+	@Override
+	public void dispose() {
+		disposed = true;
+		for (Members members : loops.values()) {
+			members.execute(members::leaveAll);
+		}
+	}
+
+	@Override
+	public boolean isDisposed() {
+		return disposed;
+	}
+
+	/**
+	 * Encode a frame the way the server websocket frame encoder does, unmasked.
+	 */
+	static ByteBuf encode(ByteBufAllocator alloc, WebSocketFrame frame) {
+		ByteBuf data = frame.content();
+		int length = data.readableBytes();
+		int headerLength = length <= 125 ? 2 : length <= 0xFFFF ? 4 : 10;
+
+		ByteBuf encoded = alloc.directBuffer(headerLength + length);
+		int b0 = (frame.isFinalFragment() ? 0x80 : 0) | (frame.rsv() & 0x7) << 4 | opcode(frame);
+		encoded.writeByte(b0);
+		if (length <= 125) {
+			encoded.writeByte(length);
+		}
+		else if (length <= 0xFFFF) {
+			encoded.writeByte(126);
+			encoded.writeShort(length);
+		}
+		else {
+			encoded.writeByte(127);
+			encoded.writeLong(length);
+		}
+		encoded.writeBytes(data, data.readerIndex(), length);
+		return encoded;
+	}
+
+	static int opcode(WebSocketFrame frame) {
+		if (frame instanceof TextWebSocketFrame) {
+			return 0x1;
+		}
+		if (frame instanceof BinaryWebSocketFrame) {
+			return 0x2;
+		}
+		if (frame instanceof ContinuationWebSocketFrame) {
+			return 0x0;
+		}
+		if (frame instanceof CloseWebSocketFrame) {
+			return 0x8;
+		}
+		if (frame instanceof PingWebSocketFrame) {
+			return 0x9;
+		}
+		if (frame instanceof PongWebSocketFrame) {
+			return 0xA;
+		}
+		throw new IllegalArgumentException("Cannot encode frame of type: " + frame.getClass()
+		                                                                          .getName());
+	}
+
+	static final String SERVER_FRAME_ENCODER = "wsencoder";
+
+	static final Logger log = Loggers.getLogger(WebsocketBroadcastGroup.class);
+
+	static final class Member {
+
+		final Channel         channel;
+		final MonoSink<Void>  sink;
+
+		Member(Channel channel, MonoSink<Void> sink) {
+			this.channel = channel;
+			this.sink = sink;
+		}
+	}
+
+	/**
+	 * The members of an event loop, only accessed from that loop.
+	 */
+	final class Members {
+
+		final EventLoop         loop;
+		final ArrayList<Member> members = new ArrayList<>();
+
+		volatile int count;
+
+		Members(EventLoop loop) {
+			this.loop = loop;
+		}
+
+		void execute(Runnable task) {
+			if (loop.inEventLoop()) {
+				task.run();
+			}
+			else {
+				loop.execute(task);
+			}
+		}
+
+		void add(Member member) {
+			if (disposed) {
+				member.sink.success();
+				return;
+			}
+			members.add(member);
+			count = members.size();
+			size.incrementAndGet();
+		}
+
+		void remove(Member member) {
+			if (members.remove(member)) {
+				count = members.size();
+				size.decrementAndGet();
+			}
+		}
+
+		void leaveAll() {
+			for (Member member : new ArrayList<>(members)) {
+				member.sink.success();
+			}
+		}
+
+		void write(ByteBuf encoded) {
+			int length = encoded.readableBytes();
+			for (int i = 0; i < members.size(); i++) {
+				Channel channel = members.get(i).channel;
+				if (!channel.isActive()) {
+					continue;
+				}
+				if (!channel.isWritable() && !acceptSlow(channel, length)) {
+					continue;
+				}
+				channel.writeAndFlush(encoded.retainedDuplicate());
+			}
+		}
+
+		boolean acceptSlow(Channel channel, int length) {
+			switch (slowConsumer) {
+				case BUFFER:
+					ChannelOutboundBuffer buffer = channel.unsafe()
+					                                      .outboundBuffer();
+					if (buffer != null &&
+							buffer.totalPendingWriteBytes() + length <= maxBufferedBytes) {
+						return true;
+					}
+					//fall through
+				case DISCONNECT:
+					if (log.isDebugEnabled()) {
+						log.debug("{} Closing slow websocket broadcast member", channel);
+					}
+					disconnected.increment();
+					channel.close();
+					return false;
+				default:
+					dropped.increment();
+					return false;
+			}
+		}
+	}
+
+	public static final class Builder {
+
+		SlowConsumer     slowConsumer     = SlowConsumer.DROP;
+		long             maxBufferedBytes = 1024 * 1024;
+		ByteBufAllocator alloc            = ByteBufAllocator.DEFAULT;
+
+		Builder() {
+		}
+
+		/**
+		 * What to do with frames broadcast to members whose channel is not writable,
+		 * {@link SlowConsumer#DROP} by default.
+		 *
+		 * @param slowConsumer the slow consumer policy
+		 * @return {@code this}
+		 */
+		public Builder slowConsumer(SlowConsumer slowConsumer) {
+			this.slowConsumer = Objects.requireNonNull(slowConsumer, "slowConsumer");
+			return this;
+		}
+
+		/**
+		 * The maximum number of bytes pending for a member before it is disconnected
+		 * with {@link SlowConsumer#BUFFER}, 1MB by default.
+		 *
+		 * @param maxBufferedBytes the maximum number of pending bytes per member
+		 * @return {@code this}
+		 */
+		public Builder maxBufferedBytes(long maxBufferedBytes) {
+			if (maxBufferedBytes < 0L) {
+				throw new IllegalArgumentException("maxBufferedBytes must be positive");
+			}
+			this.maxBufferedBytes = maxBufferedBytes;
+			return this;
+		}
+
+		/**
+		 * The allocator of the shared encoded frames, {@link ByteBufAllocator#DEFAULT}
+		 * by default.
+		 *
+		 * @param alloc the allocator of the encoded frames
+		 * @return {@code this}
+		 */
+		public Builder alloc(ByteBufAllocator alloc) {
+			this.alloc = Objects.requireNonNull(alloc, "alloc");
+			return this;
+		}
+
+		/**
+		 * Build a new {@link WebsocketBroadcastGroup}.
+		 *
+		 * @return a new {@link WebsocketBroadcastGroup}
+		 */
+		public WebsocketBroadcastGroup build() {
+			return new WebsocketBroadcastGroup(this);
+		}
+	}
+}
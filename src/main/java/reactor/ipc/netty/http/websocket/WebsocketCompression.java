@@ -0,0 +1,398 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.ipc.netty.http.websocket;
+
+import java.util.Map;
+
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.websocketx.WebSocketHandshakeException;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketClientExtension;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketClientExtensionHandshaker;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtension;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtensionData;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtensionUtil;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketServerExtension;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketServerExtensionHandshaker;
+import io.netty.handler.codec.http.websocketx.extensions.compression.PerMessageDeflateClientExtensionHandshaker;
+import io.netty.handler.codec.http.websocketx.extensions.compression.PerMessageDeflateServerExtensionHandshaker;
+import reactor.ipc.netty.NettyPipeline;
+
+/**
+ * The RFC 7692 {@code permessage-deflate} websocket extension settings, negotiated by
+ * {@code HttpServerResponse#sendWebsocket} and {@code HttpClient#ws} when set on the
+ * server or client options.
+ * <p>
+ * The {@code server_*} parameters are requested by the client and the {@code client_*}
+ * parameters by the server; each side always honors the parameters requested by its
+ * peer. Compressing with a window smaller than 15 bits requires JZlib on the classpath:
+ * without it, such requests are not offered nor accepted.
+ * <p>
+ * In {@link Builder#pooled(boolean) pooled} mode both directions are negotiated without
+ * context takeover, so that each message is compressed and decompressed independently
+ * with a {@code Deflater} or {@code Inflater} borrowed from a pool of the event loop
+ * and returned once the message is processed. The compression memory is then bounded by
+ * the number of event loops rather than by the number of open websockets.
+ *
+ * @since 0.7.3
+ */
+public final class WebsocketCompression {
+
+	/**
+	 * Create a new {@link WebsocketCompression.Builder}.
+	 *
+	 * @return a new {@link WebsocketCompression.Builder}
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	static final String PERMESSAGE_DEFLATE = "permessage-deflate";
+
+	static final boolean JZLIB_AVAILABLE;
+
+	static {
+		boolean available;
+		try {
+			Class.forName("com.jcraft.jzlib.Deflater", false,
+					WebsocketCompression.class.getClassLoader());
+			available = true;
+		}
+		catch (Throwable t) {
+			available = false;
+		}
+		JZLIB_AVAILABLE = available;
+	}
+
+	final int     compressionLevel;
+	final int     serverMaxWindowBits;
+	final int     clientMaxWindowBits;
+	final boolean serverNoContextTakeover;
+	final boolean clientNoContextTakeover;
+	final boolean pooled;
+
+	WebsocketCompression(Builder builder) {
+		this.compressionLevel = builder.compressionLevel;
+		this.serverMaxWindowBits = builder.serverMaxWindowBits;
+		this.clientMaxWindowBits = builder.clientMaxWindowBits;
+		this.serverNoContextTakeover = builder.serverNoContextTakeover;
+		this.clientNoContextTakeover = builder.clientNoContextTakeover;
+		this.pooled = builder.pooled;
+	}
+
+	/**
+	 * Returns the compression level, from 0 to 9.
+	 *
+	 * @return the compression level
+	 */
+	public int compressionLevel() {
+		return compressionLevel;
+	}
+
+	/**
+	 * Returns the {@code server_max_window_bits} requested by the client.
+	 *
+	 * @return the {@code server_max_window_bits} requested by the client
+	 */
+	public int serverMaxWindowBits() {
+		return serverMaxWindowBits;
+	}
+
+	/**
+	 * Returns the {@code client_max_window_bits} requested by the server.
+	 *
+	 * @return the {@code client_max_window_bits} requested by the server
+	 */
+	public int clientMaxWindowBits() {
+		return clientMaxWindowBits;
+	}
+
+	/**
+	 * Returns true if the client requests {@code server_no_context_takeover}.
+	 *
+	 * @return true if the client requests {@code server_no_context_takeover}
+	 */
+	public boolean serverNoContextTakeover() {
+		return serverNoContextTakeover || pooled;
+	}
+
+	/**
+	 * Returns true if the server requests {@code client_no_context_takeover}.
+	 *
+	 * @return true if the server requests {@code client_no_context_takeover}
+	 */
+	public boolean clientNoContextTakeover() {
+		return clientNoContextTakeover || pooled;
+	}
+
+	/**
+	 * Returns true if compressors and decompressors are shared by the websockets of an
+	 * event loop.
+	 *
+	 * @return true if compressors and decompressors are pooled per event loop
+	 */
+	public boolean pooled() {
+		return pooled;
+	}
+
+	/**
+	 * Select the first {@code permessage-deflate} offer of a websocket upgrade request
+	 * accepted by these settings and add the matching {@code Sec-WebSocket-Extensions}
+	 * header to the upgrade response.
+	 *
+	 * @param requestHeaders the upgrade request headers
+	 * @param responseHeaders the upgrade response headers
+	 *
+	 * @return the negotiated extension or null if none was accepted
+	 */
+	public WebSocketServerExtension negotiate(HttpHeaders requestHeaders,
+			HttpHeaders responseHeaders) {
+		String offers = requestHeaders.get(HttpHeaderNames.SEC_WEBSOCKET_EXTENSIONS);
+		if (offers == null) {
+			return null;
+		}
+		WebSocketServerExtensionHandshaker handshaker = newServerHandshaker();
+		for (WebSocketExtensionData offer : WebSocketExtensionUtil.extractExtensions(offers)) {
+			WebSocketServerExtension extension = handshaker.handshakeExtension(offer);
+			if (extension != null) {
+				responseHeaders.set(HttpHeaderNames.SEC_WEBSOCKET_EXTENSIONS,
+						format(extension.newReponseData()));
+				return extension;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Add the {@code permessage-deflate} offer to a websocket upgrade request.
+	 *
+	 * @param requestHeaders the upgrade request headers
+	 */
+	public void offer(HttpHeaders requestHeaders) {
+		String offer = format(newClientHandshaker().newRequestData());
+		String previous = requestHeaders.get(HttpHeaderNames.SEC_WEBSOCKET_EXTENSIONS);
+		requestHeaders.set(HttpHeaderNames.SEC_WEBSOCKET_EXTENSIONS,
+				previous == null || previous.isEmpty() ? offer : previous + ", " + offer);
+	}
+
+	/**
+	 * Read the extension accepted by the server in a websocket upgrade response.
+	 *
+	 * @param responseHeaders the upgrade response headers
+	 *
+	 * @return the negotiated extension or null if the server did not accept the offer
+	 *
+	 * @throws WebSocketHandshakeException if the server accepted an invalid
+	 * {@code permessage-deflate} extension
+	 */
+	public WebSocketClientExtension accept(HttpHeaders responseHeaders) {
+		String accepted = responseHeaders.get(HttpHeaderNames.SEC_WEBSOCKET_EXTENSIONS);
+		if (accepted == null) {
+			return null;
+		}
+		WebSocketClientExtensionHandshaker handshaker = newClientHandshaker();
+		for (WebSocketExtensionData data : WebSocketExtensionUtil.extractExtensions(accepted)) {
+			if (!PERMESSAGE_DEFLATE.equals(data.name())) {
+				continue;
+			}
+			WebSocketClientExtension extension = handshaker.handshakeExtension(data);
+			if (extension == null) {
+				throw new WebSocketHandshakeException("Invalid websocket extension: " + accepted);
+			}
+			return extension;
+		}
+		return null;
+	}
+
+	/**
+	 * Add the encoder and decoder of a negotiated extension after the given websocket
+	 * frame codec handler. The decoder of a {@link Builder#pooled(boolean) pooled}
+	 * extension closes the websocket with status 1009 (message too big) when a message
+	 * decompresses to more than the given maximum payload length.
+	 *
+	 * @param pipeline the websocket channel pipeline
+	 * @param frameCodec the name of the last websocket frame codec handler
+	 * @param extension the negotiated extension
+	 * @param maxFramePayloadLength the maximum decompressed length of a message
+	 */
+	public static void addHandlers(ChannelPipeline pipeline, String frameCodec,
+			WebSocketExtension extension, int maxFramePayloadLength) {
+		pipeline.addAfter(frameCodec,
+				NettyPipeline.WsCompressionEncoder,
+				extension.newExtensionEncoder());
+		pipeline.addAfter(frameCodec,
+				NettyPipeline.WsCompressionDecoder,
+				extension instanceof PooledPerMessageDeflate ?
+						((PooledPerMessageDeflate) extension).newExtensionDecoder(maxFramePayloadLength) :
+						extension.newExtensionDecoder());
+	}
+
+	WebSocketServerExtensionHandshaker newServerHandshaker() {
+		if (pooled) {
+			return new PooledPerMessageDeflate.ServerHandshaker(compressionLevel);
+		}
+		return new PerMessageDeflateServerExtensionHandshaker(compressionLevel,
+				JZLIB_AVAILABLE,
+				clientMaxWindowBits,
+				true,
+				clientNoContextTakeover);
+	}
+
+	WebSocketClientExtensionHandshaker newClientHandshaker() {
+		if (pooled) {
+			return new PooledPerMessageDeflate.ClientHandshaker(compressionLevel);
+		}
+		return new PerMessageDeflateClientExtensionHandshaker(compressionLevel,
+				JZLIB_AVAILABLE,
+				serverMaxWindowBits,
+				true,
+				serverNoContextTakeover);
+	}
+
+	static String format(WebSocketExtensionData data) {
+		StringBuilder s = new StringBuilder(data.name());
+		for (Map.Entry<String, String> parameter : data.parameters()
+		                                               .entrySet()) {
+			s.append("; ")
+			 .append(parameter.getKey());
+			if (parameter.getValue() != null) {
+				s.append('=')
+				 .append(parameter.getValue());
+			}
+		}
+		return s.toString();
+	}
+
+	@Override
+	public String toString() {
+		return "WebsocketCompression{" +
+				"compressionLevel=" + compressionLevel +
+				", serverMaxWindowBits=" + serverMaxWindowBits +
+				", clientMaxWindowBits=" + clientMaxWindowBits +
+				", serverNoContextTakeover=" + serverNoContextTakeover() +
+				", clientNoContextTakeover=" + clientNoContextTakeover() +
+				", pooled=" + pooled +
+				'}';
+	}
+
+	public static final class Builder {
+
+		int     compressionLevel    = 6;
+		int     serverMaxWindowBits = 15;
+		int     clientMaxWindowBits = 15;
+		boolean serverNoContextTakeover;
+		boolean clientNoContextTakeover;
+		boolean pooled;
+
+		Builder() {
+		}
+
+		/**
+		 * The compression level, from 0 (no compression) to 9 (best compression), 6 by
+		 * default.
+		 *
+		 * @param compressionLevel the compression level
+		 * @return {@code this}
+		 */
+		public Builder compressionLevel(int compressionLevel) {
+			if (compressionLevel < 0 || compressionLevel > 9) {
+				throw new IllegalArgumentException("compressionLevel must be between 0 and 9");
+			}
+			this.compressionLevel = compressionLevel;
+			return this;
+		}
+
+		/**
+		 * The {@code server_max_window_bits} the client requests, from 8 to 15, 15 by
+		 * default.
+		 *
+		 * @param windowBits the LZ77 window size in bits
+		 * @return {@code this}
+		 */
+		public Builder serverMaxWindowBits(int windowBits) {
+			this.serverMaxWindowBits = checkWindowBits(windowBits);
+			return this;
+		}
+
+		/**
+		 * The {@code client_max_window_bits} the server requests when the client allows
+		 * it, from 8 to 15, 15 by default.
+		 *
+		 * @param windowBits the LZ77 window size in bits
+		 * @return {@code this}
+		 */
+		public Builder clientMaxWindowBits(int windowBits) {
+			this.clientMaxWindowBits = checkWindowBits(windowBits);
+			return this;
+		}
+
+		/**
+		 * Set to true for the client to request {@code server_no_context_takeover}.
+		 *
+		 * @param noContextTakeover true to request {@code server_no_context_takeover}
+		 * @return {@code this}
+		 */
+		public Builder serverNoContextTakeover(boolean noContextTakeover) {
+			this.serverNoContextTakeover = noContextTakeover;
+			return this;
+		}
+
+		/**
+		 * Set to true for the server to request {@code client_no_context_takeover}.
+		 *
+		 * @param noContextTakeover true to request {@code client_no_context_takeover}
+		 * @return {@code this}
+		 */
+		public Builder clientNoContextTakeover(boolean noContextTakeover) {
+			this.clientNoContextTakeover = noContextTakeover;
+			return this;
+		}
+
+		/**
+		 * Set to true to negotiate no context takeover in both directions and share the
+		 * compressors and decompressors of the websockets of an event loop. The window
+		 * bits settings are then ignored and offers requesting a smaller server window
+		 * are declined.
+		 *
+		 * @param pooled true to pool compressors and decompressors per event loop
+		 * @return {@code this}
+		 */
+		public Builder pooled(boolean pooled) {
+			this.pooled = pooled;
+			return this;
+		}
+
+		/**
+		 * Build a new {@link WebsocketCompression}.
+		 *
+		 * @return a new {@link WebsocketCompression}
+		 */
+		public WebsocketCompression build() {
+			return new WebsocketCompression(this);
+		}
+
+		static int checkWindowBits(int windowBits) {
+			if (windowBits < PerMessageDeflateServerExtensionHandshaker.MIN_WINDOW_SIZE ||
+					windowBits > PerMessageDeflateServerExtensionHandshaker.MAX_WINDOW_SIZE) {
+				throw new IllegalArgumentException("windowBits must be between 8 and 15");
+			}
+			return windowBits;
+		}
+	}
+}
@@ -16,9 +16,14 @@
 
 package reactor.ipc.netty.http.websocket;
 
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.ContinuationWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
 import io.netty.handler.codec.http.websocketx.WebSocketFrame;
 import io.netty.handler.codec.http.websocketx.WebSocketFrameAggregator;
 import reactor.core.publisher.Flux;
+import reactor.ipc.netty.ByteBufFlux;
 import reactor.ipc.netty.NettyInbound;
 
 /**
@@ -69,4 +74,33 @@ public interface WebsocketInbound extends NettyInbound {
 	default Flux<WebSocketFrame> receiveFrames() {
 		return receiveObject().ofType(WebSocketFrame.class);
 	}
+
+	/**
+	 * Receive each message as a {@link ByteBufFlux} of the payloads of its frames, the
+	 * first frame then its continuation frames, without aggregating them. A message
+	 * larger than the maximum frame payload length can then be received with bounded
+	 * memory as long as it is fragmented.
+	 * <p>
+	 * As with {@link #receive()}, the buffers are released once emitted: the messages
+	 * should be consumed in order, e.g. with {@link Flux#concatMap}, and the buffers
+	 * {@link ByteBufFlux#retain() retained} to be processed asynchronously. The frames
+	 * waiting for the demand of a message stay retained until emitted, and the rest of a
+	 * cancelled message is drained and released. Every emitted message must be
+	 * subscribed for its frames to be released.
+	 *
+	 * @return a {@link Flux} of messages, each one a {@link ByteBufFlux} of its frame
+	 * payloads
+	 * @since 0.7.3
+	 */
+	default Flux<ByteBufFlux> receiveMessages() {
+		ByteBufAllocator alloc = context().channel()
+		                                  .alloc();
+		return receiveFrames().filter(f -> f instanceof TextWebSocketFrame ||
+				f instanceof BinaryWebSocketFrame ||
+				f instanceof ContinuationWebSocketFrame)
+		                      .map(WebSocketFrame::retain)
+		                      .windowUntil(WebSocketFrame::isFinalFragment)
+		                      .map(frames -> ByteBufFlux.fromInbound(new WebsocketMessageFrames(frames),
+				                      alloc));
+	}
 }
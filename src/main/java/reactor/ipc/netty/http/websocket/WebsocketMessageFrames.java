@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.ipc.netty.http.websocket;
+
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.util.context.Context;
+
+/**
+ * The frames of a single websocket message, as windowed by
+ * {@link WebsocketInbound#receiveMessages()}. The frames are retained before being
+ * windowed, since the inbound releases them as soon as they are emitted to the window,
+ * and are released here once emitted to the subscriber. A cancelled subscriber keeps
+ * draining the message so that the frames still queued in the window are released.
+ */
+final class WebsocketMessageFrames extends Flux<WebSocketFrame> {
+
+	final Flux<WebSocketFrame> window;
+
+	WebsocketMessageFrames(Flux<WebSocketFrame> window) {
+		this.window = window;
+	}
+
+	@Override
+	public void subscribe(CoreSubscriber<? super WebSocketFrame> actual) {
+		window.subscribe(new ReleasingSubscriber(actual));
+	}
+
+	static final class ReleasingSubscriber
+			implements CoreSubscriber<WebSocketFrame>, Subscription {
+
+		final CoreSubscriber<? super WebSocketFrame> actual;
+
+		Subscription s;
+
+		volatile boolean cancelled;
+
+		ReleasingSubscriber(CoreSubscriber<? super WebSocketFrame> actual) {
+			this.actual = actual;
+		}
+
+		@Override
+		public Context currentContext() {
+			return actual.currentContext();
+		}
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			this.s = s;
+			actual.onSubscribe(this);
+		}
+
+		@Override
+		public void onNext(WebSocketFrame frame) {
+			if (cancelled) {
+				frame.release();
+				return;
+			}
+			try {
+				actual.onNext(frame);
+			}
+			finally {
+				frame.release();
+			}
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			if (!cancelled) {
+				actual.onError(t);
+			}
+		}
+
+		@Override
+		public void onComplete() {
+			if (!cancelled) {
+				actual.onComplete();
+			}
+		}
+
+		@Override
+		public void request(long n) {
+			s.request(n);
+		}
+
+		@Override
+		public void cancel() {
+			if (!cancelled) {
+				cancelled = true;
+				//drain the rest of the message to release its queued frames
+				s.request(Long.MAX_VALUE);
+			}
+		}
+	}
+}
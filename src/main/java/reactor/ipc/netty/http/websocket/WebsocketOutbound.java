@@ -17,14 +17,18 @@
 package reactor.ipc.netty.http.websocket;
 
 import java.nio.charset.Charset;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.ContinuationWebSocketFrame;
 import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
 import io.netty.handler.codec.http.websocketx.WebSocketFrame;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.ipc.netty.NettyOutbound;
 
 /**
@@ -57,6 +61,32 @@ public interface WebsocketOutbound extends NettyOutbound {
 		                      .map(stringToWebsocketFrame));
 	}
 
+	/**
+	 * Send the given buffers as a single binary message, each buffer as a frame: a
+	 * {@link BinaryWebSocketFrame} then {@link ContinuationWebSocketFrame}s, terminated
+	 * by an empty final frame once the stream completes. Unlike {@link #send(Publisher)},
+	 * which sends each buffer as its own message, a message of any size is then sent
+	 * with frames no larger than the buffers.
+	 *
+	 * @param dataStream the buffers forming the message
+	 *
+	 * @return A new {@link NettyOutbound} to append further send
+	 * @since 0.7.3
+	 */
+	default NettyOutbound sendFragmented(Publisher<? extends ByteBuf> dataStream) {
+		return sendObject(Flux.defer(() -> {
+			AtomicBoolean first = new AtomicBoolean(true);
+			Flux<WebSocketFrame> frames =
+					Flux.from(dataStream)
+					    .map(data -> first.getAndSet(false) ?
+							    new BinaryWebSocketFrame(false, 0, data) :
+							    new ContinuationWebSocketFrame(false, 0, data));
+			return frames.concatWith(Mono.fromCallable(() -> first.get() ?
+					new BinaryWebSocketFrame() :
+					new ContinuationWebSocketFrame(true, 0, Unpooled.EMPTY_BUFFER)));
+		}));
+	}
+
 	Function<? super String, ? extends WebSocketFrame>  stringToWebsocketFrame  =
 			TextWebSocketFrame::new;
 	Function<? super ByteBuf, ? extends WebSocketFrame> bytebufToWebsocketFrame =
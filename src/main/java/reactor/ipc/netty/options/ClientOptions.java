@@ -262,6 +262,8 @@ public class ClientOptions extends NettyOptions<Bootstrap, ClientOptions> {
 		private int port = -1;
 		private Supplier<? extends SocketAddress> connectAddress;
 		private ClientProxyOptions proxyOptions;
+		private Consumer<? super SslContextBuilder> sslConfigurator;
+		private SslContext sslSupportContext;
 
 		/**
 		 * Apply common option via super constructor then apply
@@ -362,13 +364,26 @@ public class ClientOptions extends NettyOptions<Bootstrap, ClientOptions> {
 			try {
 				SslContextBuilder builder = SslContextBuilder.forClient();
 				configurator.accept(builder);
-				return sslContext(builder.build());
+				this.sslSupportContext = builder.build();
+				this.sslConfigurator = configurator;
+				return sslContext(sslSupportContext);
 			}
 			catch (Exception sslException) {
 				throw Exceptions.bubble(sslException);
 			}
 		}
 
+		/**
+		 * Return the configurator passed to {@link #sslSupport(Consumer)} if the
+		 * {@link SslContext} it produced is still the configured one, allowing protocol
+		 * specific builders to produce it again with extra defaults.
+		 *
+		 * @return the current {@link SslContextBuilder} configurator or null
+		 */
+		protected final Consumer<? super SslContextBuilder> sslSupportConfigurator() {
+			return sslContext != null && sslContext == sslSupportContext ? sslConfigurator : null;
+		}
+
 		/**
 		 * The host to which this client should connect.
 		 *
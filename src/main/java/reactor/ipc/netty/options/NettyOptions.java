@@ -59,6 +59,24 @@ public abstract class NettyOptions<BOOTSTRAP extends AbstractBootstrap<BOOTSTRAP
 			System.getenv("PORT") != null ? Integer.parseInt(System.getenv("PORT")) :
 					12012;
 
+	/**
+	 * Default number of received messages buffered for a {@link NettyContext} inbound
+	 * before it stops reading from the channel. Can be tuned via the
+	 * {@code reactor.ipc.netty.receive.highWaterMarkMessages} system property.
+	 */
+	public static final int  DEFAULT_RECEIVE_HIGH_WATER_MARK_MESSAGES =
+			Integer.parseInt(System.getProperty("reactor.ipc.netty.receive.highWaterMarkMessages",
+					"256"));
+
+	/**
+	 * Default number of received bytes buffered for a {@link NettyContext} inbound
+	 * before it stops reading from the channel. Can be tuned via the
+	 * {@code reactor.ipc.netty.receive.highWaterMarkBytes} system property.
+	 */
+	public static final long DEFAULT_RECEIVE_HIGH_WATER_MARK_BYTES =
+			Long.parseLong(System.getProperty("reactor.ipc.netty.receive.highWaterMarkBytes",
+					"4194304"));
+
 	private final BOOTSTRAP                        bootstrapTemplate;
 	private final boolean                          preferNative;
 	private final LoopResources                    loopResources;
@@ -69,6 +87,10 @@ public abstract class NettyOptions<BOOTSTRAP extends AbstractBootstrap<BOOTSTRAP
 	protected final Consumer<? super Channel>      afterChannelInit;
 	protected final Consumer<? super NettyContext> afterNettyContextInit;
 	private final Predicate<? super Channel>       onChannelInit;
+	private final int                              receiveLowWaterMarkMessages;
+	private final int                              receiveHighWaterMarkMessages;
+	private final long                             receiveLowWaterMarkBytes;
+	private final long                             receiveHighWaterMarkBytes;
 
 	protected NettyOptions(NettyOptions.Builder<BOOTSTRAP, SO, ?> builder) {
 		this.bootstrapTemplate = builder.bootstrapTemplate;
@@ -80,6 +102,10 @@ public abstract class NettyOptions<BOOTSTRAP extends AbstractBootstrap<BOOTSTRAP
 		this.sslCloseNotifyReadTimeoutMillis = builder.sslCloseNotifyReadTimeoutMillis;
 		this.afterNettyContextInit = builder.afterNettyContextInit;
 		this.onChannelInit = builder.onChannelInit;
+		this.receiveLowWaterMarkMessages = builder.receiveLowWaterMarkMessages;
+		this.receiveHighWaterMarkMessages = builder.receiveHighWaterMarkMessages;
+		this.receiveLowWaterMarkBytes = builder.receiveLowWaterMarkBytes;
+		this.receiveHighWaterMarkBytes = builder.receiveHighWaterMarkBytes;
 
 		Consumer<? super Channel> afterChannel = builder.afterChannelInit;
 		if (afterChannel != null && builder.channelGroup != null) {
@@ -204,14 +230,50 @@ public abstract class NettyOptions<BOOTSTRAP extends AbstractBootstrap<BOOTSTRAP
 	}
 
 	/**
-	 * Is this option preferring native loops (epoll)
+	 * Is this option preferring native loops (epoll, kqueue or io_uring)
 	 *
-	 * @return true if this option is preferring native loops (epoll)
+	 * @return true if this option is preferring native loops (epoll, kqueue or io_uring)
 	 */
 	public final boolean preferNative() {
 		return this.preferNative;
 	}
 
+	/**
+	 * Returns the number of buffered inbound messages at which the inbound stops reading
+	 *
+	 * @return the number of buffered inbound messages at which the inbound stops reading
+	 */
+	public final int receiveHighWaterMarkMessages() {
+		return this.receiveHighWaterMarkMessages;
+	}
+
+	/**
+	 * Returns the number of buffered inbound messages at which the inbound resumes reading
+	 *
+	 * @return the number of buffered inbound messages at which the inbound resumes reading
+	 */
+	public final int receiveLowWaterMarkMessages() {
+		return this.receiveLowWaterMarkMessages;
+	}
+
+	/**
+	 * Returns the number of buffered inbound bytes at which the inbound stops reading
+	 *
+	 * @return the number of buffered inbound bytes at which the inbound stops reading
+	 */
+	public final long receiveHighWaterMarkBytes() {
+		return this.receiveHighWaterMarkBytes;
+	}
+
+	/**
+	 * Returns the number of buffered inbound bytes at which the inbound resumes reading
+	 *
+	 * @return the number of buffered inbound bytes at which the inbound resumes reading
+	 */
+	public final long receiveLowWaterMarkBytes() {
+		return this.receiveLowWaterMarkBytes;
+	}
+
 	/**
 	 * Returns the SslContext
 	 *
@@ -270,7 +332,9 @@ public abstract class NettyOptions<BOOTSTRAP extends AbstractBootstrap<BOOTSTRAP
 				", preferNative=" + preferNative +
 				", afterChannelInit=" + afterChannelInit +
 				", onChannelInit=" + onChannelInit +
-				", loopResources=" + loopResources;
+				", loopResources=" + loopResources +
+				", receiveWaterMarkMessages=" + receiveLowWaterMarkMessages + "/" + receiveHighWaterMarkMessages +
+				", receiveWaterMarkBytes=" + receiveLowWaterMarkBytes + "/" + receiveHighWaterMarkBytes;
 	}
 
 	@Override
@@ -289,13 +353,17 @@ public abstract class NettyOptions<BOOTSTRAP extends AbstractBootstrap<BOOTSTRAP
 		private boolean                        preferNative                     = DEFAULT_NATIVE;
 		private LoopResources                  loopResources                    = null;
 		private ChannelGroup                   channelGroup                     = null;
-		private SslContext                     sslContext                       = null;
+		SslContext                             sslContext                       = null;
 		private long                           sslHandshakeTimeoutMillis        = 10000L;
 		private long                           sslCloseNotifyFlushTimeoutMillis = 3000L;
 		private long                           sslCloseNotifyReadTimeoutMillis  = 0L;
 		private Consumer<? super Channel>      afterChannelInit                 = null;
 		private Consumer<? super NettyContext> afterNettyContextInit            = null;
 		private Predicate<? super Channel>     onChannelInit                    = null;
+		private int                            receiveHighWaterMarkMessages     = DEFAULT_RECEIVE_HIGH_WATER_MARK_MESSAGES;
+		private int                            receiveLowWaterMarkMessages      = DEFAULT_RECEIVE_HIGH_WATER_MARK_MESSAGES / 2;
+		private long                           receiveHighWaterMarkBytes        = DEFAULT_RECEIVE_HIGH_WATER_MARK_BYTES;
+		private long                           receiveLowWaterMarkBytes         = DEFAULT_RECEIVE_HIGH_WATER_MARK_BYTES / 2;
 
 		protected Builder(BOOTSTRAP bootstrapTemplate) {
 			this.bootstrapTemplate = bootstrapTemplate;
@@ -338,9 +406,10 @@ public abstract class NettyOptions<BOOTSTRAP extends AbstractBootstrap<BOOTSTRAP
 		}
 
 		/**
-		 * Set the preferred native option. Determine if epoll should be used if available.
+		 * Set the preferred native option. Determine if a native transport
+		 * (io_uring, epoll or kqueue) should be used if available.
 		 *
-		 * @param preferNative Should the connector prefer native (epoll) if available
+		 * @param preferNative Should the connector prefer native transports if available
 		 * @return {@code this}
 		 */
 		public final BUILDER preferNative(boolean preferNative) {
@@ -530,6 +599,58 @@ public abstract class NettyOptions<BOOTSTRAP extends AbstractBootstrap<BOOTSTRAP
 			return get();
 		}
 
+		/**
+		 * Bound the number of received messages buffered while the inbound subscriber
+		 * has no demand. Once {@code highWaterMark} messages are buffered, auto-read is
+		 * turned off and the inbound stops requesting reads until the buffer drains down
+		 * to {@code lowWaterMark} messages and below the bytes low water mark. Reads
+		 * issued by other handlers are not intercepted. Default to 128/256.
+		 *
+		 * @param lowWaterMark the number of buffered messages resuming reads
+		 * @param highWaterMark the number of buffered messages suspending reads
+		 * @return {@code this}
+		 * @see #receiveWaterMarkBytes(long, long)
+		 */
+		public final BUILDER receiveWaterMarkMessages(int lowWaterMark, int highWaterMark) {
+			if (highWaterMark < 1) {
+				throw new IllegalArgumentException("receive high water mark must be strictly positive," +
+						" was: " + highWaterMark);
+			}
+			if (lowWaterMark < 0 || lowWaterMark > highWaterMark) {
+				throw new IllegalArgumentException("receive low water mark must be positive and" +
+						" lower than the high water mark, was: " + lowWaterMark);
+			}
+			this.receiveLowWaterMarkMessages = lowWaterMark;
+			this.receiveHighWaterMarkMessages = highWaterMark;
+			return get();
+		}
+
+		/**
+		 * Bound the number of received bytes buffered while the inbound subscriber has no
+		 * demand. Once {@code highWaterMark} bytes are buffered, auto-read is turned off
+		 * and the inbound stops requesting reads until the buffer drains down to
+		 * {@code lowWaterMark} bytes and below the messages low water mark. Reads issued
+		 * by other handlers are not intercepted. Default to 2MB/4MB.
+		 *
+		 * @param lowWaterMark the number of buffered bytes resuming reads
+		 * @param highWaterMark the number of buffered bytes suspending reads
+		 * @return {@code this}
+		 * @see #receiveWaterMarkMessages(int, int)
+		 */
+		public final BUILDER receiveWaterMarkBytes(long lowWaterMark, long highWaterMark) {
+			if (highWaterMark < 1L) {
+				throw new IllegalArgumentException("receive high water mark must be strictly positive," +
+						" was: " + highWaterMark);
+			}
+			if (lowWaterMark < 0L || lowWaterMark > highWaterMark) {
+				throw new IllegalArgumentException("receive low water mark must be positive and" +
+						" lower than the high water mark, was: " + lowWaterMark);
+			}
+			this.receiveLowWaterMarkBytes = lowWaterMark;
+			this.receiveHighWaterMarkBytes = highWaterMark;
+			return get();
+		}
+
 		/**
 		 * Fill the builder with attribute values from the provided options.
 		 *
@@ -547,6 +668,10 @@ public abstract class NettyOptions<BOOTSTRAP extends AbstractBootstrap<BOOTSTRAP
 			this.afterChannelInit = options.afterChannelInit();
 			this.onChannelInit = options.onChannelInit();
 			this.afterNettyContextInit = options.afterNettyContextInit();
+			this.receiveLowWaterMarkMessages = options.receiveLowWaterMarkMessages();
+			this.receiveHighWaterMarkMessages = options.receiveHighWaterMarkMessages();
+			this.receiveLowWaterMarkBytes = options.receiveLowWaterMarkBytes();
+			this.receiveHighWaterMarkBytes = options.receiveHighWaterMarkBytes();
 			return get();
 		}
 	}
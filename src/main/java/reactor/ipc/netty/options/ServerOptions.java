@@ -18,6 +18,10 @@ package reactor.ipc.netty.options;
 
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
 import java.util.function.Consumer;
 
@@ -25,12 +29,17 @@ import io.netty.bootstrap.ServerBootstrap;
 import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoop;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollServerSocketChannel;
 import io.netty.handler.ssl.JdkSslContext;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslContextBuilder;
 import io.netty.handler.ssl.util.SelfSignedCertificate;
 import io.netty.util.AttributeKey;
+import io.netty.util.concurrent.EventExecutor;
 import reactor.core.Exceptions;
 import reactor.ipc.netty.resources.LoopResources;
 
@@ -64,6 +73,7 @@ public class ServerOptions extends NettyOptions<ServerBootstrap, ServerOptions>
 	}
 
 	private final SocketAddress localAddress;
+	private final int           acceptors;
 
 	/**
 	 * Build a new {@link ServerOptions}.
@@ -83,6 +93,7 @@ public class ServerOptions extends NettyOptions<ServerBootstrap, ServerOptions>
 					? InetSocketAddressUtil.replaceWithResolved((InetSocketAddress) builder.listenAddress)
 					: builder.listenAddress;
 		}
+		this.acceptors = builder.acceptors;
 	}
 
 	@Override
@@ -102,6 +113,51 @@ public class ServerOptions extends NettyOptions<ServerBootstrap, ServerOptions>
 		return localAddress;
 	}
 
+	/**
+	 * Return the number of listening sockets requested for the server address.
+	 *
+	 * @return the number of listening sockets requested for the server address
+	 */
+	public final int acceptors() {
+		return acceptors;
+	}
+
+	/**
+	 * Return a new {@link ServerBootstrap} for each listening socket to bind. When more
+	 * than one {@link #acceptors() acceptor} is requested and the server loops are epoll
+	 * loops, each bootstrap binds with {@code SO_REUSEPORT} and is assigned a distinct
+	 * event loop that both accepts and serves its connections, at most one per event
+	 * loop. Otherwise a single bootstrap equivalent to {@link #get()} is returned.
+	 *
+	 * @return a new {@link ServerBootstrap} for each listening socket to bind
+	 */
+	public final List<ServerBootstrap> getAcceptors() {
+		if (acceptors <= 1) {
+			return Collections.singletonList(get());
+		}
+		LoopResources loops =
+				Objects.requireNonNull(getLoopResources(), "loopResources");
+
+		boolean useNative = preferNative() && !(sslContext() instanceof JdkSslContext);
+		final EventLoopGroup elg = loops.onServer(useNative);
+		final Class<? extends ServerChannel> channel = loops.onServerChannel(elg);
+		if (!EpollServerSocketChannel.class.isAssignableFrom(channel)) {
+			return Collections.singletonList(get());
+		}
+
+		List<ServerBootstrap> bootstraps = new ArrayList<>(acceptors);
+		Iterator<EventExecutor> it = elg.iterator();
+		while (bootstraps.size() < acceptors && it.hasNext()) {
+			EventLoop loop = (EventLoop) it.next();
+			ServerBootstrap b = super.get();
+			b.group(loop, loop)
+			 .channel(channel)
+			 .option(EpollChannelOption.SO_REUSEPORT, true);
+			bootstraps.add(b);
+		}
+		return bootstraps;
+	}
+
 	final void groupAndChannel(ServerBootstrap bootstrap) {
 		LoopResources loops =
 				Objects.requireNonNull(getLoopResources(), "loopResources");
@@ -121,7 +177,8 @@ public class ServerOptions extends NettyOptions<ServerBootstrap, ServerOptions>
 
 	@Override
 	public String asDetailedString() {
-		return "address=" + getAddress() + ", " + super.asDetailedString();
+		return "address=" + getAddress() + ", " + super.asDetailedString() +
+				", acceptors=" + acceptors;
 	}
 
 	@Override
@@ -134,6 +191,7 @@ public class ServerOptions extends NettyOptions<ServerBootstrap, ServerOptions>
 		private String host;
 		private int port;
 		private SocketAddress listenAddress;
+		private int acceptors = 1;
 
 		/**
 		 * Apply common option via super class then apply
@@ -260,6 +318,29 @@ public class ServerOptions extends NettyOptions<ServerBootstrap, ServerOptions>
 			return get();
 		}
 
+		/**
+		 * The number of listening sockets to bind on the server address, default to 1.
+		 * <p>
+		 * With more than one acceptor and epoll available, each socket is bound with
+		 * {@code SO_REUSEPORT} on its own server event loop which also serves the
+		 * connections it accepts, letting the kernel balance new connections across
+		 * loops. The bound sockets are exposed as a single
+		 * {@link reactor.ipc.netty.NettyContext}. At most one socket is bound per server
+		 * event loop, e.g. {@link LoopResources#DEFAULT_IO_WORKER_COUNT} with the default
+		 * loop resources. Without epoll, a single socket is bound.
+		 *
+		 * @param acceptors the number of listening sockets, strictly positive
+		 * @return {@code this}
+		 */
+		public final BUILDER acceptors(int acceptors) {
+			if (acceptors < 1) {
+				throw new IllegalArgumentException("acceptors must be strictly positive, " +
+						"was: " + acceptors);
+			}
+			this.acceptors = acceptors;
+			return get();
+		}
+
 		/**
 		 * Enable SSL service with a self-signed certificate
 		 *
@@ -297,6 +378,7 @@ public class ServerOptions extends NettyOptions<ServerBootstrap, ServerOptions>
 		public final BUILDER from(ServerOptions options) {
 			super.from(options);
 			this.listenAddress = options.localAddress;
+			this.acceptors = options.acceptors;
 			return get();
 		}
 
@@ -0,0 +1,323 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.ipc.netty.resources;
+
+import java.util.concurrent.ConcurrentMap;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.pool.ChannelHealthChecker;
+import io.netty.channel.pool.ChannelPool;
+import io.netty.channel.pool.ChannelPoolHandler;
+import io.netty.channel.pool.FixedChannelPool;
+import io.netty.channel.pool.SimpleChannelPool;
+import io.netty.util.AttributeKey;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.Promise;
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * A {@link ChannelPool} sharding its channels per {@link EventLoop}. Each shard only
+ * creates channels registered on its own loop, and acquiring from an event loop thread
+ * always selects that loop shard first. When a shard has no idle channel it steals an
+ * idle channel from another shard before connecting a new one.
+ * <p>
+ * Idle channels are always given back to the shard of the loop they are registered
+ * on, whichever shard acquired them. When capped, the maximum number of connections is
+ * divided between the event loops, each loop being allowed at least one connection.
+ */
+final class AffinityChannelPool implements ChannelPool {
+
+	static final AttributeKey<Shard> SHARD =
+			AttributeKey.newInstance("affinityChannelPoolShard");
+
+	final Bootstrap                      bootstrap;
+	final EventLoopGroup                 group;
+	final ChannelPoolHandler             handler;
+	final ChannelHealthChecker           healthChecker;
+	final int                            maxConnections;
+	final long                           acquireTimeout;
+	final ConcurrentMap<EventLoop, Shard> shards;
+
+	volatile boolean closed;
+
+	/**
+	 * Create a new uncapped {@link AffinityChannelPool}.
+	 *
+	 * @param bootstrap the {@link Bootstrap} to clone per event loop
+	 * @param handler the pool handler
+	 * @param healthChecker the channel health checker
+	 */
+	AffinityChannelPool(Bootstrap bootstrap,
+			ChannelPoolHandler handler,
+			ChannelHealthChecker healthChecker) {
+		this(bootstrap, handler, healthChecker, -1, -1L);
+	}
+
+	/**
+	 * Create a new {@link AffinityChannelPool}.
+	 *
+	 * @param bootstrap the {@link Bootstrap} to clone per event loop
+	 * @param handler the pool handler
+	 * @param healthChecker the channel health checker
+	 * @param maxConnections the maximum number of connections for all loops or -1
+	 * @param acquireTimeout the maximum time in millis to wait for acquiring when capped
+	 */
+	AffinityChannelPool(Bootstrap bootstrap,
+			ChannelPoolHandler handler,
+			ChannelHealthChecker healthChecker,
+			int maxConnections,
+			long acquireTimeout) {
+		this.bootstrap = bootstrap;
+		this.group = bootstrap.config()
+		                      .group();
+		this.handler = handler;
+		this.healthChecker = healthChecker;
+		this.acquireTimeout = acquireTimeout;
+		this.shards = PlatformDependent.newConcurrentHashMap();
+
+		if (maxConnections == -1) {
+			this.maxConnections = -1;
+		}
+		else {
+			int loops = 0;
+			for (EventExecutor ignored : group) {
+				loops++;
+			}
+			this.maxConnections = Math.max(1, (maxConnections + loops - 1) / Math.max(1, loops));
+		}
+	}
+
+	@Override
+	public Future<Channel> acquire() {
+		return shard(localLoop()).acquire();
+	}
+
+	@Override
+	public Future<Channel> acquire(Promise<Channel> promise) {
+		return shard(localLoop()).acquire(promise);
+	}
+
+	@Override
+	public Future<Void> release(Channel channel) {
+		return release(channel, channel.eventLoop()
+		                               .newPromise());
+	}
+
+	@Override
+	public Future<Void> release(Channel channel, Promise<Void> promise) {
+		Shard shard = channel.attr(SHARD)
+		                     .get();
+		if (shard == null) {
+			shard = shard(channel.eventLoop());
+		}
+		return shard.release(channel, promise);
+	}
+
+	@Override
+	public void close() {
+		closed = true;
+		for (Shard shard : shards.values()) {
+			shard.close();
+		}
+		shards.clear();
+	}
+
+	/**
+	 * Return the calling event loop if it belongs to this pool group, or the next loop
+	 * of the group otherwise.
+	 *
+	 * @return the preferred {@link EventLoop} for the current thread
+	 */
+	EventLoop localLoop() {
+		EventLoop next = group.next();
+		if (next.inEventLoop()) {
+			return next;
+		}
+		for (EventExecutor executor : group) {
+			if (executor instanceof EventLoop && executor.inEventLoop()) {
+				return (EventLoop) executor;
+			}
+		}
+		return next;
+	}
+
+	Shard shard(EventLoop loop) {
+		Shard shard = shards.get(loop);
+		if (shard == null) {
+			shard = shards.computeIfAbsent(loop, this::newShard);
+		}
+		return shard;
+	}
+
+	Shard newShard(EventLoop loop) {
+		Bootstrap b = bootstrap.clone(loop);
+		ShardHandler shardHandler = new ShardHandler(handler);
+		Shard shard = maxConnections == -1 ?
+				new SimpleShard(this, b, shardHandler, healthChecker) :
+				new FixedShard(this, b, shardHandler, healthChecker);
+		shardHandler.shard = shard;
+		return shard;
+	}
+
+	/**
+	 * Poll an idle channel from the given shard or any other shard.
+	 */
+	Channel poll(Shard local) {
+		Channel ch = local.pollIdle();
+		if (ch != null || closed) {
+			return ch;
+		}
+		for (Shard shard : shards.values()) {
+			if (shard != local) {
+				ch = shard.pollIdle();
+				if (ch != null) {
+					return ch;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Offer an idle channel back to the shard of its event loop.
+	 */
+	boolean offer(Shard local, Channel ch) {
+		Shard owner = shards.get(ch.eventLoop());
+		if (owner == null || closed) {
+			owner = local;
+		}
+		return owner.offerIdle(ch);
+	}
+
+	interface Shard extends ChannelPool {
+
+		Channel pollIdle();
+
+		boolean offerIdle(Channel ch);
+	}
+
+	static final class SimpleShard extends SimpleChannelPool implements Shard {
+
+		final AffinityChannelPool parent;
+
+		SimpleShard(AffinityChannelPool parent,
+				Bootstrap bootstrap,
+				ChannelPoolHandler handler,
+				ChannelHealthChecker healthCheck) {
+			super(bootstrap, handler, healthCheck);
+			this.parent = parent;
+		}
+
+		@Override
+		protected Channel pollChannel() {
+			return parent.poll(this);
+		}
+
+		@Override
+		protected boolean offerChannel(Channel channel) {
+			return parent.offer(this, channel);
+		}
+
+		@Override
+		public Channel pollIdle() {
+			return super.pollChannel();
+		}
+
+		@Override
+		public boolean offerIdle(Channel ch) {
+			return super.offerChannel(ch);
+		}
+	}
+
+	static final class FixedShard extends FixedChannelPool implements Shard {
+
+		final AffinityChannelPool parent;
+
+		FixedShard(AffinityChannelPool parent,
+				Bootstrap bootstrap,
+				ChannelPoolHandler handler,
+				ChannelHealthChecker healthCheck) {
+			super(bootstrap,
+					handler,
+					healthCheck,
+					parent.acquireTimeout == -1L ? null :
+							FixedChannelPool.AcquireTimeoutAction.FAIL,
+					parent.acquireTimeout,
+					parent.maxConnections,
+					Integer.MAX_VALUE);
+			this.parent = parent;
+		}
+
+		@Override
+		protected Channel pollChannel() {
+			return parent.poll(this);
+		}
+
+		@Override
+		protected boolean offerChannel(Channel channel) {
+			return parent.offer(this, channel);
+		}
+
+		@Override
+		public Channel pollIdle() {
+			return super.pollChannel();
+		}
+
+		@Override
+		public boolean offerIdle(Channel ch) {
+			return super.offerChannel(ch);
+		}
+	}
+
+	/**
+	 * Remember the acquiring shard on each channel before delegating, so that the
+	 * channel is released to the same shard.
+	 */
+	static final class ShardHandler implements ChannelPoolHandler {
+
+		final ChannelPoolHandler delegate;
+
+		Shard shard;
+
+		ShardHandler(ChannelPoolHandler delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public void channelReleased(Channel ch) throws Exception {
+			delegate.channelReleased(ch);
+		}
+
+		@Override
+		public void channelAcquired(Channel ch) throws Exception {
+			ch.attr(SHARD)
+			  .set(shard);
+			delegate.channelAcquired(ch);
+		}
+
+		@Override
+		public void channelCreated(Channel ch) throws Exception {
+			ch.attr(SHARD)
+			  .set(shard);
+			delegate.channelCreated(ch);
+		}
+	}
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.ipc.netty.resources;
+
+import java.util.concurrent.ThreadFactory;
+
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.socket.DatagramChannel;
+
+/**
+ * A transport able to provide {@link EventLoopGroup} and matching {@link Channel}
+ * factories, e.g. NIO, epoll, kqueue or io_uring.
+ *
+ * @see DefaultLoopNativeDetector
+ */
+interface DefaultLoop {
+
+	/**
+	 * @return the transport name, as accepted by the
+	 * {@code reactor.ipc.netty.native} system property
+	 */
+	String getName();
+
+	/**
+	 * @return true if the transport can be used on the current system
+	 */
+	boolean isAvailable();
+
+	/**
+	 * @return the reason why the transport is not available, or null if it is
+	 */
+	Throwable unavailabilityCause();
+
+	/**
+	 * Return true if the given {@link EventLoopGroup} has been created by this transport
+	 * and can be assigned its channels.
+	 *
+	 * @param group the {@link EventLoopGroup} to test, not colocated
+	 *
+	 * @return true if the given {@link EventLoopGroup} belongs to this transport
+	 */
+	boolean supportGroup(EventLoopGroup group);
+
+	EventLoopGroup newEventLoopGroup(int threads, ThreadFactory factory);
+
+	Class<? extends ServerChannel> getServerChannel();
+
+	Class<? extends Channel> getChannel();
+
+	Class<? extends DatagramChannel> getDatagramChannel();
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.ipc.netty.resources;
+
+import java.util.concurrent.ThreadFactory;
+
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollDatagramChannel;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.socket.DatagramChannel;
+
+/**
+ * The Linux epoll transport.
+ */
+final class DefaultLoopEpoll implements DefaultLoop {
+
+	final Throwable unavailabilityCause;
+
+	DefaultLoopEpoll() {
+		Throwable cause;
+		try {
+			Class.forName("io.netty.channel.epoll.Epoll");
+			cause = Epoll.unavailabilityCause();
+		}
+		catch (ClassNotFoundException | LinkageError e) {
+			cause = e;
+		}
+		this.unavailabilityCause = cause;
+	}
+
+	@Override
+	public String getName() {
+		return "epoll";
+	}
+
+	@Override
+	public boolean isAvailable() {
+		return unavailabilityCause == null;
+	}
+
+	@Override
+	public Throwable unavailabilityCause() {
+		return unavailabilityCause;
+	}
+
+	@Override
+	public boolean supportGroup(EventLoopGroup group) {
+		return isAvailable() && group instanceof EpollEventLoopGroup;
+	}
+
+	@Override
+	public EventLoopGroup newEventLoopGroup(int threads, ThreadFactory factory) {
+		if (!isAvailable()) {
+			throw new IllegalStateException("Missing EPoll on current system",
+					unavailabilityCause);
+		}
+		return new EpollEventLoopGroup(threads, factory);
+	}
+
+	@Override
+	public Class<? extends ServerChannel> getServerChannel() {
+		return EpollServerSocketChannel.class;
+	}
+
+	@Override
+	public Class<? extends Channel> getChannel() {
+		return EpollSocketChannel.class;
+	}
+
+	@Override
+	public Class<? extends DatagramChannel> getDatagramChannel() {
+		return EpollDatagramChannel.class;
+	}
+}
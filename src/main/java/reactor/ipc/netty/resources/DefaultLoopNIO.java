@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.ipc.netty.resources;
+
+import java.util.concurrent.ThreadFactory;
+
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.DatagramChannel;
+import io.netty.channel.socket.nio.NioDatagramChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+
+/**
+ * The JDK NIO transport, always available.
+ */
+final class DefaultLoopNIO implements DefaultLoop {
+
+	static final DefaultLoopNIO INSTANCE = new DefaultLoopNIO();
+
+	DefaultLoopNIO() {
+	}
+
+	@Override
+	public String getName() {
+		return "nio";
+	}
+
+	@Override
+	public boolean isAvailable() {
+		return true;
+	}
+
+	@Override
+	public Throwable unavailabilityCause() {
+		return null;
+	}
+
+	@Override
+	public boolean supportGroup(EventLoopGroup group) {
+		return group instanceof NioEventLoopGroup;
+	}
+
+	@Override
+	public EventLoopGroup newEventLoopGroup(int threads, ThreadFactory factory) {
+		return new NioEventLoopGroup(threads, factory);
+	}
+
+	@Override
+	public Class<? extends ServerChannel> getServerChannel() {
+		return NioServerSocketChannel.class;
+	}
+
+	@Override
+	public Class<? extends Channel> getChannel() {
+		return NioSocketChannel.class;
+	}
+
+	@Override
+	public Class<? extends DatagramChannel> getDatagramChannel() {
+		return NioDatagramChannel.class;
+	}
+}
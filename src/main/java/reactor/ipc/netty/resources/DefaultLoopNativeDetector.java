@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.ipc.netty.resources;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.socket.DatagramChannel;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+/**
+ * Select the native transport used by {@link LoopResources} when native loops are
+ * preferred.
+ * <p>
+ * By default the first available transport among io_uring, epoll and kqueue is
+ * selected, io_uring and kqueue being optional runtime dependencies. The
+ * {@code reactor.ipc.netty.native} system property forces a given transport
+ * ({@code io_uring}, {@code epoll}, {@code kqueue}) or disables native transports
+ * ({@code nio}). A forced transport not available on the current system falls back to
+ * the default detection.
+ *
+ * @author Stephane Maldini
+ */
+final class DefaultLoopNativeDetector {
+
+	static final Logger log = Loggers.getLogger(DefaultLoopNativeDetector.class);
+
+	/**
+	 * Default native transport, fallback to "auto" (first available)
+	 */
+	static final String DEFAULT_NATIVE_TRANSPORT =
+			System.getProperty("reactor.ipc.netty.native", "auto");
+
+	static final List<DefaultLoop> TRANSPORTS =
+			Collections.unmodifiableList(Arrays.asList(DefaultLoopReflective.ioUring(),
+					new DefaultLoopEpoll(),
+					DefaultLoopReflective.kqueue()));
+
+	static final DefaultLoop INSTANCE = select(DEFAULT_NATIVE_TRANSPORT, TRANSPORTS);
+
+	/**
+	 * Select the transport matching the requested name, the first available one if
+	 * "auto" is requested or {@link DefaultLoopNIO} if none is available.
+	 *
+	 * @param requested the requested transport name
+	 * @param transports the candidate native transports in preference order
+	 *
+	 * @return the selected {@link DefaultLoop}
+	 */
+	static DefaultLoop select(String requested, List<DefaultLoop> transports) {
+		String name = requested.trim()
+		                       .toLowerCase();
+		if (DefaultLoopNIO.INSTANCE.getName()
+		                           .equals(name)) {
+			log.info("Native transports disabled by reactor.ipc.netty.native=" + requested);
+			return DefaultLoopNIO.INSTANCE;
+		}
+		if (!"auto".equals(name)) {
+			for (DefaultLoop transport : transports) {
+				if (transport.getName()
+				             .equals(name)) {
+					if (transport.isAvailable()) {
+						log.info("Native transport " + transport.getName() + " selected by " +
+								"reactor.ipc.netty.native=" + requested);
+						return transport;
+					}
+					log.warn("Native transport " + transport.getName() + " requested by " +
+							"reactor.ipc.netty.native is not available, falling back to " +
+							"detection: " + transport.unavailabilityCause());
+					name = "auto";
+				}
+			}
+			if (!"auto".equals(name)) {
+				log.warn("Unknown native transport " + requested + " requested by " +
+						"reactor.ipc.netty.native, falling back to detection");
+			}
+		}
+		for (DefaultLoop transport : transports) {
+			if (transport.isAvailable()) {
+				log.info("Native transport " + transport.getName() + " selected, first " +
+						"available of " + names(transports));
+				return transport;
+			}
+			if (log.isDebugEnabled()) {
+				log.debug("Native transport " + transport.getName() + " not available: " +
+						transport.unavailabilityCause());
+			}
+		}
+		log.info("No native transport available among " + names(transports) + ", " +
+				"using nio");
+		return DefaultLoopNIO.INSTANCE;
+	}
+
+	static String names(List<DefaultLoop> transports) {
+		StringBuilder names = new StringBuilder("[");
+		for (DefaultLoop transport : transports) {
+			if (names.length() > 1) {
+				names.append(", ");
+			}
+			names.append(transport.getName());
+		}
+		return names.append(']')
+		            .toString();
+	}
+
+	public static EventLoopGroup newEventLoopGroup(int threads, ThreadFactory factory) {
+		if (hasNative()) {
+			return INSTANCE.newEventLoopGroup(threads, factory);
+		}
+		throw new IllegalStateException("Missing native transport on current system");
+	}
+
+	public static Class<? extends ServerChannel> getServerChannel(EventLoopGroup group) {
+		return transportOf(group).getServerChannel();
+	}
+
+	public static Class<? extends Channel> getChannel(EventLoopGroup group) {
+		return transportOf(group).getChannel();
+	}
+
+	public static Class<? extends DatagramChannel> getDatagramChannel(EventLoopGroup group) {
+		return transportOf(group).getDatagramChannel();
+	}
+
+	/**
+	 * @return the name of the selected transport, "nio" if none is available
+	 */
+	public static String getName() {
+		return INSTANCE.getName();
+	}
+
+	public static boolean hasNative() {
+		return INSTANCE != DefaultLoopNIO.INSTANCE;
+	}
+
+	/**
+	 * Return the available transport having created the given {@link EventLoopGroup},
+	 * so that user provided groups of a non default transport get matching channels,
+	 * or {@link DefaultLoopNIO} if none.
+	 */
+	static DefaultLoop transportOf(EventLoopGroup group) {
+		if (group instanceof ColocatedEventLoopGroup) {
+			group = ((ColocatedEventLoopGroup) group).get();
+		}
+		if (INSTANCE.supportGroup(group)) {
+			return INSTANCE;
+		}
+		for (DefaultLoop transport : TRANSPORTS) {
+			if (transport.isAvailable() && transport.supportGroup(group)) {
+				return transport;
+			}
+		}
+		return DefaultLoopNIO.INSTANCE;
+	}
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.ipc.netty.resources;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.socket.DatagramChannel;
+
+/**
+ * A native transport looked up by class name so that its module stays an optional
+ * runtime dependency, e.g. {@code netty-transport-native-kqueue} or the
+ * {@code netty-incubator-transport-native-io_uring} module.
+ * <p>
+ * The transport is expected to follow the Netty native transports layout: a
+ * {@code <Prefix>} class exposing static {@code isAvailable()} and
+ * {@code unavailabilityCause()} methods, a {@code <Prefix>EventLoopGroup} with an
+ * {@code (int, ThreadFactory)} constructor and the {@code <Prefix>ServerSocketChannel},
+ * {@code <Prefix>SocketChannel} and {@code <Prefix>DatagramChannel} channels.
+ */
+final class DefaultLoopReflective implements DefaultLoop {
+
+	static DefaultLoopReflective kqueue() {
+		return new DefaultLoopReflective("kqueue", "io.netty.channel.kqueue", "KQueue");
+	}
+
+	static DefaultLoopReflective ioUring() {
+		return new DefaultLoopReflective("io_uring",
+				"io.netty.incubator.channel.uring",
+				"IOUring");
+	}
+
+	final String                                name;
+	final Throwable                             unavailabilityCause;
+	final Class<? extends EventLoopGroup>       groupClass;
+	final Constructor<? extends EventLoopGroup> groupConstructor;
+	final Class<? extends ServerChannel>        serverChannel;
+	final Class<? extends Channel>              channel;
+	final Class<? extends DatagramChannel>      datagramChannel;
+
+	DefaultLoopReflective(String name, String packageName, String prefix) {
+		this.name = name;
+
+		Throwable cause;
+		Class<? extends EventLoopGroup> groupClass = null;
+		Constructor<? extends EventLoopGroup> groupConstructor = null;
+		Class<? extends ServerChannel> serverChannel = null;
+		Class<? extends Channel> channel = null;
+		Class<? extends DatagramChannel> datagramChannel = null;
+		try {
+			ClassLoader loader = DefaultLoopReflective.class.getClassLoader();
+			Class<?> transport = Class.forName(packageName + "." + prefix, true, loader);
+			Method isAvailable = transport.getMethod("isAvailable");
+			if ((Boolean) isAvailable.invoke(null)) {
+				groupClass = Class.forName(packageName + "." + prefix + "EventLoopGroup", true, loader)
+				                  .asSubclass(EventLoopGroup.class);
+				groupConstructor = groupClass.getConstructor(int.class, ThreadFactory.class);
+				serverChannel = Class.forName(packageName + "." + prefix + "ServerSocketChannel", true, loader)
+				                     .asSubclass(ServerChannel.class);
+				channel = Class.forName(packageName + "." + prefix + "SocketChannel", true, loader)
+				               .asSubclass(Channel.class);
+				datagramChannel = Class.forName(packageName + "." + prefix + "DatagramChannel", true, loader)
+				                       .asSubclass(DatagramChannel.class);
+				cause = null;
+			}
+			else {
+				cause = (Throwable) transport.getMethod("unavailabilityCause")
+				                             .invoke(null);
+				if (cause == null) {
+					cause = new UnsupportedOperationException(name + " is not available");
+				}
+			}
+		}
+		catch (ClassNotFoundException e) {
+			cause = new ClassNotFoundException(packageName + "." + prefix + " is not on the classpath");
+		}
+		catch (InvocationTargetException e) {
+			cause = e.getCause();
+		}
+		catch (Throwable e) {
+			cause = e;
+		}
+
+		if (cause != null) {
+			groupClass = null;
+			groupConstructor = null;
+			serverChannel = null;
+			channel = null;
+			datagramChannel = null;
+		}
+		this.unavailabilityCause = cause;
+		this.groupClass = groupClass;
+		this.groupConstructor = groupConstructor;
+		this.serverChannel = serverChannel;
+		this.channel = channel;
+		this.datagramChannel = datagramChannel;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public boolean isAvailable() {
+		return unavailabilityCause == null;
+	}
+
+	@Override
+	public Throwable unavailabilityCause() {
+		return unavailabilityCause;
+	}
+
+	@Override
+	public boolean supportGroup(EventLoopGroup group) {
+		return groupClass != null && groupClass.isInstance(group);
+	}
+
+	@Override
+	public EventLoopGroup newEventLoopGroup(int threads, ThreadFactory factory) {
+		if (groupConstructor == null) {
+			throw new IllegalStateException("Missing " + name + " on current system",
+					unavailabilityCause);
+		}
+		try {
+			return groupConstructor.newInstance(threads, factory);
+		}
+		catch (InvocationTargetException e) {
+			throw new IllegalStateException("Cannot create " + name + " event loops",
+					e.getCause());
+		}
+		catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Cannot create " + name + " event loops", e);
+		}
+	}
+
+	@Override
+	public Class<? extends ServerChannel> getServerChannel() {
+		return serverChannel;
+	}
+
+	@Override
+	public Class<? extends Channel> getChannel() {
+		return channel;
+	}
+
+	@Override
+	public Class<? extends DatagramChannel> getDatagramChannel() {
+		return datagramChannel;
+	}
+}
@@ -164,9 +164,9 @@ final class DefaultLoopResources extends AtomicLong implements LoopResources {
 
 		EventLoopGroup eventLoopGroup = cacheNativeSelectLoops.get();
 		if (null == eventLoopGroup) {
-			EventLoopGroup newEventLoopGroup = DefaultLoopEpollDetector.newEventLoopGroup(
+			EventLoopGroup newEventLoopGroup = DefaultLoopNativeDetector.newEventLoopGroup(
 					selectCount,
-					threadFactory(this, "select-epoll"));
+					threadFactory(this, "select-" + DefaultLoopNativeDetector.getName()));
 			if (!cacheNativeSelectLoops.compareAndSet(null, newEventLoopGroup)) {
 				newEventLoopGroup.shutdownGracefully();
 			}
@@ -178,9 +178,9 @@ final class DefaultLoopResources extends AtomicLong implements LoopResources {
 	EventLoopGroup cacheNativeServerLoops() {
 		EventLoopGroup eventLoopGroup = cacheNativeServerLoops.get();
 		if (null == eventLoopGroup) {
-			EventLoopGroup newEventLoopGroup = DefaultLoopEpollDetector.newEventLoopGroup(
+			EventLoopGroup newEventLoopGroup = DefaultLoopNativeDetector.newEventLoopGroup(
 					workerCount,
-					threadFactory(this, "server-epoll"));
+					threadFactory(this, "server-" + DefaultLoopNativeDetector.getName()));
 			if (!cacheNativeServerLoops.compareAndSet(null, newEventLoopGroup)) {
 				newEventLoopGroup.shutdownGracefully();
 			}
@@ -192,9 +192,9 @@ final class DefaultLoopResources extends AtomicLong implements LoopResources {
 	EventLoopGroup cacheNativeClientLoops() {
 		EventLoopGroup eventLoopGroup = cacheNativeClientLoops.get();
 		if (null == eventLoopGroup) {
-			EventLoopGroup newEventLoopGroup = DefaultLoopEpollDetector.newEventLoopGroup(
+			EventLoopGroup newEventLoopGroup = DefaultLoopNativeDetector.newEventLoopGroup(
 					workerCount,
-					threadFactory(this, "client-epoll"));
+					threadFactory(this, "client-" + DefaultLoopNativeDetector.getName()));
 			newEventLoopGroup = LoopResources.colocate(newEventLoopGroup);
 			if (!cacheNativeClientLoops.compareAndSet(null, newEventLoopGroup)) {
 				newEventLoopGroup.shutdownGracefully();
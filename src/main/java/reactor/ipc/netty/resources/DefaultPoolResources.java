@@ -17,9 +17,16 @@
 package reactor.ipc.netty.resources;
 
 import java.net.SocketAddress;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -29,12 +36,16 @@ import io.netty.channel.EventLoopGroup;
 import io.netty.channel.pool.ChannelHealthChecker;
 import io.netty.channel.pool.ChannelPool;
 import io.netty.channel.pool.ChannelPoolHandler;
+import io.netty.util.AttributeKey;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.Promise;
+import io.netty.util.concurrent.ScheduledFuture;
 import io.netty.util.internal.PlatformDependent;
 import reactor.core.publisher.Mono;
 import reactor.util.Logger;
 import reactor.util.Loggers;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 
 /**
  * @author Stephane Maldini
@@ -49,13 +60,32 @@ final class DefaultPoolResources implements PoolResources {
 	}
 
 	final ConcurrentMap<SocketAddress, Pool> channelPools;
+	final ConcurrentMap<Tuple2<String, SocketAddress>, ChannelPool> multiplexedPools;
 	final String                             name;
 	final PoolFactory                        provider;
+	final long                               maxIdleTime;      //nanos or -1
+	final long                               maxLifeTime;      //nanos or -1
+	final long                               evictionInterval; //millis
+	final PoolMetrics.Registrar              registrar;
 
 	DefaultPoolResources(String name, PoolFactory provider) {
+		this(name, provider, -1L, -1L, -1L, null);
+	}
+
+	DefaultPoolResources(String name,
+			PoolFactory provider,
+			long maxIdleTime,
+			long maxLifeTime,
+			long evictionInterval,
+			PoolMetrics.Registrar registrar) {
 		this.name = name;
 		this.provider = provider;
+		this.maxIdleTime = maxIdleTime;
+		this.maxLifeTime = maxLifeTime;
+		this.evictionInterval = evictionInterval;
+		this.registrar = registrar;
 		this.channelPools = PlatformDependent.newConcurrentHashMap();
+		this.multiplexedPools = PlatformDependent.newConcurrentHashMap();
 	}
 
 	@Override
@@ -80,53 +110,206 @@ final class DefaultPoolResources implements PoolResources {
 			if (log.isDebugEnabled()) {
 				log.debug("New {} client pool for {}", name, address);
 			}
-			pool = new Pool(b, provider, onChannelCreate, group);
+			pool = new Pool(b,
+					provider,
+					onChannelCreate,
+					group,
+					maxIdleTime,
+					maxLifeTime,
+					evictionInterval);
 			if (channelPools.putIfAbsent(address, pool) == null) {
+				if (registrar != null) {
+					registrar.registerMetrics(name, address, pool);
+				}
 				return pool;
 			}
 			pool.close();
 		}
 	}
 
+	@Override
+	public ChannelPool selectOrCreateMultiplexed(String protocol,
+			SocketAddress address,
+			Supplier<? extends ChannelPool> poolFactory) {
+		Tuple2<String, SocketAddress> key = Tuples.of(protocol, address);
+		ChannelPool pool = multiplexedPools.get(key);
+		if (pool != null) {
+			return pool;
+		}
+		pool = poolFactory.get();
+		ChannelPool previous = multiplexedPools.putIfAbsent(key, pool);
+		if (previous != null) {
+			pool.close();
+			return previous;
+		}
+		if (log.isDebugEnabled()) {
+			log.debug("New {} {} pool for {}", name, protocol, address);
+		}
+		return pool;
+	}
+
+	@Override
+	public Map<SocketAddress, ? extends PoolMetrics> metrics() {
+		return Collections.unmodifiableMap(channelPools);
+	}
+
 	final static class Pool extends AtomicBoolean
-			implements ChannelPoolHandler, ChannelPool, ChannelHealthChecker {
+			implements ChannelPoolHandler, ChannelPool, ChannelHealthChecker, PoolMetrics {
 
 		final ChannelPool               pool;
 		final Consumer<? super Channel> onChannelCreate;
 		final EventLoopGroup            defaultGroup;
+		final long                      maxIdleTime;
+		final long                      maxLifeTime;
+		final ScheduledFuture<?>        evictionTask;
 
-		final AtomicInteger activeConnections = new AtomicInteger();
+		final AtomicInteger    activeConnections  = new AtomicInteger();
+		final LongAdder        idleConnections    = new LongAdder();
+		final LongAdder        pendingAcquires    = new LongAdder();
+		final LongAdder        createdConnections = new LongAdder();
+		final LongAdder        closedConnections  = new LongAdder();
+		final LongAdder        evictedConnections = new LongAdder();
+		final LongAdder        expiredConnections = new LongAdder();
+		final LongAdder        acquireTimeouts    = new LongAdder();
+		final LatencyHistogram acquireTimes       = new LatencyHistogram();
+		final Set<Channel>     idleChannels;
 
 		final Future<Boolean> HEALTHY;
 		final Future<Boolean> UNHEALTHY;
 
-		@SuppressWarnings("unchecked")
 		Pool(Bootstrap bootstrap,
 				PoolFactory provider,
 				Consumer<? super Channel> onChannelCreate,
 				EventLoopGroup group) {
+			this(bootstrap, provider, onChannelCreate, group, -1L, -1L, -1L);
+		}
+
+		@SuppressWarnings("unchecked")
+		Pool(Bootstrap bootstrap,
+				PoolFactory provider,
+				Consumer<? super Channel> onChannelCreate,
+				EventLoopGroup group,
+				long maxIdleTime,
+				long maxLifeTime,
+				long evictionInterval) {
 			this.pool = provider.newPool(bootstrap, this, this);
 			this.onChannelCreate = onChannelCreate;
 			this.defaultGroup = group;
+			this.maxIdleTime = maxIdleTime;
+			this.maxLifeTime = maxLifeTime;
 			HEALTHY = group.next()
 			               .newSucceededFuture(true);
 			UNHEALTHY = group.next()
 			                 .newSucceededFuture(false);
+
+			if (evictionInterval > 0 && (maxIdleTime != -1L || maxLifeTime != -1L)) {
+				this.idleChannels = ConcurrentHashMap.newKeySet();
+				this.evictionTask = group.next()
+				                         .scheduleWithFixedDelay(this::evictIdleChannels,
+						                         evictionInterval,
+						                         evictionInterval,
+						                         TimeUnit.MILLISECONDS);
+			}
+			else {
+				this.idleChannels = null;
+				this.evictionTask = null;
+			}
 		}
 
 		@Override
 		public Future<Boolean> isHealthy(Channel channel) {
-			return channel.isActive() ? HEALTHY : UNHEALTHY;
+			if (!channel.isActive()) {
+				return UNHEALTHY;
+			}
+			if (isExpired(channel, System.nanoTime())) {
+				//unhealthy channels are not closed by the pool on release
+				channel.close();
+				return UNHEALTHY;
+			}
+			return HEALTHY;
+		}
+
+		/**
+		 * Check the given channel max life time and max idle time and count it as
+		 * expired or evicted if one of them is reached.
+		 *
+		 * @param channel the pooled channel to check
+		 * @param now the current {@link System#nanoTime()}
+		 *
+		 * @return true if the channel should not be used anymore
+		 */
+		boolean isExpired(Channel channel, long now) {
+			if (maxLifeTime == -1L && maxIdleTime == -1L) {
+				return false;
+			}
+			PooledChannel times = channel.attr(PooledChannel.KEY)
+			                             .get();
+			if (times == null) {
+				return false;
+			}
+			if (maxLifeTime != -1L && now - times.createdAt >= maxLifeTime) {
+				expiredConnections.increment();
+				if (log.isDebugEnabled()) {
+					log.debug("Expired {} after max life time {}ms",
+							channel.toString(),
+							TimeUnit.NANOSECONDS.toMillis(maxLifeTime));
+				}
+				return true;
+			}
+			long idleSince = times.idleSince;
+			if (maxIdleTime != -1L && idleSince != -1L && now - idleSince >= maxIdleTime) {
+				evictedConnections.increment();
+				if (log.isDebugEnabled()) {
+					log.debug("Evicted {} after max idle time {}ms",
+							channel.toString(),
+							TimeUnit.NANOSECONDS.toMillis(maxIdleTime));
+				}
+				return true;
+			}
+			return false;
+		}
+
+		/**
+		 * Close idle channels that reached their max idle time or max life time. The
+		 * check is run on each channel event loop so that it cannot race with the
+		 * channel being acquired.
+		 */
+		void evictIdleChannels() {
+			long now = System.nanoTime();
+			for (Channel channel : idleChannels) {
+				channel.eventLoop()
+				       .execute(() -> {
+					       if (idleChannels.contains(channel) && isExpired(channel, now)) {
+						       idleChannels.remove(channel);
+						       channel.close();
+					       }
+				       });
+			}
 		}
 
 		@Override
 		public Future<Channel> acquire() {
-			return pool.acquire();
+			long start = System.nanoTime();
+			pendingAcquires.increment();
+			return recordAcquire(pool.acquire(), start);
 		}
 
 		@Override
 		public Future<Channel> acquire(Promise<Channel> promise) {
-			return pool.acquire(promise);
+			long start = System.nanoTime();
+			pendingAcquires.increment();
+			return recordAcquire(pool.acquire(promise), start);
+		}
+
+		Future<Channel> recordAcquire(Future<Channel> future, long start) {
+			future.addListener(f -> {
+				pendingAcquires.decrement();
+				acquireTimes.record(System.nanoTime() - start);
+				if (f.cause() instanceof TimeoutException) {
+					acquireTimeouts.increment();
+				}
+			});
+			return future;
 		}
 
 		@Override
@@ -142,6 +325,9 @@ final class DefaultPoolResources implements PoolResources {
 		@Override
 		public void close() {
 			if(compareAndSet(false, true)) {
+				if (evictionTask != null) {
+					evictionTask.cancel(false);
+				}
 				pool.close();
 			}
 		}
@@ -149,6 +335,18 @@ final class DefaultPoolResources implements PoolResources {
 		@Override
 		public void channelReleased(Channel ch) throws Exception {
 			activeConnections.decrementAndGet();
+			PooledChannel times = ch.attr(PooledChannel.KEY)
+			                        .get();
+			if (times != null && ch.isActive()) {
+				//pool handler callbacks and close listeners all run on the channel loop
+				if (times.idleSince == -1L) {
+					idleConnections.increment();
+				}
+				times.idleSince = System.nanoTime();
+				if (idleChannels != null) {
+					idleChannels.add(ch);
+				}
+			}
 			if (log.isDebugEnabled()) {
 				log.debug("Released {}, now {} active connections",
 						ch.toString(),
@@ -159,6 +357,15 @@ final class DefaultPoolResources implements PoolResources {
 		@Override
 		public void channelAcquired(Channel ch) throws Exception {
 			activeConnections.incrementAndGet();
+			PooledChannel times = ch.attr(PooledChannel.KEY)
+			                        .get();
+			if (times != null && times.idleSince != -1L) {
+				times.idleSince = -1L;
+				idleConnections.decrement();
+			}
+			if (idleChannels != null) {
+				idleChannels.remove(ch);
+			}
 			if (log.isDebugEnabled()) {
 				log.debug("Acquired {}, now {} active connections",
 						ch.toString(),
@@ -169,6 +376,21 @@ final class DefaultPoolResources implements PoolResources {
 		@Override
 		public void channelCreated(Channel ch) throws Exception {
 			activeConnections.incrementAndGet();
+			createdConnections.increment();
+			PooledChannel times = new PooledChannel(System.nanoTime());
+			ch.attr(PooledChannel.KEY)
+			  .set(times);
+			ch.closeFuture()
+			  .addListener(f -> {
+				  closedConnections.increment();
+				  if (times.idleSince != -1L) {
+					  times.idleSince = -1L;
+					  idleConnections.decrement();
+				  }
+				  if (idleChannels != null) {
+					  idleChannels.remove(ch);
+				  }
+			  });
 			if (log.isDebugEnabled()) {
 				log.debug("Created {}, now {} active connections",
 						ch.toString(),
@@ -179,10 +401,91 @@ final class DefaultPoolResources implements PoolResources {
 			}
 		}
 
+		@Override
+		public long activeConnections() {
+			return activeConnections.get();
+		}
+
+		@Override
+		public long idleConnections() {
+			return idleConnections.sum();
+		}
+
+		@Override
+		public long pendingAcquires() {
+			return pendingAcquires.sum();
+		}
+
+		@Override
+		public long createdConnections() {
+			return createdConnections.sum();
+		}
+
+		@Override
+		public long closedConnections() {
+			return closedConnections.sum();
+		}
+
+		@Override
+		public long evictedConnections() {
+			return evictedConnections.sum();
+		}
+
+		@Override
+		public long expiredConnections() {
+			return expiredConnections.sum();
+		}
+
+		@Override
+		public long acquireTimeouts() {
+			return acquireTimeouts.sum();
+		}
+
+		@Override
+		public long acquireCount() {
+			return acquireTimes.count();
+		}
+
+		@Override
+		public long acquireTotalTime() {
+			return acquireTimes.totalTime();
+		}
+
+		@Override
+		public long acquireTimePercentile(double percentile) {
+			return acquireTimes.percentile(percentile);
+		}
+
+		@Override
+		public long acquireMaxTime() {
+			return acquireTimes.maxTime();
+		}
+
 		@Override
 		public String toString() {
 			return pool.getClass()
-			           .getSimpleName() + "{" + "activeConnections=" + activeConnections + '}';
+			           .getSimpleName() + "{" + "activeConnections=" + activeConnections +
+					", idleConnections=" + idleConnections +
+					", pendingAcquires=" + pendingAcquires +
+					", evictedConnections=" + evictedConnections +
+					", expiredConnections=" + expiredConnections + '}';
+		}
+	}
+
+	/**
+	 * Lifecycle timestamps of a pooled channel, in {@link System#nanoTime()}.
+	 */
+	static final class PooledChannel {
+
+		static final AttributeKey<PooledChannel> KEY =
+				AttributeKey.newInstance("pooledChannel");
+
+		final long createdAt;
+
+		volatile long idleSince = -1L;
+
+		PooledChannel(long createdAt) {
+			this.createdAt = createdAt;
 		}
 	}
 
@@ -201,14 +504,21 @@ final class DefaultPoolResources implements PoolResources {
 					pool.close();
 				}
 			}
+			ChannelPool multiplexed;
+			for (Tuple2<String, SocketAddress> key : multiplexedPools.keySet()) {
+				multiplexed = multiplexedPools.remove(key);
+				if (multiplexed != null) {
+					multiplexed.close();
+				}
+			}
 		});
 	}
 
 	@Override
 	public boolean isDisposed() {
-		return channelPools.isEmpty() || channelPools.values()
-		                                             .stream()
-		                                             .allMatch(AtomicBoolean::get);
+		return multiplexedPools.isEmpty() && (channelPools.isEmpty() || channelPools.values()
+		                                                                            .stream()
+		                                                                            .allMatch(AtomicBoolean::get));
 	}
 
 	static final Logger log = Loggers.getLogger(DefaultPoolResources.class);
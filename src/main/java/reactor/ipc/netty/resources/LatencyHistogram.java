@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.ipc.netty.resources;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free log-linear histogram of nanosecond durations, in the spirit of
+ * HdrHistogram. Each power of two range is split into {@value #SUB_BUCKETS} linear
+ * buckets, giving a relative precision of about 3% up to {@link #MAX_VALUE}. Larger
+ * values are recorded in the last bucket.
+ * <p>
+ * Recording is a single atomic increment of the bucket counter plus striped count and
+ * sum updates; reading walks a non-atomic snapshot of the buckets.
+ */
+final class LatencyHistogram {
+
+	static final int  SUB_BUCKET_BITS = 5;
+	static final int  SUB_BUCKETS     = 1 << SUB_BUCKET_BITS;
+	static final int  MAX_EXPONENT    = 40;
+	static final long MAX_VALUE       = (1L << (MAX_EXPONENT + 1)) - 1;
+
+	final AtomicLongArray buckets =
+			new AtomicLongArray(SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS);
+	final LongAdder       count   = new LongAdder();
+	final LongAdder       total   = new LongAdder();
+	final AtomicLong      max     = new AtomicLong();
+
+	/**
+	 * Record a duration.
+	 *
+	 * @param nanos the duration in nanoseconds, negative values being recorded as 0
+	 */
+	void record(long nanos) {
+		long value = nanos < 0 ? 0 : nanos;
+		buckets.incrementAndGet(indexOf(value));
+		count.increment();
+		total.add(value);
+		long current = max.get();
+		while (value > current && !max.compareAndSet(current, value)) {
+			current = max.get();
+		}
+	}
+
+	long count() {
+		return count.sum();
+	}
+
+	long totalTime() {
+		return total.sum();
+	}
+
+	long maxTime() {
+		return max.get();
+	}
+
+	/**
+	 * Return the highest value of the bucket holding the given percentile, capped to the
+	 * max recorded value.
+	 *
+	 * @param percentile the percentile between 0.0 and 1.0
+	 *
+	 * @return the percentile value in nanoseconds, or 0 if nothing was recorded
+	 */
+	long percentile(double percentile) {
+		if (percentile < 0d || percentile > 1d) {
+			throw new IllegalArgumentException("percentile must be between 0.0 and 1.0");
+		}
+		int length = buckets.length();
+		long[] snapshot = new long[length];
+		long recorded = 0;
+		for (int i = 0; i < length; i++) {
+			snapshot[i] = buckets.get(i);
+			recorded += snapshot[i];
+		}
+		if (recorded == 0) {
+			return 0L;
+		}
+		long rank = Math.max(1L, (long) Math.ceil(percentile * recorded));
+		long seen = 0;
+		for (int i = 0; i < length; i++) {
+			seen += snapshot[i];
+			if (seen >= rank) {
+				return Math.min(highestValueOf(i), max.get());
+			}
+		}
+		return max.get();
+	}
+
+	static int indexOf(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		if (value > MAX_VALUE) {
+			value = MAX_VALUE;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int shift = exponent - SUB_BUCKET_BITS;
+		int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+		return SUB_BUCKETS + shift * SUB_BUCKETS + subBucket;
+	}
+
+	static long highestValueOf(int index) {
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+		int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+		int subBucket = (index - SUB_BUCKETS) % SUB_BUCKETS;
+		long lowest = (long) (SUB_BUCKETS + subBucket) << shift;
+		return lowest + (1L << shift) - 1;
+	}
+}
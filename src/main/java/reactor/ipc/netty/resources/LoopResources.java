@@ -135,7 +135,7 @@ public interface LoopResources extends Disposable {
 	 * @return a {@link Class} target for the underlying {@link Channel} factory
 	 */
 	default Class<? extends Channel> onChannel(EventLoopGroup group) {
-		return preferNative() ? DefaultLoopEpollDetector.getChannel(group) :
+		return preferNative() ? DefaultLoopNativeDetector.getChannel(group) :
 				NioSocketChannel.class;
 	}
 
@@ -159,7 +159,7 @@ public interface LoopResources extends Disposable {
 	 * @return a {@link Class} target for the underlying {@link Channel} factory
 	 */
 	default Class<? extends DatagramChannel> onDatagramChannel(EventLoopGroup group) {
-		return preferNative() ? DefaultLoopEpollDetector.getDatagramChannel(group) :
+		return preferNative() ? DefaultLoopNativeDetector.getDatagramChannel(group) :
 				NioDatagramChannel.class;
 	}
 
@@ -181,7 +181,7 @@ public interface LoopResources extends Disposable {
 	 * @return a {@link Class} target for the underlying {@link ServerChannel} factory
 	 */
 	default Class<? extends ServerChannel> onServerChannel(EventLoopGroup group) {
-		return preferNative() ? DefaultLoopEpollDetector.getServerChannel(group) :
+		return preferNative() ? DefaultLoopNativeDetector.getServerChannel(group) :
 				NioServerSocketChannel.class;
 	}
 
@@ -198,12 +198,14 @@ public interface LoopResources extends Disposable {
 	}
 
 	/**
-	 * Rreturn true if should default to native {@link EventLoopGroup} and {@link Channel}
+	 * Rreturn true if should default to native {@link EventLoopGroup} and {@link Channel}.
+	 * The native transport, io_uring, epoll or kqueue, is detected once and can be forced
+	 * with the {@code reactor.ipc.netty.native} system property.
 	 *
 	 * @return true if should default to native {@link EventLoopGroup} and {@link Channel}
 	 */
 	default boolean preferNative() {
-		return DefaultLoopEpollDetector.hasEpoll();
+		return DefaultLoopNativeDetector.hasNative();
 	}
 
 	/**
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.ipc.netty.resources;
+
+import java.net.SocketAddress;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+
+/**
+ * A {@link PoolMetrics.Registrar} binding each pool metrics to a Micrometer
+ * {@link MeterRegistry}. Meters are prefixed with {@code reactor.netty.pool} and tagged
+ * with the pool {@code name} and {@code remote.address}. Meters only sample the pool
+ * counters when the registry is scraped.
+ * <p>
+ * Micrometer is an optional dependency and must be on the classpath to use this class.
+ *
+ * <pre>
+ * {@code
+ * PoolResources pools = PoolResources.builder("http")
+ *                                    .maxConnections(64)
+ *                                    .metrics(new MicrometerPoolMetrics(registry))
+ *                                    .build();
+ * }
+ * </pre>
+ *
+ * @since 0.7.3
+ */
+public final class MicrometerPoolMetrics implements PoolMetrics.Registrar {
+
+	static final String PREFIX = "reactor.netty.pool";
+
+	final MeterRegistry registry;
+
+	/**
+	 * Create a new {@link MicrometerPoolMetrics} registering to the given registry.
+	 *
+	 * @param registry the target {@link MeterRegistry}
+	 */
+	public MicrometerPoolMetrics(MeterRegistry registry) {
+		this.registry = Objects.requireNonNull(registry, "registry");
+	}
+
+	@Override
+	public void registerMetrics(String poolName,
+			SocketAddress remoteAddress,
+			PoolMetrics metrics) {
+		Tags tags = Tags.of("name", poolName, "remote.address", String.valueOf(remoteAddress));
+
+		Gauge.builder(PREFIX + ".active.connections", metrics, PoolMetrics::activeConnections)
+		     .description("The number of connections acquired from the pool")
+		     .tags(tags)
+		     .register(registry);
+		Gauge.builder(PREFIX + ".idle.connections", metrics, PoolMetrics::idleConnections)
+		     .description("The number of idle connections in the pool")
+		     .tags(tags)
+		     .register(registry);
+		Gauge.builder(PREFIX + ".pending.acquires", metrics, PoolMetrics::pendingAcquires)
+		     .description("The number of acquisitions waiting for a connection")
+		     .tags(tags)
+		     .register(registry);
+
+		FunctionCounter.builder(PREFIX + ".created.connections", metrics, PoolMetrics::createdConnections)
+		               .description("The number of connections opened by the pool")
+		               .tags(tags)
+		               .register(registry);
+		FunctionCounter.builder(PREFIX + ".closed.connections", metrics, PoolMetrics::closedConnections)
+		               .description("The number of pooled connections closed")
+		               .tags(tags)
+		               .register(registry);
+		FunctionCounter.builder(PREFIX + ".evicted.connections", metrics, PoolMetrics::evictedConnections)
+		               .description("The number of connections closed after max idle time")
+		               .tags(tags)
+		               .register(registry);
+		FunctionCounter.builder(PREFIX + ".expired.connections", metrics, PoolMetrics::expiredConnections)
+		               .description("The number of connections closed after max life time")
+		               .tags(tags)
+		               .register(registry);
+		FunctionCounter.builder(PREFIX + ".acquire.timeouts", metrics, PoolMetrics::acquireTimeouts)
+		               .description("The number of acquisitions failed after acquire timeout")
+		               .tags(tags)
+		               .register(registry);
+
+		FunctionTimer.builder(PREFIX + ".acquire.time",
+				metrics,
+				PoolMetrics::acquireCount,
+				PoolMetrics::acquireTotalTime,
+				TimeUnit.NANOSECONDS)
+		             .description("The time spent acquiring connections")
+		             .tags(tags)
+		             .register(registry);
+		TimeGauge.builder(PREFIX + ".acquire.time.max",
+				metrics,
+				TimeUnit.NANOSECONDS,
+				PoolMetrics::acquireMaxTime)
+		         .description("The maximum time spent acquiring a connection")
+		         .tags(tags)
+		         .register(registry);
+		registerPercentile(tags, metrics, 0.5d);
+		registerPercentile(tags, metrics, 0.99d);
+	}
+
+	void registerPercentile(Tags tags, PoolMetrics metrics, double percentile) {
+		TimeGauge.builder(PREFIX + ".acquire.time.percentile",
+				metrics,
+				TimeUnit.NANOSECONDS,
+				m -> m.acquireTimePercentile(percentile))
+		         .description("The acquire time under which the given percentile of acquisitions completed")
+		         .tags(tags.and("percentile", String.valueOf(percentile)))
+		         .register(registry);
+	}
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.ipc.netty.resources;
+
+import java.net.SocketAddress;
+
+/**
+ * Metrics of the {@link io.netty.channel.pool.ChannelPool} created by a
+ * {@link PoolResources} for a given remote address. Values are read from counters
+ * updated on the pool hot path and can be sampled from any thread at any time.
+ *
+ * @since 0.7.3
+ */
+public interface PoolMetrics {
+
+	/**
+	 * Return the number of connections currently acquired from the pool.
+	 *
+	 * @return the number of acquired connections
+	 */
+	long activeConnections();
+
+	/**
+	 * Return the number of open connections currently idle in the pool.
+	 *
+	 * @return the number of idle connections
+	 */
+	long idleConnections();
+
+	/**
+	 * Return the number of acquisitions in progress, including the ones waiting for a
+	 * connection to be released in a capped pool.
+	 *
+	 * @return the number of pending acquisitions
+	 */
+	long pendingAcquires();
+
+	/**
+	 * Return the total number of connections opened by the pool.
+	 *
+	 * @return the number of created connections
+	 */
+	long createdConnections();
+
+	/**
+	 * Return the total number of pooled connections that have been closed.
+	 *
+	 * @return the number of closed connections
+	 */
+	long closedConnections();
+
+	/**
+	 * Return the total number of connections closed after reaching their max idle time.
+	 *
+	 * @return the number of evicted connections
+	 */
+	long evictedConnections();
+
+	/**
+	 * Return the total number of connections closed after reaching their max life time.
+	 *
+	 * @return the number of expired connections
+	 */
+	long expiredConnections();
+
+	/**
+	 * Return the total number of acquisitions that failed because the acquire timeout
+	 * was reached.
+	 *
+	 * @return the number of acquire timeouts
+	 */
+	long acquireTimeouts();
+
+	/**
+	 * Return the total number of completed acquisitions, successful or not.
+	 *
+	 * @return the number of completed acquisitions
+	 */
+	long acquireCount();
+
+	/**
+	 * Return the total time in nanoseconds spent acquiring connections.
+	 *
+	 * @return the total acquire time in nanoseconds
+	 */
+	long acquireTotalTime();
+
+	/**
+	 * Return the acquire time in nanoseconds under which the given percentile of
+	 * acquisitions completed, with a relative precision of about 3%.
+	 *
+	 * @param percentile the percentile between 0.0 and 1.0, e.g. 0.99
+	 *
+	 * @return the acquire time in nanoseconds for the given percentile
+	 */
+	long acquireTimePercentile(double percentile);
+
+	/**
+	 * Return the maximum acquire time in nanoseconds observed so far.
+	 *
+	 * @return the maximum acquire time in nanoseconds
+	 */
+	long acquireMaxTime();
+
+	/**
+	 * Receive the {@link PoolMetrics} of each pool created by a {@link PoolResources},
+	 * typically to bind them to a metrics registry.
+	 *
+	 * @see PoolResources.Builder#metrics(Registrar)
+	 */
+	@FunctionalInterface
+	interface Registrar {
+
+		/**
+		 * Register the metrics of a newly created pool.
+		 *
+		 * @param poolName the {@link PoolResources} name
+		 * @param remoteAddress the remote address of the pooled connections
+		 * @param metrics the pool metrics
+		 */
+		void registerMetrics(String poolName, SocketAddress remoteAddress, PoolMetrics metrics);
+	}
+}
@@ -17,6 +17,10 @@
 package reactor.ipc.netty.resources;
 
 import java.net.SocketAddress;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -58,6 +62,22 @@ public interface PoolResources extends Disposable {
 			"reactor.ipc.netty.pool.acquireTimeout",
 			"" + 45000));
 
+	/**
+	 * Default max time in millis a pooled connection can stay idle before being
+	 * closed. If -1 idle connections are never evicted.
+	 */
+	long DEFAULT_POOL_MAX_IDLE_TIME = Long.parseLong(System.getProperty(
+			"reactor.ipc.netty.pool.maxIdleTime",
+			"" + -1));
+
+	/**
+	 * Default max time in millis a pooled connection can live, counted from its
+	 * creation, before being closed. If -1 connections never expire.
+	 */
+	long DEFAULT_POOL_MAX_LIFE_TIME = Long.parseLong(System.getProperty(
+			"reactor.ipc.netty.pool.maxLifeTime",
+			"" + -1));
+
 	/**
 	 * Create an uncapped {@link PoolResources} to provide automatically for {@link
 	 * ChannelPool}.
@@ -71,7 +91,7 @@ public interface PoolResources extends Disposable {
 	 * ChannelPool}
 	 */
 	static PoolResources elastic(String name) {
-		return new DefaultPoolResources(name, SimpleChannelPool::new);
+		return builder(name).build();
 	}
 
 	/**
@@ -121,24 +141,21 @@ public interface PoolResources extends Disposable {
 	 * ChannelPool}
 	 */
 	static PoolResources fixed(String name, int maxConnections, long acquireTimeout) {
-		if (maxConnections == -1) {
-			return elastic(name);
-		}
-		if (maxConnections <= 0) {
-			throw new IllegalArgumentException("Max Connections value must be strictly " + "positive");
-		}
-		if (acquireTimeout != -1L && acquireTimeout < 0) {
-			throw new IllegalArgumentException("Acquire Timeout value must " + "be " + "positive");
-		}
-		return new DefaultPoolResources(name,
-				(bootstrap, handler, checker) -> new FixedChannelPool(bootstrap,
-						handler,
-						checker,
-						FixedChannelPool.AcquireTimeoutAction.FAIL,
-						acquireTimeout,
-						maxConnections,
-						Integer.MAX_VALUE
-						));
+		return builder(name).maxConnections(maxConnections)
+		                    .acquireTimeout(acquireTimeout)
+		                    .build();
+	}
+
+	/**
+	 * Create a {@link Builder} to configure a new {@link PoolResources}, by default
+	 * {@link #elastic(String) elastic}.
+	 *
+	 * @param name the channel pool map name
+	 *
+	 * @return a new {@link PoolResources} builder
+	 */
+	static Builder builder(String name) {
+		return new Builder(name);
 	}
 
 	/**
@@ -158,6 +175,39 @@ public interface PoolResources extends Disposable {
 			Consumer<? super Channel> onChannelCreate,
 			EventLoopGroup group);
 
+	/**
+	 * Return the multiplexed pool of the given protocol for the given remote address,
+	 * creating it with the given factory on first use. A multiplexed pool hands out
+	 * streams over a few shared connections, such as HTTP/2 streams. It is kept apart
+	 * from the pools returned by
+	 * {@link #selectOrCreate(SocketAddress, Supplier, Consumer, EventLoopGroup)} and
+	 * closed when this {@link PoolResources} is disposed.
+	 * <p>
+	 * The default implementation does not keep multiplexed pools and returns null, the
+	 * caller then falling back to non multiplexed connections.
+	 *
+	 * @param protocol the multiplexing protocol, e.g. {@code h2}
+	 * @param address the remote address
+	 * @param poolFactory the factory of a new multiplexed pool
+	 *
+	 * @return the multiplexed pool, or null if not supported
+	 */
+	default ChannelPool selectOrCreateMultiplexed(String protocol,
+			SocketAddress address,
+			Supplier<? extends ChannelPool> poolFactory) {
+		return null;
+	}
+
+	/**
+	 * Return the {@link PoolMetrics} of each {@link ChannelPool} currently provided by
+	 * this {@link PoolResources}, keyed by remote address.
+	 *
+	 * @return a read-only view of the pool metrics per remote address
+	 */
+	default Map<SocketAddress, ? extends PoolMetrics> metrics() {
+		return Collections.emptyMap();
+	}
+
 	@Override
 	default void dispose() {
 		//noop default
@@ -172,4 +222,186 @@ public interface PoolResources extends Disposable {
 	default Mono<Void> disposeLater() {
 		return Mono.empty(); //noop default
 	}
+
+	/**
+	 * A builder for {@link PoolResources}.
+	 */
+	final class Builder {
+
+		final String name;
+
+		int     maxConnections    = -1;
+		long    acquireTimeout    = DEFAULT_POOL_ACQUIRE_TIMEOUT;
+		long    maxIdleTime       = DEFAULT_POOL_MAX_IDLE_TIME;
+		long    maxLifeTime       = DEFAULT_POOL_MAX_LIFE_TIME;
+		long    evictionInterval  = -1L;
+		boolean eventLoopAffinity = false;
+
+		PoolMetrics.Registrar registrar;
+
+		Builder(String name) {
+			this.name = Objects.requireNonNull(name, "name");
+		}
+
+		/**
+		 * The maximum number of connections per remote address before starting pending
+		 * acquisition on existing ones, or -1 to never wait and open new connections
+		 * in an unbounded fashion.
+		 *
+		 * @param maxConnections the maximum number of connections or -1
+		 *
+		 * @return {@code this}
+		 */
+		public final Builder maxConnections(int maxConnections) {
+			if (maxConnections != -1 && maxConnections <= 0) {
+				throw new IllegalArgumentException("Max Connections value must be strictly " + "positive");
+			}
+			this.maxConnections = maxConnections;
+			return this;
+		}
+
+		/**
+		 * The maximum time in millis to wait for acquiring a connection when the
+		 * maximum number of connections is reached.
+		 *
+		 * @param acquireTimeout the maximum time in millis to wait for aquiring
+		 *
+		 * @return {@code this}
+		 */
+		public final Builder acquireTimeout(long acquireTimeout) {
+			if (acquireTimeout != -1L && acquireTimeout < 0) {
+				throw new IllegalArgumentException("Acquire Timeout value must " + "be " + "positive");
+			}
+			this.acquireTimeout = acquireTimeout;
+			return this;
+		}
+
+		/**
+		 * The maximum time in millis a released connection can stay idle in the pool.
+		 * Connections idle for longer are closed when selected for acquisition or by
+		 * the background eviction, instead of being handed out and failing on first
+		 * write because the remote peer already closed them.
+		 *
+		 * @param maxIdleTime the maximum idle time in millis or -1 to never evict
+		 *
+		 * @return {@code this}
+		 */
+		public final Builder maxIdleTime(long maxIdleTime) {
+			if (maxIdleTime != -1L && maxIdleTime <= 0) {
+				throw new IllegalArgumentException("Max Idle Time value must be strictly " + "positive");
+			}
+			this.maxIdleTime = maxIdleTime;
+			return this;
+		}
+
+		/**
+		 * The maximum time in millis a connection can live, counted from its creation.
+		 * Expired connections are closed on release, when selected for acquisition or
+		 * by the background eviction.
+		 *
+		 * @param maxLifeTime the maximum life time in millis or -1 to never expire
+		 *
+		 * @return {@code this}
+		 */
+		public final Builder maxLifeTime(long maxLifeTime) {
+			if (maxLifeTime != -1L && maxLifeTime <= 0) {
+				throw new IllegalArgumentException("Max Life Time value must be strictly " + "positive");
+			}
+			this.maxLifeTime = maxLifeTime;
+			return this;
+		}
+
+		/**
+		 * The interval in millis between two background sweeps of the idle connections,
+		 * scheduled on the pool {@link EventLoopGroup} when a
+		 * {@link #maxIdleTime(long) max idle time} or a
+		 * {@link #maxLifeTime(long) max life time} is set. Defaults to the smallest of
+		 * both. If 0 idle connections are only checked when selected for acquisition.
+		 *
+		 * @param evictionInterval the eviction interval in millis
+		 *
+		 * @return {@code this}
+		 */
+		public final Builder evictionInterval(long evictionInterval) {
+			if (evictionInterval < 0) {
+				throw new IllegalArgumentException("Eviction Interval value must " + "be " + "positive");
+			}
+			this.evictionInterval = evictionInterval;
+			return this;
+		}
+
+		/**
+		 * Shard pooled connections per {@link io.netty.channel.EventLoop}. Acquiring
+		 * from an event loop will prefer a connection bound to the same loop, only
+		 * stealing an idle connection from another loop before opening a new one, so
+		 * that a client called from a server handler stays on the same thread.
+		 * <p>
+		 * When capped, {@link #maxConnections(int)} is divided between the event loops,
+		 * each of them being allowed at least one connection.
+		 *
+		 * @param eventLoopAffinity true to shard connections per event loop
+		 *
+		 * @return {@code this}
+		 */
+		public final Builder eventLoopAffinity(boolean eventLoopAffinity) {
+			this.eventLoopAffinity = eventLoopAffinity;
+			return this;
+		}
+
+		/**
+		 * Register the {@link PoolMetrics} of each new {@link ChannelPool} to the given
+		 * {@link PoolMetrics.Registrar}, for instance a {@link MicrometerPoolMetrics}.
+		 *
+		 * @param registrar the registrar notified on each pool creation
+		 *
+		 * @return {@code this}
+		 */
+		public final Builder metrics(PoolMetrics.Registrar registrar) {
+			this.registrar = Objects.requireNonNull(registrar, "registrar");
+			return this;
+		}
+
+		/**
+		 * Create a new {@link PoolResources} from this builder configuration.
+		 *
+		 * @return a new {@link PoolResources}
+		 */
+		public PoolResources build() {
+			int maxConnections = this.maxConnections;
+			long acquireTimeout = this.acquireTimeout;
+			DefaultPoolResources.PoolFactory factory;
+			if (eventLoopAffinity) {
+				factory = (bootstrap, handler, checker) -> new AffinityChannelPool(bootstrap,
+						handler,
+						checker,
+						maxConnections,
+						acquireTimeout);
+			}
+			else if (maxConnections == -1) {
+				factory = SimpleChannelPool::new;
+			}
+			else {
+				factory = (bootstrap, handler, checker) -> new FixedChannelPool(bootstrap,
+						handler,
+						checker,
+						acquireTimeout == -1L ? null :
+								FixedChannelPool.AcquireTimeoutAction.FAIL,
+						acquireTimeout,
+						maxConnections,
+						Integer.MAX_VALUE
+						);
+			}
+			long evictionInterval = this.evictionInterval;
+			if (evictionInterval == -1L) {
+				evictionInterval = maxIdleTime == -1L ? maxLifeTime :
+						maxLifeTime == -1L ? maxIdleTime : Math.min(maxIdleTime, maxLifeTime);
+			}
+			return new DefaultPoolResources(name,
+					factory,
+					maxIdleTime == -1L ? -1L : TimeUnit.MILLISECONDS.toNanos(maxIdleTime),
+					maxLifeTime == -1L ? -1L : TimeUnit.MILLISECONDS.toNanos(maxLifeTime),
+					evictionInterval,
+					registrar);
+		}
+	}
 }
@@ -17,6 +17,7 @@
 package reactor.ipc.netty.tcp;
 
 import java.net.SocketAddress;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
@@ -30,6 +31,7 @@ import io.netty.channel.pool.ChannelPool;
 import io.netty.channel.socket.DatagramChannel;
 import reactor.core.publisher.Mono;
 import reactor.ipc.netty.resources.LoopResources;
+import reactor.ipc.netty.resources.PoolMetrics;
 import reactor.ipc.netty.resources.PoolResources;
 
 /**
@@ -156,6 +158,18 @@ public class TcpResources implements PoolResources, LoopResources {
 		return defaultPools.selectOrCreate(address, bootstrap, onChannelCreate, group);
 	}
 
+	@Override
+	public ChannelPool selectOrCreateMultiplexed(String protocol,
+			SocketAddress address,
+			Supplier<? extends ChannelPool> poolFactory) {
+		return defaultPools.selectOrCreateMultiplexed(protocol, address, poolFactory);
+	}
+
+	@Override
+	public Map<SocketAddress, ? extends PoolMetrics> metrics() {
+		return defaultPools.metrics();
+	}
+
 	@Override
 	public Class<? extends Channel> onChannel(EventLoopGroup group) {
 		return defaultLoops.onChannel(group);
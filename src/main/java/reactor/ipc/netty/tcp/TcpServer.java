@@ -18,6 +18,7 @@ package reactor.ipc.netty.tcp;
 
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.util.List;
 import java.util.Objects;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
@@ -37,6 +38,7 @@ import reactor.ipc.netty.NettyInbound;
 import reactor.ipc.netty.NettyOutbound;
 import reactor.ipc.netty.channel.ChannelOperations;
 import reactor.ipc.netty.channel.ContextHandler;
+import reactor.ipc.netty.channel.ReusePortNettyContext;
 import reactor.ipc.netty.options.NettyOptions;
 import reactor.ipc.netty.options.ServerOptions;
 import reactor.util.Logger;
@@ -164,17 +166,38 @@ public class TcpServer implements NettyConnector<NettyInbound, NettyOutbound> {
 	@Override
 	public final Mono<? extends NettyContext> newHandler(BiFunction<? super NettyInbound, ? super NettyOutbound, ? extends Publisher<Void>> handler) {
 		Objects.requireNonNull(handler, "handler");
-		return Mono.create(sink -> {
-			ServerBootstrap b = options.get();
-			SocketAddress local = options.getAddress();
-			b.localAddress(local);
-			ContextHandler<Channel> contextHandler = doHandler(handler, sink);
-			b.childHandler(contextHandler);
-			if(log.isDebugEnabled()){
-				b.handler(loggingHandler());
-			}
-			contextHandler.setFuture(b.bind());
-		});
+		if (options.acceptors() > 1) {
+			return Mono.defer(() -> newAcceptorsHandler(handler));
+		}
+		return Mono.create(sink -> bind(options.get(), options.getAddress(), handler, sink));
+	}
+
+	final Mono<NettyContext> newAcceptorsHandler(BiFunction<? super NettyInbound, ? super NettyOutbound, ? extends Publisher<Void>> handler) {
+		List<ServerBootstrap> bootstraps = options.getAcceptors();
+		if (bootstraps.size() == 1) {
+			log.warn("Binding a single listening socket instead of the {} requested " +
+					"acceptors: SO_REUSEPORT requires epoll server loops", options.acceptors());
+		}
+		else if (log.isDebugEnabled()) {
+			log.debug("Binding {} listening sockets with SO_REUSEPORT", bootstraps.size());
+		}
+
+		return ReusePortNettyContext.bind(bootstraps,
+				options.getAddress(),
+				(b, local) -> Mono.create(sink -> bind(b, local, handler, sink)));
+	}
+
+	final void bind(ServerBootstrap b,
+			SocketAddress local,
+			BiFunction<? super NettyInbound, ? super NettyOutbound, ? extends Publisher<Void>> handler,
+			MonoSink<NettyContext> sink) {
+		b.localAddress(local);
+		ContextHandler<Channel> contextHandler = doHandler(handler, sink);
+		b.childHandler(contextHandler);
+		if(log.isDebugEnabled()){
+			b.handler(loggingHandler());
+		}
+		contextHandler.setFuture(b.bind());
 	}
 
 	/**
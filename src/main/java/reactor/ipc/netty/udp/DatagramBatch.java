@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.ipc.netty.udp;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import io.netty.channel.socket.DatagramPacket;
+import io.netty.util.AbstractReferenceCounted;
+
+/**
+ * The datagrams read in a single channel read loop, released together.
+ */
+final class DatagramBatch extends AbstractReferenceCounted
+		implements Iterable<DatagramPacket> {
+
+	final List<DatagramPacket> packets;
+
+	DatagramBatch(int capacity) {
+		this.packets = new ArrayList<>(capacity);
+	}
+
+	/**
+	 * Return a copy of the batched datagrams, still valid once this batch is released
+	 * as long as the datagrams themselves have been retained.
+	 *
+	 * @return a copy of the batched datagrams
+	 */
+	List<DatagramPacket> packets() {
+		return new ArrayList<>(packets);
+	}
+
+	@Override
+	public Iterator<DatagramPacket> iterator() {
+		return packets.iterator();
+	}
+
+	@Override
+	public DatagramBatch touch(Object hint) {
+		for (DatagramPacket packet : packets) {
+			packet.touch(hint);
+		}
+		return this;
+	}
+
+	@Override
+	protected void deallocate() {
+		for (DatagramPacket packet : packets) {
+			packet.release();
+		}
+		packets.clear();
+	}
+
+	@Override
+	public String toString() {
+		return "DatagramBatch{size=" + packets.size() + "}";
+	}
+}
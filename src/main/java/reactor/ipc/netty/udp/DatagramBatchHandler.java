@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.ipc.netty.udp;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.socket.DatagramPacket;
+
+/**
+ * Group the {@link DatagramPacket} read during a single channel read loop into a
+ * {@link DatagramBatch}, passed downstream when the read loop completes or the batch is
+ * full. A read loop reads at most
+ * {@link io.netty.channel.RecvByteBufAllocator.Handle max messages per read} datagrams.
+ */
+final class DatagramBatchHandler extends ChannelInboundHandlerAdapter {
+
+	final int maxBatchSize;
+
+	DatagramBatch batch;
+
+	DatagramBatchHandler(int maxBatchSize) {
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	@Override
+	public void channelRead(ChannelHandlerContext ctx, Object msg) {
+		if (msg instanceof DatagramPacket) {
+			if (batch == null) {
+				batch = new DatagramBatch(maxBatchSize);
+			}
+			batch.packets.add((DatagramPacket) msg);
+			if (batch.packets.size() >= maxBatchSize) {
+				fireBatch(ctx);
+			}
+		}
+		else {
+			fireBatch(ctx);
+			ctx.fireChannelRead(msg);
+		}
+	}
+
+	@Override
+	public void channelReadComplete(ChannelHandlerContext ctx) {
+		fireBatch(ctx);
+		ctx.fireChannelReadComplete();
+	}
+
+	@Override
+	public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+		fireBatch(ctx);
+		super.channelInactive(ctx);
+	}
+
+	@Override
+	public void handlerRemoved(ChannelHandlerContext ctx) {
+		DatagramBatch batch = this.batch;
+		if (batch != null) {
+			this.batch = null;
+			batch.release();
+		}
+	}
+
+	void fireBatch(ChannelHandlerContext ctx) {
+		DatagramBatch batch = this.batch;
+		if (batch != null) {
+			this.batch = null;
+			ctx.fireChannelRead(batch);
+		}
+	}
+}
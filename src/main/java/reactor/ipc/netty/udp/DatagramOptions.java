@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.ipc.netty.udp;
+
+import io.netty.channel.ChannelOption;
+import io.netty.channel.FixedRecvByteBufAllocator;
+import reactor.ipc.netty.options.ClientOptions;
+
+/**
+ * Datagram receive settings shared by {@link UdpServerOptions} and
+ * {@link UdpClientOptions}.
+ */
+final class DatagramOptions {
+
+	static final int DEFAULT_MAX_DATAGRAM_SIZE = 2048;
+
+	static int checkBatchSize(int batchSize) {
+		if (batchSize < 0) {
+			throw new IllegalArgumentException("batchSize must be positive, was: " + batchSize);
+		}
+		return batchSize;
+	}
+
+	static int checkMaxDatagramSize(int maxDatagramSize) {
+		if (maxDatagramSize < 1 || maxDatagramSize > 65535) {
+			throw new IllegalArgumentException("maxDatagramSize must be between 1 " +
+					"and 65535, was: " + maxDatagramSize);
+		}
+		return maxDatagramSize;
+	}
+
+	/**
+	 * Configure the receive allocator of the given builder when batching is enabled or
+	 * the datagram size differs from the transport default.
+	 */
+	static void configure(ClientOptions.Builder<?> builder, int batchSize, int maxDatagramSize) {
+		if (batchSize > 0 || maxDatagramSize != DEFAULT_MAX_DATAGRAM_SIZE) {
+			builder.option(ChannelOption.RCVBUF_ALLOCATOR, batchSize > 0 ?
+					new FixedRecvByteBufAllocator(maxDatagramSize).maxMessagesPerRead(batchSize) :
+					new FixedRecvByteBufAllocator(maxDatagramSize));
+		}
+	}
+}
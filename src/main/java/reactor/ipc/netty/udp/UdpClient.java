@@ -31,6 +31,7 @@ import reactor.core.publisher.Mono;
 import reactor.core.publisher.MonoSink;
 import reactor.ipc.netty.NettyConnector;
 import reactor.ipc.netty.NettyContext;
+import reactor.ipc.netty.NettyPipeline;
 import reactor.ipc.netty.channel.ChannelOperations;
 import reactor.ipc.netty.channel.ContextHandler;
 import reactor.ipc.netty.options.ClientOptions;
@@ -154,12 +155,19 @@ public final class UdpClient implements NettyConnector<UdpInbound, UdpOutbound>
 	protected ContextHandler<DatagramChannel> doHandler(BiFunction<? super UdpInbound, ? super UdpOutbound, ? extends Publisher<Void>> handler,
 			MonoSink<NettyContext> sink,
 			SocketAddress providedAddress) {
-		return ContextHandler.newClientContext(sink,
-				options,
-				loggingHandler,
-				false,
-				providedAddress,
-				(ch, c, msg) -> UdpOperations.bind(ch, handler, c));
+		ContextHandler<DatagramChannel> contextHandler =
+				ContextHandler.newClientContext(sink,
+						options,
+						loggingHandler,
+						false,
+						providedAddress,
+						(ch, c, msg) -> UdpOperations.bind(ch, handler, c));
+		if (options.batchSize() > 0) {
+			int batchSize = options.batchSize();
+			contextHandler.onPipeline((pipeline, c) -> pipeline.addLast(NettyPipeline.DatagramBatchHandler,
+					new DatagramBatchHandler(batchSize)));
+		}
+		return contextHandler;
 	}
 
 
@@ -22,7 +22,7 @@ import reactor.ipc.netty.options.ClientOptions;
  * @author Stephane Maldini
  * @author Violeta Georgieva
  */
-final class UdpClientOptions extends ClientOptions {
+public final class UdpClientOptions extends ClientOptions {
 
 	/**
 	 * Creates a builder for {@link UdpClientOptions UdpClientOptions}
@@ -39,8 +39,32 @@ final class UdpClientOptions extends ClientOptions {
 		return true;
 	}
 
+	final int batchSize;
+	final int maxDatagramSize;
+
 	UdpClientOptions(UdpClientOptions.Builder builder) {
 		super(builder);
+		this.batchSize = builder.batchSize;
+		this.maxDatagramSize = builder.maxDatagramSize;
+	}
+
+	/**
+	 * Return the maximum number of datagrams emitted in a batch by
+	 * {@link UdpInbound#receiveBatches()}, 0 if batching is disabled.
+	 *
+	 * @return the maximum number of datagrams per batch, 0 if disabled
+	 */
+	public int batchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Return the size of the buffer allocated for each received datagram.
+	 *
+	 * @return the size of the buffer allocated for each received datagram
+	 */
+	public int maxDatagramSize() {
+		return maxDatagramSize;
 	}
 
 	@Override
@@ -48,6 +72,12 @@ final class UdpClientOptions extends ClientOptions {
 		return builder().from(this).build();
 	}
 
+	@Override
+	public String asDetailedString() {
+		return super.asDetailedString() + ", batchSize=" + batchSize +
+				", maxDatagramSize=" + maxDatagramSize;
+	}
+
 	@Override
 	public String toString() {
 		return "UdpClientOptions{" + asDetailedString() + "}";
@@ -55,12 +85,55 @@ final class UdpClientOptions extends ClientOptions {
 
 	public static final class Builder extends ClientOptions.Builder<Builder> {
 
+		private int batchSize;
+		private int maxDatagramSize = DatagramOptions.DEFAULT_MAX_DATAGRAM_SIZE;
+
 		private Builder() {
 			super(new Bootstrap());
 		}
 
+		/**
+		 * Read up to the given number of datagrams per channel read loop and emit them
+		 * together on {@link UdpInbound#receiveBatches()}, default to 0 (disabled).
+		 * {@link UdpInbound#receive()} and {@link UdpInbound#receiveObject()} keep
+		 * emitting the individual datagrams.
+		 *
+		 * @param batchSize the maximum number of datagrams per batch, 0 to disable
+		 * @return {@code this}
+		 */
+		public final Builder batchSize(int batchSize) {
+			this.batchSize = DatagramOptions.checkBatchSize(batchSize);
+			return this;
+		}
+
+		/**
+		 * The size of the buffer allocated for each received datagram, larger datagrams
+		 * are truncated. Default to 2048.
+		 *
+		 * @param maxDatagramSize the size of the buffer allocated for each datagram
+		 * @return {@code this}
+		 */
+		public final Builder maxDatagramSize(int maxDatagramSize) {
+			this.maxDatagramSize = DatagramOptions.checkMaxDatagramSize(maxDatagramSize);
+			return this;
+		}
+
+		/**
+		 * Fill the builder with attribute values from the provided options.
+		 *
+		 * @param options The instance from which to copy values
+		 * @return {@code this}
+		 */
+		public final Builder from(UdpClientOptions options) {
+			super.from(options);
+			this.batchSize = options.batchSize;
+			this.maxDatagramSize = options.maxDatagramSize;
+			return this;
+		}
+
 		@Override
 		public UdpClientOptions build() {
+			DatagramOptions.configure(this, batchSize, maxDatagramSize);
 			super.build();
 			return new UdpClientOptions(this);
 		}
@@ -15,6 +15,11 @@
  */
 package reactor.ipc.netty.udp;
 
+import java.util.Collections;
+import java.util.List;
+
+import io.netty.channel.socket.DatagramPacket;
+import reactor.core.publisher.Flux;
 import reactor.ipc.netty.NettyInbound;
 
 /**
@@ -22,4 +27,23 @@ import reactor.ipc.netty.NettyInbound;
  */
 public interface UdpInbound extends UdpConnection, NettyInbound {
 
+	/**
+	 * Return a {@link Flux} of the received datagrams grouped by channel read loop when
+	 * batching is enabled with {@code batchSize}, or of single datagram lists otherwise.
+	 * Batches are only emitted here: {@link #receive()} and {@link #receiveObject()}
+	 * always observe the individual datagrams.
+	 * <p>
+	 * Each emitted list is a copy owned by the subscriber. Like other received buffers,
+	 * its datagrams are released once emitted and must be retained to be used later.
+	 * <p>
+	 * The default implementation emits each datagram received by
+	 * {@link #receiveObject()} as a single datagram list.
+	 *
+	 * @return a {@link Flux} of received datagram batches
+	 */
+	default Flux<List<DatagramPacket>> receiveBatches() {
+		return receiveObject().ofType(DatagramPacket.class)
+		                      .map(Collections::singletonList);
+	}
+
 }
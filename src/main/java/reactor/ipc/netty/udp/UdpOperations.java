@@ -19,13 +19,21 @@ package reactor.ipc.netty.udp;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.NetworkInterface;
+import java.util.Collections;
+import java.util.List;
 import java.util.function.BiFunction;
 
 import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
 import io.netty.channel.socket.DatagramChannel;
+import io.netty.channel.socket.DatagramPacket;
+import io.netty.util.concurrent.PromiseCombiner;
 import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.ipc.netty.FutureMono;
+import reactor.ipc.netty.NettyOutbound;
 import reactor.ipc.netty.channel.ChannelOperations;
 import reactor.ipc.netty.channel.ContextHandler;
 import reactor.util.Logger;
@@ -45,6 +53,8 @@ final class UdpOperations extends ChannelOperations<UdpInbound, UdpOutbound>
 
 	final DatagramChannel  datagramChannel;
 
+	volatile boolean receiveBatches;
+
 	UdpOperations(DatagramChannel channel,
 			BiFunction<? super UdpInbound, ? super UdpOutbound, ? extends Publisher<Void>> handler,
 			ContextHandler<?> context) {
@@ -52,6 +62,66 @@ final class UdpOperations extends ChannelOperations<UdpInbound, UdpOutbound>
 		this.datagramChannel = channel;
 	}
 
+	@Override
+	public Flux<List<DatagramPacket>> receiveBatches() {
+		return Flux.defer(() -> {
+			receiveBatches = true;
+			return receiveObject().map(o -> {
+				if (o instanceof DatagramBatch) {
+					return ((DatagramBatch) o).packets();
+				}
+				return Collections.singletonList((DatagramPacket) o);
+			});
+		});
+	}
+
+	@Override
+	protected void onInboundNext(ChannelHandlerContext ctx, Object msg) {
+		if (msg instanceof DatagramBatch && !receiveBatches) {
+			// only receiveBatches() consumes batches, receive() and receiveObject()
+			// observe the individual datagrams
+			DatagramBatch batch = (DatagramBatch) msg;
+			try {
+				for (DatagramPacket packet : batch) {
+					super.onInboundNext(ctx, packet.retain());
+				}
+			}
+			finally {
+				batch.release();
+			}
+			return;
+		}
+		super.onInboundNext(ctx, msg);
+	}
+
+	@Override
+	public NettyOutbound sendBatches(Publisher<? extends Iterable<? extends DatagramPacket>> batches) {
+		return then(Flux.from(batches)
+		                .concatMap(batch -> FutureMono.deferFuture(() -> writeBatch(batch))));
+	}
+
+	final ChannelFuture writeBatch(Iterable<? extends DatagramPacket> batch) {
+		ChannelPromise promise = channel().newPromise();
+		if (channel().eventLoop()
+		             .inEventLoop()) {
+			writeBatch(batch, promise);
+		}
+		else {
+			channel().eventLoop()
+			         .execute(() -> writeBatch(batch, promise));
+		}
+		return promise;
+	}
+
+	final void writeBatch(Iterable<? extends DatagramPacket> batch, ChannelPromise promise) {
+		PromiseCombiner combiner = new PromiseCombiner();
+		for (DatagramPacket packet : batch) {
+			combiner.add(channel().write(packet));
+		}
+		channel().flush();
+		combiner.finish(promise);
+	}
+
 	/**
 	 * Join a multicast group.
 	 *
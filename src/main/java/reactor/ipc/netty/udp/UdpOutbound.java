@@ -16,6 +16,9 @@
 
 package reactor.ipc.netty.udp;
 
+import io.netty.channel.socket.DatagramPacket;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
 import reactor.ipc.netty.NettyOutbound;
 
 /**
@@ -23,4 +26,22 @@ import reactor.ipc.netty.NettyOutbound;
  */
 public interface UdpOutbound extends UdpConnection, NettyOutbound {
 
+	/**
+	 * Send the datagrams of each batch with a single flush, letting native transports
+	 * write them with a single system call ({@code sendmmsg} on epoll). Batches are
+	 * written in order, each one once the previous one has been flushed.
+	 * <p>
+	 * The default implementation sends the datagrams of all batches in order with
+	 * {@link #sendObject(Publisher)}.
+	 *
+	 * @param batches the datagram batches to send
+	 *
+	 * @return A new {@link NettyOutbound} to append further send. It will emit a complete
+	 * signal successful sequence write (e.g. after "flush") or any error during write.
+	 */
+	default NettyOutbound sendBatches(Publisher<? extends Iterable<? extends DatagramPacket>> batches) {
+		return sendObject(Flux.from(batches)
+		                      .concatMapIterable(batch -> batch));
+	}
+
 }
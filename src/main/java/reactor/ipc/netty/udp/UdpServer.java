@@ -17,6 +17,7 @@
 package reactor.ipc.netty.udp;
 
 import java.net.SocketAddress;
+import java.util.List;
 import java.util.Objects;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
@@ -31,10 +32,14 @@ import reactor.core.publisher.Mono;
 import reactor.core.publisher.MonoSink;
 import reactor.ipc.netty.NettyConnector;
 import reactor.ipc.netty.NettyContext;
+import reactor.ipc.netty.NettyPipeline;
 import reactor.ipc.netty.channel.ChannelOperations;
 import reactor.ipc.netty.channel.ContextHandler;
+import reactor.ipc.netty.channel.ReusePortNettyContext;
 import reactor.ipc.netty.options.ClientOptions;
 import reactor.ipc.netty.options.NettyOptions;
+import reactor.util.Logger;
+import reactor.util.Loggers;
 
 /**
  * A UDP server connector.
@@ -133,19 +138,40 @@ final public class UdpServer implements NettyConnector<UdpInbound, UdpOutbound>
 				targetHandler =
 				null == handler ? ChannelOperations.noopHandler() : handler;
 
-		return Mono.create(sink -> {
-			Bootstrap b = options.get();
-			SocketAddress adr = options.getAddress();
-			if(adr == null){
-				sink.error(new NullPointerException("Provided UdpServerOptions do not " +
-						"define any address to bind to "));
-				return;
-			}
-			b.localAddress(adr);
-			ContextHandler<DatagramChannel> c = doHandler(targetHandler, sink, adr);
-			b.handler(c);
-			c.setFuture(b.bind());
-		});
+		if (options.sockets() > 1) {
+			return Mono.defer(() -> newSocketsHandler(targetHandler));
+		}
+		return Mono.create(sink -> bind(options.get(), options.getAddress(), targetHandler, sink));
+	}
+
+	final Mono<NettyContext> newSocketsHandler(BiFunction<? super UdpInbound, ? super UdpOutbound, ? extends Publisher<Void>> handler) {
+		List<Bootstrap> bootstraps = options.getSockets();
+		if (bootstraps.size() == 1) {
+			log.warn("Binding a single socket instead of the {} requested sockets: " +
+					"SO_REUSEPORT requires epoll loops", options.sockets());
+		}
+		else if (log.isDebugEnabled()) {
+			log.debug("Binding {} sockets with SO_REUSEPORT", bootstraps.size());
+		}
+
+		return ReusePortNettyContext.bind(bootstraps,
+				options.getAddress(),
+				(b, local) -> Mono.create(sink -> bind(b, local, handler, sink)));
+	}
+
+	final void bind(Bootstrap b,
+			SocketAddress adr,
+			BiFunction<? super UdpInbound, ? super UdpOutbound, ? extends Publisher<Void>> handler,
+			MonoSink<NettyContext> sink) {
+		if(adr == null){
+			sink.error(new NullPointerException("Provided UdpServerOptions do not " +
+					"define any address to bind to "));
+			return;
+		}
+		b.localAddress(adr);
+		ContextHandler<DatagramChannel> c = doHandler(handler, sink, adr);
+		b.handler(c);
+		c.setFuture(b.bind());
 	}
 
 	/**
@@ -159,17 +185,26 @@ final public class UdpServer implements NettyConnector<UdpInbound, UdpOutbound>
 	protected ContextHandler<DatagramChannel> doHandler(BiFunction<? super UdpInbound, ? super UdpOutbound, ? extends Publisher<Void>> handler,
 			MonoSink<NettyContext> sink,
 			SocketAddress providedAddress) {
-		return ContextHandler.newClientContext(sink,
-				options,
-				loggingHandler,
-				false,
-				providedAddress,
-				(ch, c, msg) -> UdpOperations.bind(ch, handler, c));
+		ContextHandler<DatagramChannel> contextHandler =
+				ContextHandler.newClientContext(sink,
+						options,
+						loggingHandler,
+						false,
+						providedAddress,
+						(ch, c, msg) -> UdpOperations.bind(ch, handler, c));
+		if (options.batchSize() > 0) {
+			int batchSize = options.batchSize();
+			contextHandler.onPipeline((pipeline, c) -> pipeline.addLast(NettyPipeline.DatagramBatchHandler,
+					new DatagramBatchHandler(batchSize)));
+		}
+		return contextHandler;
 	}
 
 
 	static final LoggingHandler loggingHandler = new LoggingHandler(UdpServer.class);
 
+	static final Logger log = Loggers.getLogger(UdpServer.class);
+
 	public static final class Builder {
 		private Consumer<? super UdpServerOptions.Builder> options;
 
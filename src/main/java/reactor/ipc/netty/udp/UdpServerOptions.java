@@ -15,13 +15,23 @@
  */
 package reactor.ipc.netty.udp;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
 import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollDatagramChannel;
+import io.netty.util.concurrent.EventExecutor;
 import reactor.ipc.netty.options.ClientOptions;
 
 /**
  * @author Violeta Georgieva
  */
-final class UdpServerOptions extends ClientOptions {
+public final class UdpServerOptions extends ClientOptions {
 
 	/**
 	 * Creates a builder for {@link UdpServerOptions UdpServerOptions}
@@ -38,8 +48,71 @@ final class UdpServerOptions extends ClientOptions {
 		return true;
 	}
 
+	final int batchSize;
+	final int maxDatagramSize;
+	final int sockets;
+
 	UdpServerOptions(UdpServerOptions.Builder builder) {
 		super(builder);
+		this.batchSize = builder.batchSize;
+		this.maxDatagramSize = builder.maxDatagramSize;
+		this.sockets = builder.sockets;
+	}
+
+	/**
+	 * Return the maximum number of datagrams emitted in a batch by
+	 * {@link UdpInbound#receiveBatches()}, 0 if batching is disabled.
+	 *
+	 * @return the maximum number of datagrams per batch, 0 if disabled
+	 */
+	public int batchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Return the size of the buffer allocated for each received datagram.
+	 *
+	 * @return the size of the buffer allocated for each received datagram
+	 */
+	public int maxDatagramSize() {
+		return maxDatagramSize;
+	}
+
+	/**
+	 * Return the number of sockets requested for the server address.
+	 *
+	 * @return the number of sockets requested for the server address
+	 */
+	public int sockets() {
+		return sockets;
+	}
+
+	/**
+	 * Return a new {@link Bootstrap} for each socket to bind. When more than one
+	 * {@link #sockets() socket} is requested and the loops are epoll loops, each
+	 * bootstrap binds with {@code SO_REUSEPORT} on a distinct event loop, at most one per
+	 * event loop. Otherwise a single bootstrap equivalent to {@link #get()} is returned.
+	 *
+	 * @return a new {@link Bootstrap} for each socket to bind
+	 */
+	public List<Bootstrap> getSockets() {
+		Bootstrap b = get();
+		if (sockets <= 1) {
+			return Collections.singletonList(b);
+		}
+		EventLoopGroup elg = b.config()
+		                      .group();
+		if (!EpollDatagramChannel.class.isAssignableFrom(getLoopResources().onDatagramChannel(elg))) {
+			return Collections.singletonList(b);
+		}
+
+		List<Bootstrap> bootstraps = new ArrayList<>(sockets);
+		Iterator<EventExecutor> it = elg.iterator();
+		while (bootstraps.size() < sockets && it.hasNext()) {
+			bootstraps.add(b.clone((EventLoop) it.next())
+			                .option(EpollChannelOption.SO_REUSEPORT, true));
+		}
+		return bootstraps;
 	}
 
 	@Override
@@ -47,6 +120,12 @@ final class UdpServerOptions extends ClientOptions {
 		return builder().from(this).build();
 	}
 
+	@Override
+	public String asDetailedString() {
+		return super.asDetailedString() + ", batchSize=" + batchSize +
+				", maxDatagramSize=" + maxDatagramSize + ", sockets=" + sockets;
+	}
+
 	@Override
 	public String toString() {
 		return "UdpServerOptions{" + asDetailedString() + "}";
@@ -54,12 +133,79 @@ final class UdpServerOptions extends ClientOptions {
 
 	public static final class Builder extends ClientOptions.Builder<Builder> {
 
+		private int batchSize;
+		private int maxDatagramSize = DatagramOptions.DEFAULT_MAX_DATAGRAM_SIZE;
+		private int sockets = 1;
+
 		private Builder() {
 			super(new Bootstrap());
 		}
 
+		/**
+		 * Read up to the given number of datagrams per channel read loop and emit them
+		 * together on {@link UdpInbound#receiveBatches()}, default to 0 (disabled).
+		 * {@link UdpInbound#receive()} and {@link UdpInbound#receiveObject()} keep
+		 * emitting the individual datagrams.
+		 *
+		 * @param batchSize the maximum number of datagrams per batch, 0 to disable
+		 * @return {@code this}
+		 */
+		public final Builder batchSize(int batchSize) {
+			this.batchSize = DatagramOptions.checkBatchSize(batchSize);
+			return this;
+		}
+
+		/**
+		 * The size of the buffer allocated for each received datagram, larger datagrams
+		 * are truncated. Default to 2048.
+		 *
+		 * @param maxDatagramSize the size of the buffer allocated for each datagram
+		 * @return {@code this}
+		 */
+		public final Builder maxDatagramSize(int maxDatagramSize) {
+			this.maxDatagramSize = DatagramOptions.checkMaxDatagramSize(maxDatagramSize);
+			return this;
+		}
+
+		/**
+		 * The number of sockets to bind on the server address, default to 1.
+		 * <p>
+		 * With more than one socket and epoll available, each socket is bound with
+		 * {@code SO_REUSEPORT} on its own event loop, letting the kernel spread incoming
+		 * datagrams across loops by source address. The handler is invoked once per
+		 * socket and the bound sockets are exposed as a single
+		 * {@link reactor.ipc.netty.NettyContext}. At most one socket is bound per event
+		 * loop. Without epoll, a single socket is bound.
+		 *
+		 * @param sockets the number of sockets, strictly positive
+		 * @return {@code this}
+		 */
+		public final Builder sockets(int sockets) {
+			if (sockets < 1) {
+				throw new IllegalArgumentException("sockets must be strictly positive, " +
+						"was: " + sockets);
+			}
+			this.sockets = sockets;
+			return this;
+		}
+
+		/**
+		 * Fill the builder with attribute values from the provided options.
+		 *
+		 * @param options The instance from which to copy values
+		 * @return {@code this}
+		 */
+		public final Builder from(UdpServerOptions options) {
+			super.from(options);
+			this.batchSize = options.batchSize;
+			this.maxDatagramSize = options.maxDatagramSize;
+			this.sockets = options.sockets;
+			return this;
+		}
+
 		@Override
 		public UdpServerOptions build() {
+			DatagramOptions.configure(this, batchSize, maxDatagramSize);
 			super.build();
 			return new UdpServerOptions(this);
 		}
@@ -17,11 +17,14 @@ package reactor.ipc.netty;
 
 import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.nio.ReadOnlyBufferException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
@@ -38,6 +41,8 @@ import reactor.ipc.netty.http.client.HttpClientOptions;
 import reactor.ipc.netty.http.server.HttpServer;
 import reactor.ipc.netty.http.server.HttpServerOptions;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -91,6 +96,51 @@ public class ByteBufFluxTest {
 
     }
 
+    @Test
+    public void testFromPathMapped() throws Exception {
+        final Path tmpFile = new File(temporaryDirectory, "mapped.in").toPath();
+        final byte[] data = new byte[]{0x0, 0x1, 0x2, 0x3, 0x4, 0x5, 0x6, 0x7, 0x8, 0x9};
+        Files.write(tmpFile, data);
+
+        // Chunks of 3 bytes max never span a mapped window of 4 bytes
+        final List<ByteBuf> chunks = ByteBufFlux.fromPathMapped(tmpFile, 3, 4)
+                                                .collectList()
+                                                .block(Duration.ofSeconds(30));
+        assertThat(chunks).extracting(ByteBuf::readableBytes)
+                          .containsExactly(3, 1, 3, 1, 2);
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final List<MappedFileSource.MappedWindow> windows = new ArrayList<>();
+        for (ByteBuf bb : chunks) {
+            assertThat(bb.isDirect()).isTrue();
+            assertThat(bb.isReadOnly()).isTrue();
+            byte[] read = new byte[bb.readableBytes()];
+            bb.readBytes(read);
+            out.write(read);
+            windows.add(((MappedFileSource.MappedChunk) bb.unwrap()).window);
+        }
+        Assert.assertArrayEquals(data, out.toByteArray());
+
+        assertThatExceptionOfType(ReadOnlyBufferException.class)
+                .isThrownBy(() -> chunks.get(0).setByte(0, 1));
+
+        // Windows are unmapped once all their chunks and derived buffers are released
+        final ByteBuf derived = chunks.get(0).retainedSlice(0, 1);
+        assertThat(derived.isReadOnly()).isTrue();
+        assertThat(windows.get(0).refCnt()).isEqualTo(2);
+        chunks.get(0).release();
+        assertThat(windows.get(0).refCnt()).isEqualTo(2);
+        assertThat(derived.getByte(0)).isEqualTo((byte) 0x0);
+        derived.release();
+        assertThat(windows.get(0).refCnt()).isEqualTo(1);
+        chunks.get(1).release();
+        assertThat(windows.get(0).refCnt()).isEqualTo(0);
+        chunks.subList(2, chunks.size())
+              .forEach(ByteBuf::release);
+        assertThat(windows).extracting(MappedFileSource.MappedWindow::refCnt)
+                           .containsOnly(0);
+    }
+
     private static File createTemporaryDirectory() {
         try {
             final File tempDir = File.createTempFile("ByteBufFluxTest", "", null);
@@ -125,7 +175,21 @@ public class ByteBufFluxTest {
         doTestByteBufFluxFromPath(true);
     }
 
+    @Test
+    public void testByteBufFluxFromPathMappedWithoutSecurity() throws Exception {
+        doTestByteBufFluxFromPath(false, true);
+    }
+
+    @Test
+    public void testByteBufFluxFromPathMappedWithSecurity() throws Exception {
+        doTestByteBufFluxFromPath(true, true);
+    }
+
     private void doTestByteBufFluxFromPath(boolean withSecurity) throws Exception {
+        doTestByteBufFluxFromPath(withSecurity, false);
+    }
+
+    private void doTestByteBufFluxFromPath(boolean withSecurity, boolean mapped) throws Exception {
         Consumer<HttpServerOptions.Builder> serverOptions;
         Consumer<HttpClientOptions.Builder> clientOptions;
         final int serverPort = SocketUtils.findAvailableTcpPort();
@@ -144,7 +208,8 @@ public class ByteBufFluxTest {
         Path path = Paths.get(getClass().getResource("/largeFile.txt").toURI());
         HttpServer.create(serverOptions)
                   .newHandler((req, res) ->
-                              res.send(ByteBufFlux.fromPath(path))
+                              res.send(mapped ? ByteBufFlux.fromPathMapped(path, 128, 512) :
+                                               ByteBufFlux.fromPath(path))
                                  .then())
                   .block(Duration.ofSeconds(30));
 
@@ -27,12 +27,15 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
+import io.netty.buffer.Unpooled;
 import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.ReferenceCountUtil;
 import org.junit.Ignore;
 import org.junit.Test;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
+import reactor.ipc.netty.FlushStrategy;
 import reactor.ipc.netty.FutureMono;
 import reactor.ipc.netty.NettyContext;
 import reactor.ipc.netty.SocketUtils;
@@ -111,6 +114,93 @@ public class ChannelOperationsHandlerTest {
 		assertThat(handler.prefetch == (handler.inner.requested - handler.inner.produced)).isTrue();
 	}
 
+	@Test
+	public void flushOnMaxMessages() {
+		ChannelOperationsHandler handler = new ChannelOperationsHandler(null);
+		EmbeddedChannel channel = new EmbeddedChannel(handler);
+		handler.flushOn(FlushStrategy.builder()
+		                             .maxMessages(4)
+		                             .build());
+
+		channel.writeAndFlush(Flux.range(0, 10)
+		                          .concatWith(Flux.never()));
+
+		assertThat(drainOutbound(channel)).isEqualTo(8);
+		assertThat(handler.writeCount()).isEqualTo(10);
+		assertThat(handler.flushCount()).isEqualTo(2);
+		assertThat(handler.flushesPerWrite()).isEqualTo(0.2d);
+		channel.finishAndReleaseAll();
+	}
+
+	@Test
+	public void flushOnMaxBytes() {
+		ChannelOperationsHandler handler = new ChannelOperationsHandler(null);
+		EmbeddedChannel channel = new EmbeddedChannel(handler);
+		handler.flushOn(FlushStrategy.builder()
+		                             .maxBytes(25)
+		                             .build());
+
+		channel.writeAndFlush(Flux.range(0, 7)
+		                          .map(i -> Unpooled.wrappedBuffer(new byte[10]))
+		                          .concatWith(Flux.never()));
+
+		assertThat(drainOutbound(channel)).isEqualTo(6);
+		assertThat(handler.flushCount()).isEqualTo(2);
+		channel.finishAndReleaseAll();
+	}
+
+	@Test
+	public void flushOnMaxDelay() throws Exception {
+		ChannelOperationsHandler handler = new ChannelOperationsHandler(null);
+		EmbeddedChannel channel = new EmbeddedChannel(handler);
+		handler.flushOn(FlushStrategy.builder()
+		                             .maxMessages(100)
+		                             .maxDelay(Duration.ofMillis(10))
+		                             .build());
+
+		channel.writeAndFlush(Flux.range(0, 3)
+		                          .concatWith(Flux.never()));
+		assertThat(drainOutbound(channel)).isEqualTo(0);
+
+		Thread.sleep(50);
+		channel.runPendingTasks();
+
+		assertThat(drainOutbound(channel)).isEqualTo(3);
+		assertThat(handler.flushCount()).isEqualTo(1);
+		channel.finishAndReleaseAll();
+	}
+
+	@Test
+	public void flushOnPublisherCompletion() {
+		ChannelOperationsHandler handler = new ChannelOperationsHandler(null);
+		EmbeddedChannel channel = new EmbeddedChannel(handler);
+		handler.flushOn(FlushStrategy.builder()
+		                             .maxMessages(4)
+		                             .build());
+
+		channel.writeAndFlush(Flux.range(0, 10));
+
+		assertThat(drainOutbound(channel)).isEqualTo(10);
+		assertThat(handler.flushCount()).isEqualTo(3);
+		channel.finishAndReleaseAll();
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void flushStrategyRequiresAThreshold() {
+		FlushStrategy.builder()
+		             .build();
+	}
+
+	static int drainOutbound(EmbeddedChannel channel) {
+		int count = 0;
+		Object msg;
+		while ((msg = channel.readOutbound()) != null) {
+			ReferenceCountUtil.release(msg);
+			count++;
+		}
+		return count;
+	}
+
 	@Test
 	public void testChannelInactiveThrowsIOException() throws Exception {
 		ExecutorService threadPool = Executors.newCachedThreadPool();
@@ -17,16 +17,24 @@ package reactor.ipc.netty.channel;
 
 import java.time.Duration;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.Test;
 
+import io.netty.channel.FixedRecvByteBufAllocator;
 import io.netty.util.ResourceLeakDetector;
 import io.netty.util.ResourceLeakDetector.Level;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.core.scheduler.Schedulers;
 import reactor.ipc.netty.NettyContext;
 import reactor.ipc.netty.http.client.HttpClient;
 import reactor.ipc.netty.http.server.HttpServer;
+import reactor.ipc.netty.tcp.TcpClient;
+import reactor.ipc.netty.tcp.TcpServer;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 public class FluxReceiveTest {
 
@@ -71,4 +79,56 @@ public class FluxReceiveTest {
 
 		ResourceLeakDetector.setLevel(Level.SIMPLE);
 	}
+
+	@Test
+	public void receiveBufferIsBoundedBySlowSubscriber() {
+		int chunks = 256;
+		byte[] chunk = new byte[16 * 1024];
+		AtomicLong maxPendingBytes = new AtomicLong();
+		MonoProcessor<Long> received = MonoProcessor.create();
+
+		NettyContext server =
+				TcpServer.create(o -> o.port(0)
+				                       .receiveWaterMarkBytes(16 * 1024, 64 * 1024))
+				         .newHandler((in, out) -> {
+				             //read eagerly as multiplexed streams do, leaving the receive
+				             //buffer as the only bound, one fixed size read per loop so that
+				             //suspension is observed after each read
+				             in.context()
+				               .channel()
+				               .config()
+				               .setRecvByteBufAllocator(new FixedRecvByteBufAllocator(16 * 1024).maxMessagesPerRead(1))
+				               .setAutoRead(true);
+				             in.receive()
+				               .map(b -> (long) b.readableBytes())
+				               .publishOn(Schedulers.single(), 1)
+				               .doOnNext(n -> {
+				                   maxPendingBytes.accumulateAndGet(in.receivePendingBytes(), Math::max);
+				                   try {
+				                       Thread.sleep(1);
+				                   }
+				                   catch (InterruptedException e) {
+				                       Thread.currentThread().interrupt();
+				                   }
+				               })
+				               .reduce(0L, Long::sum)
+				               .subscribe(received);
+				             return out.neverComplete();
+				         })
+				         .block(Duration.ofSeconds(30));
+
+		NettyContext client =
+				TcpClient.create(server.address()
+				                       .getPort())
+				         .newHandler((in, out) -> out.sendByteArray(Flux.range(0, chunks)
+				                                                        .map(i -> chunk)))
+				         .block(Duration.ofSeconds(30));
+
+		assertThat(received.block(Duration.ofSeconds(30))).isEqualTo((long) chunks * chunk.length);
+		//one read in flight may overshoot the high water mark
+		assertThat(maxPendingBytes.get()).isLessThanOrEqualTo(128 * 1024);
+
+		client.dispose();
+		server.dispose();
+	}
 }
@@ -20,6 +20,7 @@ import java.net.InetSocketAddress;
 import java.time.Duration;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
 
 import io.netty.handler.codec.http.HttpHeaders;
 import org.junit.Assert;
@@ -313,6 +314,42 @@ public class HttpCompressionClientServerTests {
 				.block();
 	}
 
+	@Test
+	public void serverCompressionNegotiatesPreferredEncoding() throws Exception {
+		HttpServer server = HttpServer.create(o -> o.port(0)
+		                                            .compression(true)
+		                                            .compressionEncodings("deflate", "gzip")
+		                                            .compressionLevel("deflate", "text/*", 1));
+
+		NettyContext nettyContext =
+				server.newHandler((in, out) -> out.header("content-type", "text/plain")
+				                                  .sendString(Mono.just("reply")))
+				      .block(Duration.ofMillis(10_000));
+
+		HttpClient client = HttpClient.create(o -> o.connectAddress(() -> address(nettyContext)));
+		HttpClientResponse resp =
+				client.get("/test", req -> req.header("accept-encoding", "gzip, deflate, br"))
+				      .block();
+
+		assertThat(resp.responseHeaders().get("content-encoding")).isEqualTo("deflate");
+
+		byte[] replyBuffer = resp.receive()
+		                         .aggregate()
+		                         .asByteArray()
+		                         .block();
+
+		InflaterInputStream iis = new InflaterInputStream(new ByteArrayInputStream(replyBuffer));
+		byte inflatedBuf[] = new byte[1024];
+		int readable = iis.read(inflatedBuf);
+		iis.close();
+
+		assertThat(new String(inflatedBuf, 0, readable)).isEqualTo("reply");
+
+		nettyContext.dispose();
+		nettyContext.onClose()
+		            .block();
+	}
+
 	private InetSocketAddress address(NettyContext nettyContext) {
 		return nettyContext.address();
 	}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.ipc.netty.http;
+
+import java.util.Date;
+
+import io.netty.handler.codec.DateFormatter;
+import io.netty.util.AsciiString;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PreEncodedHeadersTest {
+
+	@Test
+	public void dateIsCachedWithinTheSameSecond() {
+		long now = 1_500_000_000_000L;
+		AsciiString date = PreEncodedHeaders.date(now);
+
+		assertThat(date.toString()).isEqualTo(DateFormatter.format(new Date(now)));
+		assertThat((Object) PreEncodedHeaders.date(now + 999)).isSameAs(date);
+
+		AsciiString next = PreEncodedHeaders.date(now + 1000);
+		assertThat((Object) next).isNotSameAs(date);
+		assertThat(next.toString()).isEqualTo(DateFormatter.format(new Date(now + 1000)));
+	}
+
+	@Test
+	public void dateIsCachedPerThread() throws Exception {
+		long now = 1_500_000_000_000L;
+		AsciiString date = PreEncodedHeaders.date(now);
+		AsciiString[] other = new AsciiString[1];
+
+		Thread t = new Thread(() -> other[0] = PreEncodedHeaders.date(now));
+		t.start();
+		t.join();
+
+		assertThat((Object) other[0]).isEqualTo(date)
+		                             .isNotSameAs(date);
+	}
+
+	@Test
+	public void userAgentIsVersioned() {
+		assertThat(PreEncodedHeaders.USER_AGENT.toString()).startsWith("ReactorNetty/");
+	}
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.ipc.netty.http.client;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.pool.ChannelPool;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.http2.DefaultHttp2DataFrame;
+import io.netty.handler.codec.http2.DefaultHttp2Headers;
+import io.netty.handler.codec.http2.DefaultHttp2HeadersFrame;
+import io.netty.handler.codec.http2.Http2HeadersFrame;
+import io.netty.handler.codec.http2.Http2MultiplexCodecBuilder;
+import io.netty.handler.codec.http2.Http2Settings;
+import io.netty.handler.ssl.ApplicationProtocolConfig;
+import io.netty.handler.ssl.ApplicationProtocolNames;
+import io.netty.util.CharsetUtil;
+import io.netty.util.ReferenceCountUtil;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.http.HttpProtocol;
+import reactor.ipc.netty.http.server.HttpServer;
+import reactor.ipc.netty.resources.PoolResources;
+import reactor.ipc.netty.tcp.BlockingNettyContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class Http2ClientTests {
+
+	static BlockingNettyContext h2cServer() {
+		return HttpServer.create(o -> o.port(0)
+		                               .protocols(HttpProtocol.H2C))
+		                 .startRouter(r -> r.get("/hello/{name}",
+				                 (req, res) -> res.sendString(Mono.just("hello " + req.param("name"))))
+		                                    .post("/echo",
+				                                    (req, res) -> res.send(req.receive()
+				                                                              .aggregate()
+				                                                              .retain())));
+	}
+
+	@Test
+	public void h2cRequestsAreMultiplexedOverOneConnection() {
+		BlockingNettyContext server = h2cServer();
+		try {
+			PoolResources pools = PoolResources.fixed("h2c");
+			HttpClient client = HttpClient.create(o -> o.port(server.getPort())
+			                                            .poolResources(pools)
+			                                            .protocols(HttpProtocol.H2C));
+
+			List<String> bodies =
+					Flux.range(0, 50)
+					    .flatMap(i -> client.get("/hello/" + i)
+					                        .flatMap(res -> res.receive()
+					                                           .aggregate()
+					                                           .asString()))
+					    .collectList()
+					    .block(Duration.ofSeconds(30));
+
+			assertThat(bodies).hasSize(50)
+			                  .contains("hello 0", "hello 49");
+			ChannelPool pool = pools.selectOrCreateMultiplexed("h2c",
+					client.options.getAddress(),
+					() -> {
+						throw new AssertionError("no HTTP/2 pool");
+					});
+			assertThat(((Http2ConnectionPool) pool).connections()).isEqualTo(1);
+
+			pools.dispose();
+			assertThat(pools.isDisposed()).isTrue();
+		}
+		finally {
+			server.shutdown();
+		}
+	}
+
+	@Test
+	public void h2cRequestBodyIsSent() {
+		BlockingNettyContext server = h2cServer();
+		try {
+			String body = HttpClient.create(o -> o.port(server.getPort())
+			                                      .protocols(HttpProtocol.H2C))
+			                        .post("/echo",
+					                        req -> req.sendString(Flux.just("hello", " ", "h2c")))
+			                        .flatMap(res -> res.receive()
+			                                           .aggregate()
+			                                           .asString())
+			                        .block(Duration.ofSeconds(30));
+
+			assertThat(body).isEqualTo("hello h2c");
+		}
+		finally {
+			server.shutdown();
+		}
+	}
+
+	@Test
+	public void newConnectionIsOpenedWhenMaxConcurrentStreamsIsReached() throws Exception {
+		EventLoopGroup group = new NioEventLoopGroup(1);
+		AtomicInteger connections = new AtomicInteger();
+		try {
+			Channel server =
+					new ServerBootstrap().group(group)
+					                     .channel(NioServerSocketChannel.class)
+					                     .childHandler(new ChannelInitializer<Channel>() {
+						                     @Override
+						                     protected void initChannel(Channel ch) {
+							                     connections.incrementAndGet();
+							                     ch.pipeline()
+							                       .addLast(Http2MultiplexCodecBuilder.forServer(new DelayedResponder())
+							                                                          .initialSettings(Http2Settings.defaultSettings()
+							                                                                                        .maxConcurrentStreams(2))
+							                                                          .build());
+						                     }
+					                     })
+					                     .bind(0)
+					                     .sync()
+					                     .channel();
+			try {
+				int port = ((java.net.InetSocketAddress) server.localAddress()).getPort();
+				HttpClient client = HttpClient.create(o -> o.port(port)
+				                                            .protocols(HttpProtocol.H2C));
+
+				List<String> bodies =
+						Flux.range(0, 6)
+						    .flatMap(i -> client.get("/")
+						                        .flatMap(res -> res.receive()
+						                                           .aggregate()
+						                                           .asString()))
+						    .collectList()
+						    .block(Duration.ofSeconds(30));
+
+				assertThat(bodies).hasSize(6)
+				                  .containsOnly("delayed");
+				assertThat(connections.get()).isEqualTo(3);
+			}
+			finally {
+				server.close()
+				      .sync();
+			}
+		}
+		finally {
+			group.shutdownGracefully()
+			     .sync();
+		}
+	}
+
+	@Test
+	public void h2IsNegotiatedWithAlpn() {
+		ApplicationProtocolConfig alpn =
+				new ApplicationProtocolConfig(ApplicationProtocolConfig.Protocol.ALPN,
+						ApplicationProtocolConfig.SelectorFailureBehavior.NO_ADVERTISE,
+						ApplicationProtocolConfig.SelectedListenerFailureBehavior.ACCEPT,
+						ApplicationProtocolNames.HTTP_2,
+						ApplicationProtocolNames.HTTP_1_1);
+		BlockingNettyContext server =
+				HttpServer.create(o -> o.port(0)
+				                        .sslSelfSigned(ssl -> ssl.applicationProtocolConfig(alpn))
+				                        .protocols(HttpProtocol.HTTP11, HttpProtocol.H2))
+				          .startRouter(r -> r.get("/hello",
+						          (req, res) -> res.sendString(Mono.just("hello " + req.requestHeaders()
+						                                                                .contains("x-http2-stream-id")))));
+		try {
+			HttpClient client =
+					HttpClient.create(o -> o.port(server.getPort())
+					                        .sslSupport(ssl -> ssl.trustManager(io.netty.handler.ssl.util.InsecureTrustManagerFactory.INSTANCE))
+					                        .protocols(HttpProtocol.HTTP11, HttpProtocol.H2));
+
+			String body = client.get("https://localhost:" + server.getPort() + "/hello")
+			                    .flatMap(res -> res.receive()
+			                                       .aggregate()
+			                                       .asString())
+			                    .block(Duration.ofSeconds(30));
+
+			assertThat(body).isEqualTo("hello true");
+		}
+		finally {
+			server.shutdown();
+		}
+	}
+
+	@Test
+	public void protocolsAreExposedByOptions() {
+		HttpClientOptions options = HttpClientOptions.builder()
+		                                             .protocols(HttpProtocol.H2C)
+		                                             .build();
+
+		assertThat(options.protocols()).containsExactly(HttpProtocol.H2C);
+		assertThat(options.isProtocolEnabled(HttpProtocol.HTTP11)).isFalse();
+		assertThat(options.asSimpleString()).endsWith(", protocols=[H2C]");
+	}
+
+	/**
+	 * Answer each stream after a delay so that streams stay open concurrently.
+	 */
+	@ChannelHandler.Sharable
+	static final class DelayedResponder extends ChannelInboundHandlerAdapter {
+
+		@Override
+		public void channelRead(ChannelHandlerContext ctx, Object msg) {
+			if (msg instanceof Http2HeadersFrame && ((Http2HeadersFrame) msg).isEndStream()) {
+				ctx.executor()
+				   .schedule(() -> {
+					   ctx.write(new DefaultHttp2HeadersFrame(new DefaultHttp2Headers().status("200")));
+					   ctx.writeAndFlush(new DefaultHttp2DataFrame(Unpooled.copiedBuffer("delayed",
+							   CharsetUtil.UTF_8), true));
+				   }, 200, TimeUnit.MILLISECONDS);
+			}
+			ReferenceCountUtil.release(msg);
+		}
+	}
+}
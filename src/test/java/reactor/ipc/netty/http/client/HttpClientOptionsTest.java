@@ -21,6 +21,7 @@ import org.junit.Test;
 import reactor.ipc.netty.options.ClientProxyOptions;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
 import java.util.function.Function;
 
@@ -81,6 +82,18 @@ public class HttpClientOptionsTest {
 				.endsWith(", acceptGzip=true");
 	}
 
+	@Test
+	public void websocketMaxFramePayloadLength() {
+		assertThat(this.builder.build().websocketMaxFramePayloadLength()).isEqualTo(65536);
+		assertThat(this.builder.websocketMaxFramePayloadLength(1024)
+		                       .build()
+		                       .websocketMaxFramePayloadLength()).isEqualTo(1024);
+		assertThat(this.builder.build().asDetailedString()).contains(", websocketMaxFramePayloadLength=1024");
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> this.builder.websocketMaxFramePayloadLength(0))
+				.withMessage("maxFramePayloadLength must be strictly positive");
+	}
+
 	@Test
 	public void toStringContainsAsDetailedString() {
 		this.builder.host("http://google.com")
@@ -24,8 +24,10 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.cert.CertificateException;
 import java.time.Duration;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicReference;
@@ -823,6 +825,67 @@ public class HttpClientTest {
 		context.dispose();
 	}
 
+	@Test
+	public void observerReportsConnectionOnlyOnFirstExchange() {
+		NettyContext context =
+				HttpServer.create(0)
+				          .newHandler((req, res) -> res.sendString(Mono.just("hello")))
+				          .block(Duration.ofSeconds(30));
+		PoolResources pool = PoolResources.fixed("observer", 1);
+
+		List<long[]> timings = new CopyOnWriteArrayList<>();
+		List<HttpResponseStatus> statuses = new CopyOnWriteArrayList<>();
+		HttpClient client = HttpClient.create(opt -> applyHostAndPortFromContext(opt, context)
+				.poolResources(pool)
+				.observer((res, t) -> {
+					statuses.add(res.status());
+					timings.add(new long[]{t.acquireStartTime(), t.resolveStartTime(),
+							t.connectStartTime(), t.connectEndTime(),
+							t.tlsHandshakeEndTime(), t.connectionAcquiredTime(),
+							t.requestStartTime(), t.requestEndTime(),
+							t.responseStartTime(), t.responseCompleteTime()});
+				}));
+
+		try {
+			for (int i = 0; i < 2; i++) {
+				String body = client.get("/")
+				                    .flatMap(res -> res.receive()
+				                                       .aggregate()
+				                                       .asString())
+				                    .block(Duration.ofSeconds(30));
+				assertThat(body).isEqualTo("hello");
+			}
+
+			assertThat(statuses).containsExactly(HttpResponseStatus.OK, HttpResponseStatus.OK);
+			//acquire, resolve, connect start and end, tls, acquired, request, response
+			long[] first = timings.get(0);
+			assertThat(first[1]).isGreaterThanOrEqualTo(first[0]);
+			assertThat(first[2]).isGreaterThanOrEqualTo(first[1]);
+			assertThat(first[3]).isGreaterThanOrEqualTo(first[2]);
+			assertThat(first[4]).isZero();
+			assertThat(first[5]).isGreaterThanOrEqualTo(first[3]);
+			assertTimingsInOrder(first);
+
+			long[] second = timings.get(1);
+			assertThat(second[1]).isZero();
+			assertThat(second[2]).isZero();
+			assertThat(second[3]).isZero();
+			assertThat(second[4]).isZero();
+			assertThat(second[5]).isGreaterThanOrEqualTo(second[0]);
+			assertTimingsInOrder(second);
+		}
+		finally {
+			pool.dispose();
+			context.dispose();
+		}
+	}
+
+	private void assertTimingsInOrder(long[] timings) {
+		for (int i = 6; i < timings.length; i++) {
+			assertThat(timings[i]).isGreaterThanOrEqualTo(timings[i - 1]);
+		}
+	}
+
 	private HttpClient createHttpClientForContext(NettyContext context) {
 		return HttpClient.create(opt -> applyHostAndPortFromContext(opt, context));
 	}
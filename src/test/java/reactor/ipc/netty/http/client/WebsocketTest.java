@@ -17,10 +17,14 @@
 package reactor.ipc.netty.http.client;
 
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
+import io.netty.handler.codec.http.HttpHeaderNames;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Test;
@@ -28,10 +32,12 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.FluxProcessor;
 import reactor.core.publisher.Mono;
 import reactor.core.publisher.ReplayProcessor;
+import reactor.core.scheduler.Schedulers;
 import reactor.ipc.netty.NettyContext;
 import reactor.ipc.netty.http.client.HttpClient;
 import reactor.ipc.netty.http.client.HttpClientResponse;
 import reactor.ipc.netty.http.server.HttpServer;
+import reactor.ipc.netty.http.websocket.WebsocketCompression;
 import reactor.test.StepVerifier;
 
 import static org.hamcrest.CoreMatchers.is;
@@ -372,4 +378,220 @@ public class WebsocketTest {
 		Assert.assertThat(clientSelectedProtocolWhenSimplyUpgrading.get(), is("proto1"));
 	}
 
+
+	@Test
+	public void permessageDeflateIsNegotiated() {
+		WebsocketCompression compression = WebsocketCompression.builder()
+		                                                       .build();
+		List<String> received = compressedEcho(compression, compression);
+
+		Assert.assertThat(received, is(Arrays.asList(LARGE_MESSAGE.toUpperCase(), "SMALL")));
+	}
+
+	@Test
+	public void pooledPermessageDeflateIsNegotiated() {
+		WebsocketCompression compression = WebsocketCompression.builder()
+		                                                       .pooled(true)
+		                                                       .build();
+		List<String> received = compressedEcho(compression, compression);
+
+		Assert.assertThat(received, is(Arrays.asList(LARGE_MESSAGE.toUpperCase(), "SMALL")));
+		Assert.assertThat(extensions.get(),
+				is("permessage-deflate; server_no_context_takeover; client_no_context_takeover"));
+	}
+
+	@Test
+	public void pooledPermessageDeflateInteroperates() {
+		List<String> received = compressedEcho(WebsocketCompression.builder()
+		                                                           .pooled(true)
+		                                                           .build(),
+				WebsocketCompression.builder()
+				                    .build());
+
+		Assert.assertThat(received, is(Arrays.asList(LARGE_MESSAGE.toUpperCase(), "SMALL")));
+
+		httpServer.dispose();
+		received = compressedEcho(WebsocketCompression.builder()
+		                                              .build(),
+				WebsocketCompression.builder()
+				                    .pooled(true)
+				                    .build());
+
+		Assert.assertThat(received, is(Arrays.asList(LARGE_MESSAGE.toUpperCase(), "SMALL")));
+		Assert.assertThat(extensions.get(), is("permessage-deflate; server_no_context_takeover"));
+	}
+
+	@Test
+	public void permessageDeflateIsNotNegotiatedWithoutServerSupport() {
+		List<String> received = compressedEcho(null,
+				WebsocketCompression.builder()
+				                    .build());
+
+		Assert.assertThat(received, is(Arrays.asList(LARGE_MESSAGE.toUpperCase(), "SMALL")));
+		Assert.assertNull(extensions.get());
+	}
+
+	@Test
+	public void fragmentedMessagesAreStreamedWithoutAggregation() {
+		int fragments = 32;
+		int fragmentSize = 4096;
+		httpServer = HttpServer.create(o -> o.port(0)
+		                                     .websocketMaxFramePayloadLength(fragmentSize))
+		                       .newHandler((in, out) -> out.sendWebsocket((i, o) -> o.sendString(
+				                       i.receiveMessages()
+				                        .concatMap(message -> message.reduce(0L,
+						                        (total, buf) -> total + buf.readableBytes()))
+				                        .take(2)
+				                        .map(String::valueOf))))
+		                       .block(Duration.ofSeconds(30));
+
+		List<String> received = new CopyOnWriteArrayList<>();
+		HttpClient.create(httpServer.address()
+		                            .getPort())
+		          .ws("/test")
+		          .flatMap(in -> in.receiveWebsocket((i, o) -> Mono.when(
+				          o.sendFragmented(Flux.range(0, fragments)
+				                               .map(n -> o.alloc()
+				                                          .buffer(fragmentSize)
+				                                          .writeZero(fragmentSize)))
+				           .then(o.sendFragmented(Flux.just(o.alloc()
+				                                             .buffer()
+				                                             .writeZero(10)))),
+				          i.receive()
+				           .asString()
+				           .take(2)
+				           .doOnNext(received::add))))
+		          .block(Duration.ofSeconds(30));
+
+		Assert.assertThat(received, is(Arrays.asList(String.valueOf(fragments * fragmentSize), "10")));
+	}
+
+	@Test
+	public void fragmentedMessagesCanBeReadAsynchronously() {
+		int fragments = 64;
+		int fragmentSize = 1024;
+		httpServer = HttpServer.create(o -> o.port(0)
+		                                     .websocketMaxFramePayloadLength(fragmentSize))
+		                       .newHandler((in, out) -> out.sendWebsocket((i, o) -> o.sendString(
+				                       i.receiveMessages()
+				                        .concatMap(message -> message.retain()
+				                                                     .publishOn(Schedulers.elastic(), 2)
+				                                                     .map(buf -> {
+					                                                     try {
+						                                                     byte[] bytes = new byte[buf.readableBytes()];
+						                                                     if (bytes.length == 0) {
+							                                                     return Integer.MIN_VALUE;
+						                                                     }
+						                                                     buf.readBytes(bytes);
+						                                                     for (byte b : bytes) {
+							                                                     if (b != bytes[0]) {
+								                                                     return -1;
+							                                                     }
+						                                                     }
+						                                                     return (int) bytes[0];
+					                                                     }
+					                                                     finally {
+						                                                     buf.release();
+					                                                     }
+				                                                     })
+				                                                     .filter(n -> n != Integer.MIN_VALUE)
+				                                                     .collectList())
+				                        .take(1)
+				                        .map(String::valueOf))))
+		                       .block(Duration.ofSeconds(30));
+
+		List<String> received = new CopyOnWriteArrayList<>();
+		HttpClient.create(httpServer.address()
+		                            .getPort())
+		          .ws("/test")
+		          .flatMap(in -> in.receiveWebsocket((i, o) -> Mono.when(
+				          o.sendFragmented(Flux.range(0, fragments)
+				                               .map(n -> o.alloc()
+				                                          .buffer(fragmentSize)
+				                                          .writeBytes(filled(fragmentSize, n)))),
+				          i.receive()
+				           .asString()
+				           .take(1)
+				           .doOnNext(received::add))))
+		          .block(Duration.ofSeconds(30));
+
+		StringBuilder expected = new StringBuilder("[");
+		for (int n = 0; n < fragments; n++) {
+			expected.append(n == 0 ? "" : ", ").append(n);
+		}
+		Assert.assertThat(received, is(Arrays.asList(expected.append(']').toString())));
+	}
+
+	static byte[] filled(int size, int value) {
+		byte[] bytes = new byte[size];
+		Arrays.fill(bytes, (byte) value);
+		return bytes;
+	}
+
+	@Test
+	public void framesLargerThanMaxFramePayloadLengthAreRejected() {
+		httpServer = HttpServer.create(o -> o.port(0)
+		                                     .websocketMaxFramePayloadLength(1024))
+		                       .newHandler((in, out) -> out.sendWebsocket((i, o) -> o.sendString(
+				                       i.receive()
+				                        .asString())))
+		                       .block(Duration.ofSeconds(30));
+
+		List<String> received = new CopyOnWriteArrayList<>();
+		HttpClient.create(httpServer.address()
+		                            .getPort())
+		          .ws("/test")
+		          .flatMap(in -> in.receiveWebsocket((i, o) -> Mono.when(
+				          o.sendString(Mono.just(LARGE_MESSAGE)),
+				          i.receive()
+				           .asString()
+				           .doOnNext(received::add))))
+		          .onErrorResume(e -> Mono.empty())
+		          .block(Duration.ofSeconds(30));
+
+		Assert.assertTrue(received.isEmpty());
+	}
+
+	static final String LARGE_MESSAGE;
+
+	static {
+		StringBuilder message = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			message.append("reactor-netty ").append(i % 10).append(' ');
+		}
+		LARGE_MESSAGE = message.toString();
+	}
+
+	final AtomicReference<String> extensions = new AtomicReference<>();
+
+	List<String> compressedEcho(WebsocketCompression serverCompression,
+			WebsocketCompression clientCompression) {
+		httpServer = HttpServer.create(o -> o.port(0)
+		                                     .websocketCompression(serverCompression))
+		                       .newHandler((in, out) -> out.sendWebsocket((i, o) -> o.sendString(
+				                       i.receive()
+				                        .asString()
+				                        .take(2)
+				                        .map(String::toUpperCase))))
+		                       .block(Duration.ofSeconds(30));
+
+		List<String> received = new CopyOnWriteArrayList<>();
+		HttpClient.create(o -> o.port(httpServer.address()
+		                                        .getPort())
+		                        .websocketCompression(clientCompression))
+		          .ws("/test")
+		          .flatMap(in -> {
+			          extensions.set(in.responseHeaders()
+			                           .get(HttpHeaderNames.SEC_WEBSOCKET_EXTENSIONS));
+			          return in.receiveWebsocket((i, o) -> Mono.when(
+					          o.options(opt -> opt.flushOnEach())
+					           .sendString(Flux.just(LARGE_MESSAGE, "small")),
+					          i.receive()
+					           .asString()
+					           .take(2)
+					           .doOnNext(received::add)));
+		          })
+		          .block(Duration.ofSeconds(30));
+		return received;
+	}
 }
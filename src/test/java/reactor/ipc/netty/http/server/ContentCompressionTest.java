@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.ipc.netty.http.server;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ContentCompressionTest {
+
+	static final List<ContentCompression> GZIP_DEFLATE =
+			Arrays.asList(ContentCompression.GZIP, ContentCompression.DEFLATE);
+
+	@Test
+	public void negotiateSelectsHighestQuality() {
+		assertThat(FilteringHttpContentCompressor.negotiate("deflate, gzip;q=0.5", GZIP_DEFLATE))
+				.isSameAs(ContentCompression.DEFLATE);
+		assertThat(FilteringHttpContentCompressor.negotiate("gzip;q=0, deflate;q=0.1", GZIP_DEFLATE))
+				.isSameAs(ContentCompression.DEFLATE);
+	}
+
+	@Test
+	public void negotiateResolvesTiesWithServerPreference() {
+		assertThat(FilteringHttpContentCompressor.negotiate("deflate, gzip", GZIP_DEFLATE))
+				.isSameAs(ContentCompression.GZIP);
+		assertThat(FilteringHttpContentCompressor.negotiate("gzip, deflate",
+				Arrays.asList(ContentCompression.DEFLATE, ContentCompression.GZIP)))
+				.isSameAs(ContentCompression.DEFLATE);
+		assertThat(FilteringHttpContentCompressor.negotiate("*", GZIP_DEFLATE))
+				.isSameAs(ContentCompression.GZIP);
+		assertThat(FilteringHttpContentCompressor.negotiate("x-gzip", GZIP_DEFLATE))
+				.isSameAs(ContentCompression.GZIP);
+	}
+
+	@Test
+	public void negotiateRejectsUnacceptableCodings() {
+		assertThat(FilteringHttpContentCompressor.negotiate(null, GZIP_DEFLATE)).isNull();
+		assertThat(FilteringHttpContentCompressor.negotiate("identity", GZIP_DEFLATE)).isNull();
+		assertThat(FilteringHttpContentCompressor.negotiate("br, zstd", GZIP_DEFLATE)).isNull();
+		assertThat(FilteringHttpContentCompressor.negotiate("gzip;q=0, *;q=0", GZIP_DEFLATE))
+				.isNull();
+		assertThat(FilteringHttpContentCompressor.negotiate("*, gzip;q=0", GZIP_DEFLATE))
+				.isSameAs(ContentCompression.DEFLATE);
+	}
+
+	@Test
+	public void gzipEncoderRoundTripAndDeflaterIsPooled() throws IOException {
+		byte[] first = compress(ContentCompression.GZIP, "hello ", "gzip");
+		int pooled = DeflateCompression.pooled(6, true);
+		assertThat(pooled).isGreaterThanOrEqualTo(1);
+		assertThat(read(new GZIPInputStream(new ByteArrayInputStream(first))))
+				.isEqualTo("hello gzip");
+
+		EmbeddedChannel channel = new EmbeddedChannel(ContentCompression.GZIP.newEncoder(6));
+		assertThat(DeflateCompression.pooled(6, true)).isEqualTo(pooled - 1);
+		channel.finishAndReleaseAll();
+		assertThat(DeflateCompression.pooled(6, true)).isEqualTo(pooled);
+
+		byte[] second = compress(ContentCompression.GZIP, "hello ", "again");
+		assertThat(read(new GZIPInputStream(new ByteArrayInputStream(second))))
+				.isEqualTo("hello again");
+	}
+
+	@Test
+	public void deflateEncoderRoundTrip() throws IOException {
+		byte[] compressed = compress(ContentCompression.DEFLATE, "hello ", "deflate");
+		assertThat(read(new InflaterInputStream(new ByteArrayInputStream(compressed))))
+				.isEqualTo("hello deflate");
+	}
+
+	@Test
+	public void reflectiveEncoderRoundTrip() throws IOException {
+		ReflectiveCompression compression =
+				new ReflectiveCompression("fake", 1, 4096, 512,
+						ReflectiveCompression.streamConstructor("java.util.zip.GZIPOutputStream"));
+		assertThat(compression.isAvailable()).isTrue();
+
+		byte[] compressed = compress(compression, "hello ", "stream");
+		assertThat(read(new GZIPInputStream(new ByteArrayInputStream(compressed))))
+				.isEqualTo("hello stream");
+	}
+
+	@Test
+	public void reflectiveHandlesAreResolvedOnce() throws IOException {
+		AtomicInteger resolutions = new AtomicInteger();
+		ReflectiveCompression.FactoryResolver resolver =
+				ReflectiveCompression.streamConstructor("java.util.zip.GZIPOutputStream");
+		ReflectiveCompression compression =
+				new ReflectiveCompression("fake", 1, 4096, 512, loader -> {
+					resolutions.incrementAndGet();
+					return resolver.resolve(loader);
+				});
+		assertThat(compression.isAvailable()).isTrue();
+		compress(compression, "first");
+		compress(compression, "second");
+		assertThat(resolutions.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void reflectiveCompressionWithoutLibraryIsUnavailable() {
+		assertThat(new ReflectiveCompression("fake", 1, 9, 1,
+				ReflectiveCompression.streamConstructor("reactor.ipc.netty.DoesNotExist"))
+				.isAvailable()).isFalse();
+		assertThat(ContentCompression.BROTLI.isAvailable()).isFalse();
+		assertThat(ContentCompression.ZSTD.isAvailable()).isFalse();
+	}
+
+	static byte[] compress(ContentCompression compression, String... chunks) {
+		EmbeddedChannel channel = new EmbeddedChannel(compression.newEncoder(compression.defaultLevel()));
+		for (String chunk : chunks) {
+			channel.writeOutbound(Unpooled.copiedBuffer(chunk, StandardCharsets.UTF_8));
+		}
+		channel.finish();
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ByteBuf buf;
+		while ((buf = channel.readOutbound()) != null) {
+			byte[] bytes = new byte[buf.readableBytes()];
+			buf.readBytes(bytes);
+			out.write(bytes, 0, bytes.length);
+			buf.release();
+		}
+		return out.toByteArray();
+	}
+
+	static String read(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[256];
+		int read;
+		while ((read = in.read(buffer)) > 0) {
+			out.write(buffer, 0, read);
+		}
+		in.close();
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
+	}
+}
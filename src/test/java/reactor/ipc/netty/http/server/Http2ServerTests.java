@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.ipc.netty.http.server;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http2.Http2MultiplexCodecBuilder;
+import io.netty.handler.codec.http2.Http2StreamChannelBootstrap;
+import io.netty.handler.codec.http2.Http2StreamFrameToHttpObjectCodec;
+import io.netty.handler.codec.http2.HttpConversionUtil;
+import io.netty.handler.ssl.ApplicationProtocolConfig;
+import io.netty.handler.ssl.ApplicationProtocolNames;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.http.HttpProtocol;
+import reactor.ipc.netty.http.client.HttpClient;
+import reactor.ipc.netty.tcp.BlockingNettyContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class Http2ServerTests {
+
+	static final ApplicationProtocolConfig ALPN =
+			new ApplicationProtocolConfig(ApplicationProtocolConfig.Protocol.ALPN,
+					ApplicationProtocolConfig.SelectorFailureBehavior.NO_ADVERTISE,
+					ApplicationProtocolConfig.SelectedListenerFailureBehavior.ACCEPT,
+					ApplicationProtocolNames.HTTP_2,
+					ApplicationProtocolNames.HTTP_1_1);
+
+	EventLoopGroup clientGroup;
+
+	@Before
+	public void before() {
+		clientGroup = new NioEventLoopGroup(1);
+	}
+
+	@After
+	public void after() throws Exception {
+		clientGroup.shutdownGracefully()
+		           .sync();
+	}
+
+	static void routes(HttpServerRoutes routes) {
+		routes.get("/hello/{name}",
+				(req, res) -> res.sendString(Mono.just("hello " + req.param("name"))))
+		      .post("/echo",
+				      (req, res) -> res.send(req.receive()
+				                                .aggregate()
+				                                .retain()));
+	}
+
+	Channel connect(int port, SslContext sslContext) throws Exception {
+		return new Bootstrap().group(clientGroup)
+		                      .channel(NioSocketChannel.class)
+		                      .handler(new ChannelInitializer<Channel>() {
+			                      @Override
+			                      protected void initChannel(Channel ch) {
+				                      if (sslContext != null) {
+					                      ch.pipeline()
+					                        .addLast(sslContext.newHandler(ch.alloc(), "localhost", port));
+				                      }
+				                      ch.pipeline()
+				                        .addLast(Http2MultiplexCodecBuilder.forClient(new ChannelInitializer<Channel>() {
+					                        @Override
+					                        protected void initChannel(Channel ch) {
+					                        }
+				                        })
+				                                                           .build());
+			                      }
+		                      })
+		                      .connect("localhost", port)
+		                      .sync()
+		                      .channel();
+	}
+
+	static CompletableFuture<FullHttpResponse> request(Channel connection,
+			FullHttpRequest request,
+			String scheme) {
+		CompletableFuture<FullHttpResponse> response = new CompletableFuture<>();
+		request.headers()
+		       .set(HttpHeaderNames.HOST, "localhost")
+		       .set(HttpConversionUtil.ExtensionHeaderNames.SCHEME.text(), scheme);
+		new Http2StreamChannelBootstrap(connection).handler(new ChannelInitializer<Channel>() {
+			@Override
+			protected void initChannel(Channel ch) {
+				ch.pipeline()
+				  .addLast(new Http2StreamFrameToHttpObjectCodec(false))
+				  .addLast(new HttpObjectAggregator(65536))
+				  .addLast(new SimpleChannelInboundHandler<FullHttpResponse>() {
+					  @Override
+					  protected void channelRead0(ChannelHandlerContext ctx, FullHttpResponse msg) {
+						  response.complete(msg.retain());
+					  }
+
+					  @Override
+					  public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+						  response.completeExceptionally(cause);
+					  }
+				  });
+			}
+		})
+		                                           .open()
+		                                           .addListener(f -> {
+			                                           if (f.isSuccess()) {
+				                                           ((Channel) f.getNow()).writeAndFlush(request);
+			                                           }
+			                                           else {
+				                                           response.completeExceptionally(f.cause());
+			                                           }
+		                                           });
+		return response;
+	}
+
+	static String body(CompletableFuture<FullHttpResponse> response) throws Exception {
+		FullHttpResponse res = response.get(10, TimeUnit.SECONDS);
+		try {
+			assertThat(res.status()
+			              .code()).isEqualTo(200);
+			return res.content()
+			          .toString(StandardCharsets.UTF_8);
+		}
+		finally {
+			res.release();
+		}
+	}
+
+	@Test
+	public void h2cPriorKnowledgeAndHttp11AreServedOnSamePort() throws Exception {
+		BlockingNettyContext server =
+				HttpServer.create(o -> o.port(0)
+				                        .protocols(HttpProtocol.HTTP11, HttpProtocol.H2C))
+				          .startRouter(Http2ServerTests::routes);
+		try {
+			Channel connection = connect(server.getPort(), null);
+			try {
+				assertThat(body(request(connection,
+						new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/hello/h2c"),
+						"http"))).isEqualTo("hello h2c");
+			}
+			finally {
+				connection.close();
+			}
+
+			assertThat(HttpClient.create(server.getPort())
+			                     .get("/hello/http11")
+			                     .flatMap(res -> res.receive()
+			                                        .aggregate()
+			                                        .asString())
+			                     .block()).isEqualTo("hello http11");
+		}
+		finally {
+			server.shutdown();
+		}
+	}
+
+	@Test
+	public void h2cStreamsAreMultiplexedOverOneConnection() throws Exception {
+		BlockingNettyContext server =
+				HttpServer.create(o -> o.port(0)
+				                        .protocols(HttpProtocol.H2C))
+				          .startRouter(Http2ServerTests::routes);
+		try {
+			Channel connection = connect(server.getPort(), null);
+			try {
+				List<CompletableFuture<FullHttpResponse>> responses = new ArrayList<>();
+				for (int i = 0; i < 20; i++) {
+					responses.add(request(connection,
+							new DefaultFullHttpRequest(HttpVersion.HTTP_1_1,
+									HttpMethod.POST,
+									"/echo",
+									Unpooled.copiedBuffer("stream " + i, StandardCharsets.UTF_8)),
+							"http"));
+				}
+				for (int i = 0; i < 20; i++) {
+					assertThat(body(responses.get(i))).isEqualTo("stream " + i);
+				}
+			}
+			finally {
+				connection.close();
+			}
+		}
+		finally {
+			server.shutdown();
+		}
+	}
+
+	@Test
+	public void h2IsNegotiatedWithAlpn() throws Exception {
+		BlockingNettyContext server =
+				HttpServer.create(o -> o.port(0)
+				                        .sslSelfSigned(ssl -> ssl.applicationProtocolConfig(ALPN))
+				                        .protocols(HttpProtocol.HTTP11, HttpProtocol.H2))
+				          .startRouter(Http2ServerTests::routes);
+		try {
+			SslContext clientContext =
+					SslContextBuilder.forClient()
+					                 .trustManager(InsecureTrustManagerFactory.INSTANCE)
+					                 .applicationProtocolConfig(ALPN)
+					                 .build();
+			Channel connection = connect(server.getPort(), clientContext);
+			try {
+				assertThat(body(request(connection,
+						new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/hello/h2"),
+						"https"))).isEqualTo("hello h2");
+			}
+			finally {
+				connection.close();
+			}
+		}
+		finally {
+			server.shutdown();
+		}
+	}
+
+	@Test
+	public void protocolsMustBeServableOnTransport() {
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> HttpServer.create(o -> o.protocols(HttpProtocol.H2)));
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> HttpServer.create(o -> o.protocols()));
+	}
+}
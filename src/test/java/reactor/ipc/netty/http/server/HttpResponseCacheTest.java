@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.ipc.netty.http.server;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.NettyContext;
+import reactor.ipc.netty.http.client.HttpClient;
+import reactor.ipc.netty.http.client.HttpClientResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HttpResponseCacheTest {
+
+	AtomicInteger     invocations;
+	HttpResponseCache cache;
+	NettyContext      server;
+
+	@Before
+	public void setUp() {
+		invocations = new AtomicInteger();
+	}
+
+	@After
+	public void tearDown() {
+		if (server != null) {
+			server.dispose();
+		}
+		if (cache != null) {
+			cache.dispose();
+		}
+	}
+
+	void start(Consumer<? super HttpResponseCache.Builder> options) {
+		HttpResponseCache.Builder builder = HttpResponseCache.builder();
+		options.accept(builder);
+		cache = builder.build();
+		server = HttpServer.create(0)
+		                   .newRouter(r -> r.get("/hello/{name}", cache,
+				                   (req, res) -> {
+					                   invocations.incrementAndGet();
+					                   String lang = req.requestHeaders()
+					                                    .get(HttpHeaderNames.ACCEPT_LANGUAGE);
+					                   return res.header(HttpHeaderNames.CONTENT_TYPE, "text/plain")
+					                             .sendString(Flux.just("hello ", req.param("name"),
+							                             lang != null ? " " + lang : ""));
+				                   })
+		                                    .get("/private", cache,
+				                                    (req, res) -> {
+					                                    invocations.incrementAndGet();
+					                                    return res.header(HttpHeaderNames.CACHE_CONTROL, "no-store")
+					                                              .sendString(Mono.just("secret"));
+				                                    }))
+		                   .block(Duration.ofSeconds(30));
+	}
+
+	Response get(String uri, CharSequence name, String value) {
+		return HttpClient.create(server.address()
+		                               .getPort())
+		                 .get(uri, req -> {
+			                 if (name != null) {
+				                 req.header(name, value);
+			                 }
+			                 return req.send();
+		                 })
+		                 .flatMap(res -> res.receive()
+		                                    .aggregate()
+		                                    .asString()
+		                                    .defaultIfEmpty("")
+		                                    .map(body -> new Response(res, body)))
+		                 .block(Duration.ofSeconds(30));
+	}
+
+	Response get(String uri) {
+		return get(uri, null, null);
+	}
+
+	@Test
+	public void secondRequestIsServedFromCache() {
+		start(b -> {});
+
+		Response first = get("/hello/cache");
+		Response second = get("/hello/cache");
+
+		assertThat(first.body).isEqualTo("hello cache");
+		assertThat(second.body).isEqualTo("hello cache");
+		assertThat(second.headers.get(HttpHeaderNames.CONTENT_TYPE)).isEqualTo("text/plain");
+		assertThat(second.headers.get(HttpHeaderNames.CONTENT_LENGTH)).isEqualTo("11");
+		assertThat(second.headers.get(HttpHeaderNames.ETAG)).isNotNull();
+		assertThat(invocations.get()).isEqualTo(1);
+		assertThat(cache.hits()).isEqualTo(1);
+		assertThat(cache.misses()).isEqualTo(1);
+		assertThat(cache.hitRatio()).isEqualTo(0.5d);
+		assertThat(cache.size()).isEqualTo(1);
+		assertThat(cache.bytes()).isEqualTo(11);
+	}
+
+	@Test
+	public void matchingIfNoneMatchIsAnsweredNotModified() {
+		start(b -> {});
+
+		get("/hello/etag");
+		String etag = get("/hello/etag").headers.get(HttpHeaderNames.ETAG);
+		assertThat(etag).isNotNull();
+
+		Response revalidated = get("/hello/etag", HttpHeaderNames.IF_NONE_MATCH, etag);
+		assertThat(revalidated.status).isEqualTo(304);
+		assertThat(revalidated.body).isEmpty();
+
+		Response changed = get("/hello/etag", HttpHeaderNames.IF_NONE_MATCH, "\"other\"");
+		assertThat(changed.status).isEqualTo(200);
+		assertThat(changed.body).isEqualTo("hello etag");
+		assertThat(invocations.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void varyHeadersArePartOfTheKey() {
+		start(b -> b.vary(HttpHeaderNames.ACCEPT_LANGUAGE));
+
+		assertThat(get("/hello/vary", HttpHeaderNames.ACCEPT_LANGUAGE, "en").body)
+				.isEqualTo("hello vary en");
+		assertThat(get("/hello/vary", HttpHeaderNames.ACCEPT_LANGUAGE, "fr").body)
+				.isEqualTo("hello vary fr");
+		assertThat(get("/hello/vary", HttpHeaderNames.ACCEPT_LANGUAGE, "en").body)
+				.isEqualTo("hello vary en");
+		assertThat(invocations.get()).isEqualTo(2);
+		assertThat(cache.size()).isEqualTo(2);
+	}
+
+	@Test
+	public void expiredEntriesAreRendered() throws Exception {
+		start(b -> b.ttl(Duration.ofMillis(100)));
+
+		get("/hello/ttl");
+		Thread.sleep(200);
+		get("/hello/ttl");
+
+		assertThat(invocations.get()).isEqualTo(2);
+		assertThat(cache.evictions()).isEqualTo(1);
+		assertThat(cache.hits()).isZero();
+	}
+
+	@Test
+	public void leastRecentlyUsedEntriesAreEvicted() {
+		start(b -> b.maxBytes(10));
+
+		get("/hello/a");
+		get("/hello/b");
+
+		assertThat(cache.size()).isEqualTo(1);
+		assertThat(cache.bytes()).isEqualTo(7);
+		assertThat(cache.evictions()).isEqualTo(1);
+
+		get("/hello/b");
+		assertThat(invocations.get()).isEqualTo(2);
+		get("/hello/a");
+		assertThat(invocations.get()).isEqualTo(3);
+	}
+
+	@Test
+	public void largeResponsesAreNotStored() {
+		start(b -> b.maxEntryBytes(5));
+
+		assertThat(get("/hello/large").body).isEqualTo("hello large");
+		assertThat(get("/hello/large").body).isEqualTo("hello large");
+
+		assertThat(invocations.get()).isEqualTo(2);
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	public void noStoreResponsesAreNotStored() {
+		start(b -> {});
+
+		assertThat(get("/private").body).isEqualTo("secret");
+		assertThat(get("/private").body).isEqualTo("secret");
+
+		assertThat(invocations.get()).isEqualTo(2);
+		assertThat(cache.size()).isZero();
+		assertThat(cache.hitRatio()).isZero();
+	}
+
+	static final class Response {
+
+		final int         status;
+		final HttpHeaders headers;
+		final String      body;
+
+		Response(HttpClientResponse response, String body) {
+			this.status = response.status()
+			                      .code();
+			this.headers = response.responseHeaders();
+			this.body = body;
+		}
+	}
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.ipc.netty.http.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.http.client.HttpClient;
+import reactor.ipc.netty.http.client.HttpClientResponse;
+import reactor.ipc.netty.http.server.DefaultHttpServerRoutes.HttpRouteHandler;
+import reactor.ipc.netty.tcp.BlockingNettyContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HttpRouteTableTest {
+
+	final List<HttpRouteHandler> handlers = new ArrayList<>();
+
+	HttpRouteHandler route(Predicate<HttpServerRequest> condition) {
+		HttpRouteHandler handler = new HttpRouteHandler(condition,
+				(req, resp) -> Mono.empty(),
+				condition instanceof HttpPredicate ? (HttpPredicate) condition : null);
+		handlers.add(handler);
+		return handler;
+	}
+
+	HttpRouteTable.Match get(String uri) {
+		return HttpRouteTable.compile(handlers)
+		                     .find(HttpMethod.GET, HttpVersion.HTTP_1_1, uri);
+	}
+
+	@Test
+	public void literalPathShouldBeMatched() {
+		HttpRouteHandler comments = route(HttpPredicate.get("/comments"));
+		HttpRouteHandler version = route(HttpPredicate.get("/1.0/comments"));
+
+		assertThat(get("/comments").handler()).isSameAs(comments);
+		assertThat(get("/comments").resolver()).isNull();
+		assertThat(get("/1.0/comments").handler()).isSameAs(version);
+		assertThat(get("/comments/")).isNull();
+		assertThat(get("/comments?page=1")).isNull();
+		assertThat(get("comments")).isNull();
+	}
+
+	@Test
+	public void variablesShouldBeCaptured() {
+		HttpRouteHandler author = route(HttpPredicate.get("/{collection}/{id}/author"));
+
+		HttpRouteTable.Match match = get("/comments/1/author");
+		assertThat(match.handler()).isSameAs(author);
+		assertThat(match.resolver()
+		                .apply("/comments/1/author")).containsEntry("collection", "comments")
+		                                             .containsEntry("id", "1")
+		                                             .hasSize(2);
+		assertThat(get("/tags/v1.0.0")).isNull();
+	}
+
+	@Test
+	public void splatsShouldMatchRemainingPath() {
+		HttpRouteHandler assets = route(HttpPredicate.get("/assets/**"));
+		HttpRouteHandler files = route(HttpPredicate.get("/files/{path}**"));
+
+		assertThat(get("/assets/").handler()).isSameAs(assets);
+		assertThat(get("/assets/css/site.css").handler()).isSameAs(assets);
+		assertThat(get("/assets")).isNull();
+		assertThat(get("/files/a/b.txt").resolver()
+		                                .apply("/files/a/b.txt")).containsEntry("path",
+				"a/b.txt");
+	}
+
+	@Test
+	public void firstDeclaredRouteShouldWin() {
+		HttpRouteHandler any = route(HttpPredicate.http("/users/{id}", null, null));
+		route(HttpPredicate.get("/users/me"));
+		HttpRouteHandler me = route(HttpPredicate.post("/users/me"));
+
+		assertThat(get("/users/me").handler()).isSameAs(any);
+		assertThat(HttpRouteTable.compile(handlers)
+		                         .find(HttpMethod.POST, HttpVersion.HTTP_1_1, "/users/me")
+		                         .handler()).isSameAs(any);
+
+		handlers.remove(any);
+		assertThat(HttpRouteTable.compile(handlers)
+		                         .find(HttpMethod.POST, HttpVersion.HTTP_1_1, "/users/me")
+		                         .handler()).isSameAs(me);
+		assertThat(HttpRouteTable.compile(handlers)
+		                         .find(HttpMethod.DELETE, HttpVersion.HTTP_1_1, "/users/me")).isNull();
+	}
+
+	@Test
+	public void protocolShouldBeChecked() {
+		route(HttpPredicate.http("/legacy", HttpVersion.HTTP_1_0, HttpMethod.GET));
+
+		assertThat(get("/legacy")).isNull();
+		assertThat(HttpRouteTable.compile(handlers)
+		                         .find(HttpMethod.GET, HttpVersion.HTTP_1_0, "/legacy")).isNotNull();
+	}
+
+	@Test
+	public void nonTemplateRoutesShouldFallBack() {
+		route(HttpPredicate.get("/files/{name}.json"));
+		route(HttpPredicate.prefix("/static"));
+		route(req -> true);
+
+		HttpRouteTable table = HttpRouteTable.compile(handlers);
+		assertThat(table.fallbacks).hasSize(3);
+		assertThat(table.find(HttpMethod.GET, HttpVersion.HTTP_1_1, "/files/a.json")).isNull();
+	}
+
+	@Test
+	public void routeTableServesRoutesInDeclarationOrder() {
+		BlockingNettyContext facade =
+				HttpServer.create(0)
+				          .start(HttpServerRoutes.newRouteTable()
+				                                 .get("/hello/{name}",
+						                                 (req, resp) -> resp.sendString(Mono.just("hello " + req.param("name"))))
+				                                 .route(req -> req.uri().startsWith("/custom"),
+						                                 (req, resp) -> resp.sendString(Mono.just("custom")))
+				                                 .get("/custom/{id}",
+						                                 (req, resp) -> resp.sendString(Mono.just("unreachable"))));
+
+		try {
+			assertThat(HttpClient.create(facade.getPort())
+			                     .get("/hello/world")
+			                     .flatMap(res -> res.receive().aggregate().asString())
+			                     .block()).isEqualTo("hello world");
+
+			assertThat(HttpClient.create(facade.getPort())
+			                     .get("/custom/1")
+			                     .flatMap(res -> res.receive().aggregate().asString())
+			                     .block()).isEqualTo("custom");
+
+			HttpClientResponse res =
+					HttpClient.create(facade.getPort())
+					          .get("/unknown", req -> req.failOnClientError(false))
+					          .block();
+			assertThat(res.status().code()).isEqualTo(404);
+			res.dispose();
+		}
+		finally {
+			facade.shutdown();
+		}
+	}
+}
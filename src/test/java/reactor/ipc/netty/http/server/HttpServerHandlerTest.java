@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.ipc.netty.http.server;
+
+import io.netty.channel.Channel;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.Future;
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.NettyContext;
+import reactor.ipc.netty.channel.ContextHandler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HttpServerHandlerTest {
+
+	ContextHandler<Channel> context = new ContextHandler<Channel>((a, b, c) -> null, null, null, null, null) {
+		@Override
+		public void fireContextActive(NettyContext context) {
+		}
+
+		@Override
+		public void setFuture(Future<?> future) {
+		}
+
+		@Override
+		protected void doPipeline(Channel channel) {
+		}
+
+		@Override
+		protected Publisher<Void> onCloseOrRelease(Channel channel) {
+			return Mono.never();
+		}
+
+		@Override
+		public void accept(Channel channel) {
+		}
+
+		@Override
+		public void dispose() {
+		}
+	};
+
+	@Test
+	public void readsAreSuspendedWhileMaxPipelinedRequestsAreQueued() {
+		HttpServerHandler handler = new HttpServerHandler(context, 2);
+		EmbeddedChannel channel = new EmbeddedChannel(handler);
+
+		channel.writeInbound(request("/1"), request("/2"));
+		assertThat(handler.pipelined.requests()).isEqualTo(1);
+		assertThat(handler.readSuspended).isFalse();
+
+		channel.writeInbound(request("/3"));
+		assertThat(handler.pipelined.requests()).isEqualTo(2);
+		assertThat(handler.readSuspended).isTrue();
+		assertThat(channel.config()
+		                  .isAutoRead()).isFalse();
+
+		//reads requested meanwhile are deferred
+		channel.read();
+		assertThat(handler.readPending).isTrue();
+
+		//serving the first request dequeues the second one and resumes reading
+		channel.writeOutbound(response());
+		channel.runPendingTasks();
+		assertThat(handler.pipelined.requests()).isEqualTo(1);
+		assertThat(handler.readSuspended).isFalse();
+		assertThat(handler.readPending).isFalse();
+
+		assertThat(handler.pipelinedRequests).isEqualTo(2);
+		assertThat(handler.maxPipelineDepth).isEqualTo(2);
+
+		releaseAll(channel);
+	}
+
+	@Test
+	public void pipelinedRequestsBelowTheLimitKeepReading() {
+		HttpServerHandler handler = new HttpServerHandler(context, 8);
+		EmbeddedChannel channel = new EmbeddedChannel(handler);
+
+		channel.writeInbound(request("/1"), request("/2"), request("/3"));
+		assertThat(handler.pipelined.requests()).isEqualTo(2);
+		assertThat(handler.readSuspended).isFalse();
+
+		releaseAll(channel);
+	}
+
+	static FullHttpRequest request(String uri) {
+		return new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, uri);
+	}
+
+	static FullHttpResponse response() {
+		FullHttpResponse response =
+				new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
+		response.headers()
+		        .setInt(HttpHeaderNames.CONTENT_LENGTH, 0);
+		return response;
+	}
+
+	static void releaseAll(EmbeddedChannel channel) {
+		Object msg;
+		while ((msg = channel.readInbound()) != null) {
+			ReferenceCountUtil.release(msg);
+		}
+		channel.finishAndReleaseAll();
+	}
+}
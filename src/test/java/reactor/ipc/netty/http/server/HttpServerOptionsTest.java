@@ -48,6 +48,69 @@ public class HttpServerOptionsTest {
 		assertThat(builder.build().minCompressionResponseSize()).isEqualTo(10);
 	}
 
+	@Test
+	public void maxPipelinedRequests() {
+		HttpServerOptions.Builder builder = HttpServerOptions.builder();
+
+		assertThat(builder.build().maxPipelinedRequests())
+				.isEqualTo(HttpServerOptions.DEFAULT_MAX_PIPELINED_REQUESTS);
+		assertThat(builder.maxPipelinedRequests(4).build().maxPipelinedRequests()).isEqualTo(4);
+		assertThat(builder.build().asDetailedString()).contains(", maxPipelinedRequests=4");
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> builder.maxPipelinedRequests(0))
+				.withMessage("maxPipelinedRequests must be strictly positive");
+	}
+
+	@Test
+	public void dateHeader() {
+		HttpServerOptions.Builder builder = HttpServerOptions.builder();
+
+		assertThat(builder.build().dateHeader()).isFalse();
+		assertThat(builder.dateHeader(true).build().dateHeader()).isTrue();
+		assertThat(builder.build().asDetailedString()).contains(", dateHeader=true");
+	}
+
+	@Test
+	public void websocketMaxFramePayloadLength() {
+		HttpServerOptions.Builder builder = HttpServerOptions.builder();
+
+		assertThat(builder.build().websocketMaxFramePayloadLength()).isEqualTo(65536);
+		assertThat(builder.websocketMaxFramePayloadLength(1024)
+		                  .build()
+		                  .websocketMaxFramePayloadLength()).isEqualTo(1024);
+		assertThat(builder.build().asDetailedString()).contains(", websocketMaxFramePayloadLength=1024");
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> builder.websocketMaxFramePayloadLength(0))
+				.withMessage("maxFramePayloadLength must be strictly positive");
+	}
+
+	@Test
+	public void compressionLevels() {
+		HttpServerOptions options =
+				HttpServerOptions.builder()
+				                 .compressionEncodings("gzip", "br")
+				                 .compressionLevel("gzip", "application/json", 1)
+				                 .compressionLevel("gzip", "text/*", 9)
+				                 .compressionLevel("br", "*", 2)
+				                 .build();
+
+		assertThat(options.compressionEncodings()).containsExactly("gzip", "br");
+		assertThat(options.compressionLevel("gzip", "application/json; charset=utf-8")).isEqualTo(1);
+		assertThat(options.compressionLevel("gzip", "text/html")).isEqualTo(9);
+		assertThat(options.compressionLevel("gzip", "image/svg+xml")).isEqualTo(6);
+		assertThat(options.compressionLevel("gzip", null)).isEqualTo(6);
+		assertThat(options.compressionLevel("br", "application/json")).isEqualTo(2);
+		assertThat(options.compressionLevel("deflate", "application/json")).isEqualTo(6);
+
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> HttpServerOptions.builder()
+				                                   .compressionEncodings("lzma"));
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> HttpServerOptions.builder()
+				                                   .compressionLevel("gzip", "*", 10))
+				.withMessage("gzip level must be between 0 and 9, was: 10");
+	}
+
 	@Test
 	public void asSimpleString() {
 		HttpServerOptions.Builder builder = HttpServerOptions.builder();
@@ -28,6 +28,7 @@ import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.security.cert.CertificateException;
 import java.time.Duration;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -42,6 +43,7 @@ import javax.net.ssl.SSLException;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.handler.codec.LineBasedFrameDecoder;
+import io.netty.handler.codec.TooLongFrameException;
 import io.netty.handler.codec.http.DefaultFullHttpRequest;
 import io.netty.handler.codec.http.DefaultHttpContent;
 import io.netty.handler.codec.http.HttpClientCodec;
@@ -55,6 +57,7 @@ import io.netty.handler.ssl.SslContextBuilder;
 import io.netty.handler.ssl.util.SelfSignedCertificate;
 import io.netty.util.ResourceLeakDetector;
 import org.junit.Test;
+import org.reactivestreams.Publisher;
 import org.testng.Assert;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -63,6 +66,7 @@ import reactor.ipc.netty.NettyContext;
 import reactor.ipc.netty.NettyOutbound;
 import reactor.ipc.netty.http.HttpResources;
 import reactor.ipc.netty.http.client.HttpClient;
+import reactor.ipc.netty.http.client.HttpClientRequest;
 import reactor.ipc.netty.http.client.HttpClientResponse;
 import reactor.ipc.netty.resources.PoolResources;
 import reactor.ipc.netty.tcp.BlockingNettyContext;
@@ -90,6 +94,33 @@ public class HttpServerTests {
 				.isEqualTo(blockingFacade.getContext().address().getPort());
 	}
 
+	@Test
+	public void acceptorsServeRequestsOnSharedPort() {
+		BlockingNettyContext server =
+				HttpServer.create(o -> o.port(0)
+				                        .acceptors(2))
+				          .start((req, res) -> res.sendString(Mono.just("hello")));
+		try {
+			List<String> bodies =
+					Flux.range(0, 8)
+					    .flatMap(i -> HttpClient.create(server.getPort())
+					                            .get("/")
+					                            .flatMap(res -> res.receive()
+					                                               .aggregate()
+					                                               .asString()))
+					    .collectList()
+					    .block(Duration.ofSeconds(30));
+
+			assertThat(bodies).hasSize(8)
+			                  .containsOnly("hello");
+		}
+		finally {
+			server.shutdown();
+		}
+		assertThat(server.getContext()
+		                 .isDisposed()).isTrue();
+	}
+
 	@Test
 	public void defaultHttpPortWithAddress() {
 		BlockingNettyContext blockingFacade = HttpServer.create("localhost")
@@ -341,6 +372,52 @@ public class HttpServerTests {
 		client.dispose();
 	}
 
+	@Test
+	public void httpPipeliningBeyondMaxPipelinedRequests() throws Exception {
+		NettyContext server =
+				HttpServer.create(o -> o.port(0)
+				                        .maxPipelinedRequests(2))
+				          .newHandler((req, resp) -> resp.sendString(Mono.just(req.uri()
+				                                                                  .substring(1))
+				                                                         .delayElement(Duration.ofMillis(10))))
+				          .block(Duration.ofSeconds(30));
+
+		CountDownLatch latch = new CountDownLatch(1);
+		StringBuilder received = new StringBuilder();
+
+		NettyContext client = TcpClient.create(server.address()
+		                                             .getPort())
+		                               .newHandler((in, out) -> {
+			                               in.context()
+			                                 .addHandlerFirst(new HttpClientCodec());
+
+			                               in.receiveObject()
+			                                 .ofType(DefaultHttpContent.class)
+			                                 .as(ByteBufFlux::fromInbound)
+			                                 .asString()
+			                                 .subscribe(d -> {
+				                                 received.append(d)
+				                                         .append(',');
+				                                 if (received.length() >= 20) {
+					                                 latch.countDown();
+				                                 }
+			                                 });
+
+			                               return out.sendObject(Flux.range(0, 10)
+			                                                         .map(i -> new DefaultFullHttpRequest(HttpVersion.HTTP_1_1,
+					                                                         HttpMethod.GET,
+					                                                         "/" + i)))
+			                                         .neverComplete();
+		                               })
+		                               .block(Duration.ofSeconds(30));
+
+		assertThat(latch.await(30, TimeUnit.SECONDS)).isTrue();
+		assertThat(received.toString()).isEqualTo("0,1,2,3,4,5,6,7,8,9,");
+
+		server.dispose();
+		client.dispose();
+	}
+
 	@Test
 	public void flushOnComplete() {
 
@@ -672,6 +749,150 @@ public class HttpServerTests {
 
 	}
 
+	@Test
+	public void dateHeaderIsAddedWhenEnabled() {
+		NettyContext server =
+				HttpServer.create(o -> o.port(0)
+				                        .dateHeader(true))
+				          .newHandler((req, res) -> res.sendString(Mono.just("hello")))
+				          .block(Duration.ofSeconds(30));
+
+		try {
+			HttpHeaders headers =
+					HttpClient.create(server.address()
+					                        .getPort())
+					          .get("/")
+					          .map(res -> {
+					              res.dispose();
+					              return res.responseHeaders();
+					          })
+					          .block(Duration.ofSeconds(30));
+
+			assertThat(headers).isNotNull();
+			assertThat(headers.get(HttpHeaderNames.DATE)).isNotNull();
+			assertThat(io.netty.handler.codec.DateFormatter.parseHttpDate(headers.get(HttpHeaderNames.DATE)))
+					.isNotNull();
+		}
+		finally {
+			server.dispose();
+		}
+	}
+
+	@Test
+	public void receiveAggregatedComposesBodyUnderMaxLength() {
+		NettyContext server =
+				HttpServer.create(0)
+				          .newHandler((req, res) -> res.send(req.receiveAggregated(64)
+				                                                .retain()))
+				          .block(Duration.ofSeconds(30));
+
+		try {
+			String body =
+					HttpClient.create(server.address()
+					                        .getPort())
+					          .post("/", req -> req.sendString(Flux.just("hello", " ", "aggregated")))
+					          .flatMap(res -> res.receive()
+					                             .aggregate()
+					                             .asString())
+					          .block(Duration.ofSeconds(30));
+
+			assertThat(body).isEqualTo("hello aggregated");
+		}
+		finally {
+			server.dispose();
+		}
+	}
+
+	@Test
+	public void receiveAggregatedRejectsContentLengthOverMaxLength() throws Exception {
+		doTestReceiveAggregatedRejects(req -> req.header(HttpHeaderNames.CONTENT_LENGTH, "32")
+		                                         .sendString(Mono.just("0123456789abcdef0123456789abcdef")));
+	}
+
+	@Test
+	public void receiveAggregatedRejectsChunkedBodyOverMaxLength() throws Exception {
+		doTestReceiveAggregatedRejects(req -> req.chunkedTransfer(true)
+		                                         .sendString(Flux.just("0123456789abcdef", "0123456789abcdef")));
+	}
+
+	private void doTestReceiveAggregatedRejects(
+			Function<HttpClientRequest, Publisher<Void>> request) throws Exception {
+		AtomicReference<Throwable> error = new AtomicReference<>();
+		CountDownLatch latch = new CountDownLatch(1);
+		NettyContext server =
+				HttpServer.create(0)
+				          .newHandler((req, res) -> req.receiveAggregated(16)
+				                                       .doOnError(error::set)
+				                                       .doOnTerminate(latch::countDown)
+				                                       .then())
+				          .block(Duration.ofSeconds(30));
+
+		try {
+			HttpResponseStatus status =
+					HttpClient.create(server.address()
+					                        .getPort())
+					          .post("/", req -> request.apply(req.failOnClientError(false)))
+					          .map(res -> {
+					              res.dispose();
+					              return res.status();
+					          })
+					          .block(Duration.ofSeconds(30));
+
+			assertThat(status).isEqualTo(HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE);
+			assertThat(latch.await(30, TimeUnit.SECONDS)).isTrue();
+			assertThat(error.get()).isInstanceOf(TooLongFrameException.class);
+		}
+		finally {
+			server.dispose();
+		}
+	}
+
+	@Test
+	public void observerReportsRequestTimings() throws Exception {
+		AtomicReference<long[]> timings = new AtomicReference<>();
+		AtomicReference<String> route = new AtomicReference<>();
+		CountDownLatch latch = new CountDownLatch(1);
+		NettyContext server =
+				HttpServer.create(o -> o.port(0)
+				                        .observer((req, res, t) -> {
+					                        route.set(req.method() + " " + req.uri() + " " + res.status()
+					                                                                             .code());
+					                        timings.set(new long[]{t.requestStartTime(),
+							                        t.handlerStartTime(), t.requestEndTime(),
+							                        t.responseStartTime(), t.responseCompleteTime()});
+					                        latch.countDown();
+				                        }))
+				          .newRouter(r -> r.post("/echo", (req, res) -> res.send(req.receive()
+				                                                                    .aggregate()
+				                                                                    .retain())))
+				          .block(Duration.ofSeconds(30));
+
+		try {
+			String body =
+					HttpClient.create(server.address()
+					                        .getPort())
+					          .post("/echo", req -> req.sendString(Mono.just("hello")))
+					          .flatMap(res -> res.receive()
+					                             .aggregate()
+					                             .asString())
+					          .block(Duration.ofSeconds(30));
+
+			assertThat(body).isEqualTo("hello");
+			assertThat(latch.await(30, TimeUnit.SECONDS)).isTrue();
+			assertThat(route.get()).isEqualTo("POST /echo 200");
+			long[] t = timings.get();
+			assertThat(t[0]).isNotZero();
+			//the body may be received before the handler starts
+			assertThat(t[1]).isGreaterThanOrEqualTo(t[0]);
+			assertThat(t[2]).isGreaterThanOrEqualTo(t[0]);
+			assertThat(t[3]).isGreaterThanOrEqualTo(t[1]);
+			assertThat(t[4]).isGreaterThanOrEqualTo(t[3]);
+		}
+		finally {
+			server.dispose();
+		}
+	}
+
 	private void doTestIssue186(HttpClient client) {
 		Mono<String> content = client.post("/", req -> req.failOnClientError(false)
 				                                          .sendString(Mono.just("bodysample")))
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.ipc.netty.http.server;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PipelineQueueTest {
+
+	@Test
+	public void messagesArePolledInOrderAcrossGrowth() {
+		PipelineQueue queue = new PipelineQueue();
+		for (int i = 0; i < 10; i++) {
+			queue.offer(i);
+		}
+		for (int i = 0; i < 10; i++) {
+			assertThat(queue.poll()).isEqualTo(i);
+		}
+		//wrap the indexes before growing
+		for (int i = 0; i < 40; i++) {
+			queue.offer(i);
+		}
+		assertThat(queue.size()).isEqualTo(40);
+		assertThat(queue.messages.length).isEqualTo(64);
+		for (int i = 0; i < 40; i++) {
+			assertThat(queue.peek()).isEqualTo(i);
+			assertThat(queue.poll()).isEqualTo(i);
+		}
+		assertThat(queue.isEmpty()).isTrue();
+		assertThat(queue.poll()).isNull();
+	}
+
+	@Test
+	public void requestsAreCounted() {
+		PipelineQueue queue = new PipelineQueue();
+		queue.offer(new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, "/1"));
+		queue.offer(new DefaultHttpContent(Unpooled.EMPTY_BUFFER));
+		queue.offer(new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/2"));
+
+		assertThat(queue.requests()).isEqualTo(2);
+		queue.poll();
+		assertThat(queue.requests()).isEqualTo(1);
+		queue.poll();
+		assertThat(queue.requests()).isEqualTo(1);
+		queue.poll();
+		assertThat(queue.requests()).isZero();
+	}
+
+	@Test
+	public void clearReleasesMessages() {
+		PipelineQueue queue = new PipelineQueue();
+		ByteBuf content = Unpooled.buffer()
+		                          .writeByte(1);
+		queue.offer(new DefaultHttpContent(content));
+		queue.clear();
+
+		assertThat(content.refCnt()).isZero();
+		assertThat(queue.isEmpty()).isTrue();
+	}
+}
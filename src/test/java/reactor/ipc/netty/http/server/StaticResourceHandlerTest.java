@@ -0,0 +1,297 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.ipc.netty.http.server;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.zip.GZIPOutputStream;
+
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpMethod;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.ipc.netty.http.client.HttpClient;
+import reactor.ipc.netty.tcp.BlockingNettyContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StaticResourceHandlerTest {
+
+	Path                 root;
+	BlockingNettyContext server;
+	HttpClient           client;
+
+	@Before
+	public void setUp() throws Exception {
+		root = Files.createTempDirectory("static");
+		Files.write(root.resolve("index.html"),
+				"0123456789abcdefghij".getBytes(StandardCharsets.US_ASCII));
+		Files.createDirectory(root.resolve("sub"));
+		Files.write(root.resolve("sub/data.txt"),
+				"nested".getBytes(StandardCharsets.US_ASCII));
+		Files.write(root.getParent()
+		                .resolve(root.getFileName() + ".secret"),
+				"secret".getBytes(StandardCharsets.US_ASCII));
+
+		server = HttpServer.create(0)
+		                   .startRouter(r -> r.resources("/static", root));
+		client = HttpClient.create(server.getPort());
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		server.shutdown();
+		Files.deleteIfExists(root.getParent()
+		                         .resolve(root.getFileName() + ".secret"));
+		Files.walk(root)
+		     .sorted((a, b) -> b.compareTo(a))
+		     .forEach(p -> p.toFile()
+		                    .delete());
+	}
+
+	@Test
+	public void fileIsServedWithValidators() {
+		Result result = request(HttpMethod.GET, "/static/index.html", null, null);
+
+		assertThat(result.status).isEqualTo(200);
+		assertThat(result.body).isEqualTo("0123456789abcdefghij");
+		assertThat(result.headers.get("ETag")).isNotNull();
+		assertThat(result.headers.get("Last-Modified")).isNotNull();
+		assertThat(result.headers.get("Accept-Ranges")).isEqualTo("bytes");
+
+		Result nested = request(HttpMethod.GET, "/static/sub/data.txt?v=1", null, null);
+		assertThat(nested.status).isEqualTo(200);
+		assertThat(nested.body).isEqualTo("nested");
+	}
+
+	@Test
+	public void headSendsOnlyHeaders() {
+		Result result = request(HttpMethod.HEAD, "/static/index.html", null, null);
+
+		assertThat(result.status).isEqualTo(200);
+		assertThat(result.headers.get("Content-Length")).isEqualTo("20");
+		assertThat(result.body).isEmpty();
+	}
+
+	@Test
+	public void ifNoneMatchIsAnsweredWithNotModified() {
+		String etag = request(HttpMethod.GET, "/static/index.html", null, null).headers.get("ETag");
+
+		Result result = request(HttpMethod.GET, "/static/index.html", "If-None-Match", etag);
+		assertThat(result.status).isEqualTo(304);
+		assertThat(result.body).isEmpty();
+
+		result = request(HttpMethod.GET, "/static/index.html", "If-None-Match", "\"other\"");
+		assertThat(result.status).isEqualTo(200);
+	}
+
+	@Test
+	public void ifModifiedSinceIsAnsweredWithNotModified() {
+		String lastModified = request(HttpMethod.GET, "/static/index.html", null, null)
+				.headers.get("Last-Modified");
+
+		Result result = request(HttpMethod.GET, "/static/index.html",
+				"If-Modified-Since", lastModified);
+		assertThat(result.status).isEqualTo(304);
+	}
+
+	@Test
+	public void singleRangeIsServed() {
+		Result result = request(HttpMethod.GET, "/static/index.html", "Range", "bytes=2-5");
+
+		assertThat(result.status).isEqualTo(206);
+		assertThat(result.body).isEqualTo("2345");
+		assertThat(result.headers.get("Content-Range")).isEqualTo("bytes 2-5/20");
+
+		result = request(HttpMethod.GET, "/static/index.html", "Range", "bytes=-3");
+		assertThat(result.status).isEqualTo(206);
+		assertThat(result.body).isEqualTo("hij");
+	}
+
+	@Test
+	public void multipleRangesAreServedAsMultipart() {
+		Result result = request(HttpMethod.GET, "/static/index.html", "Range", "bytes=0-1,10-11");
+
+		assertThat(result.status).isEqualTo(206);
+		assertThat(result.headers.get("Content-Type")).startsWith("multipart/byteranges; boundary=");
+		assertThat(result.headers.getInt("Content-Length")).isEqualTo(result.body.length());
+		assertThat(result.body).contains("Content-Range: bytes 0-1/20\r\n\r\n01\r\n")
+		                       .contains("Content-Range: bytes 10-11/20\r\n\r\nab\r\n")
+		                       .endsWith("--\r\n");
+	}
+
+	@Test
+	public void unsatisfiableRangeIsRejected() {
+		Result result = request(HttpMethod.GET, "/static/index.html", "Range", "bytes=50-60");
+
+		assertThat(result.status).isEqualTo(416);
+		assertThat(result.headers.get("Content-Range")).isEqualTo("bytes */20");
+	}
+
+	@Test
+	public void precompressedSiblingIsServed() throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+			gzip.write("compressed".getBytes(StandardCharsets.US_ASCII));
+		}
+		Files.write(root.resolve("index.html.gz"), bytes.toByteArray());
+
+		Result result = request(HttpMethod.GET, "/static/index.html", "Accept-Encoding", "br;q=0, gzip");
+
+		assertThat(result.status).isEqualTo(200);
+		assertThat(result.headers.get("Content-Encoding")).isEqualTo("gzip");
+		assertThat(result.headers.get("Vary")).isEqualToIgnoringCase("accept-encoding");
+		assertThat(result.headers.getInt("Content-Length")).isEqualTo(bytes.size());
+
+		result = request(HttpMethod.GET, "/static/index.html", null, null);
+		assertThat(result.headers.get("Content-Encoding")).isNull();
+		assertThat(result.body).isEqualTo("0123456789abcdefghij");
+	}
+
+	@Test
+	public void pathTraversalIsRejected() {
+		assertThat(request(HttpMethod.GET, "/static/../" + root.getFileName() + ".secret", null, null).status)
+				.isEqualTo(404);
+		assertThat(request(HttpMethod.GET, "/static/%2e%2e/" + root.getFileName() + ".secret", null, null).status)
+				.isEqualTo(404);
+		assertThat(request(HttpMethod.GET, "/static/missing.txt", null, null).status)
+				.isEqualTo(404);
+		assertThat(request(HttpMethod.GET, "/static/sub", null, null).status)
+				.isEqualTo(404);
+	}
+
+	@Test
+	public void prefixEndsOnSegmentBoundary() {
+		assertThat(request(HttpMethod.GET, "/staticsub/data.txt", null, null).status)
+				.isEqualTo(404);
+		assertThat(request(HttpMethod.GET, "/static/sub/data.txt", null, null).body)
+				.isEqualTo("nested");
+
+		StaticResourceHandler handler = StaticResourceHandler.builder("/static", root)
+		                                                     .build();
+		assertThat(handler.relativePath("/staticfoo/x")).isNull();
+		assertThat(handler.relativePath("/static")).isNull();
+		assertThat(handler.relativePath("/static/x?y")).isEqualTo("x");
+
+		StaticResourceHandler slashed = StaticResourceHandler.builder("/static/", root)
+		                                                     .build();
+		assertThat(slashed.relativePath("/static/x")).isEqualTo("x");
+		assertThat(slashed.relativePath("/staticx")).isNull();
+	}
+
+	@Test
+	public void createdHandlersAreDisposedWithTheServer() {
+		DefaultHttpServerRoutes routes = (DefaultHttpServerRoutes) HttpServerRoutes.newRoutes();
+		StaticResourceHandler owned = StaticResourceHandler.builder("/owned", root)
+		                                                   .build();
+		routes.resources("/files", root)
+		      .resources("/owned", owned);
+		BlockingNettyContext other = HttpServer.create(0)
+		                                       .start(routes);
+		HttpClient otherClient = HttpClient.create(other.getPort());
+		assertThat(otherClient.get("/files/index.html")
+		                      .flatMap(res -> res.receive()
+		                                         .aggregate()
+		                                         .asString())
+		                      .block(Duration.ofSeconds(30))).isEqualTo("0123456789abcdefghij");
+		assertThat(otherClient.get("/owned/index.html")
+		                      .flatMap(res -> res.receive()
+		                                         .aggregate()
+		                                         .asString())
+		                      .block(Duration.ofSeconds(30))).isEqualTo("0123456789abcdefghij");
+
+		StaticResourceHandler created = routes.resourceHandlers.get(0);
+		assertThat(created.cache.size()).isEqualTo(1);
+		other.shutdown();
+
+		assertThat(created.isDisposed()).isTrue();
+		assertThat(created.cache.size()).isZero();
+		assertThat(owned.isDisposed()).isFalse();
+		owned.dispose();
+	}
+
+	@Test
+	public void cacheIsRevalidatedAndBounded() throws Exception {
+		StaticFileCache cache = new StaticFileCache(1, 0L);
+		Path file = root.resolve("index.html");
+
+		StaticFileCache.CachedFile first = cache.acquire("index.html", file);
+		assertThat(first.size).isEqualTo(20L);
+		first.release();
+		assertThat(first.refCnt()).isEqualTo(1);
+
+		Files.write(file, "changed".getBytes(StandardCharsets.US_ASCII));
+		StaticFileCache.CachedFile second = cache.acquire("index.html", file);
+		assertThat(second).isNotSameAs(first);
+		assertThat(second.size).isEqualTo(7L);
+		assertThat(first.refCnt()).isZero();
+		second.release();
+
+		cache.acquire("sub/data.txt", root.resolve("sub/data.txt"))
+		     .release();
+		assertThat(cache.size()).isEqualTo(1);
+		assertThat(second.refCnt()).isZero();
+		assertThat(second.channel.isOpen()).isFalse();
+
+		cache.clear();
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	public void rangeParsing() {
+		assertThat(StaticResourceHandler.parseRanges("bytes=0-", 10, 16)).hasSize(1);
+		assertThat(StaticResourceHandler.parseRanges("bytes=0-99", 10, 16).get(0)).containsExactly(0L, 9L);
+		assertThat(StaticResourceHandler.parseRanges("bytes=20-", 10, 16)).isEmpty();
+		assertThat(StaticResourceHandler.parseRanges("bytes=5-2", 10, 16)).isNull();
+		assertThat(StaticResourceHandler.parseRanges("items=0-1", 10, 16)).isNull();
+		assertThat(StaticResourceHandler.parseRanges("bytes=0-1,2-3", 10, 1)).isNull();
+	}
+
+	Result request(HttpMethod method, String uri, String header, String value) {
+		return client.request(method, uri, req -> {
+		                 req.failOnClientError(false);
+		                 if (header != null) {
+			                 req.header(header, value);
+		                 }
+		                 return req;
+		             })
+		             .flatMap(res -> res.receive()
+		                                .aggregate()
+		                                .asString(StandardCharsets.ISO_8859_1)
+		                                .defaultIfEmpty("")
+		                                .map(body -> new Result(res.status()
+		                                                           .code(), res.responseHeaders(), body)))
+		             .block(Duration.ofSeconds(30));
+	}
+
+	static final class Result {
+
+		final int         status;
+		final HttpHeaders headers;
+		final String      body;
+
+		Result(int status, HttpHeaders headers, String body) {
+			this.status = status;
+			this.headers = headers;
+			this.body = body;
+		}
+	}
+}
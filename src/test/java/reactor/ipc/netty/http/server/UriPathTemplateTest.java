@@ -16,6 +16,13 @@
 
 package reactor.ipc.netty.http.server;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import org.hamcrest.Matchers;
 import org.junit.Test;
 import reactor.ipc.netty.http.server.HttpPredicate.UriPathTemplate;
@@ -76,4 +83,59 @@ public class UriPathTemplateTest {
         assertThat(template.match("/tags/v1.0.0").entrySet(), empty());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void pathParametersShouldBeCached() {
+        UriPathTemplate template = new UriPathTemplate("/comments/{id}");
+        assertThat(template.match("/comments/1"), hasEntry("id", "1"));
+        assertThat(template.match("/comments/1"), hasEntry("id", "1"));
+        assertThat(template.cacheHits(), is(1L));
+        assertThat(template.cacheMisses(), is(1L));
+    }
+
+    @Test
+    public void staticPathShouldNotUseCache() {
+        UriPathTemplate template = new UriPathTemplate("/comments");
+        template.match("/comments");
+        template.match("/comments");
+        assertThat(template.cacheHits(), is(0L));
+        assertThat(template.cacheMisses(), is(0L));
+    }
+
+    @Test
+    public void pathParametersCacheShouldBeBounded() {
+        UriPathTemplate template = new UriPathTemplate("/comments/{id}", 16);
+        for (int i = 0; i < 1000; i++) {
+            assertThat(template.match("/comments/" + i), hasEntry("id", "" + i));
+        }
+        assertThat(template.cacheMisses(), is(1000L));
+        assertThat(template.cacheEvictions(), is(1000L - 16L));
+    }
+
+    @Test
+    public void matchingShouldBeThreadSafe() throws Exception {
+        UriPathTemplate template = new UriPathTemplate("/{collection}/{id}", 16);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                results.add(pool.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        String id = "" + (i % 64);
+                        Map<String, String> params = template.match("/comments/" + id);
+                        if (!id.equals(params.get("id")) || !template.matches("/comments/" + id)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertThat(result.get(), is(true));
+            }
+        }
+        finally {
+            pool.shutdownNow();
+        }
+    }
+
+}
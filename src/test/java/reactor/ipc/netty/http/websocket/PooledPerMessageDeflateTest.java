@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.ipc.netty.http.websocket;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.TooLongFrameException;
+import io.netty.handler.codec.http.websocketx.CloseWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.ContinuationWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtension;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtensionData;
+import io.netty.util.CharsetUtil;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class PooledPerMessageDeflateTest {
+
+	static final String MESSAGE;
+
+	static {
+		StringBuilder message = new StringBuilder();
+		for (int i = 0; i < 500; i++) {
+			message.append("permessage-deflate ");
+		}
+		MESSAGE = message.toString();
+	}
+
+	@Test
+	public void messageRoundTrip() {
+		PooledPerMessageDeflate extension = new PooledPerMessageDeflate(6, true);
+		EmbeddedChannel encoder = new EmbeddedChannel(extension.newExtensionEncoder());
+		EmbeddedChannel decoder = new EmbeddedChannel(extension.newExtensionDecoder());
+
+		for (int i = 0; i < 2; i++) {
+			assertThat(encoder.writeOutbound(new TextWebSocketFrame(MESSAGE))).isTrue();
+			WebSocketFrame compressed = encoder.readOutbound();
+			assertThat(compressed.rsv() & WebSocketExtension.RSV1).isEqualTo(WebSocketExtension.RSV1);
+			assertThat(compressed.content()
+			                     .readableBytes()).isLessThan(MESSAGE.length() / 10);
+
+			assertThat(decoder.writeInbound(compressed)).isTrue();
+			TextWebSocketFrame decompressed = decoder.readInbound();
+			assertThat(decompressed.rsv()).isZero();
+			assertThat(decompressed.text()).isEqualTo(MESSAGE);
+			decompressed.release();
+		}
+
+		assertThat(PooledPerMessageDeflate.pooledDeflaters(6)).isGreaterThanOrEqualTo(1);
+		assertThat(PooledPerMessageDeflate.pooledInflaters()).isGreaterThanOrEqualTo(1);
+		encoder.finishAndReleaseAll();
+		decoder.finishAndReleaseAll();
+	}
+
+	@Test
+	public void fragmentedMessageRoundTrip() {
+		PooledPerMessageDeflate extension = new PooledPerMessageDeflate(6, true);
+		EmbeddedChannel encoder = new EmbeddedChannel(extension.newExtensionEncoder());
+		EmbeddedChannel decoder = new EmbeddedChannel(extension.newExtensionDecoder());
+
+		encoder.writeOutbound(new TextWebSocketFrame(false, 0, text("hello ")),
+				new ContinuationWebSocketFrame(false, 0, text("permessage ")),
+				new ContinuationWebSocketFrame(true, 0, text("deflate")));
+
+		StringBuilder message = new StringBuilder();
+		for (int i = 0; i < 3; i++) {
+			WebSocketFrame compressed = encoder.readOutbound();
+			assertThat(compressed.rsv()).isEqualTo(i == 0 ? WebSocketExtension.RSV1 : 0);
+			decoder.writeInbound(compressed);
+			WebSocketFrame decompressed = decoder.readInbound();
+			assertThat(decompressed.rsv()).isZero();
+			assertThat(decompressed.isFinalFragment()).isEqualTo(i == 2);
+			message.append(decompressed.content()
+			                           .toString(CharsetUtil.UTF_8));
+			decompressed.release();
+		}
+
+		assertThat(message.toString()).isEqualTo("hello permessage deflate");
+		encoder.finishAndReleaseAll();
+		decoder.finishAndReleaseAll();
+	}
+
+	@Test
+	public void messageInflatedOverMaxLengthClosesWithMessageTooBig() {
+		PooledPerMessageDeflate extension = new PooledPerMessageDeflate(6, true);
+		EmbeddedChannel encoder = new EmbeddedChannel(extension.newExtensionEncoder());
+		EmbeddedChannel decoder =
+				new EmbeddedChannel(extension.newExtensionDecoder(MESSAGE.length() - 1));
+
+		encoder.writeOutbound(new TextWebSocketFrame(false, 0, text(MESSAGE.substring(0, 100))),
+				new ContinuationWebSocketFrame(true, 0, text(MESSAGE.substring(100))));
+		WebSocketFrame first = encoder.readOutbound();
+		WebSocketFrame last = encoder.readOutbound();
+
+		assertThat(decoder.writeInbound(first)).isTrue();
+		WebSocketFrame decompressed = decoder.readInbound();
+		assertThat(decompressed.content()
+		                       .readableBytes()).isEqualTo(100);
+		decompressed.release();
+
+		assertThatExceptionOfType(TooLongFrameException.class)
+				.isThrownBy(() -> decoder.writeInbound(last));
+		CloseWebSocketFrame close = decoder.readOutbound();
+		assertThat(close.statusCode()).isEqualTo(1009);
+		close.release();
+		assertThat(decoder.isOpen()).isFalse();
+		assertThat(last.refCnt()).isZero();
+
+		encoder.finishAndReleaseAll();
+		decoder.finishAndReleaseAll();
+	}
+
+	@Test
+	public void deflatersAreSharedAcrossChannels() {
+		PooledPerMessageDeflate extension = new PooledPerMessageDeflate(9, true);
+		EmbeddedChannel first = new EmbeddedChannel(extension.newExtensionEncoder());
+		first.writeOutbound(new TextWebSocketFrame(MESSAGE));
+		((WebSocketFrame) first.readOutbound()).release();
+		int pooled = PooledPerMessageDeflate.pooledDeflaters(9);
+		assertThat(pooled).isGreaterThanOrEqualTo(1);
+
+		EmbeddedChannel second = new EmbeddedChannel(extension.newExtensionEncoder());
+		second.writeOutbound(new TextWebSocketFrame(MESSAGE));
+		((WebSocketFrame) second.readOutbound()).release();
+
+		assertThat(PooledPerMessageDeflate.pooledDeflaters(9)).isEqualTo(pooled);
+		first.finishAndReleaseAll();
+		second.finishAndReleaseAll();
+	}
+
+	@Test
+	public void serverDeclinesRestrictedServerWindow() {
+		PooledPerMessageDeflate.ServerHandshaker handshaker =
+				new PooledPerMessageDeflate.ServerHandshaker(6);
+
+		assertThat(handshaker.handshakeExtension(offer("server_max_window_bits", "10"))).isNull();
+		assertThat(handshaker.handshakeExtension(offer("unknown", null))).isNull();
+		assertThat(handshaker.handshakeExtension(new WebSocketExtensionData("x-webkit-deflate-frame",
+				Collections.emptyMap()))).isNull();
+
+		PooledPerMessageDeflate accepted =
+				(PooledPerMessageDeflate) handshaker.handshakeExtension(offer("client_max_window_bits", null));
+		assertThat(accepted).isNotNull();
+		assertThat(WebsocketCompression.format(accepted.newReponseData()))
+				.isEqualTo("permessage-deflate; client_no_context_takeover");
+	}
+
+	@Test
+	public void clientRequiresServerNoContextTakeover() {
+		PooledPerMessageDeflate.ClientHandshaker handshaker =
+				new PooledPerMessageDeflate.ClientHandshaker(6);
+
+		assertThat(WebsocketCompression.format(handshaker.newRequestData()))
+				.isEqualTo("permessage-deflate; server_no_context_takeover; client_no_context_takeover");
+		assertThat(handshaker.handshakeExtension(offer("client_no_context_takeover", null))).isNull();
+		assertThat(handshaker.handshakeExtension(offer("server_no_context_takeover", null))).isNotNull();
+	}
+
+	@Test
+	public void offerIsAppendedToRequestHeaders() {
+		HttpHeaders headers = new DefaultHttpHeaders().set(HttpHeaderNames.SEC_WEBSOCKET_EXTENSIONS,
+				"x-custom");
+
+		WebsocketCompression.builder()
+		                    .pooled(true)
+		                    .build()
+		                    .offer(headers);
+
+		assertThat(headers.get(HttpHeaderNames.SEC_WEBSOCKET_EXTENSIONS))
+				.isEqualTo("x-custom, permessage-deflate; server_no_context_takeover; client_no_context_takeover");
+	}
+
+	@Test
+	public void serverNegotiatesFirstAcceptedOffer() {
+		HttpHeaders request = new DefaultHttpHeaders().set(HttpHeaderNames.SEC_WEBSOCKET_EXTENSIONS,
+				"permessage-deflate; server_max_window_bits=10, permessage-deflate");
+		HttpHeaders response = new DefaultHttpHeaders();
+
+		assertThat(WebsocketCompression.builder()
+		                               .pooled(true)
+		                               .build()
+		                               .negotiate(request, response)).isNotNull();
+		assertThat(response.get(HttpHeaderNames.SEC_WEBSOCKET_EXTENSIONS))
+				.isEqualTo("permessage-deflate; client_no_context_takeover");
+	}
+
+	static WebSocketExtensionData offer(String parameter, String value) {
+		Map<String, String> parameters = new HashMap<>();
+		parameters.put(parameter, value);
+		return new WebSocketExtensionData("permessage-deflate", parameters);
+	}
+
+	static ByteBuf text(String text) {
+		return Unpooled.copiedBuffer(text, CharsetUtil.UTF_8);
+	}
+}
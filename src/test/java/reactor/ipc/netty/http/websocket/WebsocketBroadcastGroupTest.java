@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.ipc.netty.http.websocket;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.ContinuationWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocket13FrameEncoder;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import io.netty.util.CharsetUtil;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.ipc.netty.NettyContext;
+import reactor.ipc.netty.http.client.HttpClient;
+import reactor.ipc.netty.http.server.HttpServer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class WebsocketBroadcastGroupTest {
+
+	@Test
+	public void encodedFramesMatchServerFrameEncoder() {
+		for (int length : new int[]{0, 5, 125, 126, 200, 65535, 70000}) {
+			ByteBuf data = Unpooled.buffer(length)
+			                       .writeZero(length);
+			assertEncoded(new TextWebSocketFrame(data.retainedDuplicate()));
+			assertEncoded(new BinaryWebSocketFrame(false, 0, data.retainedDuplicate()));
+			assertEncoded(new ContinuationWebSocketFrame(true, 4, data.retainedDuplicate()));
+			data.release();
+		}
+	}
+
+	static void assertEncoded(WebSocketFrame frame) {
+		ByteBuf encoded = WebsocketBroadcastGroup.encode(ByteBufAllocator.DEFAULT, frame);
+
+		EmbeddedChannel channel = new EmbeddedChannel(new WebSocket13FrameEncoder(false));
+		channel.writeOutbound(frame);
+		ByteBuf expected = Unpooled.buffer();
+		for (Object o; (o = channel.readOutbound()) != null; ) {
+			expected.writeBytes((ByteBuf) o);
+			((ByteBuf) o).release();
+		}
+
+		assertThat(encoded).isEqualTo(expected);
+		encoded.release();
+		expected.release();
+	}
+
+	@Test
+	public void framesAreBroadcastToAllMembers() throws Exception {
+		WebsocketBroadcastGroup group = WebsocketBroadcastGroup.builder()
+		                                                       .build();
+		NettyContext server =
+				HttpServer.create(0)
+				          .newHandler((in, out) -> out.sendWebsocket((i, o) -> group.join(o)))
+				          .block(Duration.ofSeconds(30));
+		try {
+			HttpClient client = HttpClient.create(server.address()
+			                                            .getPort());
+			CompletableFuture<List<List<String>>> clients =
+					Flux.range(0, 3)
+					    .flatMap(i -> client.ws("/")
+					                        .flatMap(res -> res.receiveWebsocket()
+					                                           .receive()
+					                                           .asString()
+					                                           .collectList()))
+					    .collectList()
+					    .toFuture();
+
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+			while (group.size() < 3 && System.nanoTime() < deadline) {
+				Thread.sleep(10);
+			}
+			assertThat(group.size()).isEqualTo(3);
+
+			group.broadcastText("hello");
+			group.broadcastBinary(Unpooled.copiedBuffer("world", CharsetUtil.UTF_8));
+			group.dispose();
+
+			List<List<String>> received = clients.get(30, TimeUnit.SECONDS);
+			assertThat(received).hasSize(3);
+			for (List<String> messages : received) {
+				assertThat(messages).containsExactly("hello", "world");
+			}
+		}
+		finally {
+			server.dispose();
+		}
+	}
+
+	@Test
+	public void slowMembersAreSkippedWithDrop() {
+		WebsocketBroadcastGroup group = WebsocketBroadcastGroup.builder()
+		                                                       .build();
+		EmbeddedChannel channel = slowMember(group);
+
+		group.broadcastText("hello");
+
+		assertThat(group.dropped()).isEqualTo(1);
+		assertThat(channel.isOpen()).isTrue();
+		channel.finishAndReleaseAll();
+	}
+
+	@Test
+	public void slowMembersAreClosedWithDisconnect() {
+		WebsocketBroadcastGroup group = WebsocketBroadcastGroup.builder()
+		                                                       .slowConsumer(WebsocketBroadcastGroup.SlowConsumer.DISCONNECT)
+		                                                       .build();
+		EmbeddedChannel channel = slowMember(group);
+
+		group.broadcastText("hello");
+
+		assertThat(group.disconnected()).isEqualTo(1);
+		assertThat(channel.isOpen()).isFalse();
+		channel.finishAndReleaseAll();
+	}
+
+	@Test
+	public void slowMembersAreBufferedUpToTheLimit() {
+		WebsocketBroadcastGroup group = WebsocketBroadcastGroup.builder()
+		                                                       .slowConsumer(WebsocketBroadcastGroup.SlowConsumer.BUFFER)
+		                                                       .maxBufferedBytes(150)
+		                                                       .build();
+		EmbeddedChannel channel = slowMember(group);
+
+		group.broadcastText("hello");
+		assertThat(channel.isOpen()).isTrue();
+		assertThat(group.disconnected()).isZero();
+
+		group.broadcastText("hello");
+		assertThat(channel.isOpen()).isFalse();
+		assertThat(group.disconnected()).isEqualTo(1);
+		channel.finishAndReleaseAll();
+	}
+
+	/**
+	 * Add a member whose channel never flushes and is over its high water mark. Each
+	 * pending write accounts for its size plus 96 bytes of overhead.
+	 */
+	static EmbeddedChannel slowMember(WebsocketBroadcastGroup group) {
+		EmbeddedChannel channel = new EmbeddedChannel(new ChannelOutboundHandlerAdapter() {
+			@Override
+			public void flush(ChannelHandlerContext ctx) {
+			}
+		});
+		channel.config()
+		       .setWriteBufferWaterMark(new WriteBufferWaterMark(1, 2));
+		channel.write(Unpooled.buffer(10)
+		                      .writeZero(10));
+		assertThat(channel.isWritable()).isFalse();
+
+		AtomicReference<MonoSink<Void>> sink = new AtomicReference<>();
+		Mono.<Void>create(sink::set).subscribe();
+		WebsocketBroadcastGroup.Members members =
+				group.loops.computeIfAbsent(channel.eventLoop(), loop -> group.new Members(loop));
+		members.add(new WebsocketBroadcastGroup.Member(channel, sink.get()));
+		return channel;
+	}
+}
@@ -30,6 +30,7 @@ import reactor.ipc.netty.NettyContext;
 import reactor.ipc.netty.http.client.HttpClient;
 import reactor.ipc.netty.http.client.HttpClientResponse;
 import reactor.ipc.netty.http.server.HttpServer;
+import reactor.ipc.netty.http.server.HttpServerOptions;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -178,4 +179,25 @@ public class NettyOptionsTest {
 		nettyContext.dispose();
 	}
 
-}
\ No newline at end of file
+
+	@Test
+	public void receiveWaterMarks() {
+		HttpServerOptions options = HttpServerOptions.builder()
+		                                             .receiveWaterMarkMessages(8, 16)
+		                                             .receiveWaterMarkBytes(1024, 4096)
+		                                             .build();
+
+		assertThat(options.receiveLowWaterMarkMessages()).isEqualTo(8);
+		assertThat(options.receiveHighWaterMarkMessages()).isEqualTo(16);
+		assertThat(options.receiveLowWaterMarkBytes()).isEqualTo(1024L);
+		assertThat(options.receiveHighWaterMarkBytes()).isEqualTo(4096L);
+		assertThat(options.asDetailedString()).contains(", receiveWaterMarkMessages=8/16",
+				", receiveWaterMarkBytes=1024/4096");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void receiveLowWaterMarkAboveHighWaterMark() {
+		HttpServerOptions.builder()
+		                 .receiveWaterMarkBytes(4096, 1024);
+	}
+}
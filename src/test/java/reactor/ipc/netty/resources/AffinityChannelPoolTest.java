@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.ipc.netty.resources;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.local.LocalAddress;
+import io.netty.channel.local.LocalChannel;
+import io.netty.channel.local.LocalServerChannel;
+import io.netty.channel.pool.AbstractChannelPoolHandler;
+import io.netty.channel.pool.ChannelHealthChecker;
+import io.netty.util.concurrent.EventExecutor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AffinityChannelPoolTest {
+
+	EventLoopGroup group;
+	Channel        server;
+	EventLoop      loop1;
+	EventLoop      loop2;
+
+	@Before
+	public void before() throws Exception {
+		group = new DefaultEventLoopGroup(2);
+		LocalAddress address = new LocalAddress("affinityChannelPoolTest");
+		server = new ServerBootstrap().group(group)
+		                              .channel(LocalServerChannel.class)
+		                              .childHandler(new ChannelInitializer<Channel>() {
+			                              	@Override
+			                              	protected void initChannel(Channel ch) {
+			                              	}
+			                              })
+		                              .bind(address)
+		                              .sync()
+		                              .channel();
+		Iterator<EventExecutor> loops = group.iterator();
+		loop1 = (EventLoop) loops.next();
+		loop2 = (EventLoop) loops.next();
+	}
+
+	@After
+	public void after() throws Exception {
+		server.close()
+		      .sync();
+		group.shutdownGracefully()
+		     .sync();
+	}
+
+	AffinityChannelPool newPool(int maxConnections) {
+		Bootstrap bootstrap = new Bootstrap().group(group)
+		                                     .channel(LocalChannel.class)
+		                                     .remoteAddress(server.localAddress());
+		return new AffinityChannelPool(bootstrap,
+				new AbstractChannelPoolHandler() {
+					@Override
+					public void channelCreated(Channel ch) {
+					}
+				},
+				ChannelHealthChecker.ACTIVE,
+				maxConnections,
+				-1L);
+	}
+
+	static Channel acquire(AffinityChannelPool pool, EventLoop loop) throws Exception {
+		return loop.submit(() -> pool.acquire())
+		           .get(5, TimeUnit.SECONDS)
+		           .get(5, TimeUnit.SECONDS);
+	}
+
+	static void release(AffinityChannelPool pool, Channel ch) throws Exception {
+		pool.release(ch)
+		    .get(5, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void acquireFromEventLoopPrefersLocalChannel() throws Exception {
+		AffinityChannelPool pool = newPool(-1);
+		try {
+			Channel ch1 = acquire(pool, loop1);
+			Channel ch2 = acquire(pool, loop2);
+			assertThat(ch1.eventLoop()).isSameAs(loop1);
+			assertThat(ch2.eventLoop()).isSameAs(loop2);
+
+			release(pool, ch1);
+			release(pool, ch2);
+
+			assertThat(acquire(pool, loop2)).isSameAs(ch2);
+			assertThat(acquire(pool, loop1)).isSameAs(ch1);
+		}
+		finally {
+			pool.close();
+		}
+	}
+
+	@Test
+	public void acquireStealsIdleChannelFromOtherEventLoop() throws Exception {
+		AffinityChannelPool pool = newPool(-1);
+		try {
+			Channel ch1 = acquire(pool, loop1);
+			release(pool, ch1);
+
+			Channel stolen = acquire(pool, loop2);
+			assertThat(stolen).isSameAs(ch1);
+			release(pool, stolen);
+
+			assertThat(pool.shard(loop1)
+			               .pollIdle()).isSameAs(ch1);
+		}
+		finally {
+			pool.close();
+		}
+	}
+
+	@Test
+	public void maxConnectionsAreDividedBetweenEventLoops() throws Exception {
+		AffinityChannelPool pool = newPool(3);
+		try {
+			assertThat(pool.maxConnections).isEqualTo(2);
+			assertThat(pool.shard(loop1)).isInstanceOf(AffinityChannelPool.FixedShard.class);
+
+			Channel ch1 = acquire(pool, loop1);
+			assertThat(ch1.eventLoop()).isSameAs(loop1);
+			release(pool, ch1);
+		}
+		finally {
+			pool.close();
+		}
+	}
+
+	@Test
+	public void builderCreatesAffinityPools() {
+		PoolResources resources = PoolResources.builder("test")
+		                                       .eventLoopAffinity(true)
+		                                       .build();
+		DefaultPoolResources.Pool pool = (DefaultPoolResources.Pool)
+				resources.selectOrCreate(server.localAddress(),
+						() -> new Bootstrap().group(group)
+						                     .channel(LocalChannel.class),
+						null,
+						group);
+		try {
+			assertThat(pool.pool).isInstanceOf(AffinityChannelPool.class);
+		}
+		finally {
+			resources.dispose();
+		}
+	}
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.ipc.netty.resources;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.DatagramChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import org.junit.Assume;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DefaultLoopNativeDetectorTest {
+
+	static final DefaultLoop MISSING = DefaultLoopReflective.ioUring();
+	static final DefaultLoop AVAILABLE = new DefaultLoopReflective("fake",
+			"reactor.ipc.netty.resources", "DefaultLoopNativeDetectorTest$Fake");
+
+	@Test
+	public void missingTransportIsUnavailable() {
+		DefaultLoop kqueue = new DefaultLoopReflective("kqueue",
+				"io.netty.channel.missing", "KQueue");
+
+		assertThat(kqueue.isAvailable()).isFalse();
+		assertThat(kqueue.unavailabilityCause()).hasMessageContaining("not on the classpath");
+		assertThat(kqueue.supportGroup(new NioEventLoopGroup(1))).isFalse();
+	}
+
+	@Test
+	public void reflectiveTransportIsLoaded() throws Exception {
+		assertThat(AVAILABLE.isAvailable()).isTrue();
+		assertThat(AVAILABLE.getServerChannel()).isEqualTo(FakeServerSocketChannel.class);
+		assertThat(AVAILABLE.getChannel()).isEqualTo(FakeSocketChannel.class);
+		assertThat(AVAILABLE.getDatagramChannel()).isEqualTo(FakeDatagramChannel.class);
+
+		EventLoopGroup group = AVAILABLE.newEventLoopGroup(1, Thread::new);
+		try {
+			assertThat(group).isInstanceOf(FakeEventLoopGroup.class);
+			assertThat(AVAILABLE.supportGroup(group)).isTrue();
+			assertThat(DefaultLoopNativeDetector.select("fake", Arrays.asList(MISSING, AVAILABLE)))
+					.isSameAs(AVAILABLE);
+		}
+		finally {
+			group.shutdownGracefully()
+			     .sync();
+		}
+	}
+
+	@Test
+	public void firstAvailableTransportIsSelected() {
+		List<DefaultLoop> transports = Arrays.asList(MISSING, new DefaultLoopEpoll());
+		Assume.assumeTrue(Epoll.isAvailable());
+
+		assertThat(DefaultLoopNativeDetector.select("auto", transports)
+		                                    .getName()).isEqualTo("epoll");
+		assertThat(DefaultLoopNativeDetector.select("io_uring", transports)
+		                                    .getName()).isEqualTo("epoll");
+		assertThat(DefaultLoopNativeDetector.select("unknown", transports)
+		                                    .getName()).isEqualTo("epoll");
+	}
+
+	@Test
+	public void nioIsSelectedWhenRequestedOrWhenNoneIsAvailable() {
+		assertThat(DefaultLoopNativeDetector.select("NIO", Arrays.asList(new DefaultLoopEpoll())))
+				.isSameAs(DefaultLoopNIO.INSTANCE);
+		assertThat(DefaultLoopNativeDetector.select("auto", Arrays.asList(MISSING)))
+				.isSameAs(DefaultLoopNIO.INSTANCE);
+	}
+
+	@Test
+	public void channelsMatchTheGroupTransport() throws Exception {
+		EventLoopGroup nio = new NioEventLoopGroup(1);
+		try {
+			assertThat(DefaultLoopNativeDetector.getChannel(nio)).isEqualTo(NioSocketChannel.class);
+			assertThat(DefaultLoopNativeDetector.getChannel(LoopResources.colocate(nio)))
+					.isEqualTo(NioSocketChannel.class);
+		}
+		finally {
+			nio.shutdownGracefully()
+			   .sync();
+		}
+
+		Assume.assumeTrue(Epoll.isAvailable());
+		EventLoopGroup epoll = new EpollEventLoopGroup(1);
+		try {
+			assertThat(DefaultLoopNativeDetector.getChannel(LoopResources.colocate(epoll)))
+					.isEqualTo(EpollSocketChannel.class);
+		}
+		finally {
+			epoll.shutdownGracefully()
+			     .sync();
+		}
+	}
+
+	public static final class Fake {
+
+		public static boolean isAvailable() {
+			return true;
+		}
+
+		public static Throwable unavailabilityCause() {
+			return null;
+		}
+	}
+
+	public static final class FakeEventLoopGroup extends NioEventLoopGroup {
+
+		public FakeEventLoopGroup(int threads, ThreadFactory factory) {
+			super(threads, factory);
+		}
+	}
+
+	public static final class FakeServerSocketChannel extends NioServerSocketChannel {
+	}
+
+	public static final class FakeSocketChannel extends NioSocketChannel {
+	}
+
+	public abstract static class FakeDatagramChannel implements DatagramChannel {
+	}
+}
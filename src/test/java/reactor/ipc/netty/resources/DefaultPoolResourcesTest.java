@@ -16,12 +16,26 @@
 package reactor.ipc.netty.resources;
 
 import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
 import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.local.LocalAddress;
+import io.netty.channel.local.LocalChannel;
+import io.netty.channel.local.LocalServerChannel;
 import io.netty.channel.pool.ChannelPool;
+import io.netty.channel.pool.FixedChannelPool;
+import io.netty.channel.pool.SimpleChannelPool;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.Promise;
 import org.junit.Before;
@@ -29,6 +43,7 @@ import org.junit.Test;
 import reactor.core.publisher.Mono;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
 public class DefaultPoolResourcesTest {
 
@@ -112,4 +127,254 @@ public class DefaultPoolResourcesTest {
 		assertThat(closed.get()).as("pool closed only once").isEqualTo(1);
 	}
 
-}
\ No newline at end of file
+	@Test
+	public void multiplexedPoolIsSharedAndClosedOnDispose() {
+		DefaultPoolResources poolResources = new DefaultPoolResources("test",
+				(b, handler, checker) -> channelPool);
+		SocketAddress address = InetSocketAddress.createUnresolved("localhost", 80);
+
+		ChannelPool pool = poolResources.selectOrCreateMultiplexed("h2", address, () -> channelPool);
+		assertThat(pool).isSameAs(channelPool);
+		assertThat(poolResources.selectOrCreateMultiplexed("h2", address, () -> {
+			throw new AssertionError("pool created twice");
+		})).isSameAs(channelPool);
+		assertThat(poolResources.isDisposed()).isFalse();
+
+		poolResources.dispose();
+		assertThat(closed.get()).as("multiplexed pool closed by dispose()").isEqualTo(1);
+		assertThat(poolResources.isDisposed()).isTrue();
+	}
+
+	@Test
+	public void idleChannelIsEvictedOnAcquire() throws Exception {
+		withLocalServer(bootstrap -> {
+			DefaultPoolResources.Pool pool = new DefaultPoolResources.Pool(bootstrap,
+					SimpleChannelPool::new,
+					null,
+					bootstrap.config().group(),
+					TimeUnit.MILLISECONDS.toNanos(50),
+					-1L,
+					0L);
+			try {
+				Channel ch = pool.acquire().get(5, TimeUnit.SECONDS);
+				pool.release(ch).get(5, TimeUnit.SECONDS);
+
+				Thread.sleep(100);
+
+				Channel ch2 = pool.acquire().get(5, TimeUnit.SECONDS);
+				assertThat(ch2).isNotSameAs(ch);
+				assertThat(ch.closeFuture().await(5, TimeUnit.SECONDS)).isTrue();
+				assertThat(pool.evictedConnections.sum()).isEqualTo(1);
+				assertThat(pool.expiredConnections.sum()).isEqualTo(0);
+			}
+			finally {
+				pool.close();
+			}
+		});
+	}
+
+	@Test
+	public void expiredChannelIsClosedOnRelease() throws Exception {
+		withLocalServer(bootstrap -> {
+			DefaultPoolResources.Pool pool = new DefaultPoolResources.Pool(bootstrap,
+					SimpleChannelPool::new,
+					null,
+					bootstrap.config().group(),
+					-1L,
+					TimeUnit.MILLISECONDS.toNanos(50),
+					0L);
+			try {
+				Channel ch = pool.acquire().get(5, TimeUnit.SECONDS);
+				Thread.sleep(100);
+				pool.release(ch).get(5, TimeUnit.SECONDS);
+
+				assertThat(ch.closeFuture().await(5, TimeUnit.SECONDS)).isTrue();
+				assertThat(pool.expiredConnections.sum()).isEqualTo(1);
+				assertThat(pool.acquire().get(5, TimeUnit.SECONDS)).isNotSameAs(ch);
+			}
+			finally {
+				pool.close();
+			}
+		});
+	}
+
+	@Test
+	public void idleChannelIsEvictedInBackground() throws Exception {
+		withLocalServer(bootstrap -> {
+			DefaultPoolResources.Pool pool = new DefaultPoolResources.Pool(bootstrap,
+					SimpleChannelPool::new,
+					null,
+					bootstrap.config().group(),
+					TimeUnit.MILLISECONDS.toNanos(50),
+					-1L,
+					20L);
+			try {
+				Channel ch = pool.acquire().get(5, TimeUnit.SECONDS);
+				pool.release(ch).get(5, TimeUnit.SECONDS);
+
+				assertThat(ch.closeFuture().await(5, TimeUnit.SECONDS)).isTrue();
+				assertThat(pool.evictedConnections.sum()).isEqualTo(1);
+				assertThat(pool.idleChannels).isEmpty();
+			}
+			finally {
+				pool.close();
+			}
+		});
+	}
+
+	@Test
+	public void builderRejectsInvalidEvictionSettings() {
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> PoolResources.builder("test").maxIdleTime(0));
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> PoolResources.builder("test").maxLifeTime(-2));
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> PoolResources.builder("test").evictionInterval(-1));
+	}
+
+	@Test
+	public void metricsTrackConnectionLifecycle() throws Exception {
+		withLocalServer(bootstrap -> {
+			DefaultPoolResources.Pool pool = new DefaultPoolResources.Pool(bootstrap,
+					SimpleChannelPool::new,
+					null,
+					bootstrap.config().group());
+			try {
+				Channel ch = pool.acquire().get(5, TimeUnit.SECONDS);
+				drain(bootstrap);
+				assertThat(pool.activeConnections()).isEqualTo(1);
+				assertThat(pool.idleConnections()).isEqualTo(0);
+				assertThat(pool.createdConnections()).isEqualTo(1);
+				assertThat(pool.pendingAcquires()).isEqualTo(0);
+				assertThat(pool.acquireCount()).isEqualTo(1);
+
+				pool.release(ch).get(5, TimeUnit.SECONDS);
+				assertThat(pool.activeConnections()).isEqualTo(0);
+				assertThat(pool.idleConnections()).isEqualTo(1);
+
+				assertThat(pool.acquire().get(5, TimeUnit.SECONDS)).isSameAs(ch);
+				drain(bootstrap);
+				assertThat(pool.activeConnections()).isEqualTo(1);
+				assertThat(pool.idleConnections()).isEqualTo(0);
+				assertThat(pool.createdConnections()).isEqualTo(1);
+				assertThat(pool.acquireCount()).isEqualTo(2);
+				assertThat(pool.acquireTimePercentile(1d)).isEqualTo(pool.acquireMaxTime());
+
+				pool.release(ch).get(5, TimeUnit.SECONDS);
+				ch.close().get(5, TimeUnit.SECONDS);
+				drain(bootstrap);
+				assertThat(pool.idleConnections()).isEqualTo(0);
+				assertThat(pool.closedConnections()).isEqualTo(1);
+			}
+			finally {
+				pool.close();
+			}
+		});
+	}
+
+	@Test
+	public void metricsCountAcquireTimeouts() throws Exception {
+		withLocalServer(bootstrap -> {
+			DefaultPoolResources.Pool pool = new DefaultPoolResources.Pool(bootstrap,
+					(b, handler, checker) -> new FixedChannelPool(b,
+							handler,
+							checker,
+							FixedChannelPool.AcquireTimeoutAction.FAIL,
+							50,
+							1,
+							Integer.MAX_VALUE),
+					null,
+					bootstrap.config().group());
+			try {
+				pool.acquire().get(5, TimeUnit.SECONDS);
+				Future<Channel> pending = pool.acquire();
+				drain(bootstrap);
+				assertThat(pool.pendingAcquires()).isEqualTo(1);
+
+				assertThatExceptionOfType(ExecutionException.class)
+						.isThrownBy(() -> pending.get(5, TimeUnit.SECONDS))
+						.withCauseInstanceOf(TimeoutException.class);
+				drain(bootstrap);
+				assertThat(pool.pendingAcquires()).isEqualTo(0);
+				assertThat(pool.acquireTimeouts()).isEqualTo(1);
+				assertThat(pool.acquireCount()).isEqualTo(2);
+				assertThat(pool.acquireMaxTime()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+			}
+			finally {
+				pool.close();
+			}
+		});
+	}
+
+	@Test
+	public void metricsAreRegisteredPerRemoteAddress() throws Exception {
+		withLocalServer(bootstrap -> {
+			AtomicReference<PoolMetrics> registered = new AtomicReference<>();
+			AtomicReference<SocketAddress> address = new AtomicReference<>();
+			PoolResources resources =
+					PoolResources.builder("test")
+					             .metrics((name, remote, metrics) -> {
+						             assertThat(name).isEqualTo("test");
+						             address.set(remote);
+						             registered.set(metrics);
+					             })
+					             .build();
+			try {
+				SocketAddress remote = bootstrap.config().remoteAddress();
+				ChannelPool pool = resources.selectOrCreate(remote,
+						() -> bootstrap,
+						null,
+						bootstrap.config().group());
+
+				assertThat(registered.get()).isSameAs(pool);
+				assertThat(address.get()).isEqualTo(remote);
+				assertThat(resources.metrics()).containsOnlyKeys(remote);
+				assertThat(resources.metrics().get(remote)).isSameAs(pool);
+				assertThat(PoolResources.elastic("none").metrics()).isEmpty();
+			}
+			finally {
+				resources.dispose();
+			}
+		});
+	}
+
+	static void drain(Bootstrap bootstrap) throws Exception {
+		//pool listeners run on the single test event loop
+		bootstrap.config()
+		         .group()
+		         .submit(() -> {})
+		         .get(5, TimeUnit.SECONDS);
+	}
+
+	interface LocalServerTest {
+
+		void run(Bootstrap bootstrap) throws Exception;
+	}
+
+	static void withLocalServer(LocalServerTest test) throws Exception {
+		EventLoopGroup group = new DefaultEventLoopGroup(1);
+		Channel server = new ServerBootstrap().group(group)
+		                                      .channel(LocalServerChannel.class)
+		                                      .childHandler(new ChannelInitializer<Channel>() {
+			                                      @Override
+			                                      protected void initChannel(Channel ch) {
+			                                      }
+		                                      })
+		                                      .bind(new LocalAddress("defaultPoolResourcesTest"))
+		                                      .sync()
+		                                      .channel();
+		try {
+			test.run(new Bootstrap().group(group)
+			                        .channel(LocalChannel.class)
+			                        .remoteAddress(server.localAddress())
+			                        .handler(new ChannelInboundHandlerAdapter()));
+		}
+		finally {
+			server.close()
+			      .sync();
+			group.shutdownGracefully()
+			     .sync();
+		}
+	}
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.ipc.netty.resources;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.within;
+
+public class LatencyHistogramTest {
+
+	@Test
+	public void bucketsCoverValuesWithBoundedError() {
+		for (long value = 1; value < LatencyHistogram.MAX_VALUE; value = value * 3 + 1) {
+			int index = LatencyHistogram.indexOf(value);
+			long highest = LatencyHistogram.highestValueOf(index);
+			assertThat(highest).isGreaterThanOrEqualTo(value);
+			assertThat((double) (highest - value) / value).isLessThan(1d / LatencyHistogram.SUB_BUCKETS);
+		}
+		assertThat(LatencyHistogram.indexOf(Long.MAX_VALUE))
+				.isEqualTo(LatencyHistogram.indexOf(LatencyHistogram.MAX_VALUE))
+				.isEqualTo(new LatencyHistogram().buckets.length() - 1);
+	}
+
+	@Test
+	public void percentilesAreComputedFromRecordedValues() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertThat(histogram.percentile(0.99d)).isEqualTo(0L);
+
+		for (int i = 1; i <= 1000; i++) {
+			histogram.record(i * 1000L);
+		}
+
+		assertThat(histogram.count()).isEqualTo(1000);
+		assertThat(histogram.totalTime()).isEqualTo(500500000L);
+		assertThat(histogram.maxTime()).isEqualTo(1000000L);
+		assertThat((double) histogram.percentile(0.5d)).isCloseTo(500000d, within(500000d * 0.04d));
+		assertThat((double) histogram.percentile(0.99d)).isCloseTo(990000d, within(990000d * 0.04d));
+		assertThat(histogram.percentile(1d)).isEqualTo(1000000L);
+	}
+
+	@Test
+	public void invalidPercentileIsRejected() {
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> new LatencyHistogram().percentile(1.5d));
+	}
+}
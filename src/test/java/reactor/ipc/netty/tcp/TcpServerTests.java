@@ -33,6 +33,8 @@ import java.nio.file.StandardCopyOption;
 import java.security.cert.CertificateException;
 import java.time.Duration;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -48,6 +50,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import io.netty.channel.epoll.Epoll;
 import io.netty.handler.codec.LineBasedFrameDecoder;
 import io.netty.handler.codec.json.JsonObjectDecoder;
 import io.netty.handler.ssl.SslContext;
@@ -58,6 +61,7 @@ import io.netty.util.NetUtil;
 
 import org.assertj.core.api.Assertions;
 import org.junit.After;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -75,6 +79,7 @@ import reactor.ipc.netty.NettyInbound;
 import reactor.ipc.netty.NettyOutbound;
 import reactor.ipc.netty.NettyPipeline;
 import reactor.ipc.netty.SocketUtils;
+import reactor.ipc.netty.channel.ReusePortNettyContext;
 import reactor.ipc.netty.http.client.HttpClient;
 import reactor.ipc.netty.http.server.HttpServer;
 import reactor.util.Logger;
@@ -801,6 +806,75 @@ public class TcpServerTests {
 		}
 	}
 
+	@Test
+	public void acceptorsBindReusePortSockets() throws Exception {
+		Assume.assumeTrue(Epoll.isAvailable());
+		Set<String> threads = ConcurrentHashMap.newKeySet();
+
+		NettyContext server =
+				TcpServer.create(o -> o.port(0)
+				                       .acceptors(4))
+				         .newHandler((in, out) -> {
+				             threads.add(Thread.currentThread()
+				                               .getName());
+				             return out.sendString(Mono.just("ok"));
+				         })
+				         .block(Duration.ofSeconds(30));
+
+		try {
+			Assertions.assertThat(server).isInstanceOf(ReusePortNettyContext.class);
+			List<NettyContext> contexts = ((ReusePortNettyContext) server).contexts();
+			Assertions.assertThat(contexts).hasSize(4);
+			Assertions.assertThat(contexts.stream()
+			                              .map(c -> c.address()
+			                                         .getPort())
+			                              .distinct())
+			          .containsExactly(server.address()
+			                                 .getPort());
+			Assertions.assertThat(contexts.stream()
+			                              .map(c -> c.channel()
+			                                         .eventLoop())
+			                              .distinct()
+			                              .count()).isEqualTo(4);
+
+			for (int i = 0; i < 32; i++) {
+				try (java.net.Socket socket = new java.net.Socket(NetUtil.LOCALHOST,
+						server.address()
+						      .getPort())) {
+					Assertions.assertThat(socket.getInputStream()
+					                            .read()).isEqualTo('o');
+				}
+			}
+			//the kernel spreads connections across the listening sockets
+			Assertions.assertThat(threads.size()).isGreaterThan(1);
+		}
+		finally {
+			server.dispose();
+		}
+
+		server.onClose()
+		      .block(Duration.ofSeconds(30));
+		Assertions.assertThat(server.isDisposed()).isTrue();
+	}
+
+	@Test
+	public void acceptorsFallBackToSingleSocketWithoutEpoll() {
+		NettyContext server =
+				TcpServer.create(o -> o.port(0)
+				                       .preferNative(false)
+				                       .acceptors(4))
+				         .newHandler((in, out) -> out.sendString(Mono.just("ok")))
+				         .block(Duration.ofSeconds(30));
+		try {
+			Assertions.assertThat(server).isNotInstanceOf(ReusePortNettyContext.class);
+			Assertions.assertThat(server.address()
+			                            .getPort()).isPositive();
+		}
+		finally {
+			server.dispose();
+		}
+	}
+
 	public static class Pojo {
 
 		private String name;
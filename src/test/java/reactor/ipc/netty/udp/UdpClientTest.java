@@ -22,14 +22,23 @@ import io.netty.channel.socket.DatagramPacket;
 import io.netty.util.CharsetUtil;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.junit.Assert.assertTrue;
 
+import java.net.InetSocketAddress;
 import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.junit.Test;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.ipc.netty.NettyContext;
 import reactor.ipc.netty.resources.LoopResources;
@@ -92,6 +101,128 @@ public class UdpClientTest {
 		client2.dispose();
 	}
 
+	@Test
+	public void datagramsAreSentAndReceivedInBatches() throws Exception {
+		int batches = 4;
+		int batchSize = 50;
+		CountDownLatch latch = new CountDownLatch(batches * batchSize);
+		AtomicInteger maxBatch = new AtomicInteger();
+		Queue<List<DatagramPacket>> received = new ConcurrentLinkedQueue<>();
+		LoopResources resources = LoopResources.create("test");
+		NettyContext server =
+				UdpServer.builder()
+				         .options(ops -> ops.port(0)
+				                            .loopResources(resources)
+				                            .batchSize(32))
+				         .build()
+				         .newHandler((in, out) -> {
+				             in.receiveBatches()
+				               .subscribe(batch -> {
+				                   maxBatch.accumulateAndGet(batch.size(), Math::max);
+				                   batch.forEach(DatagramPacket::retain);
+				                   received.add(batch);
+				                   batch.forEach(p -> latch.countDown());
+				               });
+				             return Flux.never();
+				         })
+				         .block(Duration.ofSeconds(30));
+
+		InetSocketAddress address = server.address();
+		NettyContext client =
+				UdpClient.create(ops -> ops.port(address.getPort())
+				                           .loopResources(resources))
+				         .newHandler((in, out) -> out.sendBatches(
+				                 Flux.range(0, batches)
+				                     .map(b -> IntStream.range(0, batchSize)
+				                                        .mapToObj(i -> new DatagramPacket(
+						                                        Unpooled.copiedBuffer("packet " + i, CharsetUtil.UTF_8),
+						                                        address))
+				                                        .collect(Collectors.toList())))
+				                                     .neverComplete())
+				         .block(Duration.ofSeconds(30));
+
+		assertTrue(latch.await(30, TimeUnit.SECONDS));
+		assertThat(maxBatch.get()).isBetween(2, 32);
+		assertThat(received.stream()
+		                   .mapToInt(List::size)
+		                   .sum()).isEqualTo(batches * batchSize);
+		for (List<DatagramPacket> batch : received) {
+			for (DatagramPacket packet : batch) {
+				assertThat(packet.content()
+				                 .toString(CharsetUtil.UTF_8)).startsWith("packet ");
+				packet.release();
+			}
+		}
+		server.dispose();
+		client.dispose();
+		resources.dispose();
+	}
+
+	@Test
+	public void batchedDatagramsAreReceivedIndividually() throws Exception {
+		int count = 50;
+		CountDownLatch latch = new CountDownLatch(count);
+		LoopResources resources = LoopResources.create("test");
+		NettyContext server =
+				UdpServer.builder()
+				         .options(ops -> ops.port(0)
+				                            .loopResources(resources)
+				                            .batchSize(32))
+				         .build()
+				         .newHandler((in, out) -> {
+				             in.receive()
+				               .asString()
+				               .filter(s -> s.startsWith("packet "))
+				               .subscribe(s -> latch.countDown());
+				             return Flux.never();
+				         })
+				         .block(Duration.ofSeconds(30));
+
+		InetSocketAddress address = server.address();
+		NettyContext client =
+				UdpClient.create(ops -> ops.port(address.getPort())
+				                           .loopResources(resources))
+				         .newHandler((in, out) -> out.sendBatches(
+				                 Flux.just(IntStream.range(0, count)
+				                                    .mapToObj(i -> new DatagramPacket(
+						                                    Unpooled.copiedBuffer("packet " + i, CharsetUtil.UTF_8),
+						                                    address))
+				                                    .collect(Collectors.toList())))
+				                                     .neverComplete())
+				         .block(Duration.ofSeconds(30));
+
+		assertTrue(latch.await(30, TimeUnit.SECONDS));
+		server.dispose();
+		client.dispose();
+		resources.dispose();
+	}
+
+	@Test
+	public void batchOptionsAreValidated() {
+		LoopResources resources = LoopResources.create("test");
+		assertThat(UdpServerOptions.builder()
+		                           .loopResources(resources)
+		                           .batchSize(16)
+		                           .maxDatagramSize(512)
+		                           .build()
+		                           .duplicate()
+		                           .asDetailedString()).endsWith(", batchSize=16, maxDatagramSize=512, sockets=1");
+		UdpClientOptions clientOptions = UdpClientOptions.builder()
+		                                                 .loopResources(resources)
+		                                                 .batchSize(8)
+		                                                 .maxDatagramSize(1024)
+		                                                 .build();
+		UdpClientOptions copy = UdpClientOptions.builder()
+		                                        .from(clientOptions)
+		                                        .build();
+		assertThat(copy.batchSize()).isEqualTo(8);
+		assertThat(copy.maxDatagramSize()).isEqualTo(1024);
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> UdpClientOptions.builder()
+				                                  .maxDatagramSize(65536));
+		resources.dispose();
+	}
+
 	@Test
 	public void testIssue192() {
 		UdpServer.Builder serverBuilder = UdpServer.builder();
@@ -30,16 +30,22 @@ import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Enumeration;
+import java.util.List;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import io.netty.channel.ChannelOption;
+import io.netty.channel.epoll.Epoll;
 import io.netty.channel.socket.InternetProtocolFamily;
 import io.netty.util.NetUtil;
+import org.assertj.core.api.Assertions;
 import org.junit.After;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -47,6 +53,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.scheduler.Schedulers;
 import reactor.ipc.netty.NettyContext;
 import reactor.ipc.netty.SocketUtils;
+import reactor.ipc.netty.channel.ReusePortNettyContext;
 import reactor.ipc.netty.resources.LoopResources;
 import reactor.util.Logger;
 import reactor.util.Loggers;
@@ -201,6 +208,78 @@ public class UdpServerTests {
 		}
 	}
 
+	@Test
+	public void socketsBindReusePortDatagramChannels() throws Exception {
+		Assume.assumeTrue(Epoll.isAvailable());
+		LoopResources resources = LoopResources.create("test", 4, true);
+		Set<String> threads = ConcurrentHashMap.newKeySet();
+		CountDownLatch latch = new CountDownLatch(32);
+
+		NettyContext server =
+				UdpServer.builder()
+				         .options(o -> o.host("127.0.0.1")
+				                        .port(0)
+				                        .sockets(4)
+				                        .loopResources(resources))
+				         .build()
+				         .newHandler((in, out) -> {
+				             in.receive()
+				               .subscribe(b -> {
+				                   threads.add(Thread.currentThread()
+				                                     .getName());
+				                   latch.countDown();
+				               });
+				             return Flux.never();
+				         })
+				         .block(Duration.ofSeconds(30));
+
+		try {
+			Assertions.assertThat(server).isInstanceOf(ReusePortNettyContext.class);
+			List<NettyContext> contexts = ((ReusePortNettyContext) server).contexts();
+			Assertions.assertThat(contexts).hasSize(4);
+			Assertions.assertThat(contexts.stream()
+			                              .map(c -> c.address()
+			                                         .getPort())
+			                              .distinct())
+			          .containsExactly(server.address()
+			                                 .getPort());
+			Assertions.assertThat(contexts.stream()
+			                              .map(c -> c.channel()
+			                                         .eventLoop())
+			                              .distinct()
+			                              .count()).isEqualTo(4);
+
+			//the kernel spreads datagrams across the sockets by source address
+			for (int i = 0; i < 32; i++) {
+				try (java.net.DatagramSocket client = new java.net.DatagramSocket()) {
+					client.send(new DatagramPacket(new byte[]{1}, 1, server.address()));
+				}
+			}
+			Assertions.assertThat(latch.await(30, TimeUnit.SECONDS)).isTrue();
+			Assertions.assertThat(threads.size()).isGreaterThan(1);
+		}
+		finally {
+			server.dispose();
+			resources.dispose();
+		}
+	}
+
+	@Test
+	public void socketsFallBackToSingleSocketWithoutEpoll() {
+		UdpServerOptions options = UdpServerOptions.builder()
+		                                           .sockets(4)
+		                                           .preferNative(false)
+		                                           .loopResources(LoopResources.create("test"))
+		                                           .build();
+
+		Assertions.assertThat(options.sockets()).isEqualTo(4);
+		Assertions.assertThat(options.getSockets()).hasSize(1);
+		Assertions.assertThat(options.asDetailedString()).endsWith(", sockets=4");
+		Assertions.assertThatThrownBy(() -> UdpServerOptions.builder()
+		                                                    .sockets(0))
+		          .isInstanceOf(IllegalArgumentException.class);
+	}
+
 	private boolean isMulticastEnabledIPv4Interface(NetworkInterface iface) {
 		try {
 			if (!iface.supportsMulticast() || !iface.isUp()) {